@@ -150,14 +150,17 @@ function App() {
     abortControllerRef.current = new AbortController();
     const { signal } = abortControllerRef.current;
 
+    const jobId = crypto.randomUUID();
+    wsService.subscribe(jobId);
+
     const hideLoading = message.loading('Calculating optimal delivery paths...', 0);
 
     try {
       await new Promise(resolve => setTimeout(resolve, 100));
 
       const [geoJson, detailedResult] = await Promise.all([
-        calculateDeliveryPathAsGeoJson(orders, signal),
-        calculateDeliveryPath(orders, signal)
+        calculateDeliveryPathAsGeoJson(orders, signal, jobId),
+        calculateDeliveryPath(orders, signal, jobId)
       ]);
 
       if (signal.aborted) {
@@ -184,6 +187,7 @@ function App() {
       console.error('Calculation failed:', error);
       message.error('Failed to calculate path. Please check your orders and try again.');
     } finally {
+      wsService.unsubscribe(jobId);
       setIsCalculating(false);
       abortControllerRef.current = null;
     }
@@ -35,13 +35,19 @@ export const getInitData = async (): Promise<InitData> => {
   }
 };
 
+// Progress for a tagged request is only streamed to sessions subscribed to its job id
+const jobIdHeaders = (jobId?: string): Record<string, string> =>
+  jobId ? { 'X-Job-Id': jobId } : {};
+
 export const calculateDeliveryPath = async (
   orders: MedDispatchRec[],
-  signal?: AbortSignal
+  signal?: AbortSignal,
+  jobId?: string
 ): Promise<DeliveryPathResponse> => {
   try {
     const config: AxiosRequestConfig = {
       signal,
+      headers: jobIdHeaders(jobId),
     };
 
     const response = await api.post('/calcDeliveryPath', orders, config);
@@ -58,11 +64,13 @@ export const calculateDeliveryPath = async (
 
 export const calculateDeliveryPathAsGeoJson = async (
   orders: MedDispatchRec[],
-  signal?: AbortSignal
+  signal?: AbortSignal,
+  jobId?: string
 ): Promise<any> => {
   try {
     const config: AxiosRequestConfig = {
       signal,
+      headers: jobIdHeaders(jobId),
     };
 
     const response = await api.post('/calcDeliveryPathAsGeoJson', orders, config);
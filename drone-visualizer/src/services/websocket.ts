@@ -5,6 +5,60 @@ const WS_BASE =
   import.meta.env.VITE_WS_BASE ||
   (typeof window !== 'undefined' ? window.location.origin : '');
 
+// Opt-in: plain WebSocket with batched binary node_explored frames instead of SockJS JSON
+const WS_BINARY = import.meta.env.VITE_WS_BINARY === 'true';
+
+// Must match NodeFrameCodec on the backend
+export const PROGRESS_BINARY_PROTOCOL = 'ilp-progress.v1+binary';
+const NODE_BATCH = 1;
+const FRAME_VERSION = 1;
+const FIXED_POINT_SCALE = 1e7;
+
+/**
+ * Decodes a binary node frame: a 4-byte header (type, version, big-endian u16 count)
+ * followed by zigzag varint deltas of fixed-point lng, lat and totalNodes per node.
+ */
+export function decodeNodeFrame(buffer: ArrayBuffer): PathfindingProgress[] {
+  const bytes = new Uint8Array(buffer);
+  const view = new DataView(buffer);
+  if (bytes[0] !== NODE_BATCH || bytes[1] !== FRAME_VERSION) {
+    throw new Error(`Unsupported frame type ${bytes[0]} version ${bytes[1]}`);
+  }
+  const count = view.getUint16(2);
+
+  let offset = 4;
+  // Arithmetic rather than bitwise ops: zigzag values can exceed 32 bits
+  const readZigZag = (): number => {
+    let value = 0;
+    let scale = 1;
+    let byte: number;
+    do {
+      byte = bytes[offset++];
+      value += (byte & 0x7f) * scale;
+      scale *= 128;
+    } while (byte & 0x80);
+    return value % 2 === 0 ? value / 2 : -(value + 1) / 2;
+  };
+
+  const nodes: PathfindingProgress[] = [];
+  let lng = 0;
+  let lat = 0;
+  let totalNodes = 0;
+  for (let i = 0; i < count; i++) {
+    lng += readZigZag();
+    lat += readZigZag();
+    totalNodes += readZigZag();
+    const position = { lng: lng / FIXED_POINT_SCALE, lat: lat / FIXED_POINT_SCALE };
+    nodes.push({
+      type: 'node_explored',
+      position,
+      totalNodes,
+      message: `Exploring node at (${position.lng}, ${position.lat})`,
+    });
+  }
+  return nodes;
+}
+
 export class WebSocketService {
   private socket: WebSocket | null = null;
   private reconnectAttempts = 0;
@@ -12,6 +66,7 @@ export class WebSocketService {
   private reconnectDelay = 2000;
   private messageHandlers: Set<(message: PathfindingProgress) => void> = new Set();
   private connectionHandlers: Set<(connected: boolean) => void> = new Set();
+  private jobs: Set<string> = new Set();
 
   connect(): void {
     if (this.socket?.readyState === WebSocket.OPEN) {
@@ -22,8 +77,14 @@ export class WebSocketService {
     try {
       console.log('🔌 Connecting to WebSocket...');
 
-      const sockjs = new SockJS(`${WS_BASE}/ws/pathfinding-progress`);
-      this.socket = sockjs as any;
+      if (WS_BINARY) {
+        const url = `${WS_BASE.replace(/^http/, 'ws')}/ws/pathfinding-progress`;
+        this.socket = new WebSocket(url, [PROGRESS_BINARY_PROTOCOL]);
+        this.socket.binaryType = 'arraybuffer';
+      } else {
+        const sockjs = new SockJS(`${WS_BASE}/ws/pathfinding-progress`);
+        this.socket = sockjs as any;
+      }
 
       if (!this.socket) {
         console.error('❌ SockJS failed to create socket');
@@ -34,10 +95,20 @@ export class WebSocketService {
       this.socket.onopen = () => {
         console.log('✅ WebSocket connected');
         this.reconnectAttempts = 0;
+        // Subscriptions belong to the server-side session, so renew them after a reconnect
+        this.jobs.forEach((jobId) => this.sendSubscription('subscribe', jobId));
         this.notifyConnectionHandlers(true);
       };
 
       this.socket.onmessage = (event) => {
+        if (event.data instanceof ArrayBuffer) {
+          try {
+            decodeNodeFrame(event.data).forEach((node) => this.notifyMessageHandlers(node));
+          } catch (error) {
+            console.error('❌ Failed to decode node frame:', error);
+          }
+          return;
+        }
         try {
           const progress: PathfindingProgress = JSON.parse(event.data);
           console.log('📨 Received:', progress.type, progress.message);
@@ -84,6 +155,27 @@ export class WebSocketService {
     setTimeout(() => this.connect(), delay);
   }
 
+  /**
+   * Receive progress only for the given planning job (sent as X-Job-Id) from now on.
+   * A session with no subscriptions receives untagged progress instead.
+   */
+  subscribe(jobId: string): void {
+    this.jobs.add(jobId);
+    this.sendSubscription('subscribe', jobId);
+  }
+
+  unsubscribe(jobId: string): void {
+    if (this.jobs.delete(jobId)) {
+      this.sendSubscription('unsubscribe', jobId);
+    }
+  }
+
+  private sendSubscription(action: 'subscribe' | 'unsubscribe', jobId: string): void {
+    if (this.socket?.readyState === WebSocket.OPEN) {
+      this.socket.send(JSON.stringify({ action, jobId }));
+    }
+  }
+
   onMessage(handler: (message: PathfindingProgress) => void): () => void {
     this.messageHandlers.add(handler);
     return () => this.messageHandlers.delete(handler);
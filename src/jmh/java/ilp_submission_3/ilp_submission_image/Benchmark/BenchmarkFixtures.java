@@ -0,0 +1,159 @@
+package ilp_submission_3.ilp_submission_image.Benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_3.ilp_submission_image.Configuration.ILPEndpointProvider;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerExecutors;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerProperties;
+import ilp_submission_3.ilp_submission_image.Service.DroneServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.FlightPathCache;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceInterface;
+import ilp_submission_3.ilp_submission_image.Service.PathPlanningServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ReferenceDataCache;
+import ilp_submission_3.ilp_submission_image.WebSocket.PathfindingProgressHandler;
+import ilp_submission_3.ilp_submission_image.Workload.DispatchWorkloadGenerator;
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+import ilp_submission_3.ilp_submission_image.dto.DroneForServicePoint;
+import ilp_submission_3.ilp_submission_image.dto.DroneServicePoint;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offline scenario data for the benchmarks: the ILP reference data from the stub
+ * service fixtures in {@code /stub-ilp} and the dispatches from {@code /fixtures}.
+ *
+ * The fixtures describe a fixed Edinburgh scenario: two service points, a ten-drone
+ * fleet available all week, the campus restricted areas (plus a dense variant with a
+ * grid of extra blocks) and 500 dispatches spread over one working week. Larger or
+ * differently shaped dispatch sets come from {@link DispatchWorkloadGenerator}.
+ */
+final class BenchmarkFixtures {
+
+    static final String ENDPOINT = "http://fixtures.invalid";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<RestrictedArea> restrictedAreas(String density) {
+        String file = switch (density) {
+            case "none" -> null;
+            case "campus" -> "restricted-areas.json";
+            case "dense" -> "restricted-areas-dense.json";
+            default -> throw new IllegalArgumentException("Unknown obstacle density: " + density);
+        };
+        return file == null ? List.of() : Arrays.asList(read("/stub-ilp/" + file, RestrictedArea[].class));
+    }
+
+    /**
+     * The first N fixture dispatches, or N generated ones over the campus scenario
+     * with a fixed seed.
+     *
+     * @param workload {@code fixture} or {@code synthetic}
+     */
+    static List<MedDispatchRec> dispatches(String workload, int count) {
+        return switch (workload) {
+            case "fixture" -> dispatches(count);
+            case "synthetic" -> new DispatchWorkloadGenerator(
+                    Arrays.asList(read("/stub-ilp/service-points.json", DroneServicePoint[].class)),
+                    restrictedAreas("campus"),
+                    Arrays.asList(read("/stub-ilp/drones.json", Drone[].class)))
+                    .generate(DispatchWorkloadGenerator.Spec.of(count, 42));
+            default -> throw new IllegalArgumentException("Unknown workload: " + workload);
+        };
+    }
+
+    static List<MedDispatchRec> dispatches(int count) {
+        MedDispatchRec[] all = read("/fixtures/dispatches.json", MedDispatchRec[].class);
+        if (count > all.length) {
+            throw new IllegalArgumentException("Only " + all.length + " dispatches in the fixture");
+        }
+        return Arrays.asList(Arrays.copyOf(all, count));
+    }
+
+    /**
+     * One request per fixture date, each the first N of that day's dispatches that
+     * need neither cooling nor heating, so that single drones can fly the whole day.
+     */
+    static List<List<MedDispatchRec>> dailyBatches(int stops) {
+        Map<String, List<MedDispatchRec>> byDate = new TreeMap<>();
+        for (MedDispatchRec dispatch : read("/fixtures/dispatches.json", MedDispatchRec[].class)) {
+            MedDispatchRec.Requirements requirements = dispatch.requirements();
+            if (Boolean.TRUE.equals(requirements.cooling()) || Boolean.TRUE.equals(requirements.heating())) {
+                continue;
+            }
+            List<MedDispatchRec> day = byDate.computeIfAbsent(dispatch.date(), date -> new ArrayList<>());
+            if (day.size() < stops) {
+                day.add(dispatch);
+            }
+        }
+        return new ArrayList<>(byDate.values());
+    }
+
+    /**
+     * A planner wired to the fixtures instead of the ILP REST service, with the
+     * reference data and path caches disabled so every invocation does full work.
+     */
+    static PathPlanningServiceImpl planner(ILPServiceInterface geometry, PlannerProperties properties,
+                                           PlannerExecutors executors, String density) {
+        RestTemplate restTemplate = new FixtureRestTemplate(density);
+        ILPEndpointProvider endpointProvider = new ILPEndpointProvider() {
+            @Override
+            public String getEndpoint() {
+                return ENDPOINT;
+            }
+        };
+        DroneServiceImpl droneService = new DroneServiceImpl(restTemplate, geometry, endpointProvider);
+        return new PathPlanningServiceImpl(restTemplate, endpointProvider, geometry, droneService,
+                new PathfindingProgressHandler(), properties, ReferenceDataCache.passThrough(),
+                executors, FlightPathCache.disabled());
+    }
+
+    private static <T> T read(String resource, Class<T> type) {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + resource);
+            }
+            return MAPPER.readValue(in, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Answers the four ILP REST resources from the fixtures, already deserialised,
+     * so benchmarks measure planning rather than JSON parsing.
+     */
+    private static final class FixtureRestTemplate extends RestTemplate {
+        private final Map<String, Object> responses;
+
+        FixtureRestTemplate(String density) {
+            this.responses = Map.of(
+                    ENDPOINT + "/drones", read("/stub-ilp/drones.json", Drone[].class),
+                    ENDPOINT + "/drones-for-service-points",
+                    read("/stub-ilp/drones-for-service-points.json", DroneForServicePoint[].class),
+                    ENDPOINT + "/service-points", read("/stub-ilp/service-points.json", DroneServicePoint[].class),
+                    ENDPOINT + "/restricted-areas", restrictedAreas(density).toArray(new RestrictedArea[0])
+            );
+        }
+
+        @Override
+        public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+            Object response = responses.get(url);
+            if (response == null) {
+                throw new IllegalArgumentException("No fixture for " + url);
+            }
+            return responseType.cast(((Object[]) response).clone());
+        }
+    }
+}
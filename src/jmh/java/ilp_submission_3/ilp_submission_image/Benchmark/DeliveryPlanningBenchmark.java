@@ -0,0 +1,78 @@
+package ilp_submission_3.ilp_submission_image.Benchmark;
+
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerExecutors;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerProperties;
+import ilp_submission_3.ilp_submission_image.Service.FastILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.PathPlanningServiceImpl;
+import ilp_submission_3.ilp_submission_image.dto.DeliveryPathResponse;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end calculateDeliveryPath over N fixture or generated dispatches, including
+ * drone availability queries, both strategies and every flight segment.
+ *
+ * Large inputs take seconds per call, so this runs as single-shot measurements.
+ * Narrow the sweep with JMH's -p option, e.g. {@code -p orders=1,10}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeliveryPlanningBenchmark {
+
+    @Param({"1", "10", "50", "100", "500"})
+    public int orders;
+
+    @Param({"fixture", "synthetic"})
+    public String workload;
+
+    @Param({"bigdecimal", "double"})
+    public String geometry;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private PathPlanningServiceImpl planner;
+    private PlannerExecutors executors;
+    private List<MedDispatchRec> dispatches;
+
+    @Setup
+    public void setUp() {
+        PlannerProperties properties = new PlannerProperties();
+        properties.setParallelStrategies(parallel);
+        properties.setParallelCandidates(parallel);
+        executors = parallel ? new PlannerExecutors(properties) : PlannerExecutors.sequential();
+        planner = BenchmarkFixtures.planner(
+                geometry.equals("double") ? new FastILPServiceImpl() : new ILPServiceImpl(),
+                properties, executors, "campus");
+        dispatches = BenchmarkFixtures.dispatches(workload, orders);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executors.shutdown();
+    }
+
+    @Benchmark
+    public DeliveryPathResponse calculateDeliveryPath() {
+        return planner.calculateDeliveryPath(dispatches);
+    }
+}
@@ -0,0 +1,96 @@
+package ilp_submission_3.ilp_submission_image.Benchmark;
+
+import ilp_submission_3.ilp_submission_image.Query.DroneQuery;
+import ilp_submission_3.ilp_submission_image.Query.FleetColumns;
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+import ilp_submission_3.ilp_submission_image.dto.QueryAttribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/v1/query evaluation over a synthetic fleet, planned against the sorted
+ * indexes or scanned column by column.
+ *
+ * The selective query asks for the 100 cheapest drones per move that also have
+ * cooling, so its result stays the same size as the fleet grows: the indexed plan
+ * should stay nearly flat while the scan grows linearly. The broad query, capacity
+ * of at least 8 and a cost per move under 0.05, matches a fixed share of the fleet
+ * and bounds what any plan can save.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DroneQueryBenchmark {
+
+    private static final int SELECTED = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int fleetSize;
+
+    @Param({"indexed", "scan"})
+    public String plan;
+
+    private FleetColumns fleet;
+    private DroneQuery selective;
+    private DroneQuery broad;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(20250120L);
+        List<Drone> drones = new ArrayList<>(fleetSize);
+        double[] costs = new double[fleetSize];
+        for (int i = 0; i < fleetSize; i++) {
+            double costPerMove = 0.005 + random.nextDouble() * 0.095;
+            costs[i] = costPerMove;
+            drones.add(new Drone("Drone " + (i + 1), Integer.toString(i + 1), new Drone.Capability(
+                    random.nextBoolean(), random.nextBoolean(),
+                    0.5 * (1 + random.nextInt(24)),
+                    500 * (1 + random.nextInt(6)),
+                    costPerMove,
+                    random.nextDouble() * 10,
+                    random.nextDouble() * 10)));
+        }
+        Arrays.sort(costs);
+        fleet = FleetColumns.build(drones);
+
+        selective = DroneQuery.compile(List.of(
+                new QueryAttribute("costPerMove", "<=", Double.toString(costs[Math.min(SELECTED, fleetSize) - 1])),
+                new QueryAttribute("cooling", "=", "true")));
+        broad = DroneQuery.compile(List.of(
+                new QueryAttribute("capacity", ">=", "8"),
+                new QueryAttribute("costPerMove", "<", "0.05")));
+
+        // Build the lazily sorted indexes outside the measurement
+        selective.evaluate(fleet);
+        broad.evaluate(fleet);
+    }
+
+    @Benchmark
+    public BitSet selectiveQuery() {
+        return plan.equals("indexed") ? selective.evaluate(fleet) : selective.scan(fleet);
+    }
+
+    @Benchmark
+    public BitSet broadQuery() {
+        return plan.equals("indexed") ? broad.evaluate(fleet) : broad.scan(fleet);
+    }
+}
@@ -0,0 +1,69 @@
+package ilp_submission_3.ilp_submission_image.Benchmark;
+
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerExecutors;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerProperties;
+import ilp_submission_3.ilp_submission_image.Pathfinding.PathfindingEngine;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.PathPlanningServiceImpl;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A* flight segment search through calculateFlightPath, with the path cache disabled.
+ *
+ * Segments start at Appleton Tower and head east. The campus fixture puts the Bayes
+ * Central area across the longer segments; the dense fixture adds a grid of blocks
+ * so that every distance has to route around at least one of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightPathBenchmark {
+
+    private static final Position APPLETON_TOWER = new Position(-3.18635807889864, 55.9446806670849);
+
+    /** Straight-line segment length in moves of 0.00015 degrees. */
+    @Param({"10", "50", "100"})
+    public int moves;
+
+    @Param({"none", "campus", "dense"})
+    public String obstacles;
+
+    @Param({"LATTICE", "LEGACY"})
+    public PathfindingEngine engine;
+
+    private PathPlanningServiceImpl planner;
+    private List<RestrictedArea> restrictedAreas;
+    private Position goal;
+
+    @Setup
+    public void setUp() {
+        PlannerProperties properties = new PlannerProperties();
+        properties.setEngine(engine);
+        planner = BenchmarkFixtures.planner(new ILPServiceImpl(), properties, PlannerExecutors.sequential(), obstacles);
+        restrictedAreas = BenchmarkFixtures.restrictedAreas(obstacles);
+        goal = new Position(APPLETON_TOWER.lng() + moves * 0.00015, APPLETON_TOWER.lat() + 0.00005);
+    }
+
+    @Benchmark
+    public List<Position> calculateFlightPath() {
+        return planner.calculateFlightPath(APPLETON_TOWER, goal, restrictedAreas);
+    }
+}
@@ -0,0 +1,96 @@
+package ilp_submission_3.ilp_submission_image.Benchmark;
+
+import ilp_submission_3.ilp_submission_image.Service.FastILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceInterface;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geometry primitives of ILPServiceInterface, for both implementations.
+ *
+ * Each invocation works through a fixed ring of random Edinburgh positions so the
+ * JIT cannot constant-fold the inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometryBenchmark {
+
+    private static final int POSITIONS = 1024;
+    private static final double[] ANGLES = {
+            0.0, 22.5, 45.0, 67.5, 90.0, 112.5, 135.0, 157.5,
+            180.0, 202.5, 225.0, 247.5, 270.0, 292.5, 315.0, 337.5
+    };
+
+    @Param({"bigdecimal", "double"})
+    public String geometry;
+
+    private ILPServiceInterface ilpService;
+    private Position[] positions;
+    private List<Position> region;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ilpService = geometry.equals("double") ? new FastILPServiceImpl() : new ILPServiceImpl();
+        Random random = new Random(20250120L);
+        positions = new Position[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Position(-3.200 + random.nextDouble() * 0.030, 55.935 + random.nextDouble() * 0.020);
+        }
+        RestrictedArea georgeSquare = BenchmarkFixtures.restrictedAreas("campus").get(0);
+        region = georgeSquare.vertices();
+    }
+
+    @Benchmark
+    public double distance() {
+        int i = advance();
+        return ilpService.distance(positions[i], positions[(i + 1) & (POSITIONS - 1)]);
+    }
+
+    @Benchmark
+    public boolean isClose() {
+        int i = advance();
+        return ilpService.isClose(positions[i], positions[(i + 1) & (POSITIONS - 1)]);
+    }
+
+    @Benchmark
+    public Position nextPosition() {
+        int i = advance();
+        return ilpService.nextPosition(positions[i], ANGLES[i & 15]);
+    }
+
+    @Benchmark
+    public List<Position> nextPositions() {
+        return ilpService.nextPositions(positions[advance()]);
+    }
+
+    @Benchmark
+    public boolean isInRegion() {
+        return ilpService.isInRegion(positions[advance()], region);
+    }
+
+    private int advance() {
+        next = (next + 1) & (POSITIONS - 1);
+        return next;
+    }
+}
@@ -0,0 +1,128 @@
+package ilp_submission_3.ilp_submission_image.Benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_3.ilp_submission_image.IlpSubmissionImageApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of POST /api/v1/calcDeliveryPath with 500 concurrent clients against
+ * the full Spring Boot server, on platform threads and on virtual threads.
+ *
+ * The ILP REST service is replaced by the embedded stub ({@code stub-ilp} profile)
+ * answering after {@code upstreamLatencyMillis}, and the reference data cache is disabled so
+ * every request blocks on upstream calls the way a cold cache does. With platform
+ * threads Tomcat's 200 request threads cap how many requests can wait on upstream
+ * at once; with virtual threads they do not.
+ *
+ * With {@code -p workload=synthetic} the request body is fetched from the server's
+ * own /api/v1/workload, the way an external load driver would get its orders.
+ *
+ * Compare the two modes with e.g. {@code -Djmh.args="ServerLoadBenchmark -p upstreamLatencyMillis=50"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(500)
+@State(Scope.Benchmark)
+public class ServerLoadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"50"})
+    public int upstreamLatencyMillis;
+
+    @Param({"2"})
+    public int orders;
+
+    @Param({"fixture"})
+    public String workload;
+
+    private ConfigurableApplicationContext server;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new SpringApplicationBuilder(IlpSubmissionImageApplication.class)
+                .profiles("stub-ilp")
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn",
+                        "ilp.stub.latency=" + upstreamLatencyMillis + "ms",
+                        "ilp.reference-data.ttl=0",
+                        "ilp.planner.progress=none",
+                        "spring.threads.virtual.enabled=" + virtualThreads
+                )
+                .run();
+        int port = ((WebServerApplicationContext) server).getWebServer().getPort();
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        String body = workload.equals("synthetic")
+                ? fetchWorkload(port)
+                : new ObjectMapper().writeValueAsString(BenchmarkFixtures.dispatches(orders));
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/calcDeliveryPath"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+        clientExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int calcDeliveryPath() throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.body().length();
+    }
+
+    private String fetchWorkload(int port) throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/workload?orders=" + orders))
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Workload HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,87 @@
+package ilp_submission_3.ilp_submission_image.Benchmark;
+
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerExecutors;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerProperties;
+import ilp_submission_3.ilp_submission_image.Configuration.TourImprovement;
+import ilp_submission_3.ilp_submission_image.Service.FastILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.PathPlanningServiceImpl;
+import ilp_submission_3.ilp_submission_image.dto.DeliveryPathResponse;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A week of daily delivery requests from the fixtures, planned with each tour
+ * improvement. Besides the time per week, the moves and cost of the chosen plans
+ * are reported as the {@code moves} and {@code cost} counters, which is where the
+ * improvement shows: the time mostly measures A*.
+ *
+ * Only the single-drone strategy reorders its deliveries, so days the multi-drone
+ * strategy wins report the same moves under every setting.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TourImprovementBenchmark {
+
+    @Param({"8", "10", "14"})
+    public int stops;
+
+    @Param({"NONE", "TWO_OPT", "OR_OPT", "TWO_OPT_AND_OR_OPT"})
+    public TourImprovement tourImprovement;
+
+    private PathPlanningServiceImpl planner;
+    private List<List<MedDispatchRec>> days;
+
+    /**
+     * Totals over the days of one week.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PlanTotals {
+        public long moves;
+        public double cost;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            moves = 0;
+            cost = 0.0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        PlannerProperties properties = new PlannerProperties();
+        properties.setParallelStrategies(false);
+        properties.setTourImprovement(tourImprovement);
+        planner = BenchmarkFixtures.planner(new FastILPServiceImpl(), properties,
+                PlannerExecutors.sequential(), "campus");
+        days = BenchmarkFixtures.dailyBatches(stops);
+    }
+
+    @Benchmark
+    public void planWeek(PlanTotals totals) {
+        for (List<MedDispatchRec> day : days) {
+            DeliveryPathResponse response = planner.calculateDeliveryPath(day);
+            totals.moves += response.totalMoves();
+            totals.cost += response.totalCost();
+        }
+    }
+}
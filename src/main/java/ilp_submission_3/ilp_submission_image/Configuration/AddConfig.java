@@ -1,5 +1,6 @@
 package ilp_submission_3.ilp_submission_image.Configuration;
 
+import ilp_submission_3.ilp_submission_image.Service.UpstreamInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -7,9 +8,14 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class AddConfig {
 
+    /**
+     * Client for the ILP REST service: pooled keep-alive connections with HTTP/2
+     * where available, per-endpoint timeouts, gzip and a per-host circuit breaker.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(UpstreamProperties properties, UpstreamInterceptor interceptor) {
+        RestTemplate restTemplate = new RestTemplate(new UpstreamRequestFactory(properties));
+        restTemplate.getInterceptors().add(interceptor);
+        return restTemplate;
     }
 }
-
@@ -0,0 +1,17 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+/**
+ * How the single-drone strategy picks among the (service point, drone) candidates
+ * that can fly the whole request.
+ */
+public enum CandidateSelection {
+    /**
+     * The first feasible candidate, service points nearest the dispatch centroid first.
+     */
+    FIRST_FEASIBLE,
+
+    /**
+     * The feasible candidate with the lowest total cost, ties going to the earlier candidate.
+     */
+    CHEAPEST_FEASIBLE
+}
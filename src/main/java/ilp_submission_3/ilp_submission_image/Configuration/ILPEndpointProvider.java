@@ -1,5 +1,7 @@
 package ilp_submission_3.ilp_submission_image.Configuration;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -8,8 +10,26 @@ public class ILPEndpointProvider {
     private static final String DEFAULT_ENDPOINT =
             "https://ilp-rest-2025-bvh6e9hschfagrgy.ukwest-01.azurewebsites.net";
 
+    private final String configuredEndpoint;
+
+    public ILPEndpointProvider() {
+        this(null);
+    }
+
+    /**
+     * @param configuredEndpoint the {@code ilp.endpoint} property, used when the
+     *                           {@code ILP_ENDPOINT} environment variable is not set
+     */
+    @Autowired
+    public ILPEndpointProvider(@Value("${ilp.endpoint:}") String configuredEndpoint) {
+        this.configuredEndpoint = configuredEndpoint;
+    }
+
     public String getEndpoint() {
         String endpoint = System.getenv("ILP_ENDPOINT");
+        if (endpoint == null || endpoint.isEmpty()) {
+            endpoint = configuredEndpoint;
+        }
         if (endpoint == null || endpoint.isEmpty()) {
             return DEFAULT_ENDPOINT;
         }
@@ -0,0 +1,67 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Asynchronous planning jobs, bound from {@code ilp.jobs.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "ilp.jobs")
+public class JobProperties {
+
+    /**
+     * Jobs planned at the same time.
+     */
+    private int workers = 2;
+
+    /**
+     * Jobs that may wait for a worker; submissions beyond this are rejected.
+     */
+    private int queueCapacity = 32;
+
+    /**
+     * Jobs kept in the store, finished or not. The oldest finished jobs are evicted
+     * first; when every stored job is still pending, submissions are rejected.
+     */
+    private int maxStoredJobs = 512;
+
+    /**
+     * How long a finished job's result stays retrievable.
+     */
+    private Duration resultTtl = Duration.ofMinutes(10);
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxStoredJobs() {
+        return maxStoredJobs;
+    }
+
+    public void setMaxStoredJobs(int maxStoredJobs) {
+        this.maxStoredJobs = maxStoredJobs;
+    }
+
+    public Duration getResultTtl() {
+        return resultTtl;
+    }
+
+    public void setResultTtl(Duration resultTtl) {
+        this.resultTtl = resultTtl;
+    }
+}
@@ -0,0 +1,131 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pools used by the delivery path planner.
+ *
+ * The strategy executor is bounded in both threads and queue; when it is
+ * saturated the submitting request thread runs the task itself, so load
+ * spikes slow requests down instead of growing the pool or failing them.
+ * The candidate pool is a ForkJoinPool of the same size for fanning out the
+ * single-drone candidate attempts of one request.
+ *
+ * The fetch executor runs blocking ILP REST calls. With
+ * {@code spring.threads.virtual.enabled} it starts a virtual thread per call;
+ * otherwise it is a bounded platform pool that behaves like the strategy executor.
+ */
+@Component
+public class PlannerExecutors {
+
+    private final ExecutorService strategyExecutor;
+    private final ForkJoinPool candidatePool;
+    private final ExecutorService fetchExecutor;
+
+    public PlannerExecutors(PlannerProperties properties) {
+        this(properties, false);
+    }
+
+    /**
+     * @param virtualThreads run upstream fetches on virtual threads
+     */
+    @Autowired
+    public PlannerExecutors(PlannerProperties properties,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int threads = Math.max(1, properties.getThreads());
+        this.strategyExecutor = new ThreadPoolExecutor(
+                threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                namedDaemonThreads("planner-strategy-"),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        this.candidatePool = new ForkJoinPool(threads, namedWorkers("planner-candidate-"), null, false);
+        this.fetchExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("planner-fetch-", 1).factory())
+                : new ThreadPoolExecutor(
+                        threads, threads, 30, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                        namedDaemonThreads("planner-fetch-"),
+                        new ThreadPoolExecutor.CallerRunsPolicy()
+                );
+    }
+
+    private PlannerExecutors() {
+        this.strategyExecutor = null;
+        this.candidatePool = null;
+        this.fetchExecutor = null;
+    }
+
+    /**
+     * Executors for callers constructed without a Spring context: all work runs
+     * on the calling thread.
+     */
+    public static PlannerExecutors sequential() {
+        return new PlannerExecutors();
+    }
+
+    /**
+     * @return the bounded strategy executor, or null if planning runs sequentially
+     */
+    public ExecutorService strategyExecutor() {
+        return strategyExecutor;
+    }
+
+    /**
+     * @return the candidate pool, or null if planning runs sequentially
+     */
+    public ForkJoinPool candidatePool() {
+        return candidatePool;
+    }
+
+    /**
+     * @return the executor for blocking upstream fetches, or null if they run sequentially
+     */
+    public ExecutorService fetchExecutor() {
+        return fetchExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (strategyExecutor != null) {
+            strategyExecutor.shutdownNow();
+        }
+        if (candidatePool != null) {
+            candidatePool.shutdownNow();
+        }
+        if (fetchExecutor != null) {
+            fetchExecutor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory namedWorkers(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(prefix + counter.incrementAndGet());
+            return thread;
+        };
+    }
+}
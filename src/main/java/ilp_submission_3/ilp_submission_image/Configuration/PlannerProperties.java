@@ -0,0 +1,185 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+import ilp_submission_3.ilp_submission_image.Pathfinding.PathfindingEngine;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Tunables for the delivery path planner, bound from {@code ilp.planner.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "ilp.planner")
+public class PlannerProperties {
+
+    /**
+     * A* implementation used for every flight segment.
+     */
+    private PathfindingEngine engine = PathfindingEngine.LATTICE;
+
+    /**
+     * Run the single-drone and multi-drone strategies concurrently.
+     */
+    private boolean parallelStrategies = true;
+
+    /**
+     * Try the single-drone candidates concurrently instead of one after another.
+     */
+    private boolean parallelCandidates = false;
+
+    /**
+     * Which feasible single-drone candidate wins.
+     */
+    private CandidateSelection candidateSelection = CandidateSelection.FIRST_FEASIBLE;
+
+    /**
+     * Local search that shortens each single-drone candidate's nearest-neighbour delivery order.
+     */
+    private TourImprovement tourImprovement = TourImprovement.TWO_OPT_AND_OR_OPT;
+
+    /**
+     * Time the tour improvement may spend on one candidate's delivery order.
+     */
+    private Duration tourImprovementBudget = Duration.ofMillis(5);
+
+    /**
+     * Flight segments kept in the path cache. Zero disables caching. Jobs with
+     * WebSocket subscribers always search, so their progress shows every segment.
+     */
+    private int pathCacheSize = 4096;
+
+    /**
+     * How much search progress is published to WebSocket clients.
+     */
+    private ProgressMode progress = ProgressMode.SAMPLED;
+
+    /**
+     * In sampled mode, publish one node_explored event per this many explored nodes.
+     */
+    private int progressSampleEvery = 10;
+
+    /**
+     * In sampled mode, the minimum time between node_explored events of one search.
+     */
+    private Duration progressMinInterval = Duration.ZERO;
+
+    /**
+     * Fetch the four ILP reference lists concurrently at the start of each plan.
+     */
+    private boolean concurrentReferenceFetch = true;
+
+    /**
+     * Worker threads shared by all planning requests.
+     */
+    private int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Tasks that may wait for a worker before callers run their own work inline.
+     */
+    private int queueCapacity = 64;
+
+    public PathfindingEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(PathfindingEngine engine) {
+        this.engine = engine;
+    }
+
+    public boolean isParallelStrategies() {
+        return parallelStrategies;
+    }
+
+    public void setParallelStrategies(boolean parallelStrategies) {
+        this.parallelStrategies = parallelStrategies;
+    }
+
+    public boolean isParallelCandidates() {
+        return parallelCandidates;
+    }
+
+    public void setParallelCandidates(boolean parallelCandidates) {
+        this.parallelCandidates = parallelCandidates;
+    }
+
+    public CandidateSelection getCandidateSelection() {
+        return candidateSelection;
+    }
+
+    public void setCandidateSelection(CandidateSelection candidateSelection) {
+        this.candidateSelection = candidateSelection;
+    }
+
+    public TourImprovement getTourImprovement() {
+        return tourImprovement;
+    }
+
+    public void setTourImprovement(TourImprovement tourImprovement) {
+        this.tourImprovement = tourImprovement;
+    }
+
+    public Duration getTourImprovementBudget() {
+        return tourImprovementBudget;
+    }
+
+    public void setTourImprovementBudget(Duration tourImprovementBudget) {
+        this.tourImprovementBudget = tourImprovementBudget;
+    }
+
+    public int getPathCacheSize() {
+        return pathCacheSize;
+    }
+
+    public void setPathCacheSize(int pathCacheSize) {
+        this.pathCacheSize = pathCacheSize;
+    }
+
+    public ProgressMode getProgress() {
+        return progress;
+    }
+
+    public void setProgress(ProgressMode progress) {
+        this.progress = progress;
+    }
+
+    public int getProgressSampleEvery() {
+        return progressSampleEvery;
+    }
+
+    public void setProgressSampleEvery(int progressSampleEvery) {
+        this.progressSampleEvery = progressSampleEvery;
+    }
+
+    public Duration getProgressMinInterval() {
+        return progressMinInterval;
+    }
+
+    public void setProgressMinInterval(Duration progressMinInterval) {
+        this.progressMinInterval = progressMinInterval;
+    }
+
+    public boolean isConcurrentReferenceFetch() {
+        return concurrentReferenceFetch;
+    }
+
+    public void setConcurrentReferenceFetch(boolean concurrentReferenceFetch) {
+        this.concurrentReferenceFetch = concurrentReferenceFetch;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
@@ -0,0 +1,22 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+/**
+ * How much search progress the delivery planner publishes to WebSocket clients.
+ */
+public enum ProgressMode {
+    /**
+     * Publish nothing; planning pays no instrumentation cost.
+     */
+    NONE,
+
+    /**
+     * Publish every batch, delivery and path event, but only a sample of node_explored
+     * events, limited by node count and by time.
+     */
+    SAMPLED,
+
+    /**
+     * Publish every event, including every explored node.
+     */
+    FULL
+}
@@ -0,0 +1,18 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+/**
+ * What a WebSocket session's outbound queue does with node_explored events once it
+ * holds as many as its capacity allows. Other event types are never dropped.
+ */
+public enum ProgressOverflowPolicy {
+    /**
+     * Discard the oldest queued node_explored event to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Replace every queued node_explored event with the new one, so a lagging client
+     * jumps straight to the current search frontier.
+     */
+    COALESCE
+}
@@ -0,0 +1,65 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivery of pathfinding progress events to WebSocket clients, bound from
+ * {@code ilp.progress.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "ilp.progress")
+public class ProgressProperties {
+
+    /**
+     * node_explored events a session may have waiting before the overflow policy applies.
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * Other events a session may have waiting before it is considered stalled and closed.
+     */
+    private int maxPendingEvents = 1024;
+
+    /**
+     * How a full session queue makes room for another node_explored event.
+     */
+    private ProgressOverflowPolicy overflowPolicy = ProgressOverflowPolicy.COALESCE;
+
+    /**
+     * Threads that serialize and send queued events, shared by all sessions.
+     */
+    private int senderThreads = 2;
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxPendingEvents() {
+        return maxPendingEvents;
+    }
+
+    public void setMaxPendingEvents(int maxPendingEvents) {
+        this.maxPendingEvents = maxPendingEvents;
+    }
+
+    public ProgressOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(ProgressOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+}
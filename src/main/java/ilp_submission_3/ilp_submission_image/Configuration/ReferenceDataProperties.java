@@ -0,0 +1,103 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caching of ILP REST reference data (drones, service points, restricted areas),
+ * bound from {@code ilp.reference-data.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "ilp.reference-data")
+public class ReferenceDataProperties {
+
+    /**
+     * How long a fetched list is served without refreshing. Zero disables caching.
+     */
+    private Duration ttl = Duration.ofSeconds(60);
+
+    /**
+     * Threads used to refresh expired entries in the background.
+     */
+    private int refreshThreads = 2;
+
+    /**
+     * File the last good lists are persisted to and restored from at startup, so a
+     * restart can plan before (or without) reaching the upstream. Empty disables it.
+     * It should live in a directory only this server can write to.
+     */
+    private String snapshotFile;
+
+    /**
+     * Oldest restored list served before the upstream has answered, unless the
+     * resource has its own entry in {@link #snapshotMaxAges}. Older lists are loaded
+     * from upstream like a cold start.
+     */
+    private Duration snapshotMaxAge = Duration.ofHours(24);
+
+    /**
+     * Per-resource maximum ages, keyed by the last path segment of the resource,
+     * e.g. {@code ilp.reference-data.snapshot-max-ages.restricted-areas=1h}.
+     */
+    private Map<String, Duration> snapshotMaxAges =
+            new LinkedHashMap<>(Map.of("restricted-areas", Duration.ofHours(1)));
+
+    /**
+     * Maximum age of a restored list for a resource path: the entry for its last
+     * segment if there is one, otherwise the default.
+     */
+    public Duration snapshotMaxAgeFor(String path) {
+        if (path != null && !snapshotMaxAges.isEmpty()) {
+            String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+            Duration maxAge = snapshotMaxAges.get(trimmed.substring(trimmed.lastIndexOf('/') + 1));
+            if (maxAge != null) {
+                return maxAge;
+            }
+        }
+        return snapshotMaxAge;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    public void setRefreshThreads(int refreshThreads) {
+        this.refreshThreads = refreshThreads;
+    }
+
+    public String getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public void setSnapshotFile(String snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    public Duration getSnapshotMaxAge() {
+        return snapshotMaxAge;
+    }
+
+    public void setSnapshotMaxAge(Duration snapshotMaxAge) {
+        this.snapshotMaxAge = snapshotMaxAge;
+    }
+
+    public Map<String, Duration> getSnapshotMaxAges() {
+        return snapshotMaxAges;
+    }
+
+    public void setSnapshotMaxAges(Map<String, Duration> snapshotMaxAges) {
+        this.snapshotMaxAges = snapshotMaxAges;
+    }
+}
@@ -0,0 +1,45 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+import ilp_submission_3.ilp_submission_image.Stub.StubIlpData;
+import ilp_submission_3.ilp_submission_image.Stub.StubIlpServer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+
+/**
+ * With the {@code stub-ilp} profile, starts an embedded {@link StubIlpServer} and
+ * points every ILP REST call at it, overriding {@code ILP_ENDPOINT} and
+ * {@code ilp.endpoint}. Sizes, latency and fixtures come from {@code ilp.stub.*}.
+ */
+@Configuration
+@Profile("stub-ilp")
+public class StubIlpConfig {
+
+    @Bean(destroyMethod = "close")
+    public StubIlpServer stubIlpServer(StubIlpProperties properties) throws IOException {
+        StubIlpData data = StubIlpData.load(properties.getFixtures(), properties.getRestrictedAreasFile())
+                .scale(properties.getDrones(), properties.getServicePoints(),
+                        properties.getRestrictedAreas(), properties.getSeed());
+        StubIlpServer server = StubIlpServer.start(data, properties.getLatency(), properties.getJitter(),
+                properties.getPort());
+        System.out.println("Stub ILP service at " + server.url() + ": " + data.drones().size() + " drones, "
+                + data.servicePoints().size() + " service points, "
+                + data.restrictedAreas().size() + " restricted areas");
+        return server;
+    }
+
+    @Bean
+    @Primary
+    public ILPEndpointProvider stubEndpointProvider(StubIlpServer server) {
+        String endpoint = server.url();
+        return new ILPEndpointProvider(endpoint) {
+            @Override
+            public String getEndpoint() {
+                return endpoint;
+            }
+        };
+    }
+}
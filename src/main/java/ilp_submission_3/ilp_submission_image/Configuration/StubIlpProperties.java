@@ -0,0 +1,133 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Embedded stand-in for the ILP REST service, bound from {@code ilp.stub.*} and
+ * used only with the {@code stub-ilp} profile.
+ */
+@Component
+@ConfigurationProperties(prefix = "ilp.stub")
+public class StubIlpProperties {
+
+    /**
+     * Directory holding drones.json, drones-for-service-points.json, service-points.json
+     * and the restricted areas file.
+     */
+    private String fixtures = "classpath:stub-ilp/";
+
+    /**
+     * Restricted areas fixture in that directory, e.g. restricted-areas-dense.json.
+     */
+    private String restrictedAreasFile = "restricted-areas.json";
+
+    /**
+     * Loopback port the stub listens on; 0 picks a free one.
+     */
+    private int port = 0;
+
+    /**
+     * Fleet size to scale to; 0 serves the fixture fleet.
+     */
+    private int drones = 0;
+
+    /**
+     * Service points to scale to; 0 serves the fixture service points.
+     */
+    private int servicePoints = 0;
+
+    /**
+     * Restricted areas to scale to; 0 serves the fixture areas.
+     */
+    private int restrictedAreas = 0;
+
+    /**
+     * Seed for the synthetic data, so scaled runs are reproducible.
+     */
+    private long seed = 42;
+
+    /**
+     * Delay before every response.
+     */
+    private Duration latency = Duration.ZERO;
+
+    /**
+     * Upper bound of an extra random delay added to each response.
+     */
+    private Duration jitter = Duration.ZERO;
+
+    public String getFixtures() {
+        return fixtures;
+    }
+
+    public void setFixtures(String fixtures) {
+        this.fixtures = fixtures;
+    }
+
+    public String getRestrictedAreasFile() {
+        return restrictedAreasFile;
+    }
+
+    public void setRestrictedAreasFile(String restrictedAreasFile) {
+        this.restrictedAreasFile = restrictedAreasFile;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getDrones() {
+        return drones;
+    }
+
+    public void setDrones(int drones) {
+        this.drones = drones;
+    }
+
+    public int getServicePoints() {
+        return servicePoints;
+    }
+
+    public void setServicePoints(int servicePoints) {
+        this.servicePoints = servicePoints;
+    }
+
+    public int getRestrictedAreas() {
+        return restrictedAreas;
+    }
+
+    public void setRestrictedAreas(int restrictedAreas) {
+        this.restrictedAreas = restrictedAreas;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public Duration getLatency() {
+        return latency;
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public Duration getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(Duration jitter) {
+        this.jitter = jitter;
+    }
+}
@@ -0,0 +1,27 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+/**
+ * Local search applied to each day's nearest-neighbour delivery order before a
+ * single-drone candidate is flown. Moves are judged on straight-line distances.
+ */
+public enum TourImprovement {
+    /**
+     * Fly the nearest-neighbour order as it is.
+     */
+    NONE,
+
+    /**
+     * Reverse runs of the tour while that removes a crossing or otherwise shortens it.
+     */
+    TWO_OPT,
+
+    /**
+     * Move runs of one to three deliveries, either way round, to a cheaper place in the tour.
+     */
+    OR_OPT,
+
+    /**
+     * Alternate 2-opt and Or-opt until neither shortens the tour.
+     */
+    TWO_OPT_AND_OR_OPT
+}
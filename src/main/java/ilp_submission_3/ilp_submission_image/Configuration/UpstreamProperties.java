@@ -0,0 +1,151 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HTTP client used for the ILP REST service, bound from {@code ilp.upstream.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "ilp.upstream")
+public class UpstreamProperties {
+
+    /**
+     * Time allowed to open a connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Time allowed for a response once the request is sent, unless the endpoint has
+     * its own entry in {@link #readTimeouts}.
+     */
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Per-endpoint read timeouts, keyed by the last path segment of the resource,
+     * e.g. {@code ilp.upstream.read-timeouts.restricted-areas=5s}.
+     */
+    private Map<String, Duration> readTimeouts = new LinkedHashMap<>();
+
+    /**
+     * Negotiate HTTP/2 where the server supports it, falling back to HTTP/1.1.
+     */
+    private boolean http2 = true;
+
+    /**
+     * Ask for gzip-encoded responses and decompress them transparently.
+     */
+    private boolean gzip = true;
+
+    /**
+     * How long an idle keep-alive connection stays in the pool.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Idle connections kept per JVM; 0 leaves the pool unbounded.
+     */
+    private int maxIdleConnections = 16;
+
+    /**
+     * Consecutive failures (I/O errors, timeouts or 5xx responses) that open the
+     * circuit for a host. Zero disables the circuit breaker.
+     */
+    private int circuitBreakerThreshold = 5;
+
+    /**
+     * How long an open circuit rejects calls before letting a single trial through.
+     */
+    private Duration circuitBreakerOpenDuration = Duration.ofSeconds(30);
+
+    /**
+     * Read timeout for a request path: the entry for its last segment if there is
+     * one, otherwise the default.
+     */
+    public Duration readTimeoutFor(String path) {
+        if (path != null && !readTimeouts.isEmpty()) {
+            String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+            Duration timeout = readTimeouts.get(trimmed.substring(trimmed.lastIndexOf('/') + 1));
+            if (timeout != null) {
+                return timeout;
+            }
+        }
+        return readTimeout;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Map<String, Duration> getReadTimeouts() {
+        return readTimeouts;
+    }
+
+    public void setReadTimeouts(Map<String, Duration> readTimeouts) {
+        this.readTimeouts = readTimeouts;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(boolean http2) {
+        this.http2 = http2;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    public void setCircuitBreakerThreshold(int circuitBreakerThreshold) {
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+    }
+
+    public Duration getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    public void setCircuitBreakerOpenDuration(Duration circuitBreakerOpenDuration) {
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    }
+}
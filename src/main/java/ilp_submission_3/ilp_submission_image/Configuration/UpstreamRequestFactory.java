@@ -0,0 +1,81 @@
+package ilp_submission_3.ilp_submission_image.Configuration;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request factory for the ILP REST service, backed by a single shared
+ * {@link HttpClient}.
+ *
+ * The JDK client keeps idle HTTP/1.1 connections alive in a pool and multiplexes
+ * requests over one connection per host once HTTP/2 is negotiated. Read timeouts
+ * are resolved per request path, so slow endpoints can be given more time without
+ * loosening the rest; requests with the same timeout share one delegate factory.
+ */
+public class UpstreamRequestFactory implements ClientHttpRequestFactory {
+
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    private static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+
+    private final HttpClient httpClient;
+    private final UpstreamProperties properties;
+    private final Map<Duration, JdkClientHttpRequestFactory> factories = new ConcurrentHashMap<>();
+
+    public UpstreamRequestFactory(UpstreamProperties properties) {
+        this.properties = properties;
+        applyPoolSettings(properties);
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(properties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (isPositive(properties.getConnectTimeout())) {
+            builder.connectTimeout(properties.getConnectTimeout());
+        }
+        this.httpClient = builder.build();
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Duration timeout = properties.readTimeoutFor(uri.getPath());
+        return factories.computeIfAbsent(isPositive(timeout) ? timeout : Duration.ZERO, this::newFactory)
+                .createRequest(uri, httpMethod);
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    private JdkClientHttpRequestFactory newFactory(Duration timeout) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        if (!timeout.isZero()) {
+            factory.setReadTimeout(timeout);
+        }
+        return factory;
+    }
+
+    /**
+     * The JDK connection pool is sized and expired through system properties that
+     * are read once, when the first client is created, and apply to the whole JVM.
+     * Values already given on the command line win.
+     */
+    private static void applyPoolSettings(UpstreamProperties properties) {
+        if (isPositive(properties.getKeepAlive()) && System.getProperty(KEEP_ALIVE_PROPERTY) == null) {
+            System.setProperty(KEEP_ALIVE_PROPERTY, Long.toString(Math.max(1, properties.getKeepAlive().toSeconds())));
+        }
+        if (properties.getMaxIdleConnections() > 0 && System.getProperty(POOL_SIZE_PROPERTY) == null) {
+            System.setProperty(POOL_SIZE_PROPERTY, Integer.toString(properties.getMaxIdleConnections()));
+        }
+    }
+
+    private static boolean isPositive(Duration duration) {
+        return duration != null && !duration.isNegative() && !duration.isZero();
+    }
+}
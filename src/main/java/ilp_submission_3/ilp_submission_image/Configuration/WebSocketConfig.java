@@ -21,5 +21,10 @@ public class WebSocketConfig implements WebSocketConfigurer {
         registry.addHandler(pathfindingProgressHandler, "/ws/pathfinding-progress")
                 .setAllowedOrigins("http://localhost:8080", "http://localhost:3000", "http://localhost:5173" )
                 .withSockJS();
+
+        // Plain WebSocket on the same path, for clients that negotiate the binary node frame
+        // sub-protocol (SockJS transports carry text only)
+        registry.addHandler(pathfindingProgressHandler, "/ws/pathfinding-progress")
+                .setAllowedOrigins("http://localhost:8080", "http://localhost:3000", "http://localhost:5173" );
     }
 }
@@ -64,15 +64,17 @@ public class DroneController {
 
     @PostMapping("/calcDeliveryPath")
     public ResponseEntity<DeliveryPathResponse> calculateDeliveryPath(
-            @RequestBody List<MedDispatchRec> dispatchRecords) {
-        DeliveryPathResponse response = pathPlanningService.calculateDeliveryPath(dispatchRecords);
+            @RequestBody List<MedDispatchRec> dispatchRecords,
+            @RequestHeader(value = "X-Job-Id", required = false) String jobId) {
+        DeliveryPathResponse response = pathPlanningService.calculateDeliveryPath(dispatchRecords, jobId);
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/calcDeliveryPathAsGeoJson")
     public ResponseEntity<String> calcDeliveryPathAsGeoJson(
-            @RequestBody List<MedDispatchRec> dispatchRecords) {
-        String geoJson = pathPlanningService.calculateDeliveryPathAsGeoJson(dispatchRecords);
+            @RequestBody List<MedDispatchRec> dispatchRecords,
+            @RequestHeader(value = "X-Job-Id", required = false) String jobId) {
+        String geoJson = pathPlanningService.calculateDeliveryPathAsGeoJson(dispatchRecords, jobId);
         return ResponseEntity.ok(geoJson);
     }
 
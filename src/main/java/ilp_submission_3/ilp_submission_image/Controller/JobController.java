@@ -0,0 +1,82 @@
+package ilp_submission_3.ilp_submission_image.Controller;
+
+import ilp_submission_3.ilp_submission_image.Service.PlanningJobService;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+import ilp_submission_3.ilp_submission_image.dto.PlanningJobStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * Asynchronous delivery path planning: submit a job, then poll its status until
+ * the result is available.
+ */
+@RestController
+@RequestMapping("/api/v1/jobs")
+public class JobController {
+
+    /**
+     * Client-chosen job ids; they end up in the Location header and in URLs the client polls.
+     */
+    private static final Pattern JOB_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final PlanningJobService planningJobService;
+
+    public JobController(PlanningJobService planningJobService) {
+        this.planningJobService = planningJobService;
+    }
+
+    /**
+     * Queue a delivery path calculation.
+     *
+     * @param jobId optional id for the job, up to 64 letters, digits, dots, underscores or
+     *              hyphens; progress for it is published to sessions subscribed to this id
+     * @return 202 with the job status and its location, 400 if the id is malformed,
+     *         409 if the id is taken, or 429 if the planner is saturated
+     */
+    @PostMapping("/deliveryPath")
+    public ResponseEntity<PlanningJobStatus> submitDeliveryPath(
+            @RequestBody List<MedDispatchRec> dispatchRecords,
+            @RequestHeader(value = "X-Job-Id", required = false) String jobId) {
+        if (isInvalidJobId(jobId)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            PlanningJobStatus status = planningJobService.submit(dispatchRecords, jobId);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/jobs/" + status.jobId()))
+                    .body(status);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+    }
+
+    /**
+     * Get the status, progress and, once finished, the result of a job.
+     *
+     * @return 200 with the job status, or 404 if the job is unknown or expired
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PlanningJobStatus> getJob(@PathVariable String jobId) {
+        PlanningJobStatus status = planningJobService.getStatus(jobId);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    // A missing or blank id is fine: the service generates one
+    private static boolean isInvalidJobId(String jobId) {
+        return jobId != null && !jobId.isBlank() && !JOB_ID.matcher(jobId).matches();
+    }
+}
@@ -1,5 +1,9 @@
 package ilp_submission_3.ilp_submission_image.Controller;
 
+import ilp_submission_3.ilp_submission_image.Service.FlightPathCache;
+import ilp_submission_3.ilp_submission_image.Service.PlanningJobService;
+import ilp_submission_3.ilp_submission_image.Service.ReferenceDataCache;
+import ilp_submission_3.ilp_submission_image.Service.UpstreamInterceptor;
 import ilp_submission_3.ilp_submission_image.WebSocket.PathfindingProgressHandler;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,9 +20,19 @@ import java.util.Map;
 public class MonitorController {
 
     private final PathfindingProgressHandler progressHandler;
+    private final ReferenceDataCache referenceDataCache;
+    private final FlightPathCache flightPathCache;
+    private final PlanningJobService planningJobService;
+    private final UpstreamInterceptor upstreamInterceptor;
 
-    public MonitorController(PathfindingProgressHandler progressHandler) {
+    public MonitorController(PathfindingProgressHandler progressHandler, ReferenceDataCache referenceDataCache,
+                             FlightPathCache flightPathCache, PlanningJobService planningJobService,
+                             UpstreamInterceptor upstreamInterceptor) {
         this.progressHandler = progressHandler;
+        this.referenceDataCache = referenceDataCache;
+        this.flightPathCache = flightPathCache;
+        this.planningJobService = planningJobService;
+        this.upstreamInterceptor = upstreamInterceptor;
     }
 
     /**
@@ -37,4 +51,59 @@ public class MonitorController {
                 "status", hasConnections ? "active" : "idle"
         ));
     }
+
+    /**
+     * Get hit/miss statistics for the ILP reference data cache.
+     *
+     * @return Map containing cache configuration and counters
+     */
+    @GetMapping("/reference-cache")
+    public ResponseEntity<Map<String, Object>> getReferenceCacheStatus() {
+        return ResponseEntity.ok(referenceDataCache.getMetrics());
+    }
+
+    /**
+     * Get hit rate and memory statistics for the flight segment path cache.
+     *
+     * @return Map containing cache size, estimated footprint and counters
+     */
+    @GetMapping("/path-cache")
+    public ResponseEntity<Map<String, Object>> getPathCacheStatus() {
+        return ResponseEntity.ok(flightPathCache.getMetrics());
+    }
+
+    /**
+     * Get outbound queue statistics for every connected progress WebSocket session.
+     *
+     * @return Map containing the queue settings and per-session lag and counters
+     */
+    @GetMapping("/websocket-sessions")
+    public ResponseEntity<Map<String, Object>> getWebSocketSessions() {
+        return ResponseEntity.ok(Map.of(
+                "queueCapacity", progressHandler.getQueueCapacity(),
+                "overflowPolicy", progressHandler.getOverflowPolicy(),
+                "subscribedJobs", progressHandler.getSubscribedJobCount(),
+                "sessions", progressHandler.getSessionMetrics()
+        ));
+    }
+
+    /**
+     * Get pool, queue and store statistics for asynchronous planning jobs.
+     *
+     * @return Map containing the pool settings and job counters
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> getJobStatus() {
+        return ResponseEntity.ok(planningJobService.getMetrics());
+    }
+
+    /**
+     * Get call counters, latency percentiles and circuit states for the ILP REST client.
+     *
+     * @return Map containing request, failure and reuse counters, latency and circuits
+     */
+    @GetMapping("/upstream")
+    public ResponseEntity<Map<String, Object>> getUpstreamStatus() {
+        return ResponseEntity.ok(upstreamInterceptor.getMetrics());
+    }
 }
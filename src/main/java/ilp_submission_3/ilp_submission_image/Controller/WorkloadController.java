@@ -0,0 +1,80 @@
+package ilp_submission_3.ilp_submission_image.Controller;
+
+import ilp_submission_3.ilp_submission_image.Service.DroneService;
+import ilp_submission_3.ilp_submission_image.Service.PathPlanningService;
+import ilp_submission_3.ilp_submission_image.Workload.DispatchWorkloadGenerator;
+import ilp_submission_3.ilp_submission_image.Workload.WorkloadWriter;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Synthetic dispatch workloads for load drivers, generated against the reference
+ * data the server currently plans with.
+ */
+@RestController
+@RequestMapping("/api/v1/workload")
+public class WorkloadController {
+
+    private static final int MAX_ORDERS = 100_000;
+
+    private final DroneService droneService;
+    private final PathPlanningService pathPlanningService;
+
+    public WorkloadController(DroneService droneService, PathPlanningService pathPlanningService) {
+        this.droneService = droneService;
+        this.pathPlanningService = pathPlanningService;
+    }
+
+    /**
+     * Generate a seeded dispatch workload; the same parameters over the same
+     * reference data always give the same orders.
+     *
+     * @param format {@code json} for one array, the body the planning endpoints take,
+     *               or {@code ndjson} for one dispatch per line
+     * @return 200 with the dispatches, or 400 if a parameter is out of range
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> generate(
+            @RequestParam(defaultValue = "1000") int orders,
+            @RequestParam(defaultValue = "42") long seed,
+            @RequestParam(defaultValue = "2025-01-20") String startDate,
+            @RequestParam(defaultValue = "5") int days,
+            @RequestParam(defaultValue = "6") int clusters,
+            @RequestParam(defaultValue = "0.1") double edgeFraction,
+            @RequestParam(defaultValue = "json") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (orders < 0 || orders > MAX_ORDERS || days < 1 || clusters < 1
+                || edgeFraction < 0 || edgeFraction > 1 || !(ndjson || "json".equalsIgnoreCase(format))) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        LocalDate start;
+        try {
+            start = LocalDate.parse(startDate);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        DispatchWorkloadGenerator generator = new DispatchWorkloadGenerator(
+                droneService.getServicePointLocations(), pathPlanningService.getRestrictedAreas(),
+                droneService.getAllDrones());
+        List<MedDispatchRec> dispatches = generator.generate(
+                new DispatchWorkloadGenerator.Spec(orders, start, days, clusters, edgeFraction, seed));
+
+        if (ndjson) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(WorkloadWriter.NDJSON_MEDIA_TYPE))
+                    .body(out -> WorkloadWriter.writeNdjson(dispatches, out));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> WorkloadWriter.writeJson(dispatches, out));
+    }
+}
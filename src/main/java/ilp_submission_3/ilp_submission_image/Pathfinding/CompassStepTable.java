@@ -0,0 +1,75 @@
+package ilp_submission_3.ilp_submission_image.Pathfinding;
+
+/**
+ * Precomputed move vectors for the 16 compass directions a drone may fly.
+ *
+ * Direction k points at k * 22.5 degrees (0 = East, counterclockwise). The unit
+ * vectors come from the same Math.cos/Math.sin calls nextPosition used to make per
+ * move, so callers get identical steps without repeating the trigonometry.
+ */
+public final class CompassStepTable {
+
+    public static final int DIRECTIONS = 16;
+    public static final double ANGLE_INCREMENT = 360.0 / DIRECTIONS;
+    public static final double MOVE_DISTANCE = 0.00015;
+
+    private static final double[] COS = new double[DIRECTIONS];
+    private static final double[] SIN = new double[DIRECTIONS];
+    private static final double[] STEP_LNG = new double[DIRECTIONS];
+    private static final double[] STEP_LAT = new double[DIRECTIONS];
+
+    static {
+        for (int k = 0; k < DIRECTIONS; k++) {
+            double rad = Math.toRadians(angle(k));
+            COS[k] = Math.cos(rad);
+            SIN[k] = Math.sin(rad);
+            STEP_LNG[k] = MOVE_DISTANCE * COS[k];
+            STEP_LAT[k] = MOVE_DISTANCE * SIN[k];
+        }
+    }
+
+    private CompassStepTable() {}
+
+    /**
+     * @return the table index of a compass angle, or -1 if it is not one of the 16 directions
+     */
+    public static int indexOf(double angle) {
+        double slot = angle / ANGLE_INCREMENT;
+        int k = (int) slot;
+        if (k == slot && k >= 0 && k < DIRECTIONS) {
+            return k;
+        }
+        return -1;
+    }
+
+    public static double angle(int k) {
+        return k * ANGLE_INCREMENT;
+    }
+
+    public static double cos(int k) {
+        return COS[k];
+    }
+
+    public static double sin(int k) {
+        return SIN[k];
+    }
+
+    public static double lngStep(int k) {
+        return STEP_LNG[k];
+    }
+
+    public static double latStep(int k) {
+        return STEP_LAT[k];
+    }
+
+    /**
+     * Writes all 16 one-move neighbours of a position into the output arrays,
+     * indexed by direction.
+     */
+    public static void neighbours(double lng, double lat, double[] outLng, double[] outLat) {
+        for (int k = 0; k < DIRECTIONS; k++) {
+            outLng[k] = lng + STEP_LNG[k];
+            outLat[k] = lat + STEP_LAT[k];
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package ilp_submission_3.ilp_submission_image.Pathfinding;
+
+import ilp_submission_3.ilp_submission_image.dto.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A* search over the 16-direction move lattice using primitive data structures.
+ *
+ * Every position reachable from the start is snapped onto a fixed grid anchored
+ * at the start and packed into a single long key (32 bits per axis). Node data
+ * (coordinates, g-score, parent, closed flag) lives in parallel arrays indexed by
+ * a dense node id, the key-to-id map is an open-addressing LongIntHashMap and the
+ * open set is a NodeHeap, so expanding a node allocates nothing.
+ *
+ * The search mirrors the legacy engine: unit move cost, the same weighted
+ * heuristic, neighbours tried in order of angular distance to the target and
+ * termination as soon as a polled node is close to the goal.
+ */
+public final class LatticeAStarPathfinder {
+
+    public static final double MOVE_DISTANCE = CompassStepTable.MOVE_DISTANCE;
+    private static final double HEURISTIC_WEIGHT = 1.3;
+    private static final int DIRECTIONS = CompassStepTable.DIRECTIONS;
+    private static final double DIRECTION_DEGREES = CompassStepTable.ANGLE_INCREMENT;
+
+    /**
+     * Grid cells per degree used for lattice keys; 1e-9 degrees is far below the
+     * move length but well above floating-point drift accumulated along a path.
+     */
+    static final double KEY_SCALE = 1e9;
+
+    /**
+     * Key returned for positions too far from the origin to pack into 32 bits per axis.
+     */
+    static final long OUT_OF_RANGE = Long.MIN_VALUE;
+
+    /**
+     * Finds a flight path from one position to another.
+     *
+     * @return the visited positions starting with {@code from} and ending at the first
+     *         position close to {@code to}, or an empty list if no path exists
+     */
+    public List<Position> findPath(Position from, Position to,
+                                   MoveValidator validator, PathfindingListener listener) {
+        double startLng = from.lng();
+        double startLat = from.lat();
+        double goalLng = to.lng();
+        double goalLat = to.lat();
+
+        if (isClose(startLng, startLat, goalLng, goalLat)) {
+            return Arrays.asList(from, to);
+        }
+
+        NodeStore store = new NodeStore(256);
+        LongIntHashMap index = new LongIntHashMap(256);
+        NodeHeap openSet = new NodeHeap(256);
+
+        int start = store.add(startLng, startLat, 0.0, -1);
+        index.put(key(startLng, startLat, startLng, startLat), start);
+        openSet.push(start, 0.0, heuristic(startLng, startLat, goalLng, goalLat));
+
+        int nodesExplored = 0;
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            double lng = store.lng[current];
+            double lat = store.lat[current];
+
+            nodesExplored++;
+            listener.nodeExplored(lng, lat, nodesExplored);
+
+            if (isClose(lng, lat, goalLng, goalLat)) {
+                List<Position> path = reconstructPath(store, current, from);
+                listener.pathFound(nodesExplored, path.size());
+                return path;
+            }
+
+            if (store.closed[current]) {
+                continue;
+            }
+            store.closed[current] = true;
+
+            double tentativeG = store.g[current] + 1.0;
+            double bearing = bearing(lng, lat, goalLng, goalLat);
+            int nearest = (int) Math.round(bearing / DIRECTION_DEGREES) % DIRECTIONS;
+            boolean ascendingFirst = normalizeOffset(bearing - nearest * DIRECTION_DEGREES) > 0;
+
+            for (int i = 0; i < DIRECTIONS; i++) {
+                int k = directionAt(nearest, i, ascendingFirst);
+                double nextLng = lng + CompassStepTable.lngStep(k);
+                double nextLat = lat + CompassStepTable.latStep(k);
+
+                long neighbourKey = key(startLng, startLat, nextLng, nextLat);
+                if (neighbourKey == OUT_OF_RANGE) {
+                    continue;
+                }
+                int neighbour = index.get(neighbourKey);
+
+                if ((neighbour >= 0 && store.closed[neighbour]) ||
+                        validator.isBlocked(lng, lat, nextLng, nextLat)) {
+                    continue;
+                }
+
+                if (neighbour < 0) {
+                    neighbour = store.add(nextLng, nextLat, tentativeG, current);
+                    index.put(neighbourKey, neighbour);
+                } else if (tentativeG < store.g[neighbour]) {
+                    store.g[neighbour] = tentativeG;
+                    store.parent[neighbour] = current;
+                } else {
+                    continue;
+                }
+
+                double h = heuristic(store.lng[neighbour], store.lat[neighbour], goalLng, goalLat);
+                openSet.push(neighbour, tentativeG, tentativeG + HEURISTIC_WEIGHT * h);
+            }
+        }
+
+        listener.noPathFound(nodesExplored);
+        return new ArrayList<>();
+    }
+
+    /**
+     * Packs a position into a lattice key relative to the search origin.
+     *
+     * @return the packed key, or OUT_OF_RANGE if either axis does not fit in 32 bits
+     */
+    static long key(double originLng, double originLat, double lng, double lat) {
+        long x = Math.round((lng - originLng) * KEY_SCALE);
+        long y = Math.round((lat - originLat) * KEY_SCALE);
+        if (Math.abs(x) >= Integer.MAX_VALUE || Math.abs(y) >= Integer.MAX_VALUE) {
+            return OUT_OF_RANGE;
+        }
+        return (x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private static boolean isClose(double lng1, double lat1, double lng2, double lat2) {
+        double dx = lng1 - lng2;
+        double dy = lat1 - lat2;
+        return Math.sqrt(dx * dx + dy * dy) < MOVE_DISTANCE;
+    }
+
+    private static double heuristic(double lng, double lat, double goalLng, double goalLat) {
+        double dlng = Math.abs(goalLng - lng);
+        double dlat = Math.abs(goalLat - lat);
+
+        double euclideanMoves = Math.sqrt(dlng * dlng + dlat * dlat) / MOVE_DISTANCE;
+        double diagonalMoves = Math.min(dlng, dlat) / MOVE_DISTANCE;
+        double straightMoves = Math.abs(dlng - dlat) / MOVE_DISTANCE;
+        double octileMoves = diagonalMoves * Math.sqrt(2) + straightMoves;
+
+        return Math.min(euclideanMoves, octileMoves);
+    }
+
+    /**
+     * Compass bearing from one position to another in degrees, 0 = East, counterclockwise.
+     */
+    private static double bearing(double lng, double lat, double goalLng, double goalLat) {
+        double degrees = Math.toDegrees(Math.atan2(goalLat - lat, goalLng - lng));
+        return degrees < 0 ? degrees + 360.0 : degrees;
+    }
+
+    private static double normalizeOffset(double degrees) {
+        double offset = degrees % 360.0;
+        if (offset > 180.0) {
+            offset -= 360.0;
+        } else if (offset <= -180.0) {
+            offset += 360.0;
+        }
+        return offset;
+    }
+
+    /**
+     * Visits directions outward from the one nearest the goal, alternating sides,
+     * which is the order obtained by sorting on angular distance.
+     */
+    private static int directionAt(int nearest, int i, boolean ascendingFirst) {
+        if (i == 0) {
+            return nearest;
+        }
+        int ring = (i + 1) / 2;
+        boolean firstSide = (i % 2) == 1;
+        int sign = (firstSide == ascendingFirst) ? 1 : -1;
+        return Math.floorMod(nearest + sign * ring, DIRECTIONS);
+    }
+
+    private static List<Position> reconstructPath(NodeStore store, int node, Position from) {
+        List<Position> path = new ArrayList<>();
+        while (store.parent[node] >= 0) {
+            path.add(new Position(store.lng[node], store.lat[node]));
+            node = store.parent[node];
+        }
+        path.add(from);
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Parallel arrays holding per-node search state.
+     */
+    private static final class NodeStore {
+        double[] lng;
+        double[] lat;
+        double[] g;
+        int[] parent;
+        boolean[] closed;
+        int size;
+
+        NodeStore(int capacity) {
+            lng = new double[capacity];
+            lat = new double[capacity];
+            g = new double[capacity];
+            parent = new int[capacity];
+            closed = new boolean[capacity];
+        }
+
+        int add(double nodeLng, double nodeLat, double gScore, int parentNode) {
+            if (size == lng.length) {
+                int capacity = size << 1;
+                lng = Arrays.copyOf(lng, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                g = Arrays.copyOf(g, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                closed = Arrays.copyOf(closed, capacity);
+            }
+            lng[size] = nodeLng;
+            lat[size] = nodeLat;
+            g[size] = gScore;
+            parent[size] = parentNode;
+            return size++;
+        }
+    }
+}
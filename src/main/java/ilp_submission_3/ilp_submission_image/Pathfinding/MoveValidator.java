@@ -0,0 +1,21 @@
+package ilp_submission_3.ilp_submission_image.Pathfinding;
+
+/**
+ * Decides whether a single drone move between two coordinates is allowed.
+ * Coordinates are passed as primitives so the search loop does not need to
+ * allocate a Position for every candidate neighbour.
+ */
+@FunctionalInterface
+public interface MoveValidator {
+
+    /**
+     * Moves that are never blocked, for searches without restricted areas.
+     */
+    MoveValidator NONE = (fromLng, fromLat, toLng, toLat) -> false;
+
+    /**
+     * @return true if the move from (fromLng, fromLat) to (toLng, toLat) ends in
+     *         or crosses a restricted area
+     */
+    boolean isBlocked(double fromLng, double fromLat, double toLng, double toLat);
+}
@@ -0,0 +1,125 @@
+package ilp_submission_3.ilp_submission_image.Pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of search node ids stored in parallel primitive arrays.
+ * Entries are ordered by f-score, then g-score, then insertion order, so
+ * ties are broken deterministically without a Comparator or entry objects.
+ */
+public final class NodeHeap {
+    private double[] fScores;
+    private double[] gScores;
+    private long[] sequence;
+    private int[] nodes;
+    private int size;
+    private long nextSequence;
+
+    public NodeHeap(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        fScores = new double[capacity];
+        gScores = new double[capacity];
+        sequence = new long[capacity];
+        nodes = new int[capacity];
+    }
+
+    public void push(int node, double gScore, double fScore) {
+        if (size == nodes.length) {
+            grow();
+        }
+        int i = size++;
+        long seq = nextSequence++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(fScore, gScore, seq, parent)) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        set(i, node, gScore, fScore, seq);
+    }
+
+    /**
+     * Removes the entry with the lowest f-score and returns its node id.
+     */
+    public int poll() {
+        int top = nodes[0];
+        int last = --size;
+        if (last > 0) {
+            int node = nodes[last];
+            double g = gScores[last];
+            double f = fScores[last];
+            long seq = sequence[last];
+            int i = 0;
+            int half = last >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < last && lessThan(right, child)) {
+                    child = right;
+                }
+                if (!less(fScores[child], gScores[child], sequence[child], f, g, seq)) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            set(i, node, g, f, seq);
+        }
+        return top;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+        nextSequence = 0;
+    }
+
+    private boolean less(double f, double g, long seq, int index) {
+        return less(f, g, seq, fScores[index], gScores[index], sequence[index]);
+    }
+
+    private boolean lessThan(int a, int b) {
+        return less(fScores[a], gScores[a], sequence[a], fScores[b], gScores[b], sequence[b]);
+    }
+
+    private static boolean less(double f1, double g1, long s1, double f2, double g2, long s2) {
+        if (f1 != f2) {
+            return f1 < f2;
+        }
+        if (g1 != g2) {
+            return g1 < g2;
+        }
+        return s1 < s2;
+    }
+
+    private void move(int from, int to) {
+        nodes[to] = nodes[from];
+        gScores[to] = gScores[from];
+        fScores[to] = fScores[from];
+        sequence[to] = sequence[from];
+    }
+
+    private void set(int index, int node, double g, double f, long seq) {
+        nodes[index] = node;
+        gScores[index] = g;
+        fScores[index] = f;
+        sequence[index] = seq;
+    }
+
+    private void grow() {
+        int capacity = nodes.length << 1;
+        fScores = Arrays.copyOf(fScores, capacity);
+        gScores = Arrays.copyOf(gScores, capacity);
+        sequence = Arrays.copyOf(sequence, capacity);
+        nodes = Arrays.copyOf(nodes, capacity);
+    }
+}
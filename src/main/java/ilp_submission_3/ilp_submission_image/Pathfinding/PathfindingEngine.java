@@ -0,0 +1,16 @@
+package ilp_submission_3.ilp_submission_image.Pathfinding;
+
+/**
+ * A* implementations available behind PathPlanningService.calculateFlightPath.
+ */
+public enum PathfindingEngine {
+    /**
+     * Original search keyed by formatted position strings with boxed collections.
+     */
+    LEGACY,
+
+    /**
+     * Search over packed long lattice keys with primitive maps and heap.
+     */
+    LATTICE
+}
@@ -0,0 +1,21 @@
+package ilp_submission_3.ilp_submission_image.Pathfinding;
+
+/**
+ * Receives progress callbacks from a running flight-path search.
+ * All methods default to no-ops so callers only override what they report.
+ */
+public interface PathfindingListener {
+
+    PathfindingListener NONE = new PathfindingListener() {};
+
+    /**
+     * Called after a node has been taken from the open set.
+     *
+     * @param nodesExplored number of nodes polled so far, including this one
+     */
+    default void nodeExplored(double lng, double lat, int nodesExplored) {}
+
+    default void pathFound(int nodesExplored, int pathLength) {}
+
+    default void noPathFound(int nodesExplored) {}
+}
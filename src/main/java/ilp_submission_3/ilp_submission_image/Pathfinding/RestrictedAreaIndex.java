@@ -0,0 +1,417 @@
+package ilp_submission_3.ilp_submission_image.Pathfinding;
+
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collision index over a snapshot of restricted areas.
+ *
+ * Every polygon edge is stored once in flat arrays together with its direction
+ * vector and inverse slope, and registered in each cell of a uniform grid that its
+ * bounding box touches. Grid cells no edge touches lie entirely inside or outside
+ * every polygon, so their containment is classified at build time and queries that
+ * land in them are answered with a single cell lookup. Only queries near an edge
+ * fall back to exact tests, limited to the edges of the cells they touch and the
+ * polygons whose bounding box contains the point.
+ *
+ * The tests use the same formulas and tolerances as ILPServiceImpl.isInRegion and
+ * PathPlanningServiceImpl's segment checks, in double precision; like
+ * FastILPServiceImpl, containment can only differ from the BigDecimal version for
+ * points within 1e-12 degrees of an edge.
+ */
+public final class RestrictedAreaIndex implements MoveValidator {
+
+    /** Default grid cell size in degrees, a few moves across. */
+    public static final double DEFAULT_CELL_SIZE = 0.0005;
+
+    private static final int MAX_CELLS_PER_AXIS = 256;
+    private static final double ON_SEGMENT_TOLERANCE = 1E-9;
+    private static final double DIRECTION_TOLERANCE = 1e-10;
+
+    /** Padding added to edge bounding boxes so rounding at cell borders cannot drop an edge. */
+    private static final double CELL_MARGIN = 1e-9;
+
+    private static final byte CELL_OUTSIDE = 0;
+    private static final byte CELL_INSIDE = 1;
+    private static final byte CELL_MIXED = 2;
+
+    private final List<RestrictedArea> source;
+
+    // Edge data: endpoints, direction vector, inverse slope and closing-edge flag
+    private final double[] x1;
+    private final double[] y1;
+    private final double[] x2;
+    private final double[] y2;
+    private final double[] dx;
+    private final double[] dy;
+    private final double[] inverseSlope;
+    private final boolean[] closingEdge;
+
+    // Polygon data: edge range and bounding box
+    private final int[] polygonEdgeStart;
+    private final double[] polygonMinX;
+    private final double[] polygonMinY;
+    private final double[] polygonMaxX;
+    private final double[] polygonMaxY;
+    private final int polygonCount;
+    private final long fingerprint;
+
+    // Grid over the union of all polygon bounding boxes
+    private final double originX;
+    private final double originY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellEdges;
+    private final byte[] cellState;
+
+    private RestrictedAreaIndex(List<RestrictedArea> source, List<List<Position>> polygons, double requestedCellSize) {
+        this.source = source;
+        this.polygonCount = polygons.size();
+
+        int edgeCount = 0;
+        for (List<Position> vertices : polygons) {
+            edgeCount += vertices.size();
+        }
+
+        x1 = new double[edgeCount];
+        y1 = new double[edgeCount];
+        x2 = new double[edgeCount];
+        y2 = new double[edgeCount];
+        dx = new double[edgeCount];
+        dy = new double[edgeCount];
+        inverseSlope = new double[edgeCount];
+        closingEdge = new boolean[edgeCount];
+        polygonEdgeStart = new int[polygonCount + 1];
+        polygonMinX = new double[polygonCount];
+        polygonMinY = new double[polygonCount];
+        polygonMaxX = new double[polygonCount];
+        polygonMaxY = new double[polygonCount];
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        int e = 0;
+        for (int p = 0; p < polygonCount; p++) {
+            List<Position> vertices = polygons.get(p);
+            int n = vertices.size();
+            polygonEdgeStart[p] = e;
+            polygonMinX[p] = Double.POSITIVE_INFINITY;
+            polygonMinY[p] = Double.POSITIVE_INFINITY;
+            polygonMaxX[p] = Double.NEGATIVE_INFINITY;
+            polygonMaxY[p] = Double.NEGATIVE_INFINITY;
+
+            // Edge i runs from vertex i to vertex i + 1, wrapping at the end
+            for (int i = 0; i < n; i++, e++) {
+                Position v1 = vertices.get(i);
+                Position v2 = vertices.get((i + 1) % n);
+                x1[e] = v1.lng();
+                y1[e] = v1.lat();
+                x2[e] = v2.lng();
+                y2[e] = v2.lat();
+                dx[e] = x2[e] - x1[e];
+                dy[e] = y2[e] - y1[e];
+                inverseSlope[e] = dy[e] != 0 ? dx[e] / dy[e] : 0.0;
+                closingEdge[e] = i == n - 1;
+
+                polygonMinX[p] = Math.min(polygonMinX[p], x1[e]);
+                polygonMinY[p] = Math.min(polygonMinY[p], y1[e]);
+                polygonMaxX[p] = Math.max(polygonMaxX[p], x1[e]);
+                polygonMaxY[p] = Math.max(polygonMaxY[p], y1[e]);
+            }
+            minX = Math.min(minX, polygonMinX[p]);
+            minY = Math.min(minY, polygonMinY[p]);
+            maxX = Math.max(maxX, polygonMaxX[p]);
+            maxY = Math.max(maxY, polygonMaxY[p]);
+        }
+        polygonEdgeStart[polygonCount] = e;
+        fingerprint = fingerprint(polygonEdgeStart, x1, y1);
+
+        if (edgeCount == 0) {
+            originX = 0;
+            originY = 0;
+            cellSize = requestedCellSize;
+            columns = 0;
+            rows = 0;
+            cellStart = new int[1];
+            cellEdges = new int[0];
+            cellState = new byte[0];
+            return;
+        }
+
+        originX = minX - CELL_MARGIN;
+        originY = minY - CELL_MARGIN;
+        double width = maxX - minX + 2 * CELL_MARGIN;
+        double height = maxY - minY + 2 * CELL_MARGIN;
+        cellSize = Math.max(requestedCellSize, Math.max(width, height) / MAX_CELLS_PER_AXIS);
+        columns = (int) (width / cellSize) + 1;
+        rows = (int) (height / cellSize) + 1;
+
+        // Two passes over the edges: count per cell, then fill a compressed cell-to-edge table
+        int cells = columns * rows;
+        cellStart = new int[cells + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            forEachEdgeCell(edge, cell -> cellStart[cell + 1]++);
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        cellEdges = new int[cellStart[cells]];
+        int[] fill = Arrays.copyOf(cellStart, cells);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int current = edge;
+            forEachEdgeCell(edge, cell -> cellEdges[fill[cell]++] = current);
+        }
+
+        cellState = new byte[cells];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = row * columns + column;
+                if (cellStart[cell] != cellStart[cell + 1]) {
+                    cellState[cell] = CELL_MIXED;
+                } else {
+                    double centreX = originX + (column + 0.5) * cellSize;
+                    double centreY = originY + (row + 0.5) * cellSize;
+                    cellState[cell] = containsExact(centreX, centreY) ? CELL_INSIDE : CELL_OUTSIDE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds an index over the areas with vertices, using the default cell size.
+     */
+    public static RestrictedAreaIndex build(List<RestrictedArea> restrictedAreas) {
+        return build(restrictedAreas, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Builds an index over the areas with vertices. Areas with null or empty vertex
+     * lists are ignored, as in the linear scans.
+     *
+     * @param cellSize requested grid cell size in degrees; widened if the grid would
+     *                 exceed 256 cells per axis
+     */
+    public static RestrictedAreaIndex build(List<RestrictedArea> restrictedAreas, double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        List<List<Position>> polygons = restrictedAreas == null ? List.of() : restrictedAreas.stream()
+                .map(RestrictedArea::vertices)
+                .filter(vertices -> vertices != null && !vertices.isEmpty())
+                .toList();
+        return new RestrictedAreaIndex(restrictedAreas, polygons, cellSize);
+    }
+
+    /**
+     * @return the restricted area list this index was built from
+     */
+    public List<RestrictedArea> source() {
+        return source;
+    }
+
+    /**
+     * 64-bit hash of the polygon vertices. Snapshots with the same geometry have the
+     * same fingerprint even when they are different list instances.
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    public int polygonCount() {
+        return polygonCount;
+    }
+
+    /**
+     * A move is blocked if it ends inside an area, crosses or touches an area edge,
+     * or its midpoint lies inside an area.
+     */
+    @Override
+    public boolean isBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+        return contains(toLng, toLat) ||
+                crossesEdge(fromLng, fromLat, toLng, toLat) ||
+                contains((fromLng + toLng) / 2.0, (fromLat + toLat) / 2.0);
+    }
+
+    /**
+     * @return true if the position is inside or on the border of any restricted area
+     */
+    public boolean contains(Position position) {
+        return contains(position.lng(), position.lat());
+    }
+
+    public boolean contains(double lng, double lat) {
+        int cell = cellOf(lng, lat);
+        if (cell < 0) {
+            return false;
+        }
+        if (cellState[cell] != CELL_MIXED) {
+            return cellState[cell] == CELL_INSIDE;
+        }
+        return containsExact(lng, lat);
+    }
+
+    /**
+     * @return true if the segment intersects or touches any restricted area edge
+     */
+    public boolean crossesEdge(double fromLng, double fromLat, double toLng, double toLat) {
+        if (columns == 0) {
+            return false;
+        }
+        int minColumn = Math.max(0, clampColumn(Math.min(fromLng, toLng) - CELL_MARGIN));
+        int maxColumn = Math.min(columns - 1, clampColumn(Math.max(fromLng, toLng) + CELL_MARGIN));
+        int minRow = Math.max(0, clampRow(Math.min(fromLat, toLat) - CELL_MARGIN));
+        int maxRow = Math.min(rows - 1, clampRow(Math.max(fromLat, toLat) + CELL_MARGIN));
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = row * columns + column;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    if (segmentIntersectsEdge(fromLng, fromLat, toLng, toLat, cellEdges[i])) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean containsExact(double px, double py) {
+        for (int p = 0; p < polygonCount; p++) {
+            if (px >= polygonMinX[p] && px <= polygonMaxX[p] &&
+                    py >= polygonMinY[p] && py <= polygonMaxY[p] &&
+                    polygonContains(p, px, py)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Border test over the open vertex chain, then ray casting towards positive
+     * longitude over every edge, as in isInRegion.
+     */
+    private boolean polygonContains(int polygon, double px, double py) {
+        int start = polygonEdgeStart[polygon];
+        int end = polygonEdgeStart[polygon + 1];
+
+        for (int e = start; e < end; e++) {
+            if (!closingEdge[e] && isPointOnEdge(px, py, e)) {
+                return true;
+            }
+        }
+
+        boolean inside = false;
+        for (int e = start; e < end; e++) {
+            if ((y1[e] > py) != (y2[e] > py)) {
+                double intersectionX = x1[e] + inverseSlope[e] * (py - y1[e]);
+                if (px < intersectionX) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    private boolean isPointOnEdge(double px, double py, int e) {
+        if (px < Math.min(x1[e], x2[e]) || px > Math.max(x1[e], x2[e]) ||
+                py < Math.min(y1[e], y2[e]) || py > Math.max(y1[e], y2[e])) {
+            return false;
+        }
+        double crossProduct = (px - x1[e]) * dy[e] - (py - y1[e]) * dx[e];
+        return Math.abs(crossProduct) < ON_SEGMENT_TOLERANCE;
+    }
+
+    /**
+     * Orientation test between the move segment (p1, p2) and edge e (p3, p4),
+     * including collinear touching within the same tolerance as the linear scan.
+     */
+    private boolean segmentIntersectsEdge(double p1x, double p1y, double p2x, double p2y, int e) {
+        double d1 = (p1x - x1[e]) * dy[e] - dx[e] * (p1y - y1[e]);
+        double d2 = (p2x - x1[e]) * dy[e] - dx[e] * (p2y - y1[e]);
+        double moveX = p2x - p1x;
+        double moveY = p2y - p1y;
+        double d3 = (x1[e] - p1x) * moveY - moveX * (y1[e] - p1y);
+        double d4 = (x2[e] - p1x) * moveY - moveX * (y2[e] - p1y);
+
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) &&
+                ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+
+        if (Math.abs(d1) < DIRECTION_TOLERANCE && inBox(p1x, p1y, x1[e], y1[e], x2[e], y2[e])) return true;
+        if (Math.abs(d2) < DIRECTION_TOLERANCE && inBox(p2x, p2y, x1[e], y1[e], x2[e], y2[e])) return true;
+        if (Math.abs(d3) < DIRECTION_TOLERANCE && inBox(x1[e], y1[e], p1x, p1y, p2x, p2y)) return true;
+        if (Math.abs(d4) < DIRECTION_TOLERANCE && inBox(x2[e], y2[e], p1x, p1y, p2x, p2y)) return true;
+
+        return false;
+    }
+
+    private static boolean inBox(double qx, double qy, double ax, double ay, double bx, double by) {
+        return qx <= Math.max(ax, bx) && qx >= Math.min(ax, bx) &&
+                qy <= Math.max(ay, by) && qy >= Math.min(ay, by);
+    }
+
+    private int cellOf(double lng, double lat) {
+        if (columns == 0) {
+            return -1;
+        }
+        double column = Math.floor((lng - originX) / cellSize);
+        double row = Math.floor((lat - originY) / cellSize);
+        if (!(column >= 0 && column < columns && row >= 0 && row < rows)) {
+            return -1;
+        }
+        return (int) row * columns + (int) column;
+    }
+
+    private int clampColumn(double lng) {
+        return (int) Math.max(-1, Math.min(columns, Math.floor((lng - originX) / cellSize)));
+    }
+
+    private int clampRow(double lat) {
+        return (int) Math.max(-1, Math.min(rows, Math.floor((lat - originY) / cellSize)));
+    }
+
+    private void forEachEdgeCell(int e, CellConsumer consumer) {
+        int minColumn = clampColumn(Math.min(x1[e], x2[e]) - CELL_MARGIN);
+        int maxColumn = clampColumn(Math.max(x1[e], x2[e]) + CELL_MARGIN);
+        int minRow = clampRow(Math.min(y1[e], y2[e]) - CELL_MARGIN);
+        int maxRow = clampRow(Math.max(y1[e], y2[e]) + CELL_MARGIN);
+        for (int row = Math.max(0, minRow); row <= Math.min(rows - 1, maxRow); row++) {
+            for (int column = Math.max(0, minColumn); column <= Math.min(columns - 1, maxColumn); column++) {
+                consumer.accept(row * columns + column);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CellConsumer {
+        void accept(int cell);
+    }
+
+    private static long fingerprint(int[] polygonEdgeStart, double[] xs, double[] ys) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int start : polygonEdgeStart) {
+            hash = mix(hash, start);
+        }
+        for (int i = 0; i < xs.length; i++) {
+            hash = mix(hash, Double.doubleToLongBits(xs[i]));
+            hash = mix(hash, Double.doubleToLongBits(ys[i]));
+        }
+        return hash;
+    }
+
+    // SplitMix64 finaliser applied to the running hash combined with the next value
+    private static long mix(long hash, long value) {
+        long z = hash ^ (value + 0x9E3779B97F4A7C15L + (hash << 6) + (hash >>> 2));
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
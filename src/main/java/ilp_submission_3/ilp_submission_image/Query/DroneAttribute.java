@@ -0,0 +1,76 @@
+package ilp_submission_3.ilp_submission_image.Query;
+
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+
+/**
+ * Drone attributes a query can name, with how their values are compared.
+ *
+ * Numeric attributes compare as doubles, including the id, which only matches
+ * drones whose id parses as a number. Text and flag attributes compare
+ * case-insensitively and only support {@code =} and {@code !=}.
+ */
+public enum DroneAttribute {
+    ID("id", Kind.NUMERIC),
+    NAME("name", Kind.TEXT),
+    CAPACITY("capacity", Kind.NUMERIC),
+    COOLING("cooling", Kind.FLAG),
+    HEATING("heating", Kind.FLAG),
+    MAX_MOVES("maxMoves", Kind.NUMERIC),
+    COST_PER_MOVE("costPerMove", Kind.NUMERIC),
+    COST_INITIAL("costInitial", Kind.NUMERIC),
+    COST_FINAL("costFinal", Kind.NUMERIC);
+
+    public enum Kind { NUMERIC, TEXT, FLAG }
+
+    private static final DroneAttribute[] VALUES = values();
+
+    private final String queryName;
+    private final Kind kind;
+
+    DroneAttribute(String queryName, Kind kind) {
+        this.queryName = queryName;
+        this.kind = kind;
+    }
+
+    /**
+     * @return the attribute with this exact query name, or null if there is none
+     */
+    public static DroneAttribute fromQueryName(String name) {
+        for (DroneAttribute attribute : VALUES) {
+            if (attribute.queryName.equals(name)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    public String queryName() {
+        return queryName;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * The drone's raw value for this attribute; capability attributes are null
+     * when the drone has no capability.
+     */
+    Object valueOf(Drone drone) {
+        if (this == ID) return drone.id();
+        if (this == NAME) return drone.name();
+
+        Drone.Capability capability = drone.capability();
+        if (capability == null) return null;
+        return switch (this) {
+            case CAPACITY -> capability.capacity();
+            case COOLING -> capability.cooling();
+            case HEATING -> capability.heating();
+            case MAX_MOVES -> capability.maxMoves();
+            case COST_PER_MOVE -> capability.costPerMove();
+            case COST_INITIAL -> capability.costInitial();
+            case COST_FINAL -> capability.costFinal();
+            default -> null;
+        };
+    }
+}
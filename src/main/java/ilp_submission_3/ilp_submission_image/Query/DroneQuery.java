@@ -0,0 +1,241 @@
+package ilp_submission_3.ilp_submission_image.Query;
+
+import ilp_submission_3.ilp_submission_image.dto.QueryAttribute;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.DoublePredicate;
+
+/**
+ * A conjunction of query attributes compiled against {@link FleetColumns}.
+ *
+ * Each attribute is resolved, its operator chosen and its value parsed once, at
+ * compile time, into a filter over one column; evaluation then only walks
+ * primitive arrays and bitsets. Conditions that can never match, such as an
+ * unknown attribute or operator, a missing value or a numeric value that does
+ * not parse, compile to a filter that rejects every drone. Numeric equality
+ * allows a tolerance of 0.0001.
+ *
+ * {@link #evaluate} plans the query against the fleet's sorted indexes: the
+ * numeric range condition with the fewest matches seeds the candidates, each
+ * remaining range condition is intersected as an index bitset when that is
+ * smaller than the candidates and filtered otherwise, and the text and flag
+ * conditions filter what is left. A selective query therefore costs a binary
+ * search per range condition plus work proportional to its matches, however
+ * large the fleet. {@link #scan} evaluates every condition as a column scan.
+ */
+public final class DroneQuery {
+
+    static final double EQUALITY_TOLERANCE = 0.0001;
+
+    /**
+     * Narrows a set of candidate rows to those matching one condition, in place.
+     */
+    @FunctionalInterface
+    interface Filter {
+        void retain(FleetColumns fleet, BitSet candidates);
+    }
+
+    private static final Filter NONE = (fleet, candidates) -> candidates.clear();
+
+    /**
+     * A compiled condition; {@code attribute} is set only for numeric conditions
+     * a sorted index can answer.
+     */
+    private record Condition(Filter filter, DroneAttribute attribute, String operator, double value) {
+
+        static Condition of(Filter filter) {
+            return new Condition(filter, null, null, Double.NaN);
+        }
+
+        boolean indexed() {
+            return attribute != null;
+        }
+
+        int estimate(FleetColumns fleet) {
+            return fleet.sortedIndex(attribute).estimate(operator, value);
+        }
+
+        BitSet select(FleetColumns fleet) {
+            BitSet rows = new BitSet(fleet.size());
+            fleet.sortedIndex(attribute).select(operator, value, rows);
+            return rows;
+        }
+    }
+
+    private static final Condition NEVER = Condition.of(NONE);
+
+    private final List<Condition> conditions;
+
+    private DroneQuery(List<Condition> conditions) {
+        this.conditions = conditions;
+    }
+
+    /**
+     * @param attributes conditions that must all hold; null or empty matches every drone
+     */
+    public static DroneQuery compile(List<QueryAttribute> attributes) {
+        List<Condition> conditions = new ArrayList<>();
+        if (attributes != null) {
+            for (QueryAttribute attribute : attributes) {
+                conditions.add(attribute == null ? NEVER
+                        : compileCondition(attribute.attribute(), attribute.operator(), attribute.value()));
+            }
+        }
+        return new DroneQuery(conditions);
+    }
+
+    public static DroneQuery compile(String attribute, String operator, String value) {
+        return new DroneQuery(List.of(compileCondition(attribute, operator, value)));
+    }
+
+    /**
+     * @return the rows of every drone matching all conditions
+     */
+    public BitSet evaluate(FleetColumns fleet) {
+        Condition seed = null;
+        int seedEstimate = Integer.MAX_VALUE;
+        for (Condition condition : conditions) {
+            if (condition == NEVER || condition.filter == NONE) {
+                return new BitSet();
+            }
+            if (condition.indexed()) {
+                int estimate = condition.estimate(fleet);
+                if (estimate < seedEstimate) {
+                    seed = condition;
+                    seedEstimate = estimate;
+                }
+            }
+        }
+        if (seed == null) {
+            return scan(fleet);
+        }
+
+        BitSet candidates = seed.select(fleet);
+        for (Condition condition : conditions) {
+            if (candidates.isEmpty()) break;
+            if (condition == seed || !condition.indexed()) continue;
+            if (condition.estimate(fleet) < candidates.cardinality()) {
+                candidates.and(condition.select(fleet));
+            } else {
+                condition.filter.retain(fleet, candidates);
+            }
+        }
+        for (Condition condition : conditions) {
+            if (candidates.isEmpty()) break;
+            if (!condition.indexed()) {
+                condition.filter.retain(fleet, candidates);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Evaluates every condition as a scan of its column, in query order, without
+     * consulting any index.
+     *
+     * @return the rows of every drone matching all conditions
+     */
+    public BitSet scan(FleetColumns fleet) {
+        BitSet candidates = new BitSet(fleet.size());
+        candidates.set(0, fleet.size());
+        for (Condition condition : conditions) {
+            if (candidates.isEmpty()) break;
+            condition.filter.retain(fleet, candidates);
+        }
+        return candidates;
+    }
+
+    private static Condition compileCondition(String name, String operator, String value) {
+        DroneAttribute attribute = DroneAttribute.fromQueryName(name);
+        if (attribute == null || operator == null || value == null) {
+            return NEVER;
+        }
+        return switch (attribute.kind()) {
+            case NUMERIC -> numeric(attribute, operator, value);
+            case TEXT -> Condition.of(text(attribute, operator, value.toLowerCase()));
+            case FLAG -> Condition.of(flag(attribute, operator, value.toLowerCase()));
+        };
+    }
+
+    private static Condition numeric(DroneAttribute attribute, String operator, String value) {
+        double query;
+        try {
+            query = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return NEVER;
+        }
+        DoublePredicate test = switch (operator) {
+            case "=" -> v -> Math.abs(v - query) < EQUALITY_TOLERANCE;
+            case "!=" -> v -> Math.abs(v - query) >= EQUALITY_TOLERANCE;
+            case "<" -> v -> v < query;
+            case ">" -> v -> v > query;
+            case "<=" -> v -> v <= query;
+            case ">=" -> v -> v >= query;
+            default -> null;
+        };
+        if (test == null) {
+            return NEVER;
+        }
+        Filter filter = (fleet, candidates) -> {
+            candidates.and(fleet.present(attribute));
+            double[] column = fleet.numbers(attribute);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (!test.test(column[i])) {
+                    candidates.clear(i);
+                }
+            }
+        };
+        return SortedColumnIndex.supports(operator)
+                ? new Condition(filter, attribute, operator, query)
+                : Condition.of(filter);
+    }
+
+    private static Filter text(DroneAttribute attribute, String operator, String query) {
+        boolean equal;
+        switch (operator) {
+            case "=" -> equal = true;
+            case "!=" -> equal = false;
+            default -> {
+                return NONE;
+            }
+        }
+        return (fleet, candidates) -> {
+            candidates.and(fleet.present(attribute));
+            String[] column = fleet.texts(attribute);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (column[i].equals(query) != equal) {
+                    candidates.clear(i);
+                }
+            }
+        };
+    }
+
+    /**
+     * Flags compare as the text {@code true} or {@code false}, so any other value
+     * equals no drone and differs from every drone that has the flag.
+     */
+    private static Filter flag(DroneAttribute attribute, String operator, String query) {
+        boolean equal;
+        switch (operator) {
+            case "=" -> equal = true;
+            case "!=" -> equal = false;
+            default -> {
+                return NONE;
+            }
+        }
+        if (!query.equals("true") && !query.equals("false")) {
+            return equal ? NONE : (fleet, candidates) -> candidates.and(fleet.present(attribute));
+        }
+        boolean wanted = query.equals("true") == equal;
+        return (fleet, candidates) -> {
+            candidates.and(fleet.present(attribute));
+            if (wanted) {
+                candidates.and(fleet.flags(attribute));
+            } else {
+                candidates.andNot(fleet.flags(attribute));
+            }
+        };
+    }
+}
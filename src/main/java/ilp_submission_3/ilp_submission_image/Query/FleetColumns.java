@@ -0,0 +1,150 @@
+package ilp_submission_3.ilp_submission_image.Query;
+
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Column-oriented view of a drone fleet snapshot for query evaluation.
+ *
+ * Drone i of the snapshot is row i of every column. Numeric attributes are held
+ * in primitive arrays, flags in bitsets and text lowercased, each with a bitset of
+ * the rows where the value is present; a drone without a capability has none of
+ * the capability attributes. Ids that do not parse as numbers are absent from
+ * the numeric id column but still returned by {@link #ids(BitSet)}.
+ *
+ * Numeric columns also get a {@link SortedColumnIndex} for range conditions,
+ * built the first time a query asks for it, so a snapshot only pays for the
+ * sorts of attributes that are actually queried.
+ */
+public final class FleetColumns {
+
+    private static final DroneAttribute[] ATTRIBUTES = DroneAttribute.values();
+
+    private final List<Drone> source;
+    private final int size;
+    private final String[] ids;
+    private final BitSet[] present = new BitSet[ATTRIBUTES.length];
+    private final double[][] numbers = new double[ATTRIBUTES.length][];
+    private final BitSet[] flags = new BitSet[ATTRIBUTES.length];
+    private final String[][] texts = new String[ATTRIBUTES.length][];
+    private final AtomicReferenceArray<SortedColumnIndex> sortedIndexes =
+            new AtomicReferenceArray<>(ATTRIBUTES.length);
+
+    private FleetColumns(List<Drone> source) {
+        this.source = source;
+        this.size = source.size();
+        this.ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = source.get(i).id();
+        }
+
+        for (DroneAttribute attribute : ATTRIBUTES) {
+            int a = attribute.ordinal();
+            present[a] = new BitSet(size);
+            switch (attribute.kind()) {
+                case NUMERIC -> numbers[a] = new double[size];
+                case FLAG -> flags[a] = new BitSet(size);
+                case TEXT -> texts[a] = new String[size];
+            }
+
+            for (int i = 0; i < size; i++) {
+                Object value = attribute.valueOf(source.get(i));
+                if (value == null) continue;
+                switch (attribute.kind()) {
+                    case NUMERIC -> {
+                        Double number = toNumber(value);
+                        if (number == null) continue;
+                        numbers[a][i] = number;
+                    }
+                    case FLAG -> flags[a].set(i, (Boolean) value);
+                    case TEXT -> texts[a][i] = value.toString().toLowerCase();
+                }
+                present[a].set(i);
+            }
+        }
+    }
+
+    public static FleetColumns build(List<Drone> drones) {
+        return new FleetColumns(drones == null ? List.of() : drones);
+    }
+
+    /**
+     * The snapshot these columns were built from, for callers that rebuild on change.
+     */
+    public List<Drone> source() {
+        return source;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rows where the attribute has a value. Callers must not modify the result.
+     */
+    public BitSet present(DroneAttribute attribute) {
+        return present[attribute.ordinal()];
+    }
+
+    /**
+     * A numeric column; rows the attribute is not {@link #present} for hold 0.
+     */
+    public double[] numbers(DroneAttribute attribute) {
+        return numbers[attribute.ordinal()];
+    }
+
+    /**
+     * Rows whose flag is set. Callers must not modify the result.
+     */
+    public BitSet flags(DroneAttribute attribute) {
+        return flags[attribute.ordinal()];
+    }
+
+    /**
+     * A text column, lowercased; null where the attribute is not present.
+     */
+    public String[] texts(DroneAttribute attribute) {
+        return texts[attribute.ordinal()];
+    }
+
+    /**
+     * The sorted index of a numeric column, built on first use.
+     */
+    SortedColumnIndex sortedIndex(DroneAttribute attribute) {
+        int a = attribute.ordinal();
+        SortedColumnIndex index = sortedIndexes.get(a);
+        if (index == null) {
+            index = SortedColumnIndex.build(numbers[a], present[a], DroneQuery.EQUALITY_TOLERANCE);
+            if (!sortedIndexes.compareAndSet(a, null, index)) {
+                index = sortedIndexes.get(a);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return the ids of the given rows, in snapshot order
+     */
+    public List<String> ids(BitSet rows) {
+        List<String> result = new ArrayList<>(rows.cardinality());
+        for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    private static Double toNumber(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
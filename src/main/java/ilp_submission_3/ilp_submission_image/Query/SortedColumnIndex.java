@@ -0,0 +1,155 @@
+package ilp_submission_3.ilp_submission_image.Query;
+
+import java.util.BitSet;
+
+/**
+ * Rows of one numeric column sorted by value, for range conditions.
+ *
+ * Rows where the attribute is missing or NaN are left out: no comparison with
+ * them can hold. Equal values keep their rows in ascending order. A condition
+ * maps to a contiguous run of the sorted rows found by binary search, so its
+ * size is known in O(log n) and its rows are collected in time proportional to
+ * the matches. Equality keeps DroneQuery's tolerance: the run is widened past
+ * it and the rows at either end are checked exactly.
+ */
+final class SortedColumnIndex {
+
+    private final double[] values;
+    private final int[] rows;
+    private final double tolerance;
+
+    private SortedColumnIndex(double[] values, int[] rows, double tolerance) {
+        this.values = values;
+        this.rows = rows;
+        this.tolerance = tolerance;
+    }
+
+    static SortedColumnIndex build(double[] column, BitSet present, double tolerance) {
+        int[] rows = new int[present.cardinality()];
+        int count = 0;
+        for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+            if (!Double.isNaN(column[i])) {
+                rows[count++] = i;
+            }
+        }
+        int[] sorted = new int[count];
+        System.arraycopy(rows, 0, sorted, 0, count);
+        mergeSort(sorted, new int[count], 0, count, column);
+
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = column[sorted[i]];
+        }
+        return new SortedColumnIndex(values, sorted, tolerance);
+    }
+
+    static boolean supports(String operator) {
+        return switch (operator) {
+            case "=", "<", ">", "<=", ">=" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Upper bound on the rows matching a condition; exact except for equality.
+     */
+    int estimate(String operator, double value) {
+        long run = run(operator, value);
+        return (int) (run & 0xFFFFFFFFL) - (int) (run >>> 32);
+    }
+
+    /**
+     * Adds the rows matching a condition to {@code into}.
+     */
+    void select(String operator, double value, BitSet into) {
+        long run = run(operator, value);
+        int from = (int) (run >>> 32);
+        int to = (int) (run & 0xFFFFFFFFL);
+        boolean equality = operator.equals("=");
+        for (int i = from; i < to; i++) {
+            if (!equality || Math.abs(values[i] - value) < tolerance) {
+                into.set(rows[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the run of sorted positions {@code [from, to)} as {@code from << 32 | to}
+     */
+    private long run(String operator, double value) {
+        if (Double.isNaN(value)) {
+            return 0;
+        }
+        int n = values.length;
+        int from;
+        int to;
+        switch (operator) {
+            case "<" -> { from = 0; to = lowerBound(value); }
+            case "<=" -> { from = 0; to = upperBound(value); }
+            case ">" -> { from = upperBound(value); to = n; }
+            case ">=" -> { from = lowerBound(value); to = n; }
+            case "=" -> { from = lowerBound(value - 2 * tolerance); to = upperBound(value + 2 * tolerance); }
+            default -> throw new IllegalArgumentException("Operator cannot use an index: " + operator);
+        }
+        return (long) from << 32 | Math.max(from, to);
+    }
+
+    /**
+     * First position whose value is not below {@code value}.
+     */
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First position whose value is above {@code value}.
+     */
+    private int upperBound(double value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Stable sort of row numbers by their column value, without boxing.
+     */
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, double[] column) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, mid, column);
+        mergeSort(rows, buffer, mid, to, column);
+        if (column[rows[mid - 1]] <= column[rows[mid]]) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && column[buffer[left]] <= column[buffer[right]])) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+}
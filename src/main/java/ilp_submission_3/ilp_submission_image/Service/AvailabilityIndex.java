@@ -0,0 +1,316 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import ilp_submission_3.ilp_submission_image.dto.DroneForServicePoint;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Availability lookup over a snapshot of drones-for-service-points.
+ *
+ * Every availability slot is parsed once at build time into a closed interval of
+ * nanoseconds of the day. Per drone and day of week, the intervals of all the
+ * service points listing the drone are flattened into disjoint segments, each
+ * labelled with the listing that answers for it: where listings overlap, the one
+ * that comes first in the snapshot wins, as it does in a linear scan. A lookup is
+ * a hash lookup for the drone followed by a binary search over that day's segments.
+ *
+ * For each day of week the index also cuts the day at every drone's segment
+ * boundaries and records which drones are available in each piece, so "who is
+ * available at this instant, and where" is one binary search as well.
+ *
+ * Slots with an unknown day or a missing or malformed time are ignored, as are
+ * listings without a drone id.
+ */
+public final class AvailabilityIndex {
+
+    private static final DayTable EMPTY_DAY = new DayTable(new long[0], new long[0], new Slot[0]);
+
+    private final List<DroneForServicePoint> source;
+    private final Map<String, DayTable[]> tables;
+    private final InstantTable[] instants;
+
+    /**
+     * A drone's availability at an instant.
+     *
+     * @param servicePointId the base the drone flies from at that instant; may be null
+     *                       if the snapshot lists the drone under a null id
+     * @param availability the listing whose slot covers the instant
+     * @param home whether that listing is the first one for the drone in the snapshot
+     */
+    public record Slot(String droneId, Integer servicePointId,
+                       DroneForServicePoint.DroneAvailability availability, boolean home) {
+    }
+
+    /**
+     * An order's date and time reduced to what availability depends on.
+     */
+    public record TimeOfWeek(DayOfWeek day, long nanoOfDay) {
+
+        /**
+         * @return the parsed instant, or null if either part is missing or malformed
+         */
+        public static TimeOfWeek parse(String date, String time) {
+            if (date == null || time == null) {
+                return null;
+            }
+            try {
+                return new TimeOfWeek(LocalDate.parse(date).getDayOfWeek(), LocalTime.parse(time).toNanoOfDay());
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+
+    private AvailabilityIndex(List<DroneForServicePoint> source, Map<String, DayTable[]> tables) {
+        this.source = source;
+        this.tables = tables;
+        this.instants = new InstantTable[7];
+        for (int d = 0; d < instants.length; d++) {
+            List<DayTable> days = new ArrayList<>(tables.size());
+            for (DayTable[] week : tables.values()) {
+                days.add(week[d]);
+            }
+            instants[d] = InstantTable.of(days);
+        }
+    }
+
+    public static AvailabilityIndex build(List<DroneForServicePoint> droneForServicePoints) {
+        // Intervals per drone and day, in snapshot order, which is also precedence order
+        Map<String, List<List<Interval>>> intervals = new LinkedHashMap<>();
+        Map<String, Integer> listings = new HashMap<>();
+        if (droneForServicePoints != null) {
+            for (DroneForServicePoint sp : droneForServicePoints) {
+                if (sp.drones() == null) continue;
+                for (DroneForServicePoint.DroneAvailability da : sp.drones()) {
+                    if (da.id() == null) continue;
+                    int rank = listings.merge(da.id(), 1, Integer::sum) - 1;
+                    List<List<Interval>> days = intervals.computeIfAbsent(da.id(), id -> emptyWeek());
+                    if (da.availability() == null) continue;
+
+                    Slot slot = new Slot(da.id(), sp.servicePointId(), da, rank == 0);
+                    for (DroneForServicePoint.DroneAvailability.Availability availability : da.availability()) {
+                        Interval interval = Interval.parse(availability, rank, slot);
+                        if (interval != null) {
+                            days.get(interval.day.ordinal()).add(interval);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<String, DayTable[]> tables = new LinkedHashMap<>();
+        intervals.forEach((droneId, days) -> {
+            DayTable[] week = new DayTable[7];
+            for (int d = 0; d < week.length; d++) {
+                week[d] = DayTable.of(days.get(d));
+            }
+            tables.put(droneId, week);
+        });
+        return new AvailabilityIndex(droneForServicePoints, tables);
+    }
+
+    /**
+     * The snapshot this index was built from, for callers that rebuild on change.
+     */
+    public List<DroneForServicePoint> source() {
+        return source;
+    }
+
+    /**
+     * @return where the drone is available at the order's date and time, or null if
+     * it is not available, is not listed, or the date or time cannot be parsed
+     */
+    public Slot find(String droneId, String date, String time) {
+        return find(droneId, TimeOfWeek.parse(date, time));
+    }
+
+    public Slot find(String droneId, TimeOfWeek when) {
+        if (when == null) {
+            return null;
+        }
+        DayTable[] week = tables.get(droneId);
+        return week == null ? null : week[when.day().ordinal()].find(when.nanoOfDay());
+    }
+
+    /**
+     * Every drone available at an instant, each with the slot {@link #find} would give it.
+     *
+     * @return the slots in snapshot order; empty if nobody is available or {@code when} is null
+     */
+    public List<Slot> availableAt(TimeOfWeek when) {
+        return when == null ? List.of() : instants[when.day().ordinal()].find(when.nanoOfDay());
+    }
+
+    private static List<List<Interval>> emptyWeek() {
+        List<List<Interval>> days = new ArrayList<>(7);
+        for (int d = 0; d < 7; d++) {
+            days.add(new ArrayList<>());
+        }
+        return days;
+    }
+
+    /**
+     * A slot as a half-open range of nanoseconds, so that the closed slot
+     * {@code [from, until]} covers {@code until} itself.
+     */
+    private record Interval(DayOfWeek day, long start, long end, int rank, Slot slot) {
+
+        static Interval parse(DroneForServicePoint.DroneAvailability.Availability availability, int rank, Slot slot) {
+            if (availability == null || availability.dayOfWeek() == null
+                    || availability.from() == null || availability.until() == null) {
+                return null;
+            }
+            try {
+                DayOfWeek day = DayOfWeek.valueOf(availability.dayOfWeek().toUpperCase());
+                long from = LocalTime.parse(availability.from()).toNanoOfDay();
+                long until = LocalTime.parse(availability.until()).toNanoOfDay();
+                return until < from ? null : new Interval(day, from, until + 1, rank, slot);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Disjoint, sorted segments of one drone's day; {@code slots[i]} answers for
+     * {@code [starts[i], ends[i])}.
+     */
+    private static final class DayTable {
+        private final long[] starts;
+        private final long[] ends;
+        private final Slot[] slots;
+
+        private DayTable(long[] starts, long[] ends, Slot[] slots) {
+            this.starts = starts;
+            this.ends = ends;
+            this.slots = slots;
+        }
+
+        /**
+         * Cuts the day at every interval boundary and gives each piece to the
+         * highest-precedence interval covering it. A drone has a handful of slots
+         * per day, so the quadratic sweep is cheaper than anything cleverer.
+         */
+        static DayTable of(List<Interval> intervals) {
+            if (intervals.isEmpty()) {
+                return EMPTY_DAY;
+            }
+            long[] bounds = new long[intervals.size() * 2];
+            for (int i = 0; i < intervals.size(); i++) {
+                bounds[2 * i] = intervals.get(i).start;
+                bounds[2 * i + 1] = intervals.get(i).end;
+            }
+            Arrays.sort(bounds);
+
+            List<long[]> ranges = new ArrayList<>();
+            List<Slot> owners = new ArrayList<>();
+            for (int b = 0; b + 1 < bounds.length; b++) {
+                long start = bounds[b];
+                long end = bounds[b + 1];
+                if (start == end) continue;
+
+                Interval owner = null;
+                for (Interval interval : intervals) {
+                    if (interval.start <= start && end <= interval.end
+                            && (owner == null || interval.rank < owner.rank)) {
+                        owner = interval;
+                    }
+                }
+                if (owner == null) continue;
+
+                int last = owners.size() - 1;
+                if (last >= 0 && owners.get(last) == owner.slot && ranges.get(last)[1] == start) {
+                    ranges.get(last)[1] = end;
+                } else {
+                    ranges.add(new long[]{start, end});
+                    owners.add(owner.slot);
+                }
+            }
+
+            long[] starts = new long[ranges.size()];
+            long[] ends = new long[ranges.size()];
+            for (int i = 0; i < ranges.size(); i++) {
+                starts[i] = ranges.get(i)[0];
+                ends[i] = ranges.get(i)[1];
+            }
+            return new DayTable(starts, ends, owners.toArray(new Slot[0]));
+        }
+
+        Slot find(long nanoOfDay) {
+            int i = Arrays.binarySearch(starts, nanoOfDay);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            return i >= 0 && nanoOfDay < ends[i] ? slots[i] : null;
+        }
+    }
+
+    /**
+     * One day of week across all drones: {@code available.get(i)} holds the slots of
+     * the drones available in {@code [starts[i], starts[i + 1])}, the last piece
+     * running to the end of the day.
+     */
+    private static final class InstantTable {
+        private final long[] starts;
+        private final List<List<Slot>> available;
+
+        private InstantTable(long[] starts, List<List<Slot>> available) {
+            this.starts = starts;
+            this.available = available;
+        }
+
+        static InstantTable of(List<DayTable> days) {
+            int count = 0;
+            for (DayTable day : days) {
+                count += day.starts.length * 2;
+            }
+            long[] bounds = new long[count];
+            int n = 0;
+            for (DayTable day : days) {
+                for (int i = 0; i < day.starts.length; i++) {
+                    bounds[n++] = day.starts[i];
+                    bounds[n++] = day.ends[i];
+                }
+            }
+            Arrays.sort(bounds);
+
+            long[] starts = new long[count];
+            List<List<Slot>> available = new ArrayList<>();
+            int pieces = 0;
+            for (int b = 0; b < count; b++) {
+                if (b > 0 && bounds[b] == bounds[b - 1]) continue;
+
+                List<Slot> slots = new ArrayList<>();
+                for (DayTable day : days) {
+                    Slot slot = day.find(bounds[b]);
+                    if (slot != null) {
+                        slots.add(slot);
+                    }
+                }
+                // Neighbouring pieces with the same drones share one list
+                if (pieces > 0 && available.get(pieces - 1).equals(slots)) continue;
+
+                starts[pieces++] = bounds[b];
+                available.add(List.copyOf(slots));
+            }
+            return new InstantTable(Arrays.copyOf(starts, pieces), available);
+        }
+
+        List<Slot> find(long nanoOfDay) {
+            int i = Arrays.binarySearch(starts, nanoOfDay);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            return i >= 0 ? available.get(i) : List.of();
+        }
+    }
+}
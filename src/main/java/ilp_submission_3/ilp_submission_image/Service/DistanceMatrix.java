@@ -0,0 +1,137 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import ilp_submission_3.ilp_submission_image.dto.Position;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Pairwise straight-line distances between the locations of one planning request.
+ *
+ * Every distinct position is numbered once and the distances between all of them
+ * are computed up front with the geometry service, so the ordering heuristics see
+ * exactly the values they would get from it directly. They are stored row-major in
+ * one flat array; the geometry is symmetric, so each pair is computed once and
+ * written to both halves. Large requests fill the rows on the planner's candidate
+ * pool.
+ *
+ * Requests with more than {@link #MAX_TABLE_POINTS} locations keep the numbering
+ * but no table, and compute each distance when asked. Positions that were not
+ * given to {@link #build} are also computed on demand.
+ */
+public final class DistanceMatrix {
+
+    /**
+     * Largest request tabulated in full: 2048 locations take 32 MiB of doubles.
+     */
+    static final int MAX_TABLE_POINTS = 2048;
+
+    /**
+     * Fewest locations for which the rows are filled in parallel.
+     */
+    static final int PARALLEL_POINTS = 256;
+
+    private final ILPServiceInterface geometry;
+    private final Map<Position, Integer> indexes;
+    private final Position[] points;
+    private final double[] distances;
+
+    private DistanceMatrix(ILPServiceInterface geometry, Map<Position, Integer> indexes,
+                           Position[] points, double[] distances) {
+        this.geometry = geometry;
+        this.indexes = indexes;
+        this.points = points;
+        this.distances = distances;
+    }
+
+    /**
+     * @param positions locations to tabulate; duplicates and positions with a missing
+     *                  coordinate are skipped
+     * @param pool      pool for filling large tables, or null to fill them on the calling thread
+     */
+    public static DistanceMatrix build(Collection<Position> positions, ILPServiceInterface geometry,
+                                       ForkJoinPool pool) {
+        Map<Position, Integer> indexes = new HashMap<>();
+        List<Position> points = new ArrayList<>();
+        for (Position position : positions) {
+            if (position == null || position.lng() == null || position.lat() == null) {
+                continue;
+            }
+            if (indexes.putIfAbsent(position, points.size()) == null) {
+                points.add(position);
+            }
+        }
+
+        int n = points.size();
+        Position[] array = points.toArray(new Position[0]);
+        if (n > MAX_TABLE_POINTS) {
+            return new DistanceMatrix(geometry, indexes, array, null);
+        }
+
+        double[] distances = new double[n * n];
+        IntStream rows = IntStream.range(0, n);
+        if (pool != null && n >= PARALLEL_POINTS) {
+            pool.submit(() -> rows.parallel().forEach(i -> fillRow(i, array, distances, geometry))).join();
+        } else {
+            rows.forEach(i -> fillRow(i, array, distances, geometry));
+        }
+        return new DistanceMatrix(geometry, indexes, array, distances);
+    }
+
+    /**
+     * Computes row i to the right of the diagonal and mirrors it into column i;
+     * no two rows write the same cell.
+     */
+    private static void fillRow(int i, Position[] points, double[] distances, ILPServiceInterface geometry) {
+        int n = points.length;
+        for (int j = i + 1; j < n; j++) {
+            double distance = geometry.distance(points[i], points[j]);
+            distances[i * n + j] = distance;
+            distances[j * n + i] = distance;
+        }
+    }
+
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * @return the number of a position given to {@link #build}, or -1
+     */
+    public int indexOf(Position position) {
+        Integer index = position != null ? indexes.get(position) : null;
+        return index != null ? index : -1;
+    }
+
+    public Position position(int index) {
+        return points[index];
+    }
+
+    /**
+     * @param from the number of a tabulated position
+     * @param to   the number of a tabulated position
+     */
+    public double distance(int from, int to) {
+        if (distances == null) {
+            return from == to ? 0.0 : geometry.distance(points[from], points[to]);
+        }
+        return distances[from * points.length + to];
+    }
+
+    /**
+     * The distance between two positions, from the table when both are in it.
+     */
+    public double distance(Position from, Position to) {
+        int i = indexOf(from);
+        int j = indexOf(to);
+        if (i < 0 || j < 0) {
+            return geometry.distance(from, to);
+        }
+        return distance(i, j);
+    }
+}
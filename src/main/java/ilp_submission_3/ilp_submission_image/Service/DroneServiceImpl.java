@@ -3,17 +3,18 @@ package ilp_submission_3.ilp_submission_image.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ilp_submission_3.ilp_submission_image.Configuration.ILPEndpointProvider;
+import ilp_submission_3.ilp_submission_image.Query.DroneQuery;
+import ilp_submission_3.ilp_submission_image.Query.FleetColumns;
 import ilp_submission_3.ilp_submission_image.dto.*;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 
-import java.time.DayOfWeek;
-import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,10 +25,23 @@ public class DroneServiceImpl implements DroneService {
     private final ILPServiceInterface ilpService;
 
     private final ILPEndpointProvider endpointProvider;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private volatile AvailabilityIndex availabilityIndex = AvailabilityIndex.build(List.of());
+
+    private volatile FleetColumns fleetColumns = FleetColumns.build(List.of());
     public DroneServiceImpl(RestTemplate restTemplate, ILPServiceInterface ilpService, ILPEndpointProvider endpointProvider) {
+        this(restTemplate, ilpService, endpointProvider, ReferenceDataCache.passThrough());
+    }
+
+    @Autowired
+    public DroneServiceImpl(RestTemplate restTemplate, ILPServiceInterface ilpService, ILPEndpointProvider endpointProvider,
+                            ReferenceDataCache referenceDataCache) {
         this.restTemplate = restTemplate;
         this.ilpService = ilpService;
         this.endpointProvider = endpointProvider;
+        this.referenceDataCache = referenceDataCache;
     }
 
     private static final double MOVE_DISTANCE = 0.00015;
@@ -35,39 +49,44 @@ public class DroneServiceImpl implements DroneService {
 
     @Override
     public List<Drone> getAllDrones() {
-        String url = endpointProvider.getEndpoint() + "/drones";
-        Drone[] drones = restTemplate.getForObject(url, Drone[].class);
+        String endpoint = endpointProvider.getEndpoint();
+        return referenceDataCache.get(endpoint, "/drones", Drone.class, () -> {
+            Drone[] drones = restTemplate.getForObject(endpoint + "/drones", Drone[].class);
 
-        List<Drone> droneList = new ArrayList<>();
-        if (drones != null) {
-            droneList.addAll(Arrays.asList(drones));
-        }
-        return droneList;
+            List<Drone> droneList = new ArrayList<>();
+            if (drones != null) {
+                droneList.addAll(Arrays.asList(drones));
+            }
+            return droneList;
+        });
     }
 
     @Override
     public List<DroneForServicePoint> getAllServicePoints() {
-
-        String url = endpointProvider.getEndpoint() + "/drones-for-service-points";
-        DroneForServicePoint[] droneForServicePoints = restTemplate.getForObject(url, DroneForServicePoint[].class);
-
-        List<DroneForServicePoint> droneForServicePointList = new ArrayList<>();
-        if (droneForServicePoints != null) {
-            droneForServicePointList.addAll(Arrays.asList(droneForServicePoints));
-        }
-        return droneForServicePointList;
+        String endpoint = endpointProvider.getEndpoint();
+        return referenceDataCache.get(endpoint, "/drones-for-service-points", DroneForServicePoint.class, () -> {
+            DroneForServicePoint[] droneForServicePoints = restTemplate.getForObject(
+                    endpoint + "/drones-for-service-points", DroneForServicePoint[].class);
+
+            List<DroneForServicePoint> droneForServicePointList = new ArrayList<>();
+            if (droneForServicePoints != null) {
+                droneForServicePointList.addAll(Arrays.asList(droneForServicePoints));
+            }
+            return droneForServicePointList;
+        });
     }
 
     @Override
     public List<DroneServicePoint> getServicePointLocations() {
-
-        String url = endpointProvider.getEndpoint() + "/service-points";
-        DroneServicePoint[] points = restTemplate.getForObject(url, DroneServicePoint[].class);
-        if (points != null) {
-            return Arrays.asList(points);
-        } else {
-            return new ArrayList<>();
-        }
+        String endpoint = endpointProvider.getEndpoint();
+        return referenceDataCache.get(endpoint, "/service-points", DroneServicePoint.class, () -> {
+            DroneServicePoint[] points = restTemplate.getForObject(endpoint + "/service-points", DroneServicePoint[].class);
+            if (points != null) {
+                return Arrays.asList(points);
+            } else {
+                return new ArrayList<>();
+            }
+        });
     }
 
 
@@ -102,130 +121,27 @@ public class DroneServiceImpl implements DroneService {
 
     @Override
     public List<String> queryDronesByPath(String attributeName, String attributeValue) {
-        List<Drone> allDrones = getAllDrones();
-        List<String> result = new ArrayList<>();
-
-        for (Drone drone : allDrones) {
-            if (matchesAttribute(drone, attributeName, "=", attributeValue)) {
-                result.add(drone.id());
-            }
-        }
-
-        return result;
+        FleetColumns fleet = fleetColumns(getAllDrones());
+        return fleet.ids(DroneQuery.compile(attributeName, "=", attributeValue).evaluate(fleet));
     }
 
     @Override
     public List<String> queryDrones(List<QueryAttribute> queryAttributes) {
-        List<Drone> allDrones = getAllDrones();
-        List<String> result = new ArrayList<>();
-
-        for (Drone drone : allDrones) {
-            boolean matchesAll = true;
-
-            for (QueryAttribute query : queryAttributes) {
-                if (!matchesAttribute(drone, query.attribute(), query.operator(), query.value())) {
-                    matchesAll = false;
-                    break;
-                }
-            }
-
-            if (matchesAll) {
-                result.add(drone.id());
-            }
-        }
-        return result;
+        FleetColumns fleet = fleetColumns(getAllDrones());
+        return fleet.ids(DroneQuery.compile(queryAttributes).evaluate(fleet));
     }
 
-
-    private boolean matchesAttribute(Drone drone, String attributeName, String operator, String value) {
-        try {
-
-            switch (attributeName) {
-                case "id":
-                    return compareValues(drone.id(), operator, value, true);
-                case "name":
-                    return compareValues(drone.name(), operator, value, false);
-
-            }
-
-            if (drone.capability() != null) {
-                switch (attributeName) {
-                    case "capacity":
-                        return compareValues(drone.capability().capacity(), operator, value, true);
-                    case "cooling":
-                        return compareValues(drone.capability().cooling(), operator, value, false);
-                    case "heating":
-                        return compareValues(drone.capability().heating(), operator, value, false);
-                    case "maxMoves":
-                        return compareValues(drone.capability().maxMoves(), operator, value, true);
-                    case "costPerMove":
-                        return compareValues(drone.capability().costPerMove(), operator, value, true);
-                    case "costInitial":
-                        return compareValues(drone.capability().costInitial(), operator, value, true);
-                    case "costFinal":
-                        return compareValues(drone.capability().costFinal(), operator, value, true);
-                }
-            }
-
-            return false;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private boolean compareValues(Object droneValue, String operator, String queryValue, boolean isNumeric) {
-        if (droneValue == null) {
-            return false;
-        }
-
-        if (isNumeric) {
-            double droneNum;
-            double queryNum;
-
-            try {
-                if (droneValue instanceof Integer) {
-                    droneNum = ((Integer) droneValue).doubleValue();
-                } else if (droneValue instanceof Double) {
-                    droneNum = (Double) droneValue;
-                } else {
-                    droneNum = Double.parseDouble(droneValue.toString());
-                }
-
-                queryNum = Double.parseDouble(queryValue);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-
-            switch (operator) {
-                case "=":
-                    return Math.abs(droneNum - queryNum) < 0.0001;
-                case "!=":
-                    return Math.abs(droneNum - queryNum) >= 0.0001;
-                case "<":
-                    return droneNum < queryNum;
-                case ">":
-                    return droneNum > queryNum;
-                case "<=":
-                    return droneNum <= queryNum;
-                case ">=":
-                    return droneNum >= queryNum;
-                default:
-                    return false;
-            }
-        } else {
-
-            String droneStr = droneValue.toString().toLowerCase();
-            String queryStr = queryValue.toLowerCase();
-
-            switch (operator) {
-                case "=":
-                    return droneStr.equals(queryStr);
-                case "!=":
-                    return !droneStr.equals(queryStr);
-                default:
-                    return false;
-            }
-        }
+    /**
+     * Returns the query columns for a fleet snapshot, building them only when a
+     * different list instance is passed in.
+     */
+    private FleetColumns fleetColumns(List<Drone> drones) {
+        FleetColumns columns = fleetColumns;
+        if (columns.source() != drones) {
+            columns = FleetColumns.build(drones);
+            fleetColumns = columns;
+        }
+        return columns;
     }
 
     @Override
@@ -259,11 +175,16 @@ public class DroneServiceImpl implements DroneService {
 
         List<Drone> allDrones = getAllDrones();
         List<DroneForServicePoint> droneForServicePoints = getAllServicePoints();
+        AvailabilityIndex index = availabilityIndex(droneForServicePoints);
+        Map<MedDispatchRec, AvailabilityIndex.TimeOfWeek> times = parseTimes(dispatchRecords);
+        Map<String, Position> droneLocations = needsServicePointLocations(dispatchRecords)
+                ? resolveDroneLocations(droneForServicePoints)
+                : Map.of();
         List<String> result = new ArrayList<>();
 
         // 对每个无人机检查
         for (Drone drone : allDrones) {
-            if (canDroneHandleAllDateGroups(drone, dispatchesByDate, droneForServicePoints)) {
+            if (canDroneHandleAllDateGroups(drone, dispatchesByDate, index, times, droneLocations)) {
                 result.add(drone.id());
             }
         }
@@ -273,19 +194,18 @@ public class DroneServiceImpl implements DroneService {
 
     private boolean canDroneHandleAllDateGroups(Drone drone,
                                                 Map<String, List<MedDispatchRec>> dispatchesByDate,
-                                                List<DroneForServicePoint> droneForServicePoints) {
+                                                AvailabilityIndex index,
+                                                Map<MedDispatchRec, AvailabilityIndex.TimeOfWeek> times,
+                                                Map<String, Position> droneLocations) {
         if (drone.capability() == null) {
             return false;
         }
 
-        DroneForServicePoint.DroneAvailability droneAvailability =
-                findDroneAvailability(drone.id(), droneForServicePoints);
-
         // 遍历每个日期的配送组
         for (Map.Entry<String, List<MedDispatchRec>> entry : dispatchesByDate.entrySet()) {
             List<MedDispatchRec> dailyDispatches = entry.getValue();
 
-            if (!canDroneHandleDailyDispatches(drone, dailyDispatches, droneAvailability)) {
+            if (!canDroneHandleDailyDispatches(drone, dailyDispatches, index, times, droneLocations)) {
                 return false;
             }
         }
@@ -295,10 +215,12 @@ public class DroneServiceImpl implements DroneService {
 
     private boolean canDroneHandleDailyDispatches(Drone drone,
                                                   List<MedDispatchRec> dailyDispatches,
-                                                  DroneForServicePoint.DroneAvailability droneAvailability) {
+                                                  AvailabilityIndex index,
+                                                  Map<MedDispatchRec, AvailabilityIndex.TimeOfWeek> times,
+                                                  Map<String, Position> droneLocations) {
 
         for (MedDispatchRec record : dailyDispatches) {
-            if (!canDroneHandleDispatch(drone, record, droneAvailability)) {
+            if (!canDroneHandleDispatch(drone, record, index, times, droneLocations)) {
                 return false;
             }
 
@@ -332,11 +254,12 @@ public class DroneServiceImpl implements DroneService {
         }
 
         List<Drone> allDrones = getAllDrones();
-        List<DroneForServicePoint> droneForServicePoints = getAllServicePoints();
+        AvailabilityIndex index = availabilityIndex(getAllServicePoints());
+        Map<MedDispatchRec, AvailabilityIndex.TimeOfWeek> times = parseTimes(dispatchRecords);
         List<String> result = new ArrayList<>();
 
         for (Drone drone : allDrones) {
-            if (canDroneHandleAnyDispatch(drone, dispatchRecords, droneForServicePoints)) {
+            if (canDroneHandleAnyDispatch(drone, dispatchRecords, index, times)) {
                 result.add(drone.id());
             }
         }
@@ -345,16 +268,14 @@ public class DroneServiceImpl implements DroneService {
     }
 
     private boolean canDroneHandleAnyDispatch(Drone drone, List<MedDispatchRec> dispatchRecords,
-                                              List<DroneForServicePoint> droneForServicePoints) {
+                                              AvailabilityIndex index,
+                                              Map<MedDispatchRec, AvailabilityIndex.TimeOfWeek> times) {
         if (drone.capability() == null) {
             return false;
         }
 
-        DroneForServicePoint.DroneAvailability droneAvailability =
-                findDroneAvailability(drone.id(), droneForServicePoints);
-
         for (MedDispatchRec record : dispatchRecords) {
-            if (canDroneHandleDispatchAny(drone, record, droneAvailability)) {
+            if (canDroneHandleDispatchAny(drone, record, index, times)) {
                 return true;
             }
         }
@@ -362,20 +283,34 @@ public class DroneServiceImpl implements DroneService {
         return false;
     }
 
-    private DroneForServicePoint.DroneAvailability findDroneAvailability(String droneId, List<DroneForServicePoint> droneForServicePoints) {
-        for (DroneForServicePoint sp : droneForServicePoints) {
-            if (sp.drones() != null) {
-                for (DroneForServicePoint.DroneAvailability da : sp.drones()) {
-                    if (da.id().equals(droneId)) {
-                        return da;
-                    }
-                }
-            }
+    /**
+     * Returns the availability index for a drones-for-service-points snapshot,
+     * building it only when a different list instance is passed in.
+     */
+    private AvailabilityIndex availabilityIndex(List<DroneForServicePoint> droneForServicePoints) {
+        AvailabilityIndex index = availabilityIndex;
+        if (index.source() != droneForServicePoints) {
+            index = AvailabilityIndex.build(droneForServicePoints);
+            availabilityIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Parses each record's date and time once per query rather than once per drone.
+     */
+    private Map<MedDispatchRec, AvailabilityIndex.TimeOfWeek> parseTimes(List<MedDispatchRec> dispatchRecords) {
+        Map<MedDispatchRec, AvailabilityIndex.TimeOfWeek> times = new IdentityHashMap<>();
+        for (MedDispatchRec record : dispatchRecords) {
+            times.put(record, AvailabilityIndex.TimeOfWeek.parse(record.date(), record.time()));
         }
-        return null;
+        return times;
     }
+
     private boolean canDroneHandleDispatch(Drone drone, MedDispatchRec record,
-                                           DroneForServicePoint.DroneAvailability droneAvailability) {
+                                           AvailabilityIndex index,
+                                           Map<MedDispatchRec, AvailabilityIndex.TimeOfWeek> times,
+                                           Map<String, Position> droneLocations) {
         if (drone.capability() == null || record.requirements() == null) {
             return false;
         }
@@ -404,14 +339,15 @@ public class DroneServiceImpl implements DroneService {
 
         // Check availability (date and time)
         if (record.date() != null && record.time() != null) {
-            if (!isDroneAvailable(droneAvailability, record.date(), record.time())) {
+            if (!isDroneAvailable(index, drone.id(), times.get(record))) {
                 return false;
             }
         }
 
         // Check maxCost if present
         if (req.maxCost() != null) {
-            if (!canAffordDelivery(drone, record, droneAvailability)) {
+            Position servicePointLocation = droneLocations.get(drone.id());
+            if (!canAffordDelivery(drone, record, servicePointLocation)) {
                 return false;
             }
         }
@@ -420,14 +356,12 @@ public class DroneServiceImpl implements DroneService {
     }
 
 
-    private boolean canAffordDelivery(Drone drone, MedDispatchRec record,
-                                      DroneForServicePoint.DroneAvailability droneAvailability) {
+    private boolean canAffordDelivery(Drone drone, MedDispatchRec record, Position servicePointLocation) {
         if (drone.capability() == null || record.requirements() == null ||
                 record.requirements().maxCost() == null || record.delivery() == null) {
             return true;
         }
 
-        Position servicePointLocation = findServicePointLocation(droneAvailability);
         if (servicePointLocation == null) {
             return false;
         }
@@ -458,47 +392,54 @@ public class DroneServiceImpl implements DroneService {
         return totalCost <= record.requirements().maxCost();
     }
 
-    private Position findServicePointLocation(DroneForServicePoint.DroneAvailability droneAvailability) {
-        if (droneAvailability == null) {
-            return null;
+    private boolean needsServicePointLocations(List<MedDispatchRec> dispatchRecords) {
+        for (MedDispatchRec record : dispatchRecords) {
+            if (record.requirements() != null && record.requirements().maxCost() != null &&
+                    record.delivery() != null) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        List<DroneForServicePoint> servicePoints = getAllServicePoints();
+    /**
+     * Resolves each drone to the location of the first service point listing it,
+     * fetching the service point locations once for the whole query.
+     *
+     * @return drone id to service point location; drones without a located service point are absent
+     */
+    private Map<String, Position> resolveDroneLocations(List<DroneForServicePoint> droneForServicePoints) {
+        Map<Integer, Position> servicePointLocations = new HashMap<>();
+        for (DroneServicePoint sp : getServicePointLocations()) {
+            if (sp.id() != null && sp.location() != null) {
+                servicePointLocations.putIfAbsent(sp.id(),
+                        new Position(sp.location().lng(), sp.location().lat()));
+            }
+        }
 
-        for (DroneForServicePoint sp : servicePoints) {
+        Map<String, Integer> droneServicePoints = new HashMap<>();
+        for (DroneForServicePoint sp : droneForServicePoints) {
             if (sp.drones() != null) {
                 for (DroneForServicePoint.DroneAvailability da : sp.drones()) {
-                    if (da.id().equals(droneAvailability.id())) {
-                        return getServicePointLocationById(sp.servicePointId());
-                    }
+                    droneServicePoints.putIfAbsent(da.id(), sp.servicePointId());
                 }
             }
         }
 
-        return null;
-    }
-
-
-    private Position getServicePointLocationById(Integer servicePointId) {
-        List<DroneServicePoint> allServicePoints = getServicePointLocations();
-
-        for (DroneServicePoint sp : allServicePoints) {
-            if (sp.id().equals(servicePointId)) {
-                if (sp.location() != null) {
-                    return new Position(
-                            sp.location().lng(),
-                            sp.location().lat()
-                    );
-                }
+        Map<String, Position> droneLocations = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : droneServicePoints.entrySet()) {
+            Position location = servicePointLocations.get(entry.getValue());
+            if (location != null) {
+                droneLocations.put(entry.getKey(), location);
             }
         }
-
-        return null;
+        return droneLocations;
     }
 
 
     private boolean canDroneHandleDispatchAny(Drone drone, MedDispatchRec record,
-                                              DroneForServicePoint.DroneAvailability droneAvailability) {
+                                              AvailabilityIndex index,
+                                              Map<MedDispatchRec, AvailabilityIndex.TimeOfWeek> times) {
         if (drone.capability() == null || record.requirements() == null) {
             return false;
         }
@@ -529,55 +470,18 @@ public class DroneServiceImpl implements DroneService {
         }
 
         if (record.date() != null && record.time() != null) {
-            if (!isDroneAvailable(droneAvailability, record.date(), record.time())) {
+            if (!isDroneAvailable(index, drone.id(), times.get(record))) {
                 return false;
             }
         }
         return true;
     }
 
-    private boolean isDroneAvailable(DroneForServicePoint.DroneAvailability droneAvailability, String dateStr, String timeStr) {
-        try {
-            LocalDate date = LocalDate.parse(dateStr);
-            LocalTime time = LocalTime.parse(timeStr);
-            DayOfWeek dayOfWeek = date.getDayOfWeek();
-
-            if (droneAvailability == null || droneAvailability.availability() == null
-                    || droneAvailability.availability().isEmpty()) {
-                return false;
-            }
-
-            for (DroneForServicePoint.DroneAvailability.Availability slot : droneAvailability.availability()) {
-                if (slot.dayOfWeek() == null) {
-                    continue;
-                }
-
-                DayOfWeek slotDay;
-                try {
-                    slotDay = DayOfWeek.valueOf(slot.dayOfWeek().toUpperCase());
-                } catch (IllegalArgumentException e) {
-                    continue;
-                }
-
-                if (slotDay.equals(dayOfWeek)) {
-                    if (slot.from() == null || slot.until() == null) {
-                        continue;
-                    }
-
-                    LocalTime fromTime = LocalTime.parse(slot.from());
-                    LocalTime untilTime = LocalTime.parse(slot.until());
-
-                    if (!time.isBefore(fromTime) && !time.isAfter(untilTime)) {
-                        return true;
-                    }
-                }
-            }
-
-            return false;
-        } catch (Exception e) {
-            return false;
-        }
+    /**
+     * Only the first service point listing a drone counts as its base here.
+     */
+    private boolean isDroneAvailable(AvailabilityIndex index, String droneId, AvailabilityIndex.TimeOfWeek when) {
+        AvailabilityIndex.Slot slot = index.find(droneId, when);
+        return slot != null && slot.home();
     }
 }
-
-
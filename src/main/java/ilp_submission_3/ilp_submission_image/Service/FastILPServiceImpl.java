@@ -0,0 +1,126 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import ilp_submission_3.ilp_submission_image.Pathfinding.CompassStepTable;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocation-free implementation of ILPServiceInterface using plain double arithmetic.
+ * Selected with {@code ilp.geometry.mode=double}; ILPServiceImpl remains the default.
+ *
+ * Error bound relative to the BigDecimal implementation, for coordinates within the
+ * valid longitude/latitude range. BigDecimal.valueOf works on the shortest decimal form
+ * of each coordinate, which may differ from the binary value by half an ulp, so the
+ * bounds have an absolute term tied to the coordinate magnitude:
+ * - distance: within 1e-15 * distance + 6e-14 (two ulps of a coordinate up to 180)
+ * - nextPosition: each coordinate within two ulps (about 1.4e-14 degrees at |value| < 64)
+ * - isClose: can only differ when the distance is within 1e-15 relative of 0.00015
+ * - isInRegion: can only differ for points within 1e-12 degrees of a polygon edge,
+ *   where the BigDecimal version itself rounds the crossing to 15 decimal places
+ */
+@Service
+@ConditionalOnProperty(name = "ilp.geometry.mode", havingValue = "double")
+public class FastILPServiceImpl implements ILPServiceInterface {
+    private static final double MOVE_STEP = 0.00015;
+    private static final double ON_SEGMENT_TOLERANCE = 1E-9;
+
+    @Override
+    public double distance(Position p1, Position p2) {
+        double dx = p1.lng() - p2.lng();
+        double dy = p1.lat() - p2.lat();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Override
+    public boolean isClose(Position p1, Position p2) {
+        return distance(p1, p2) < 0.00015;
+    }
+
+    @Override
+    public Position nextPosition(Position start, double angle) {
+        int direction = CompassStepTable.indexOf(angle);
+        if (direction >= 0) {
+            return new Position(
+                    start.lng() + CompassStepTable.lngStep(direction),
+                    start.lat() + CompassStepTable.latStep(direction)
+            );
+        }
+
+        // Same angle convention as ILPServiceImpl: 0° = East, counterclockwise
+        double rad = Math.toRadians(angle);
+        return new Position(
+                start.lng() + MOVE_STEP * Math.cos(rad),
+                start.lat() + MOVE_STEP * Math.sin(rad)
+        );
+    }
+
+    @Override
+    public List<Position> nextPositions(Position start) {
+        double[] lng = new double[CompassStepTable.DIRECTIONS];
+        double[] lat = new double[CompassStepTable.DIRECTIONS];
+        CompassStepTable.neighbours(start.lng(), start.lat(), lng, lat);
+
+        List<Position> neighbours = new ArrayList<>(CompassStepTable.DIRECTIONS);
+        for (int k = 0; k < CompassStepTable.DIRECTIONS; k++) {
+            neighbours.add(new Position(lng[k], lat[k]));
+        }
+        return neighbours;
+    }
+
+    @Override
+    public boolean isInRegion(Position point, List<Position> vertices) {
+        double px = point.lng();
+        double py = point.lat();
+        int n = vertices.size();
+
+        // Phase 1: border detection
+        for (int i = 0; i < n - 1; i++) {
+            Position v1 = vertices.get(i);
+            Position v2 = vertices.get(i + 1);
+            if (isPointOnSegment(px, py, v1.lng(), v1.lat(), v2.lng(), v2.lat())) {
+                return true;
+            }
+        }
+
+        // Phase 2: ray casting towards positive longitude
+        boolean inside = false;
+        int j = n - 1;
+        for (int i = 0; i < n; i++) {
+            double viLng = vertices.get(i).lng();
+            double viLat = vertices.get(i).lat();
+            double vjLng = vertices.get(j).lng();
+            double vjLat = vertices.get(j).lat();
+
+            if ((viLat > py) != (vjLat > py)) {
+                double latDiff = vjLat - viLat;
+                if (latDiff != 0.0) {
+                    double intersectionX = (vjLng - viLng) * (py - viLat) / latDiff + viLng;
+                    if (px < intersectionX) {
+                        inside = !inside;
+                    }
+                }
+            }
+            j = i;
+        }
+        return inside;
+    }
+
+    /**
+     * Checks if a point lies on a segment, using the same bounding box and
+     * cross product tolerance as ILPServiceImpl.
+     */
+    private boolean isPointOnSegment(double px, double py,
+                                     double v1x, double v1y, double v2x, double v2y) {
+        if (px < Math.min(v1x, v2x) || px > Math.max(v1x, v2x) ||
+                py < Math.min(v1y, v2y) || py > Math.max(v1y, v2y)) {
+            return false;
+        }
+
+        double crossProduct = (px - v1x) * (v2y - v1y) - (py - v1y) * (v2x - v1x);
+        return Math.abs(crossProduct) < ON_SEGMENT_TOLERANCE;
+    }
+}
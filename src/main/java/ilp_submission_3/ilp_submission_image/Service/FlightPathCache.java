@@ -0,0 +1,159 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerProperties;
+import ilp_submission_3.ilp_submission_image.Pathfinding.PathfindingEngine;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of flight segment search results.
+ *
+ * Entries are keyed by engine, restricted-area fingerprint and both endpoints
+ * snapped to the 1e-9 degree grid the lattice engine uses for node identity.
+ * Only one fingerprint is cached at a time: the first lookup with a different
+ * set of no-fly zones drops every entry, so changed zones can never serve a
+ * stale path. Failed searches are cached too, since proving a goal unreachable
+ * is the most expensive search there is.
+ *
+ * Callers always receive a fresh mutable list starting at the requested
+ * {@code from}, exactly as an uncached search would return it.
+ */
+@Service
+public class FlightPathCache {
+
+    private static final double SNAP_SCALE = 1e9;
+
+    // Rough heap cost on a 64-bit JVM with compressed oops: map entry plus key, and
+    // one array slot plus a Position record with two boxed Doubles per path point
+    private static final long ENTRY_BYTES = 120;
+    private static final long POSITION_BYTES = 60;
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, List<Position>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentFingerprint;
+    private long estimatedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public FlightPathCache(PlannerProperties properties) {
+        this(properties.getPathCacheSize());
+    }
+
+    public FlightPathCache(int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    /**
+     * A cache that never stores anything, for callers constructed without one.
+     */
+    public static FlightPathCache disabled() {
+        return new FlightPathCache(0);
+    }
+
+    /**
+     * Returns the cached path between two positions, running the search on a miss.
+     *
+     * @param fingerprint identifies the restricted areas the search avoids
+     * @param search computes the path when it is not cached
+     */
+    public List<Position> get(PathfindingEngine engine, long fingerprint, Position from, Position to,
+                              Supplier<List<Position>> search) {
+        if (maxEntries == 0) {
+            misses.increment();
+            return search.get();
+        }
+
+        Key key = new Key(engine, fingerprint, snap(from.lng()), snap(from.lat()), snap(to.lng()), snap(to.lat()));
+        synchronized (this) {
+            if (fingerprint != currentFingerprint) {
+                if (!entries.isEmpty()) {
+                    invalidations.increment();
+                }
+                entries.clear();
+                estimatedBytes = 0;
+                currentFingerprint = fingerprint;
+            }
+            List<Position> cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return copyFrom(cached, from);
+            }
+        }
+
+        misses.increment();
+        List<Position> path = search.get();
+        List<Position> snapshot = List.copyOf(path);
+        synchronized (this) {
+            if (fingerprint == currentFingerprint && !entries.containsKey(key)) {
+                entries.put(key, snapshot);
+                estimatedBytes += entryBytes(snapshot);
+                while (entries.size() > maxEntries) {
+                    Map.Entry<Key, List<Position>> eldest = entries.entrySet().iterator().next();
+                    estimatedBytes -= entryBytes(eldest.getValue());
+                    entries.remove(eldest.getKey());
+                    evictions.increment();
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Drops every cached path.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        estimatedBytes = 0;
+    }
+
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (this) {
+            metrics.put("enabled", maxEntries > 0);
+            metrics.put("maxEntries", maxEntries);
+            metrics.put("entries", entries.size());
+            metrics.put("estimatedBytes", estimatedBytes);
+        }
+        metrics.put("hits", hitCount);
+        metrics.put("misses", misses.sum());
+        metrics.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        metrics.put("evictions", evictions.sum());
+        metrics.put("invalidations", invalidations.sum());
+        return metrics;
+    }
+
+    private static long snap(double coordinate) {
+        return Math.round(coordinate * SNAP_SCALE);
+    }
+
+    private static long entryBytes(List<Position> path) {
+        return ENTRY_BYTES + POSITION_BYTES * path.size();
+    }
+
+    private static List<Position> copyFrom(List<Position> cached, Position from) {
+        List<Position> path = new ArrayList<>(cached);
+        if (!path.isEmpty() && !path.get(0).equals(from)) {
+            path.set(0, from);
+        }
+        return path;
+    }
+
+    private record Key(PathfindingEngine engine, long fingerprint,
+                       long fromLng, long fromLat, long toLng, long toLat) {
+    }
+}
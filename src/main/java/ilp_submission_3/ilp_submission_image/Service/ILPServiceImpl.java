@@ -1,20 +1,36 @@
 package ilp_submission_3.ilp_submission_image.Service;
 
+import ilp_submission_3.ilp_submission_image.Pathfinding.CompassStepTable;
 import ilp_submission_3.ilp_submission_image.dto.Position;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Implementation of ILPServiceInterface providing geometric calculations for the ILP REST service.
  * Handles distance calculations, proximity checks, position movements, and region containment.
+ * Active unless {@code ilp.geometry.mode=double} selects FastILPServiceImpl.
  */
 @Service
+@ConditionalOnProperty(name = "ilp.geometry.mode", havingValue = "bigdecimal", matchIfMissing = true)
 public class ILPServiceImpl implements ILPServiceInterface {
     private static final BigDecimal MOVE_STEP = new BigDecimal("0.00015");
 
+    // Deltas for the 16 compass directions, computed exactly as nextPosition does for any angle
+    private static final BigDecimal[] DELTA_LNG = new BigDecimal[CompassStepTable.DIRECTIONS];
+    private static final BigDecimal[] DELTA_LAT = new BigDecimal[CompassStepTable.DIRECTIONS];
+
+    static {
+        for (int k = 0; k < CompassStepTable.DIRECTIONS; k++) {
+            DELTA_LNG[k] = MOVE_STEP.multiply(BigDecimal.valueOf(CompassStepTable.cos(k)));
+            DELTA_LAT[k] = MOVE_STEP.multiply(BigDecimal.valueOf(CompassStepTable.sin(k)));
+        }
+    }
+
     @Override
     public double distance(Position p1, Position p2) {
         // Convert positions to BigDecimal for precise arithmetic
@@ -48,6 +64,15 @@ public class ILPServiceImpl implements ILPServiceInterface {
         BigDecimal startLng = BigDecimal.valueOf(start.lng());
         BigDecimal startLat = BigDecimal.valueOf(start.lat());
 
+        // Compass directions use the precomputed step table
+        int direction = CompassStepTable.indexOf(angle);
+        if (direction >= 0) {
+            return new Position(
+                    startLng.add(DELTA_LNG[direction]).doubleValue(),
+                    startLat.add(DELTA_LAT[direction]).doubleValue()
+            );
+        }
+
         // Convert angle to radians for trigonometric functions
         // Uses mathematical angle system: 0° = East, 90° = North, 180° = West, 270° = South (counterclockwise)
         double rad = Math.toRadians(angle);
@@ -67,6 +92,21 @@ public class ILPServiceImpl implements ILPServiceInterface {
         return new Position(newLng.doubleValue(), newLat.doubleValue());
     }
 
+    @Override
+    public List<Position> nextPositions(Position start) {
+        BigDecimal startLng = BigDecimal.valueOf(start.lng());
+        BigDecimal startLat = BigDecimal.valueOf(start.lat());
+
+        List<Position> neighbours = new ArrayList<>(CompassStepTable.DIRECTIONS);
+        for (int k = 0; k < CompassStepTable.DIRECTIONS; k++) {
+            neighbours.add(new Position(
+                    startLng.add(DELTA_LNG[k]).doubleValue(),
+                    startLat.add(DELTA_LAT[k]).doubleValue()
+            ));
+        }
+        return neighbours;
+    }
+
     @Override
     public boolean isInRegion(Position point, List<Position> vertices) {
         BigDecimal pointLng = BigDecimal.valueOf(point.lng());
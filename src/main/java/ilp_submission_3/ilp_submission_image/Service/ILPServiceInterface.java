@@ -1,6 +1,8 @@
 package ilp_submission_3.ilp_submission_image.Service;
 
+import ilp_submission_3.ilp_submission_image.Pathfinding.CompassStepTable;
 import ilp_submission_3.ilp_submission_image.dto.Position;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -39,6 +41,21 @@ public interface ILPServiceInterface {
      */
     Position nextPosition(Position start, double angle);
 
+    /**
+     * Calculates the positions reached from a starting position by one move in each
+     * of the 16 compass directions.
+     *
+     * @param start the starting position
+     * @return the 16 neighbours, where index k is the move at angle k × 22.5°
+     */
+    default List<Position> nextPositions(Position start) {
+        List<Position> neighbours = new ArrayList<>(CompassStepTable.DIRECTIONS);
+        for (int k = 0; k < CompassStepTable.DIRECTIONS; k++) {
+            neighbours.add(nextPosition(start, CompassStepTable.angle(k)));
+        }
+        return neighbours;
+    }
+
     /**
      * Determines if a point is inside or on the border of a polygon region.
      * Uses ray casting algorithm for interior detection and checks if the point lies on any edge.
@@ -0,0 +1,86 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram for percentile reporting.
+ *
+ * Samples are counted in log-linear buckets: each power-of-two range of
+ * microseconds is split into four, so a reported percentile is the upper bound
+ * of its bucket and overstates the true value by at most 25%. Memory is fixed
+ * (about 1 KB) however many samples are recorded.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int OCTAVES = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(OCTAVES * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    public void record(long nanos) {
+        long sample = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(sample / 1000));
+        count.increment();
+        totalNanos.add(sample);
+        maxNanos.accumulate(sample);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : totalNanos.sum() / 1e6 / n;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * Latency at or below which the given fraction of samples fall.
+     *
+     * @param quantile between 0 and 1, e.g. 0.99 for p99
+     * @return milliseconds, never more than the largest sample; 0 when empty
+     */
+    public double percentileMillis(double quantile) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundMicros(i) / 1e3, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (octave - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min((octave - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub, OCTAVES * SUB_BUCKETS - 1);
+    }
+
+    static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int octave = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (octave - SUB_BUCKET_BITS);
+    }
+}
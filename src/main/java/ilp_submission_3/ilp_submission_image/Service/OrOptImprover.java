@@ -0,0 +1,73 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+/**
+ * Or-opt: moves a run of up to three consecutive deliveries, in either direction,
+ * to the place in the rest of the tour where it adds least. Applies the first
+ * shortening move found and starts over until a full pass finds none.
+ */
+final class OrOptImprover implements TourImprover {
+
+    static final OrOptImprover INSTANCE = new OrOptImprover();
+
+    private static final int MAX_RUN = 3;
+    private static final double EPSILON = 1e-12;
+
+    private OrOptImprover() {
+    }
+
+    @Override
+    public boolean improve(int[] tour, int depot, DistanceMatrix distances, long deadline) {
+        boolean changed = false;
+        while (System.nanoTime() - deadline < 0 && improveOnce(tour, depot, distances)) {
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean improveOnce(int[] tour, int depot, DistanceMatrix distances) {
+        int n = tour.length;
+        for (int length = 1; length <= MAX_RUN && length < n; length++) {
+            for (int i = 0; i + length <= n; i++) {
+                int first = tour[i];
+                int last = tour[i + length - 1];
+                int previous = i == 0 ? depot : tour[i - 1];
+                int next = i + length == n ? depot : tour[i + length];
+                double saved = distances.distance(previous, first) + distances.distance(last, next)
+                        - distances.distance(previous, next);
+
+                // Gap k lies between stop k - 1 and stop k, with the depot at either end
+                for (int k = 0; k <= n; k++) {
+                    if (k >= i && k <= i + length) {
+                        continue;
+                    }
+                    int a = k == 0 ? depot : tour[k - 1];
+                    int b = k == n ? depot : tour[k];
+                    double base = distances.distance(a, b);
+                    double forward = distances.distance(a, first) + distances.distance(last, b) - base;
+                    double reversed = distances.distance(a, last) + distances.distance(first, b) - base;
+                    if (Math.min(forward, reversed) - saved < -EPSILON) {
+                        move(tour, i, length, k, reversed < forward);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void move(int[] tour, int from, int length, int gap, boolean reversed) {
+        int n = tour.length;
+        int[] run = new int[length];
+        for (int r = 0; r < length; r++) {
+            run[r] = tour[reversed ? from + length - 1 - r : from + r];
+        }
+        int[] rest = new int[n - length];
+        System.arraycopy(tour, 0, rest, 0, from);
+        System.arraycopy(tour, from + length, rest, from, n - from - length);
+
+        int at = gap < from ? gap : gap - length;
+        System.arraycopy(rest, 0, tour, 0, at);
+        System.arraycopy(run, 0, tour, at, length);
+        System.arraycopy(rest, at, tour, at + length, n - length - at);
+    }
+}
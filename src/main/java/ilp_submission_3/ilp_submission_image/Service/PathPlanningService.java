@@ -1,13 +1,18 @@
 package ilp_submission_3.ilp_submission_image.Service;
 
+import ilp_submission_3.ilp_submission_image.WebSocket.ProgressSink;
 import ilp_submission_3.ilp_submission_image.dto.*;
 
 import java.util.List;
 
 public interface PathPlanningService {
     DeliveryPathResponse calculateDeliveryPath(List<MedDispatchRec> dispatchRecords);
+    DeliveryPathResponse calculateDeliveryPath(List<MedDispatchRec> dispatchRecords, String jobId);
+    DeliveryPathResponse calculateDeliveryPath(List<MedDispatchRec> dispatchRecords, String jobId,
+                                               ProgressSink observer);
     List<RestrictedArea> getRestrictedAreas();
     List<Position> calculateFlightPath(Position from, Position to, List<RestrictedArea> restrictedAreas);
     String calculateDeliveryPathAsGeoJson(List<MedDispatchRec> dispatchRecords);
+    String calculateDeliveryPathAsGeoJson(List<MedDispatchRec> dispatchRecords, String jobId);
 }
 
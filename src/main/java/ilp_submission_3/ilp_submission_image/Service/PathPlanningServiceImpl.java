@@ -2,16 +2,32 @@ package ilp_submission_3.ilp_submission_image.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_3.ilp_submission_image.Configuration.CandidateSelection;
 import ilp_submission_3.ilp_submission_image.Configuration.ILPEndpointProvider;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerExecutors;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerProperties;
+import ilp_submission_3.ilp_submission_image.Configuration.ProgressMode;
+import ilp_submission_3.ilp_submission_image.Pathfinding.CompassStepTable;
+import ilp_submission_3.ilp_submission_image.Pathfinding.LatticeAStarPathfinder;
+import ilp_submission_3.ilp_submission_image.Pathfinding.PathfindingEngine;
+import ilp_submission_3.ilp_submission_image.Pathfinding.RestrictedAreaIndex;
+import ilp_submission_3.ilp_submission_image.WebSocket.BroadcastProgressSink;
 import ilp_submission_3.ilp_submission_image.WebSocket.PathfindingProgressHandler;
+import ilp_submission_3.ilp_submission_image.WebSocket.ProgressSink;
+import ilp_submission_3.ilp_submission_image.WebSocket.SamplingProgressSink;
 import ilp_submission_3.ilp_submission_image.dto.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.DayOfWeek;
-import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoublePredicate;
 
 @Service
 public class PathPlanningServiceImpl implements PathPlanningService {
@@ -21,68 +37,335 @@ public class PathPlanningServiceImpl implements PathPlanningService {
     private final DroneService droneService;
     private final ObjectMapper objectMapper;
     private final PathfindingProgressHandler progressHandler;
+    private final PlannerProperties plannerProperties;
+    private final ReferenceDataCache referenceDataCache;
+    private final PlannerExecutors plannerExecutors;
+    private final FlightPathCache flightPathCache;
+    private final LatticeAStarPathfinder latticePathfinder = new LatticeAStarPathfinder();
+    private volatile RestrictedAreaIndex restrictedAreaIndex = RestrictedAreaIndex.build(List.of());
+    private volatile AvailabilityIndex availabilityIndex = AvailabilityIndex.build(List.of());
+    private final Map<String, ProgressSink> jobObservers = new ConcurrentHashMap<>();
 
     private final ILPEndpointProvider endpointProvider;
     private static final double MOVE_DISTANCE = 0.00015;
-    private static final Set<Double> VALID_ANGLES = Set.of(
-            0.0, 22.5, 45.0, 67.5, 90.0, 112.5, 135.0, 157.5,
-            180.0, 202.5, 225.0, 247.5, 270.0, 292.5, 315.0, 337.5
-    );
+
+    /**
+     * Moves a day's shortest round trip may save on twice the straight-line distance:
+     * a search stops once it is within one move of its goal, so each leg can end up
+     * to a move short, and a leg from where the last one stopped short starts up to
+     * a move closer.
+     */
+    private static final double ROUND_TRIP_SLACK_MOVES = 3.0;
 
     public PathPlanningServiceImpl(RestTemplate restTemplate, ILPEndpointProvider endpointProvider,
                                    ILPServiceInterface ilpService, DroneService droneService,
-                                   PathfindingProgressHandler progressHandler) {
+                                   PathfindingProgressHandler progressHandler,
+                                   PlannerProperties plannerProperties,
+                                   ReferenceDataCache referenceDataCache,
+                                   PlannerExecutors plannerExecutors,
+                                   FlightPathCache flightPathCache) {
         this.restTemplate = restTemplate;
         this.ilpService = ilpService;
         this.droneService = droneService;
         this.progressHandler = progressHandler;
+        this.plannerProperties = plannerProperties;
+        this.referenceDataCache = referenceDataCache;
+        this.plannerExecutors = plannerExecutors;
+        this.flightPathCache = flightPathCache;
         this.objectMapper = new ObjectMapper();
         this.endpointProvider = endpointProvider;
     }
 
     @Override
     public List<RestrictedArea> getRestrictedAreas() {
-        String url = endpointProvider.getEndpoint() + "/restricted-areas";
-        RestrictedArea[] areas = restTemplate.getForObject(url, RestrictedArea[].class);
-        if (areas != null) {
-            return Arrays.asList(areas);
-        } else {
-            return new ArrayList<>();
-        }
+        String endpoint = endpointProvider.getEndpoint();
+        return referenceDataCache.get(endpoint, "/restricted-areas", RestrictedArea.class, () -> {
+            RestrictedArea[] areas = restTemplate.getForObject(endpoint + "/restricted-areas", RestrictedArea[].class);
+            if (areas != null) {
+                return Arrays.asList(areas);
+            } else {
+                return new ArrayList<>();
+            }
+        });
     }
 
     @Override
     public DeliveryPathResponse calculateDeliveryPath(List<MedDispatchRec> dispatchRecords) {
+        return calculateDeliveryPath(dispatchRecords, null);
+    }
+
+    /**
+     * Plans a job while also reporting its progress to {@code observer}, whether or not
+     * any WebSocket session follows the job. The observer may be called from several
+     * planner threads at once.
+     *
+     * @throws IllegalStateException if a job with the same id is already being planned
+     */
+    @Override
+    public DeliveryPathResponse calculateDeliveryPath(List<MedDispatchRec> dispatchRecords, String jobId,
+                                                      ProgressSink observer) {
+        if (jobObservers.putIfAbsent(jobId, observer) != null) {
+            throw new IllegalStateException("Job " + jobId + " is already being planned");
+        }
+        try {
+            return calculateDeliveryPath(dispatchRecords, jobId);
+        } finally {
+            jobObservers.remove(jobId, observer);
+        }
+    }
+
+    @Override
+    public DeliveryPathResponse calculateDeliveryPath(List<MedDispatchRec> dispatchRecords, String jobId) {
         if (dispatchRecords == null || dispatchRecords.isEmpty()) {
             return new DeliveryPathResponse(0.0, 0, new ArrayList<>());
         }
 
-        List<Drone> allDrones = droneService.getAllDrones();
-        List<DroneForServicePoint> droneForServicePoints = droneService.getAllServicePoints();
-        List<DroneServicePoint> droneServicePoints = droneService.getServicePointLocations();
-        List<RestrictedArea> restrictedAreas = getRestrictedAreas();
+        ReferenceData reference = fetchReferenceData();
+        List<Drone> allDrones = reference.drones();
+        List<DroneForServicePoint> droneForServicePoints = reference.droneForServicePoints();
+        List<DroneServicePoint> droneServicePoints = reference.droneServicePoints();
+        List<RestrictedArea> restrictedAreas = reference.restrictedAreas();
+        DistanceMatrix distances = buildDistanceMatrix(dispatchRecords, droneServicePoints);
 
         List<String> singleDroneCandidates = droneService.queryAvailableDrones(dispatchRecords);
-        DeliveryPathResponse singleDroneSolution = null;
-        if (!singleDroneCandidates.isEmpty()) {
-            singleDroneSolution = trySingleDroneSolution(
-                    dispatchRecords, singleDroneCandidates, allDrones,
-                    droneForServicePoints, droneServicePoints, restrictedAreas
-            );
+        List<String> multiDroneCandidates = droneService.queryAvailableDronesWithOr(dispatchRecords);
+
+        ExecutorService executor = plannerExecutors.strategyExecutor();
+        if (executor == null || !plannerProperties.isParallelStrategies() ||
+                singleDroneCandidates.isEmpty() || multiDroneCandidates.isEmpty()) {
+            DeliveryPathResponse singleDroneSolution = null;
+            if (!singleDroneCandidates.isEmpty()) {
+                singleDroneSolution = trySingleDroneSolution(
+                        dispatchRecords, singleDroneCandidates, allDrones,
+                        droneForServicePoints, droneServicePoints, restrictedAreas, distances, StrategyRace.NONE, jobId
+                );
+            }
+
+            DeliveryPathResponse multiDroneSolution = null;
+            if (!multiDroneCandidates.isEmpty()) {
+                multiDroneSolution = tryMultiDroneSolution(
+                        dispatchRecords, multiDroneCandidates, allDrones,
+                        droneForServicePoints, droneServicePoints, restrictedAreas, distances, StrategyRace.NONE, jobId
+                );
+            }
+
+            return chooseBestSolution(singleDroneSolution, multiDroneSolution);
         }
 
-        List<String> multiDroneCandidates = droneService.queryAvailableDronesWithOr(dispatchRecords);
-        DeliveryPathResponse multiDroneSolution = null;
-        if (!multiDroneCandidates.isEmpty()) {
-            multiDroneSolution = tryMultiDroneSolution(
-                    dispatchRecords, multiDroneCandidates, allDrones,
-                    droneForServicePoints, droneServicePoints, restrictedAreas
+        StrategyRace race = new StrategyRace(
+                costLowerBound(dispatchRecords, singleDroneCandidates, allDrones, droneServicePoints),
+                costLowerBound(dispatchRecords, multiDroneCandidates, allDrones, droneServicePoints)
+        );
+
+        Future<DeliveryPathResponse> multiDroneFuture = executor.submit(() -> race.multiFinished(
+                tryMultiDroneSolution(
+                        dispatchRecords, multiDroneCandidates, allDrones,
+                        droneForServicePoints, droneServicePoints, restrictedAreas, distances, race, jobId
+                )
+        ));
+        DeliveryPathResponse singleDroneSolution = null;
+        boolean singleFinished = false;
+        try {
+            singleDroneSolution = race.singleFinished(
+                    trySingleDroneSolution(
+                            dispatchRecords, singleDroneCandidates, allDrones,
+                            droneForServicePoints, droneServicePoints, restrictedAreas, distances, race, jobId
+                    )
             );
+            singleFinished = true;
+        } finally {
+            if (!singleFinished) {
+                // The request has failed: stop the multi-drone search at its next check
+                race.singleFailed();
+                multiDroneFuture.cancel(true);
+            }
         }
+        DeliveryPathResponse multiDroneSolution = await(multiDroneFuture);
 
         return chooseBestSolution(singleDroneSolution, multiDroneSolution);
     }
 
+    /**
+     * Tabulates the distances between every delivery and service point of a request,
+     * shared by all the ordering heuristics of both strategies.
+     */
+    private DistanceMatrix buildDistanceMatrix(List<MedDispatchRec> dispatchRecords,
+                                               List<DroneServicePoint> droneServicePoints) {
+        List<Position> locations = new ArrayList<>(dispatchRecords.size() + droneServicePoints.size());
+        for (MedDispatchRec record : dispatchRecords) {
+            locations.add(getDeliveryPosition(record));
+        }
+        for (DroneServicePoint sp : droneServicePoints) {
+            if (sp.location() != null) {
+                locations.add(new Position(sp.location().lng(), sp.location().lat()));
+            }
+        }
+        return DistanceMatrix.build(locations, ilpService, plannerExecutors.candidatePool());
+    }
+
+    /**
+     * Fetches the four ILP reference lists a plan needs. When enabled they are
+     * requested concurrently, so a cold start waits for the slowest call rather
+     * than the sum of all four; the restricted areas load on the calling thread.
+     */
+    private ReferenceData fetchReferenceData() {
+        ExecutorService executor = plannerExecutors.fetchExecutor();
+        if (executor == null || !plannerProperties.isConcurrentReferenceFetch()) {
+            return new ReferenceData(droneService.getAllDrones(), droneService.getAllServicePoints(),
+                    droneService.getServicePointLocations(), getRestrictedAreas());
+        }
+
+        Future<List<Drone>> drones = executor.submit(droneService::getAllDrones);
+        Future<List<DroneForServicePoint>> droneForServicePoints = executor.submit(droneService::getAllServicePoints);
+        Future<List<DroneServicePoint>> droneServicePoints = executor.submit(droneService::getServicePointLocations);
+        List<RestrictedArea> restrictedAreas;
+        try {
+            restrictedAreas = getRestrictedAreas();
+        } catch (RuntimeException e) {
+            drones.cancel(true);
+            droneForServicePoints.cancel(true);
+            droneServicePoints.cancel(true);
+            throw e;
+        }
+        return new ReferenceData(await(drones), await(droneForServicePoints), await(droneServicePoints),
+                restrictedAreas);
+    }
+
+    private record ReferenceData(List<Drone> drones, List<DroneForServicePoint> droneForServicePoints,
+                                 List<DroneServicePoint> droneServicePoints, List<RestrictedArea> restrictedAreas) {
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while planning delivery path", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Delivery path planning failed", e.getCause());
+        }
+    }
+
+    /**
+     * Lower bound on the total cost of any solution flown by the given drones.
+     * Each date needs at least one flight, and that flight must reach at least one
+     * of the day's deliveries from a service point and come back, which takes at
+     * least twice the straight-line distance in moves, less ROUND_TRIP_SLACK_MOVES.
+     *
+     * @return the bound, or negative infinity if no useful bound exists
+     */
+    private double costLowerBound(List<MedDispatchRec> dispatchRecords, List<String> droneIds,
+                                  List<Drone> allDrones, List<DroneServicePoint> droneServicePoints) {
+        double minFixedCost = Double.POSITIVE_INFINITY;
+        double minCostPerMove = Double.POSITIVE_INFINITY;
+        for (String droneId : droneIds) {
+            Drone drone = findDroneById(droneId, allDrones);
+            if (drone == null || drone.capability() == null) {
+                continue;
+            }
+            Drone.Capability capability = drone.capability();
+            double costInitial = capability.costInitial() != null ? capability.costInitial() : 0.0;
+            double costFinal = capability.costFinal() != null ? capability.costFinal() : 0.0;
+            double costPerMove = capability.costPerMove() != null ? capability.costPerMove() : 0.0;
+            if (costInitial < 0 || costFinal < 0 || costPerMove < 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            minFixedCost = Math.min(minFixedCost, costInitial + costFinal);
+            minCostPerMove = Math.min(minCostPerMove, costPerMove);
+        }
+        if (minFixedCost == Double.POSITIVE_INFINITY) {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        Map<String, Double> nearestDeliveryByDate = new HashMap<>();
+        for (MedDispatchRec record : dispatchRecords) {
+            if (record.delivery() == null) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            double nearestServicePoint = Double.POSITIVE_INFINITY;
+            for (DroneServicePoint sp : droneServicePoints) {
+                if (sp.location() != null) {
+                    nearestServicePoint = Math.min(nearestServicePoint, Math.hypot(
+                            sp.location().lng() - record.delivery().lng(),
+                            sp.location().lat() - record.delivery().lat()));
+                }
+            }
+            if (nearestServicePoint == Double.POSITIVE_INFINITY) {
+                nearestServicePoint = 0.0;
+            }
+            String date = record.date() != null ? record.date() : "unknown";
+            nearestDeliveryByDate.merge(date, nearestServicePoint, Math::min);
+        }
+
+        double bound = 0.0;
+        for (double distance : nearestDeliveryByDate.values()) {
+            // Slightly shrunk so rounding in the geometry service can never push a real path below it
+            double moves = Math.max(0.0,
+                    2.0 * distance / MOVE_DISTANCE * (1.0 - 1e-9) - ROUND_TRIP_SLACK_MOVES);
+            bound += minFixedCost + minCostPerMove * moves;
+        }
+        return bound;
+    }
+
+    /**
+     * Progress shared between the concurrently running strategies. A strategy gives
+     * up once the other one has finished with a cost it provably cannot beat. Ties
+     * go to the single-drone solution, as in chooseBestSolution, so the chosen
+     * solution is always the one a full sequential run would pick.
+     */
+    private static final class StrategyRace {
+        static final StrategyRace NONE = new StrategyRace(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+        private final double singleLowerBound;
+        private final double multiLowerBound;
+        private volatile double singleCost = Double.NaN;
+        private volatile double multiCost = Double.NaN;
+
+        StrategyRace(double singleLowerBound, double multiLowerBound) {
+            this.singleLowerBound = singleLowerBound;
+            this.multiLowerBound = multiLowerBound;
+        }
+
+        DeliveryPathResponse singleFinished(DeliveryPathResponse solution) {
+            singleCost = solution != null ? solution.totalCost() : Double.POSITIVE_INFINITY;
+            return solution;
+        }
+
+        /**
+         * Lets the multi-drone search give up: nothing it finds will be used.
+         */
+        void singleFailed() {
+            singleCost = Double.NEGATIVE_INFINITY;
+        }
+
+        DeliveryPathResponse multiFinished(DeliveryPathResponse solution) {
+            multiCost = solution != null ? solution.totalCost() : Double.POSITIVE_INFINITY;
+            return solution;
+        }
+
+        boolean singleCannotWin() {
+            double finishedMultiCost = multiCost;
+            return !Double.isNaN(finishedMultiCost) && singleLowerBound > finishedMultiCost;
+        }
+
+        /**
+         * @param committedCost cost already accumulated by the multi-drone strategy,
+         *                      which only grows as more assignments are added
+         */
+        boolean multiCannotWin(double committedCost) {
+            double finishedSingleCost = singleCost;
+            return !Double.isNaN(finishedSingleCost) &&
+                    Math.max(multiLowerBound, committedCost) >= finishedSingleCost;
+        }
+    }
+
     private DeliveryPathResponse chooseBestSolution(
             DeliveryPathResponse singleDroneSolution,
             DeliveryPathResponse multiDroneSolution) {
@@ -112,7 +395,10 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             List<Drone> allDrones,
             List<DroneForServicePoint> droneForServicePoints,
             List<DroneServicePoint> droneServicePoints,
-            List<RestrictedArea> restrictedAreas) {
+            List<RestrictedArea> restrictedAreas,
+            DistanceMatrix distances,
+            StrategyRace race,
+            String jobId) {
 
         if (availableDroneIds == null || availableDroneIds.isEmpty()) {
             return null;
@@ -124,12 +410,13 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         for (DroneServicePoint sp : droneServicePoints) {
             if (sp.location() != null) {
                 Position spPos = new Position(sp.location().lng(), sp.location().lat());
-                double distance = ilpService.distance(centroid, spPos);
+                double distance = distances.distance(centroid, spPos);
                 sortedSPs.add(new ServicePointDistance(sp, distance));
             }
         }
         sortedSPs.sort(Comparator.comparingDouble(d -> d.distance));
 
+        List<SingleDroneCandidate> candidates = new ArrayList<>();
         for (ServicePointDistance spDist : sortedSPs) {
             DroneServicePoint servicePoint = spDist.servicePoint;
             Position spPosition = new Position(
@@ -137,42 +424,145 @@ public class PathPlanningServiceImpl implements PathPlanningService {
                     servicePoint.location().lat()
             );
 
-            List<String> dronesAtThisSP = new ArrayList<>();
             for (DroneForServicePoint sp : droneForServicePoints) {
                 if (!sp.servicePointId().equals(servicePoint.id())) continue;
                 if (sp.drones() == null) continue;
 
                 for (DroneForServicePoint.DroneAvailability da : sp.drones()) {
-                    if (availableDroneIds.contains(da.id())) {
-                        dronesAtThisSP.add(da.id());
-                    }
+                    if (!availableDroneIds.contains(da.id())) continue;
+
+                    Drone drone = findDroneById(da.id(), allDrones);
+                    if (drone == null || drone.capability() == null) continue;
+
+                    candidates.add(new SingleDroneCandidate(drone, spPosition));
                 }
             }
+        }
 
-            if (dronesAtThisSP.isEmpty()) {
-                continue;
+        CandidateSearch search = new CandidateSearch(plannerProperties.getCandidateSelection(), race);
+        ForkJoinPool pool = plannerExecutors.candidatePool();
+        if (pool == null || !plannerProperties.isParallelCandidates() || candidates.size() < 2) {
+            for (int i = 0; i < candidates.size() && !search.isDecided(i - 1); i++) {
+                search.offer(i, attemptCandidate(i, candidates.get(i), search, dispatchRecords,
+                        restrictedAreas, droneForServicePoints, droneServicePoints, distances, jobId));
             }
+            return search.result();
+        }
 
-            for (String droneId : dronesAtThisSP) {
-                Drone drone = findDroneById(droneId, allDrones);
-                if (drone == null || drone.capability() == null) continue;
+        List<ForkJoinTask<?>> attempts = new ArrayList<>(candidates.size());
+        try {
+            for (int i = 0; i < candidates.size(); i++) {
+                int index = i;
+                SingleDroneCandidate candidate = candidates.get(i);
+                attempts.add(pool.submit(() -> search.offer(index, attemptCandidate(
+                        index, candidate, search, dispatchRecords,
+                        restrictedAreas, droneForServicePoints, droneServicePoints, distances, jobId))));
+            }
+            for (int i = 0; i < attempts.size() && !search.isDecided(i - 1); i++) {
+                attempts.get(i).join();
+            }
+        } finally {
+            for (ForkJoinTask<?> attempt : attempts) {
+                attempt.cancel(false);
+            }
+        }
+        return search.result();
+    }
 
-                List<MedDispatchRec> optimizedOrder = optimizeDeliveryOrder(
-                        dispatchRecords, spPosition
-                );
+    private DeliveryPathResponse attemptCandidate(
+            int index,
+            SingleDroneCandidate candidate,
+            CandidateSearch search,
+            List<MedDispatchRec> dispatchRecords,
+            List<RestrictedArea> restrictedAreas,
+            List<DroneForServicePoint> droneForServicePoints,
+            List<DroneServicePoint> droneServicePoints,
+            DistanceMatrix distances,
+            String jobId) {
 
-                DeliveryPathResponse solution = tryDeliverySequence(
-                        drone, optimizedOrder, restrictedAreas,
-                        droneForServicePoints, droneServicePoints
-                );
+        if (search.abandoned(index, Double.NEGATIVE_INFINITY)) {
+            return null;
+        }
 
-                if (solution != null) {
-                    return solution;
-                }
+        Drone.Capability capability = candidate.drone.capability();
+        boolean costOnlyGrows = (capability.costInitial() == null || capability.costInitial() >= 0) &&
+                (capability.costPerMove() == null || capability.costPerMove() >= 0) &&
+                (capability.costFinal() == null || capability.costFinal() >= 0);
+
+        List<MedDispatchRec> optimizedOrder = optimizeDeliveryOrder(
+                dispatchRecords, candidate.servicePoint, distances
+        );
+        improveDailyTours(optimizedOrder, candidate.servicePoint, candidate.drone,
+                droneForServicePoints, droneServicePoints, distances);
+
+        return tryDeliverySequence(
+                candidate.drone, optimizedOrder, restrictedAreas,
+                droneForServicePoints, droneServicePoints,
+                committedCost -> search.abandoned(
+                        index, costOnlyGrows ? committedCost : Double.NEGATIVE_INFINITY),
+                jobId
+        );
+    }
+
+    private record SingleDroneCandidate(Drone drone, Position servicePoint) {
+    }
+
+    /**
+     * Collects single-drone candidate results, indexed in priority order, and tells
+     * attempts still running when they can no longer be selected. Attempts are only
+     * abandoned when they would have lost anyway, so the result does not depend on
+     * which attempts finish first.
+     */
+    private static final class CandidateSearch {
+        private final CandidateSelection selection;
+        private final StrategyRace race;
+        private DeliveryPathResponse best;
+        private volatile int bestIndex = Integer.MAX_VALUE;
+        private volatile double bestCost = Double.POSITIVE_INFINITY;
+
+        CandidateSearch(CandidateSelection selection, StrategyRace race) {
+            this.selection = selection;
+            this.race = race;
+        }
+
+        /**
+         * @param committedCost cost the attempt has already accumulated, which only grows
+         */
+        boolean abandoned(int index, double committedCost) {
+            if (race.singleCannotWin()) {
+                return true;
+            }
+            if (selection == CandidateSelection.FIRST_FEASIBLE) {
+                return index > bestIndex;
             }
+            return committedCost > bestCost;
         }
 
-        return null;
+        synchronized void offer(int index, DeliveryPathResponse solution) {
+            if (solution == null) {
+                return;
+            }
+            boolean better = selection == CandidateSelection.FIRST_FEASIBLE
+                    ? index < bestIndex
+                    : solution.totalCost() < bestCost ||
+                    (solution.totalCost() == bestCost && index < bestIndex);
+            if (better) {
+                best = solution;
+                bestCost = solution.totalCost();
+                bestIndex = index;
+            }
+        }
+
+        /**
+         * @return whether the winner is known once every candidate up to lastIndex has finished
+         */
+        boolean isDecided(int lastIndex) {
+            return selection == CandidateSelection.FIRST_FEASIBLE && bestIndex <= lastIndex;
+        }
+
+        synchronized DeliveryPathResponse result() {
+            return race.singleCannotWin() ? null : best;
+        }
     }
 
     private Position calculateCentroid(List<MedDispatchRec> dispatches) {
@@ -204,7 +594,10 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             List<Drone> allDrones,
             List<DroneForServicePoint> droneForServicePoints,
             List<DroneServicePoint> droneServicePoints,
-            List<RestrictedArea> restrictedAreas) {
+            List<RestrictedArea> restrictedAreas,
+            DistanceMatrix distances,
+            StrategyRace race,
+            String jobId) {
 
         if (availableDroneIds == null || availableDroneIds.isEmpty()) {
             return null;
@@ -219,18 +612,25 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         List<DeliveryPathResponse.DronePath> allDronePaths = new ArrayList<>();
         double totalCost = 0.0;
         int totalMoves = 0;
+        boolean costOnlyGrows = true;
 
         for (Map.Entry<String, List<MedDispatchRec>> entry : dispatchesByDate.entrySet()) {
             List<MedDispatchRec> dailyDispatches = new ArrayList<>(entry.getValue());
 
             while (!dailyDispatches.isEmpty()) {
+                if (race.multiCannotWin(costOnlyGrows ? totalCost : Double.NEGATIVE_INFINITY)) {
+                    return null;
+                }
+
                 GreedyAssignment assignment = findBestAssignmentByDistance(
                         dailyDispatches,
                         availableDroneIds,
                         allDrones,
                         droneForServicePoints,
                         droneServicePoints,
-                        restrictedAreas
+                        restrictedAreas,
+                        distances,
+                        jobId
                 );
 
                 if (assignment == null) {
@@ -238,6 +638,7 @@ public class PathPlanningServiceImpl implements PathPlanningService {
                 }
 
                 allDronePaths.add(assignment.dronePath);
+                costOnlyGrows &= assignment.cost >= 0;
                 totalCost += assignment.cost;
                 totalMoves += assignment.moves;
                 dailyDispatches.removeAll(assignment.completedOrders);
@@ -253,7 +654,9 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             List<Drone> allDrones,
             List<DroneForServicePoint> droneForServicePoints,
             List<DroneServicePoint> droneServicePoints,
-            List<RestrictedArea> restrictedAreas) {
+            List<RestrictedArea> restrictedAreas,
+            DistanceMatrix distances,
+            String jobId) {
 
         MedDispatchRec anchorOrder = remainingOrders.get(0);
         Position anchorPos = anchorOrder.delivery();
@@ -262,7 +665,7 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         for (DroneServicePoint sp : droneServicePoints) {
             if (sp.location() != null) {
                 Position spPos = new Position(sp.location().lng(), sp.location().lat());
-                double distance = ilpService.distance(anchorPos, spPos);
+                double distance = distances.distance(anchorPos, spPos);
                 sortedSPs.add(new ServicePointDistance(sp, distance));
             }
         }
@@ -302,7 +705,8 @@ public class PathPlanningServiceImpl implements PathPlanningService {
                         anchorOrder,
                         remainingOrders,
                         drone,
-                        droneForServicePoints
+                        droneForServicePoints,
+                        distances
                 );
 
                 if (batch.isEmpty()) {
@@ -311,7 +715,7 @@ public class PathPlanningServiceImpl implements PathPlanningService {
 
                 DeliveryPathResponse solution = tryDeliverySequence(
                         drone, batch, restrictedAreas,
-                        droneForServicePoints, droneServicePoints
+                        droneForServicePoints, droneServicePoints, jobId
                 );
 
                 if (solution == null) {
@@ -339,7 +743,8 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             MedDispatchRec anchorOrder,
             List<MedDispatchRec> remainingOrders,
             Drone drone,
-            List<DroneForServicePoint> droneForServicePoints) {
+            List<DroneForServicePoint> droneForServicePoints,
+            DistanceMatrix distances) {
 
         List<MedDispatchRec> batch = new ArrayList<>();
         double currentCapacity = 0.0;
@@ -361,15 +766,21 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         batch.add(anchorOrder);
         currentCapacity += anchorCapacity;
 
-        List<MedDispatchRec> candidates = new ArrayList<>(remainingOrders);
-        candidates.remove(anchorOrder);
-
+        // Distances are looked up once per order rather than once per comparison
         Position anchorPos = anchorOrder.delivery();
-        candidates.sort(Comparator.comparingDouble(order ->
-                ilpService.distance(anchorPos, order.delivery())
-        ));
+        List<OrderDistance> candidates = new ArrayList<>(remainingOrders.size());
+        boolean anchorSkipped = false;
+        for (MedDispatchRec order : remainingOrders) {
+            if (!anchorSkipped && order.equals(anchorOrder)) {
+                anchorSkipped = true;
+                continue;
+            }
+            candidates.add(new OrderDistance(order, distances.distance(anchorPos, order.delivery())));
+        }
+        candidates.sort(Comparator.comparingDouble(OrderDistance::distance));
 
-        for (MedDispatchRec candidate : candidates) {
+        for (OrderDistance nearby : candidates) {
+            MedDispatchRec candidate = nearby.order();
             if (batch.size() >= 3) {
                 break;
             }
@@ -395,6 +806,9 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         return batch;
     }
 
+    private record OrderDistance(MedDispatchRec order, double distance) {
+    }
+
     private boolean canDroneHandleOrder(
             Drone drone,
             MedDispatchRec order,
@@ -404,13 +818,8 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             return false;
         }
 
-        DroneForServicePoint.DroneAvailability availability =
-                findDroneAvailabilityForOrder(
-                        drone.id(),
-                        order.date(),
-                        order.time(),
-                        droneForServicePoints
-                );
+        AvailabilityIndex.Slot availability = availabilityIndex(droneForServicePoints)
+                .find(drone.id(), order.date(), order.time());
 
         if (availability == null) {
             return false;
@@ -444,59 +853,6 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         return true;
     }
 
-    private DroneForServicePoint.DroneAvailability findDroneAvailabilityForOrder(
-            String droneId,
-            String date,
-            String time,
-            List<DroneForServicePoint> droneForServicePoints) {
-
-        if (date == null || time == null) {
-            return null;
-        }
-
-        try {
-            LocalDate orderDate = LocalDate.parse(date);
-            LocalTime orderTime = LocalTime.parse(time);
-            DayOfWeek dayOfWeek = orderDate.getDayOfWeek();
-
-            for (DroneForServicePoint sp : droneForServicePoints) {
-                if (sp.drones() == null) continue;
-
-                for (DroneForServicePoint.DroneAvailability da : sp.drones()) {
-                    if (!da.id().equals(droneId)) continue;
-
-                    if (da.availability() == null) continue;
-
-                    for (DroneForServicePoint.DroneAvailability.Availability slot : da.availability()) {
-                        if (slot.dayOfWeek() == null) continue;
-
-                        DayOfWeek slotDay;
-                        try {
-                            slotDay = DayOfWeek.valueOf(slot.dayOfWeek().toUpperCase());
-                        } catch (IllegalArgumentException e) {
-                            continue;
-                        }
-
-                        if (slotDay.equals(dayOfWeek)) {
-                            if (slot.from() == null || slot.until() == null) continue;
-
-                            LocalTime fromTime = LocalTime.parse(slot.from());
-                            LocalTime untilTime = LocalTime.parse(slot.until());
-
-                            if (!orderTime.isBefore(fromTime) && !orderTime.isAfter(untilTime)) {
-                                return da;
-                            }
-                        }
-                    }
-                }
-            }
-
-            return null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     private DeliveryPathResponse mergeDronePaths(
             List<DeliveryPathResponse.DronePath> allPaths,
             double totalCost,
@@ -549,8 +905,15 @@ public class PathPlanningServiceImpl implements PathPlanningService {
 
     @Override
     public String calculateDeliveryPathAsGeoJson(List<MedDispatchRec> dispatchRecords) {
-        DeliveryPathResponse response = calculateDeliveryPath(dispatchRecords);
+        return toGeoJson(calculateDeliveryPath(dispatchRecords));
+    }
+
+    @Override
+    public String calculateDeliveryPathAsGeoJson(List<MedDispatchRec> dispatchRecords, String jobId) {
+        return toGeoJson(calculateDeliveryPath(dispatchRecords, jobId));
+    }
 
+    private String toGeoJson(DeliveryPathResponse response) {
         Map<String, Object> geoJson = new HashMap<>();
         geoJson.put("type", "FeatureCollection");
 
@@ -613,7 +976,7 @@ public class PathPlanningServiceImpl implements PathPlanningService {
     }
 
     private List<MedDispatchRec> optimizeDeliveryOrder(
-            List<MedDispatchRec> dispatches, Position start) {
+            List<MedDispatchRec> dispatches, Position start, DistanceMatrix distances) {
 
         List<MedDispatchRec> remaining = new ArrayList<>(dispatches);
         List<MedDispatchRec> ordered = new ArrayList<>();
@@ -625,7 +988,7 @@ public class PathPlanningServiceImpl implements PathPlanningService {
 
             for (MedDispatchRec dispatch : remaining) {
                 Position deliveryPos = getDeliveryPosition(dispatch);
-                double distance = ilpService.distance(current, deliveryPos);
+                double distance = distances.distance(current, deliveryPos);
 
                 if (distance < minDistance) {
                     minDistance = distance;
@@ -645,11 +1008,163 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         return ordered;
     }
 
+    /**
+     * Shortens each day's part of a nearest-neighbour order with the configured tour
+     * improvement, treating the day as one tour from the start and back. Only the
+     * order within a day changes, and tryDeliverySequence groups by day anyway.
+     *
+     * The day is then flown as the batches of createBatchesByServicePointAndCapacity,
+     * each a round trip from the service point findServicePointForBatch gives it, and
+     * a new order can move deliveries into other batches. The improved order is kept
+     * only if its batches are shorter in total and no delivery ends up in a batch that
+     * is estimated longer, or costlier per delivery, than the one it had before, so a
+     * plan that met maxMoves and maxCost is not traded for a shorter infeasible one.
+     * Days with a delivery that is not in the distance matrix are left as they are.
+     */
+    private void improveDailyTours(List<MedDispatchRec> ordered, Position start, Drone drone,
+                                   List<DroneForServicePoint> droneForServicePoints,
+                                   List<DroneServicePoint> droneServicePoints,
+                                   DistanceMatrix distances) {
+        TourImprover improver = TourImprover.of(plannerProperties.getTourImprovement());
+        int depot = distances.indexOf(start);
+        Double capacity = drone.capability().capacity();
+        if (improver == TourImprover.NONE || depot < 0 || capacity == null || capacity <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + plannerProperties.getTourImprovementBudget().toNanos();
+
+        Map<String, List<Integer>> slotsByDate = new LinkedHashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            String date = ordered.get(i).date() != null ? ordered.get(i).date() : "unknown";
+            slotsByDate.computeIfAbsent(date, k -> new ArrayList<>()).add(i);
+        }
+
+        for (List<Integer> slots : slotsByDate.values()) {
+            List<MedDispatchRec> day = new ArrayList<>(slots.size());
+            int[] tour = new int[slots.size()];
+            // Deliveries to the same location share a number and are interchangeable
+            Map<Integer, Deque<MedDispatchRec>> dispatchesByStop = new HashMap<>();
+            for (int k = 0; k < tour.length; k++) {
+                MedDispatchRec dispatch = ordered.get(slots.get(k));
+                day.add(dispatch);
+                tour[k] = distances.indexOf(getDeliveryPosition(dispatch));
+                if (tour[k] < 0) {
+                    tour = null;
+                    break;
+                }
+                dispatchesByStop.computeIfAbsent(tour[k], stop -> new ArrayDeque<>()).add(dispatch);
+            }
+            if (tour == null || !improver.improve(tour, depot, distances, deadline)) {
+                continue;
+            }
+
+            List<MedDispatchRec> improved = new ArrayList<>(tour.length);
+            for (int stop : tour) {
+                improved.add(dispatchesByStop.get(stop).poll());
+            }
+            BatchedDay before = estimateBatches(day, drone, droneForServicePoints, droneServicePoints, distances);
+            BatchedDay after = estimateBatches(improved, drone, droneForServicePoints, droneServicePoints, distances);
+            if (before != null && after != null && after.improvesOn(before)) {
+                for (int k = 0; k < improved.size(); k++) {
+                    ordered.set(slots.get(k), improved.get(k));
+                }
+            }
+        }
+    }
+
+    /**
+     * Straight-line estimate of flying a day's deliveries in order, batched exactly as
+     * tryDeliverySequence batches them.
+     *
+     * @return null if the day cannot be batched or a batch has no service point
+     */
+    private BatchedDay estimateBatches(List<MedDispatchRec> day, Drone drone,
+                                       List<DroneForServicePoint> droneForServicePoints,
+                                       List<DroneServicePoint> droneServicePoints,
+                                       DistanceMatrix distances) {
+        List<List<MedDispatchRec>> batches = createBatchesByServicePointAndCapacity(
+                day, drone.capability().capacity(), drone, droneForServicePoints);
+        if (batches.isEmpty()) {
+            return null;
+        }
+
+        Drone.Capability capability = drone.capability();
+        double fixedCost = (capability.costInitial() != null ? capability.costInitial() : 0.0) +
+                (capability.costFinal() != null ? capability.costFinal() : 0.0);
+        double costPerMove = capability.costPerMove() != null ? capability.costPerMove() : 0.0;
+
+        double total = 0.0;
+        Map<MedDispatchRec, BatchEstimate> batchOf = new IdentityHashMap<>();
+        for (List<MedDispatchRec> batch : batches) {
+            Position servicePoint = findServicePointForBatch(drone, batch, droneForServicePoints, droneServicePoints);
+            if (servicePoint == null) {
+                return null;
+            }
+            double length = 0.0;
+            Position current = servicePoint;
+            for (MedDispatchRec dispatch : batch) {
+                length += distances.distance(current, getDeliveryPosition(dispatch));
+                current = getDeliveryPosition(dispatch);
+            }
+            length += distances.distance(current, servicePoint);
+
+            BatchEstimate estimate = new BatchEstimate(
+                    length, (fixedCost + length / MOVE_DISTANCE * costPerMove) / batch.size());
+            for (MedDispatchRec dispatch : batch) {
+                batchOf.put(dispatch, estimate);
+            }
+            total += length;
+        }
+        return new BatchedDay(total, batchOf);
+    }
+
+    private record BatchEstimate(double length, double costPerDelivery) {
+    }
+
+    private record BatchedDay(double length, Map<MedDispatchRec, BatchEstimate> batchOf) {
+
+        /**
+         * True if this day is shorter than the other and every delivery is in a batch
+         * no longer and no costlier per delivery than its batch in the other.
+         */
+        boolean improvesOn(BatchedDay other) {
+            if (length >= other.length || batchOf.size() != other.batchOf.size()) {
+                return false;
+            }
+            for (Map.Entry<MedDispatchRec, BatchEstimate> entry : batchOf.entrySet()) {
+                BatchEstimate previous = other.batchOf.get(entry.getKey());
+                if (previous == null ||
+                        entry.getValue().length() > previous.length() ||
+                        entry.getValue().costPerDelivery() > previous.costPerDelivery()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     private DeliveryPathResponse tryDeliverySequence(
             Drone drone, List<MedDispatchRec> dispatches,
             List<RestrictedArea> restrictedAreas,
             List<DroneForServicePoint> droneForServicePoints,
-            List<DroneServicePoint> droneServicePoints) {
+            List<DroneServicePoint> droneServicePoints,
+            String jobId) {
+        return tryDeliverySequence(drone, dispatches, restrictedAreas,
+                droneForServicePoints, droneServicePoints, committedCost -> false, jobId);
+    }
+
+    /**
+     * @param abandon tested with the cost accumulated so far before every flight leg;
+     *                returning true gives up on the sequence
+     * @param jobId the planning job progress is published to, or null for untagged progress
+     */
+    private DeliveryPathResponse tryDeliverySequence(
+            Drone drone, List<MedDispatchRec> dispatches,
+            List<RestrictedArea> restrictedAreas,
+            List<DroneForServicePoint> droneForServicePoints,
+            List<DroneServicePoint> droneServicePoints,
+            DoublePredicate abandon,
+            String jobId) {
 
         if (drone.capability() == null) return null;
 
@@ -690,8 +1205,10 @@ public class PathPlanningServiceImpl implements PathPlanningService {
                     return null;
                 }
 
+                double committedCost = totalCost;
                 DeliveryBatchResult batchResult = executeDeliveryBatch(
-                        drone, currentServicePoint, batch, restrictedAreas
+                        drone, currentServicePoint, batch, restrictedAreas,
+                        () -> abandon.test(committedCost), jobId
                 );
 
                 if (batchResult == null) {
@@ -720,28 +1237,12 @@ public class PathPlanningServiceImpl implements PathPlanningService {
 
         MedDispatchRec firstOrder = batch.get(0);
 
-        DroneForServicePoint.DroneAvailability availability =
-                findDroneAvailabilityForOrder(
-                        drone.id(),
-                        firstOrder.date(),
-                        firstOrder.time(),
-                        droneForServicePoints
-                );
+        AvailabilityIndex.Slot availability = availabilityIndex(droneForServicePoints)
+                .find(drone.id(), firstOrder.date(), firstOrder.time());
 
         if (availability == null) return null;
 
-        Integer servicePointId = null;
-        for (DroneForServicePoint sp : droneForServicePoints) {
-            if (sp.drones() != null) {
-                for (DroneForServicePoint.DroneAvailability da : sp.drones()) {
-                    if (da.id().equals(drone.id()) && da.equals(availability)) {
-                        servicePointId = sp.servicePointId();
-                        break;
-                    }
-                }
-            }
-            if (servicePointId != null) break;
-        }
+        Integer servicePointId = availability.servicePointId();
 
         if (servicePointId == null) return null;
 
@@ -765,30 +1266,14 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         }
 
         Map<Integer, List<MedDispatchRec>> dispatchesByServicePoint = new LinkedHashMap<>();
+        AvailabilityIndex index = availabilityIndex(droneForServicePoints);
 
         for (MedDispatchRec dispatch : dispatches) {
-            DroneForServicePoint.DroneAvailability availability =
-                    findDroneAvailabilityForOrder(
-                            drone.id(),
-                            dispatch.date(),
-                            dispatch.time(),
-                            droneForServicePoints
-                    );
+            AvailabilityIndex.Slot availability = index.find(drone.id(), dispatch.date(), dispatch.time());
 
             if (availability == null) continue;
 
-            Integer servicePointId = null;
-            for (DroneForServicePoint sp : droneForServicePoints) {
-                if (sp.drones() != null) {
-                    for (DroneForServicePoint.DroneAvailability da : sp.drones()) {
-                        if (da.id().equals(drone.id()) && da == availability) {
-                            servicePointId = sp.servicePointId();
-                            break;
-                        }
-                    }
-                }
-                if (servicePointId != null) break;
-            }
+            Integer servicePointId = availability.servicePointId();
 
             if (servicePointId != null) {
                 dispatchesByServicePoint
@@ -837,24 +1322,22 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             Drone drone,
             Position servicePoint,
             List<MedDispatchRec> batch,
-            List<RestrictedArea> restrictedAreas) {
+            List<RestrictedArea> restrictedAreas,
+            BooleanSupplier abandoned,
+            String jobId) {
 
-        if (progressHandler.hasActiveConnections()) {
-            progressHandler.broadcastProgress(
-                    PathfindingProgress.batchStarted(1, drone.id(), batch.size())
-            );
+        if (abandoned.getAsBoolean()) {
+            return null;
         }
 
+        ProgressSink progress = progressSink(jobId);
+        progress.batchStarted(drone.id(), batch.size());
+
+        RestrictedAreaIndex areaIndex = restrictedAreaIndex(restrictedAreas);
         for (MedDispatchRec dispatch : batch) {
             Position deliveryPos = getDeliveryPosition(dispatch);
-            if (isInRestrictedArea(deliveryPos, restrictedAreas)) {
-                if (progressHandler.hasActiveConnections()) {
-                    progressHandler.broadcastProgress(
-                            PathfindingProgress.error(
-                                    "Delivery " + dispatch.id() + " location is in restricted area"
-                            )
-                    );
-                }
+            if (areaIndex.contains(deliveryPos)) {
+                progress.error(() -> "Delivery " + dispatch.id() + " location is in restricted area");
                 return null;
             }
         }
@@ -867,20 +1350,16 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             MedDispatchRec dispatch = batch.get(i);
             Position deliveryPos = getDeliveryPosition(dispatch);
 
-            if (progressHandler.hasActiveConnections()) {
-                progressHandler.broadcastProgress(
-                        PathfindingProgress.deliveryStarted(dispatch.id(), currentPos, deliveryPos)
-                );
+            if (i > 0 && abandoned.getAsBoolean()) {
+                return null;
             }
 
-            List<Position> pathToDelivery = calculateFlightPath(currentPos, deliveryPos, restrictedAreas);
+            progress.deliveryStarted(dispatch.id(), currentPos, deliveryPos);
+
+            List<Position> pathToDelivery = calculateFlightPath(currentPos, deliveryPos, restrictedAreas, jobId);
 
             if (pathToDelivery.isEmpty()) {
-                if (progressHandler.hasActiveConnections()) {
-                    progressHandler.broadcastProgress(
-                            PathfindingProgress.error("Cannot find path to delivery " + dispatch.id())
-                    );
-                }
+                progress.error(() -> "Cannot find path to delivery " + dispatch.id());
                 return null;
             }
 
@@ -893,13 +1372,9 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             currentPos = deliveryPos;
         }
 
-        List<Position> returnPath = calculateFlightPath(currentPos, servicePoint, restrictedAreas);
+        List<Position> returnPath = calculateFlightPath(currentPos, servicePoint, restrictedAreas, jobId);
         if (returnPath.isEmpty()) {
-            if (progressHandler.hasActiveConnections()) {
-                progressHandler.broadcastProgress(
-                        PathfindingProgress.error("Cannot find return path to service point")
-                );
-            }
+            progress.error(() -> "Cannot find return path to service point");
             return null;
         }
 
@@ -941,11 +1416,7 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             }
         }
 
-        if (progressHandler.hasActiveConnections()) {
-            progressHandler.broadcastProgress(
-                    PathfindingProgress.batchCompleted(1, drone.id(), batchCost, totalMoves)
-            );
-        }
+        progress.batchCompleted(drone.id(), batchCost, totalMoves);
 
         return new DeliveryBatchResult(deliveries, batchCost, totalMoves);
     }
@@ -965,11 +1436,105 @@ public class PathPlanningServiceImpl implements PathPlanningService {
     @Override
     public List<Position> calculateFlightPath(Position from, Position to,
                                               List<RestrictedArea> restrictedAreas) {
-        return aStarPathfinding(from, to, restrictedAreas);
+        return calculateFlightPath(from, to, restrictedAreas, null);
+    }
+
+    /**
+     * Finds one flight segment, from the path cache when possible. A cache hit runs
+     * no search, so it only reports the outcome, with no nodes explored. Jobs
+     * followed over the WebSocket bypass the cache, so the visualizer always shows
+     * the search for every segment.
+     */
+    private List<Position> calculateFlightPath(Position from, Position to,
+                                               List<RestrictedArea> restrictedAreas, String jobId) {
+        PathfindingEngine engine = plannerProperties.getEngine();
+        ProgressSink published = publishedSink(jobId);
+        ProgressSink progress = progressSink(jobId, published);
+        if (published != ProgressSink.NONE) {
+            return searchFlightPath(engine, from, to, restrictedAreas, progress);
+        }
+
+        long fingerprint = restrictedAreaIndex(restrictedAreas).fingerprint();
+        boolean[] searched = new boolean[1];
+        List<Position> path = flightPathCache.get(engine, fingerprint, from, to, () -> {
+            searched[0] = true;
+            return searchFlightPath(engine, from, to, restrictedAreas, progress);
+        });
+        if (!searched[0] && path != null) {
+            if (path.isEmpty()) {
+                progress.noPathFound(0);
+            } else {
+                progress.pathFound(0, path.size());
+            }
+        }
+        return path;
+    }
+
+    private List<Position> searchFlightPath(PathfindingEngine engine, Position from, Position to,
+                                            List<RestrictedArea> restrictedAreas, ProgressSink progress) {
+        if (engine == PathfindingEngine.LEGACY) {
+            return aStarPathfinding(from, to, restrictedAreas, progress);
+        }
+        return latticePathfinder.findPath(from, to, restrictedAreaIndex(restrictedAreas), progress);
+    }
+
+    /**
+     * Returns the collision index for a restricted area snapshot, building it only
+     * when a different list instance is passed in.
+     */
+    private RestrictedAreaIndex restrictedAreaIndex(List<RestrictedArea> restrictedAreas) {
+        RestrictedAreaIndex index = restrictedAreaIndex;
+        if (index.source() != restrictedAreas) {
+            index = RestrictedAreaIndex.build(restrictedAreas);
+            restrictedAreaIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the availability index for a drones-for-service-points snapshot,
+     * building it only when a different list instance is passed in.
+     */
+    private AvailabilityIndex availabilityIndex(List<DroneForServicePoint> droneForServicePoints) {
+        AvailabilityIndex index = availabilityIndex;
+        if (index.source() != droneForServicePoints) {
+            index = AvailabilityIndex.build(droneForServicePoints);
+            availabilityIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the sink for one search or delivery batch of a job. Whether anyone is
+     * subscribed to the job is checked here, once, rather than at every event.
+     */
+    private ProgressSink progressSink(String jobId) {
+        return progressSink(jobId, publishedSink(jobId));
+    }
+
+    private ProgressSink progressSink(String jobId, ProgressSink published) {
+        ProgressSink observer = jobId == null ? null : jobObservers.get(jobId);
+        if (observer == null) {
+            return published;
+        }
+        return published == ProgressSink.NONE ? observer : ProgressSink.both(observer, published);
+    }
+
+    private ProgressSink publishedSink(String jobId) {
+        ProgressMode mode = plannerProperties.getProgress();
+        if (mode == ProgressMode.NONE || !progressHandler.hasSubscribers(jobId)) {
+            return ProgressSink.NONE;
+        }
+        if (mode == ProgressMode.FULL) {
+            return new BroadcastProgressSink(progressHandler, jobId);
+        }
+        return new SamplingProgressSink(progressHandler, jobId, plannerProperties.getProgressSampleEvery(),
+                plannerProperties.getProgressMinInterval().toNanos(), System::nanoTime);
     }
 
     private List<Position> aStarPathfinding(Position from, Position to,
-                                            List<RestrictedArea> restrictedAreas) {
+                                            List<RestrictedArea> restrictedAreas,
+                                            ProgressSink progress) {
 
         if (ilpService.isClose(from, to)) {
             return Arrays.asList(from, to);
@@ -984,6 +1549,7 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         Map<String, Position> cameFrom = new HashMap<>();
         Map<String, Double> gScore = new HashMap<>();
 
+        RestrictedAreaIndex areaIndex = restrictedAreaIndex(restrictedAreas);
         String fromKey = positionToKey(from);
         openSet.add(new AStarNode(from, 0.0, improvedHeuristic(from, to)));
         gScore.put(fromKey, 0.0);
@@ -996,20 +1562,12 @@ public class PathPlanningServiceImpl implements PathPlanningService {
 
             nodesExplored++;
 
-            if (progressHandler.hasActiveConnections() && nodesExplored % 10 == 0) {
-                progressHandler.broadcastProgress(
-                        PathfindingProgress.nodeExplored(current.position, nodesExplored)
-                );
-            }
+            progress.nodeExplored(current.position.lng(), current.position.lat(), nodesExplored);
 
             if (ilpService.isClose(current.position, to)) {
                 List<Position> path = reconstructPath(cameFrom, current.position, from, to);
 
-                if (progressHandler.hasActiveConnections()) {
-                    progressHandler.broadcastProgress(
-                            PathfindingProgress.pathFound(null, nodesExplored, path.size())
-                    );
-                }
+                progress.pathFound(nodesExplored, path.size());
 
                 return path;
             }
@@ -1021,14 +1579,15 @@ public class PathPlanningServiceImpl implements PathPlanningService {
 
             double currentG = gScore.getOrDefault(currentKey, Double.MAX_VALUE);
             List<AngleScore> sortedAngles = getSortedAngles(current.position, to);
+            List<Position> neighbors = ilpService.nextPositions(current.position);
 
             for (AngleScore angleScore : sortedAngles) {
-                Position neighbor = ilpService.nextPosition(current.position, angleScore.angle);
+                Position neighbor = neighbors.get(angleScore.direction);
                 String neighborKey = positionToKey(neighbor);
 
                 if (closedSet.contains(neighborKey) ||
-                        isInRestrictedArea(neighbor, restrictedAreas) ||
-                        isPathThroughRestrictedArea(current.position, neighbor, restrictedAreas)) {
+                        areaIndex.isBlocked(current.position.lng(), current.position.lat(),
+                                neighbor.lng(), neighbor.lat())) {
                     continue;
                 }
 
@@ -1044,11 +1603,7 @@ public class PathPlanningServiceImpl implements PathPlanningService {
             }
         }
 
-        if (progressHandler.hasActiveConnections()) {
-            progressHandler.broadcastProgress(
-                    PathfindingProgress.error("No path found after exploring " + nodesExplored + " nodes")
-            );
-        }
+        progress.noPathFound(nodesExplored);
 
         return new ArrayList<>();
     }
@@ -1073,13 +1628,14 @@ public class PathPlanningServiceImpl implements PathPlanningService {
 
         double targetAngle = calculateAngle(current, target);
 
-        for (Double angle : VALID_ANGLES) {
+        for (int direction = 0; direction < CompassStepTable.DIRECTIONS; direction++) {
+            double angle = CompassStepTable.angle(direction);
             double angleDiff = Math.abs(normalizeAngle(angle - targetAngle));
 
             if (angleDiff > 180) {
                 angleDiff = 360 - angleDiff;
             }
-            angles.add(new AngleScore(angle, angleDiff));
+            angles.add(new AngleScore(direction, angleDiff));
         }
 
         angles.sort(Comparator.comparingDouble(a -> a.score));
@@ -1106,11 +1662,11 @@ public class PathPlanningServiceImpl implements PathPlanningService {
     }
 
     private static class AngleScore {
-        Double angle;
+        int direction;
         double score;
 
-        AngleScore(Double angle, double score) {
-            this.angle = angle;
+        AngleScore(int direction, double score) {
+            this.direction = direction;
             this.score = score;
         }
     }
@@ -1150,74 +1706,6 @@ public class PathPlanningServiceImpl implements PathPlanningService {
         return path;
     }
 
-    private boolean isInRestrictedArea(Position pos, List<RestrictedArea> restrictedAreas) {
-        for (RestrictedArea area : restrictedAreas) {
-            if (area.vertices() != null && !area.vertices().isEmpty()) {
-                if (ilpService.isInRegion(pos, area.vertices())) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean isPathThroughRestrictedArea(Position from, Position to, List<RestrictedArea> restrictedAreas) {
-        for (RestrictedArea area : restrictedAreas) {
-            if (area.vertices() != null && !area.vertices().isEmpty()) {
-                List<Position> vertices = area.vertices();
-
-                for (int i = 0; i < vertices.size(); i++) {
-                    Position v1 = vertices.get(i);
-                    Position v2 = vertices.get((i + 1) % vertices.size());
-
-                    if (lineSegmentsIntersect(from, to, v1, v2)) {
-                        return true;
-                    }
-                }
-
-                Position midPoint = new Position(
-                        (from.lng() + to.lng()) / 2.0,
-                        (from.lat() + to.lat()) / 2.0
-                );
-                if (ilpService.isInRegion(midPoint, vertices)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean lineSegmentsIntersect(Position p1, Position p2, Position p3, Position p4) {
-        double d1 = direction(p3, p4, p1);
-        double d2 = direction(p3, p4, p2);
-        double d3 = direction(p1, p2, p3);
-        double d4 = direction(p1, p2, p4);
-
-        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) &&
-                ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
-            return true;
-        }
-
-        if (Math.abs(d1) < 1e-10 && onSegment(p3, p1, p4)) return true;
-        if (Math.abs(d2) < 1e-10 && onSegment(p3, p2, p4)) return true;
-        if (Math.abs(d3) < 1e-10 && onSegment(p1, p3, p2)) return true;
-        if (Math.abs(d4) < 1e-10 && onSegment(p1, p4, p2)) return true;
-
-        return false;
-    }
-
-    private double direction(Position p1, Position p2, Position p3) {
-        return (p3.lng() - p1.lng()) * (p2.lat() - p1.lat()) -
-                (p2.lng() - p1.lng()) * (p3.lat() - p1.lat());
-    }
-
-    private boolean onSegment(Position p, Position q, Position r) {
-        return q.lng() <= Math.max(p.lng(), r.lng()) &&
-                q.lng() >= Math.min(p.lng(), r.lng()) &&
-                q.lat() <= Math.max(p.lat(), r.lat()) &&
-                q.lat() >= Math.min(p.lat(), r.lat());
-    }
-
     private Position getDeliveryPosition(MedDispatchRec dispatch) {
         return dispatch.delivery();
     }
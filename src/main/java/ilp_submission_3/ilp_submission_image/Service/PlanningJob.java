@@ -0,0 +1,107 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import ilp_submission_3.ilp_submission_image.WebSocket.ProgressSink;
+import ilp_submission_3.ilp_submission_image.dto.DeliveryPathResponse;
+import ilp_submission_3.ilp_submission_image.dto.PlanningJobStatus;
+import ilp_submission_3.ilp_submission_image.dto.PlanningJobStatus.State;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * State of one asynchronous planning job. As the job's progress observer it is
+ * called from every planner thread working on the job, so all state is either
+ * atomic or volatile.
+ */
+final class PlanningJob implements ProgressSink {
+
+    private final String id;
+    private final Instant submittedAt;
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile DeliveryPathResponse result;
+    private volatile String error;
+
+    private final AtomicInteger batchesStarted = new AtomicInteger();
+    private final AtomicInteger batchesCompleted = new AtomicInteger();
+    private final AtomicInteger pathsFound = new AtomicInteger();
+    private final LongAdder nodesExplored = new LongAdder();
+    private volatile PlanningJobStatus.BatchSummary lastCompletedBatch;
+
+    PlanningJob(String id, Instant submittedAt) {
+        this.id = id;
+        this.submittedAt = submittedAt;
+    }
+
+    String id() {
+        return id;
+    }
+
+    State state() {
+        return state;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    boolean isFinished() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+
+    void started(Instant at) {
+        startedAt = at;
+        state = State.RUNNING;
+    }
+
+    void succeeded(DeliveryPathResponse response, Instant at) {
+        result = response;
+        finishedAt = at;
+        state = State.SUCCEEDED;
+    }
+
+    void failed(String message, Instant at) {
+        error = message;
+        finishedAt = at;
+        state = State.FAILED;
+    }
+
+    PlanningJobStatus status() {
+        // Read the state first: the fields it publishes were written before it
+        State current = state;
+        return new PlanningJobStatus(
+                id,
+                current,
+                submittedAt,
+                startedAt,
+                finishedAt,
+                new PlanningJobStatus.Progress(batchesStarted.get(), batchesCompleted.get(),
+                        pathsFound.get(), nodesExplored.sum(), lastCompletedBatch),
+                current == State.SUCCEEDED ? result : null,
+                current == State.FAILED ? error : null
+        );
+    }
+
+    @Override
+    public void nodeExplored(double lng, double lat, int nodesExplored) {
+        this.nodesExplored.increment();
+    }
+
+    @Override
+    public void pathFound(int nodesExplored, int pathLength) {
+        pathsFound.incrementAndGet();
+    }
+
+    @Override
+    public void batchStarted(String droneId, int deliveryCount) {
+        batchesStarted.incrementAndGet();
+    }
+
+    @Override
+    public void batchCompleted(String droneId, double cost, int moves) {
+        lastCompletedBatch = new PlanningJobStatus.BatchSummary(droneId, cost, moves);
+        batchesCompleted.incrementAndGet();
+    }
+}
@@ -0,0 +1,188 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import ilp_submission_3.ilp_submission_image.Configuration.JobProperties;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+import ilp_submission_3.ilp_submission_image.dto.PlanningJobStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs delivery planning requests in the background so that no servlet thread
+ * waits for a search.
+ *
+ * Jobs run on a dedicated pool with a bounded queue; a submission that finds the
+ * queue full is rejected rather than queued without limit. Jobs are kept in a
+ * bounded store in submission order. A finished job is dropped once its result
+ * has been kept for the configured TTL, or earlier when room is needed for a new
+ * job; pending jobs are never dropped.
+ */
+@Service
+public class PlanningJobService {
+
+    private final PathPlanningService pathPlanningService;
+    private final Clock clock;
+    private final Duration resultTtl;
+    private final int maxStoredJobs;
+    private final int workers;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    private final LinkedHashMap<String, PlanningJob> jobs = new LinkedHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    @Autowired
+    public PlanningJobService(PathPlanningService pathPlanningService, JobProperties properties) {
+        this(pathPlanningService, properties, Clock.systemUTC());
+    }
+
+    public PlanningJobService(PathPlanningService pathPlanningService, JobProperties properties, Clock clock) {
+        this.pathPlanningService = pathPlanningService;
+        this.clock = clock;
+        this.resultTtl = properties.getResultTtl();
+        this.maxStoredJobs = Math.max(1, properties.getMaxStoredJobs());
+        this.workers = Math.max(1, properties.getWorkers());
+        this.queueCapacity = Math.max(1, properties.getQueueCapacity());
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "planner-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Queues a planning job and returns its initial status.
+     *
+     * @param jobId the id to plan under, also used for progress subscriptions;
+     *              a random id is assigned if null or blank
+     * @throws IllegalStateException if a job with the same id is still stored
+     * @throws RejectedExecutionException if the queue or the store is full
+     */
+    public PlanningJobStatus submit(List<MedDispatchRec> dispatchRecords, String jobId) {
+        String id = jobId == null || jobId.isBlank() ? UUID.randomUUID().toString() : jobId;
+        PlanningJob job = new PlanningJob(id, clock.instant());
+
+        synchronized (this) {
+            purgeExpired();
+            if (jobs.containsKey(id)) {
+                throw new IllegalStateException("Job " + id + " already exists");
+            }
+            if (jobs.size() >= maxStoredJobs && !evictOldestFinished()) {
+                rejected.increment();
+                throw new RejectedExecutionException("Job store is full");
+            }
+            jobs.put(id, job);
+        }
+
+        try {
+            executor.execute(() -> run(job, dispatchRecords));
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                jobs.remove(id, job);
+            }
+            rejected.increment();
+            throw e;
+        }
+        submitted.increment();
+        return job.status();
+    }
+
+    /**
+     * @return the job's current status, or null if it is unknown or has expired
+     */
+    public PlanningJobStatus getStatus(String jobId) {
+        PlanningJob job;
+        synchronized (this) {
+            purgeExpired();
+            job = jobs.get(jobId);
+        }
+        return job == null ? null : job.status();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("workers", workers);
+        metrics.put("activeWorkers", executor.getActiveCount());
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("queued", executor.getQueue().size());
+        synchronized (this) {
+            metrics.put("storedJobs", jobs.size());
+        }
+        metrics.put("maxStoredJobs", maxStoredJobs);
+        metrics.put("resultTtlSeconds", resultTtl.toSeconds());
+        metrics.put("submitted", submitted.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("succeeded", succeeded.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("expired", expired.sum());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(PlanningJob job, List<MedDispatchRec> dispatchRecords) {
+        job.started(clock.instant());
+        try {
+            job.succeeded(pathPlanningService.calculateDeliveryPath(dispatchRecords, job.id(), job), clock.instant());
+            succeeded.increment();
+        } catch (RuntimeException e) {
+            System.err.println("Planning job " + job.id() + " failed: " + e.getMessage());
+            job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), clock.instant());
+            failed.increment();
+        }
+    }
+
+    // Caller holds the lock
+    private void purgeExpired() {
+        Instant cutoff = clock.instant().minus(resultTtl);
+        Iterator<PlanningJob> it = jobs.values().iterator();
+        while (it.hasNext()) {
+            PlanningJob job = it.next();
+            if (job.isFinished() && job.finishedAt().isBefore(cutoff)) {
+                it.remove();
+                expired.increment();
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private boolean evictOldestFinished() {
+        Iterator<PlanningJob> it = jobs.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isFinished()) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,418 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import ilp_submission_3.ilp_submission_image.Configuration.ReferenceDataProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * TTL cache for ILP REST reference data, keyed by endpoint and resource path.
+ *
+ * The first request for a key loads it synchronously; concurrent first requests
+ * wait for that one load instead of each calling upstream. Within the TTL the
+ * cached list is returned as-is; once expired the stale list is still returned at
+ * once while a single background refresh replaces it. A failed refresh keeps the
+ * stale list, so an upstream outage only surfaces for keys that were never loaded,
+ * and the next attempt is put off with an exponential backoff capped at the TTL.
+ * Cached lists are unmodifiable and the same instance is returned until the next
+ * successful refresh, which lets callers key per-snapshot work on identity.
+ *
+ * With a snapshot file configured, every successful load is also written to disk
+ * and the file is read back at startup. A restored list is served at once on its
+ * first request, typed by the caller, and reconciled with upstream by the usual
+ * background refresh, so a restart neither waits for the upstream nor fails
+ * while it is down. Restored lists older than their configured maximum age are
+ * not served; those keys load from upstream like a cold start.
+ */
+@Service
+public class ReferenceDataCache {
+
+    /**
+     * Wait before retrying a failed refresh; doubled per consecutive failure, up to the TTL.
+     */
+    static final Duration MIN_RETRY_BACKOFF = Duration.ofSeconds(1);
+
+    private final Duration ttl;
+    private final ExecutorService refreshExecutor;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    private final ReferenceDataSnapshot snapshot;
+    private final Function<String, Duration> snapshotMaxAge;
+    private final Map<String, ReferenceDataSnapshot.Stored> restored = new ConcurrentHashMap<>();
+    private final AtomicBoolean savePending = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder snapshotRestores = new LongAdder();
+    private final LongAdder snapshotWrites = new LongAdder();
+    private final LongAdder snapshotWriteFailures = new LongAdder();
+
+    @Autowired
+    public ReferenceDataCache(ReferenceDataProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    /**
+     * A cache without a snapshot file.
+     */
+    public ReferenceDataCache(Duration ttl, int refreshThreads, LongSupplier clock) {
+        this(inMemory(ttl, refreshThreads), clock);
+    }
+
+    /**
+     * @param clock nanosecond clock for TTLs and refresh backoff; snapshot ages use
+     *              the wall clock, since they span restarts
+     */
+    public ReferenceDataCache(ReferenceDataProperties properties, LongSupplier clock) {
+        Duration ttl = properties.getTtl();
+        String snapshotFile = properties.getSnapshotFile();
+        this.ttl = ttl == null || ttl.isNegative() ? Duration.ZERO : ttl;
+        this.clock = clock;
+        this.refreshExecutor = this.ttl.isZero() ? null :
+                Executors.newFixedThreadPool(Math.max(1, properties.getRefreshThreads()), refreshThreadFactory());
+        this.snapshot = this.ttl.isZero() || snapshotFile == null || snapshotFile.isBlank()
+                ? null : new ReferenceDataSnapshot(Path.of(snapshotFile));
+        this.snapshotMaxAge = properties::snapshotMaxAgeFor;
+        if (snapshot != null) {
+            restored.putAll(snapshot.load());
+        }
+    }
+
+    private static ReferenceDataProperties inMemory(Duration ttl, int refreshThreads) {
+        ReferenceDataProperties properties = new ReferenceDataProperties();
+        properties.setTtl(ttl);
+        properties.setRefreshThreads(refreshThreads);
+        properties.setSnapshotFile(null);
+        return properties;
+    }
+
+    /**
+     * A cache that never stores anything, for callers constructed without one.
+     */
+    public static ReferenceDataCache passThrough() {
+        return new ReferenceDataCache(Duration.ZERO, 0, System::nanoTime);
+    }
+
+    /**
+     * Returns the cached list for an endpoint and path, loading it on first use.
+     *
+     * @param endpoint the ILP REST base URL the data comes from
+     * @param path the resource path, e.g. {@code /drones}
+     * @param loader fetches the list from upstream; its exceptions propagate only
+     *               when there is no cached value to fall back on
+     */
+    public <T> List<T> get(String endpoint, String path, Supplier<List<T>> loader) {
+        return get(endpoint, path, null, loader);
+    }
+
+    /**
+     * As {@link #get(String, String, Supplier)}, and on a miss falls back to the list
+     * restored from the snapshot file, read back as elements of {@code type}.
+     *
+     * @param type the list's element type, or {@code null} to skip the snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String endpoint, String path, Class<T> type, Supplier<List<T>> loader) {
+        if (ttl.isZero()) {
+            misses.increment();
+            return loader.get();
+        }
+
+        String key = endpoint + path;
+        Entry entry = entries.get(key);
+        if (entry == null && type != null) {
+            entry = restore(key, type);
+        }
+        if (entry == null) {
+            misses.increment();
+            return (List<T>) load(key, endpoint, path, loader).value;
+        }
+
+        if (!entry.restored && clock.getAsLong() - entry.loadedAt < ttl.toNanos()) {
+            hits.increment();
+        } else {
+            staleHits.increment();
+            scheduleRefresh(key, entry, loader);
+        }
+        return (List<T>) entry.value;
+    }
+
+    /**
+     * Drops every cached entry; the next request per key loads synchronously.
+     */
+    public void invalidateAll() {
+        entries.clear();
+        restored.clear();
+    }
+
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum() + staleHits.sum();
+        long total = hitCount + misses.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", !ttl.isZero());
+        metrics.put("ttlSeconds", ttl.toSeconds());
+        metrics.put("entries", entries.size());
+        metrics.put("hits", hits.sum());
+        metrics.put("staleHits", staleHits.sum());
+        metrics.put("misses", misses.sum());
+        metrics.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        metrics.put("refreshes", refreshes.sum());
+        metrics.put("refreshFailures", refreshFailures.sum());
+        metrics.put("snapshotEnabled", snapshot != null);
+        metrics.put("snapshotPending", restored.size());
+        metrics.put("snapshotRestores", snapshotRestores.sum());
+        metrics.put("snapshotWrites", snapshotWrites.sum());
+        metrics.put("snapshotWriteFailures", snapshotWriteFailures.sum());
+        return metrics;
+    }
+
+    /**
+     * Lets queued refreshes and snapshot writes finish for a few seconds, then stops
+     * the rest and writes the snapshot once more if a save was still outstanding, so
+     * the last successful refresh reaches disk.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor == null) {
+            return;
+        }
+        refreshExecutor.shutdown();
+        try {
+            if (!refreshExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                refreshExecutor.shutdownNow();
+                refreshExecutor.awaitTermination(1, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            refreshExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (snapshot != null && savePending.getAndSet(false)) {
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * Loads a key nothing is cached for. The first caller runs the loader and the
+     * others wait for its result, or its exception.
+     */
+    private <T> Entry load(String key, String endpoint, String path, Supplier<List<T>> loader) {
+        CompletableFuture<Entry> pending = new CompletableFuture<>();
+        CompletableFuture<Entry> inFlight = loading.putIfAbsent(key, pending);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            Entry entry = new Entry(endpoint, path, copy(loader.get()), clock.getAsLong(), System.currentTimeMillis(), false);
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                scheduleSave();
+            } else {
+                entry = existing;
+            }
+            pending.complete(entry);
+            return entry;
+        } catch (RuntimeException | Error e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, pending);
+        }
+    }
+
+    private <T> void scheduleRefresh(String key, Entry stale, Supplier<List<T>> loader) {
+        if (stale.failures > 0 && clock.getAsLong() - stale.retryAt < 0) {
+            return;
+        }
+        if (!stale.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                boolean failed = false;
+                try {
+                    Entry fresh = new Entry(stale.endpoint, stale.path, copy(loader.get()),
+                            clock.getAsLong(), System.currentTimeMillis(), false);
+                    if (entries.replace(key, stale, fresh)) {
+                        scheduleSave();
+                    }
+                    refreshes.increment();
+                } catch (RuntimeException e) {
+                    failed = true;
+                    stale.failures++;
+                    stale.retryAt = clock.getAsLong() + retryBackoff(stale.failures).toNanos();
+                    System.err.println("Failed to refresh " + key + ", serving stale data: " + e.getMessage());
+                } finally {
+                    stale.refreshing.set(false);
+                }
+                // Counted once the entry can be refreshed again
+                if (failed) {
+                    refreshFailures.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stale.refreshing.set(false);
+        }
+    }
+
+    private Duration retryBackoff(int failures) {
+        Duration backoff = MIN_RETRY_BACKOFF.multipliedBy(1L << Math.min(failures - 1, 30));
+        return backoff.compareTo(ttl) < 0 ? backoff : ttl;
+    }
+
+    /**
+     * Moves a list restored from the snapshot file into the cache, marked for refresh.
+     * Lists past their maximum age are dropped instead.
+     */
+    private <T> Entry restore(String key, Class<T> type) {
+        ReferenceDataSnapshot.Stored stored = restored.remove(key);
+        if (stored == null) {
+            return null;
+        }
+        if (expired(stored)) {
+            System.err.println("Discarding snapshot of " + key + ", older than "
+                    + snapshotMaxAge.apply(stored.path()));
+            return null;
+        }
+        try {
+            Entry entry = new Entry(stored.endpoint(), stored.path(), copy(snapshot.fromJson(stored.data(), type)),
+                    clock.getAsLong(), stored.fetchedAt(), true);
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing != null) {
+                return existing;
+            }
+            snapshotRestores.increment();
+            return entry;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Discarding snapshot of " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean expired(ReferenceDataSnapshot.Stored stored) {
+        Duration maxAge = snapshotMaxAge.apply(stored.path());
+        return maxAge != null && System.currentTimeMillis() - stored.fetchedAt() > maxAge.toMillis();
+    }
+
+    /**
+     * Writes the cache to the snapshot file on a refresh thread; saves requested
+     * while one is waiting are folded into it. A save rejected during shutdown stays
+     * pending for {@link #shutdown()} to write.
+     */
+    private void scheduleSave() {
+        if (snapshot == null || !savePending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                if (savePending.getAndSet(false)) {
+                    saveSnapshot();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Left pending for shutdown()
+        }
+    }
+
+    /**
+     * Restored lists not requested yet are kept while within their maximum age, but
+     * only for endpoints still in use, so the file does not accumulate lists from
+     * endpoints the server moved away from.
+     */
+    private void saveSnapshot() {
+        Map<String, ReferenceDataSnapshot.Stored> stored = new LinkedHashMap<>();
+        Set<String> endpoints = new HashSet<>();
+        entries.forEach((key, entry) -> {
+            endpoints.add(entry.endpoint);
+            stored.put(key, new ReferenceDataSnapshot.Stored(
+                    entry.endpoint, entry.path, entry.fetchedAt, snapshot.toJson(entry.value)));
+        });
+        restored.forEach((key, entry) -> {
+            if (endpoints.contains(entry.endpoint()) && !expired(entry)) {
+                stored.putIfAbsent(key, entry);
+            }
+        });
+        try {
+            snapshot.save(stored.values());
+            snapshotWrites.increment();
+        } catch (IOException | RuntimeException e) {
+            snapshotWriteFailures.increment();
+            System.err.println("Failed to write reference data snapshot " + snapshot.getFile() + ": " + e.getMessage());
+        }
+    }
+
+    private static List<?> copy(List<?> value) {
+        return Collections.unmodifiableList(new ArrayList<>(value));
+    }
+
+    private static ThreadFactory refreshThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "reference-data-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Entry {
+        final String endpoint;
+        final String path;
+        final List<?> value;
+        final long loadedAt;
+        /** Epoch milliseconds of the upstream fetch, kept across restarts. */
+        final long fetchedAt;
+        /** Read from the snapshot file and not yet reconciled with upstream. */
+        final boolean restored;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        /** Failed refreshes in a row; only written by the refresh holding {@link #refreshing}. */
+        volatile int failures;
+        /** Clock reading before which no refresh is attempted after a failure. */
+        volatile long retryAt;
+
+        Entry(String endpoint, String path, List<?> value, long loadedAt, long fetchedAt, boolean restored) {
+            this.endpoint = endpoint;
+            this.path = path;
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.fetchedAt = fetchedAt;
+            this.restored = restored;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local JSON file holding the last good copy of each ILP reference data list, so a
+ * restarted server can answer from it before the upstream has been called.
+ *
+ * Lists are stored as plain JSON arrays next to the endpoint and path they came
+ * from; the caller supplies the element type when it reads one back. Writes go to
+ * a new temporary file in the same directory, created exclusively under a random
+ * name and readable by the owner only, that is then moved over the old one, so a
+ * crash mid-write leaves the previous snapshot intact and nothing planted in the
+ * directory beforehand is written through.
+ */
+public class ReferenceDataSnapshot {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public ReferenceDataSnapshot(Path file) {
+        this.file = file;
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * One stored list.
+     *
+     * @param fetchedAt epoch milliseconds when the list was fetched from upstream
+     */
+    public record Stored(String endpoint, String path, long fetchedAt, JsonNode data) {
+        public String key() {
+            return endpoint + path;
+        }
+    }
+
+    private record SnapshotFile(int version, List<Stored> entries) {}
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Reads every stored list, keyed by endpoint and path. A missing, unreadable or
+     * incompatible file yields an empty map.
+     */
+    public Map<String, Stored> load() {
+        Map<String, Stored> stored = new LinkedHashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return stored;
+        }
+        try {
+            SnapshotFile snapshot = objectMapper.readValue(file.toFile(), SnapshotFile.class);
+            if (snapshot.version() != FORMAT_VERSION || snapshot.entries() == null) {
+                System.err.println("Ignoring reference data snapshot " + file + " with format " + snapshot.version());
+                return stored;
+            }
+            for (Stored entry : snapshot.entries()) {
+                if (entry.endpoint() != null && entry.path() != null && entry.data() != null && entry.data().isArray()) {
+                    stored.put(entry.key(), entry);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read reference data snapshot " + file + ": " + e.getMessage());
+        }
+        return stored;
+    }
+
+    /**
+     * Replaces the file with the given lists.
+     */
+    public void save(Collection<Stored> entries) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName() + ".", ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), new SnapshotFile(FORMAT_VERSION, List.copyOf(entries)));
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Converts a list to the JSON stored for it.
+     */
+    public JsonNode toJson(List<?> value) {
+        return objectMapper.valueToTree(value);
+    }
+
+    /**
+     * Reads a stored list back as elements of {@code type}.
+     *
+     * @throws IllegalArgumentException if the stored JSON does not fit the type
+     */
+    public <T> List<T> fromJson(JsonNode data, Class<T> type) {
+        return objectMapper.convertValue(data,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, type));
+    }
+}
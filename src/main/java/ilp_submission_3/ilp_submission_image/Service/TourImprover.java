@@ -0,0 +1,64 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import ilp_submission_3.ilp_submission_image.Configuration.TourImprovement;
+
+/**
+ * A local search that shortens a closed delivery tour in place.
+ *
+ * A tour holds the {@link DistanceMatrix} numbers of its deliveries in visiting
+ * order; the drone leaves the depot before the first and returns to it after the
+ * last. Improvers only make moves that shorten the tour by more than rounding
+ * noise, so a tour they cannot improve comes back unchanged, and they stop at
+ * the next move once {@link System#nanoTime()} passes the deadline, leaving the
+ * best tour found so far.
+ */
+@FunctionalInterface
+public interface TourImprover {
+
+    TourImprover NONE = (tour, depot, distances, deadline) -> false;
+
+    /**
+     * @param deadline {@link System#nanoTime()} value after which to stop
+     * @return whether the tour changed
+     */
+    boolean improve(int[] tour, int depot, DistanceMatrix distances, long deadline);
+
+    static TourImprover of(TourImprovement improvement) {
+        return switch (improvement) {
+            case NONE -> NONE;
+            case TWO_OPT -> TwoOptImprover.INSTANCE;
+            case OR_OPT -> OrOptImprover.INSTANCE;
+            case TWO_OPT_AND_OR_OPT -> alternating(TwoOptImprover.INSTANCE, OrOptImprover.INSTANCE);
+        };
+    }
+
+    /**
+     * Runs both improvers in turn until the second no longer changes the tour that
+     * the first has just finished with.
+     */
+    static TourImprover alternating(TourImprover first, TourImprover second) {
+        return (tour, depot, distances, deadline) -> {
+            boolean changed = first.improve(tour, depot, distances, deadline);
+            while (System.nanoTime() - deadline < 0 && second.improve(tour, depot, distances, deadline)) {
+                changed = true;
+                if (!first.improve(tour, depot, distances, deadline)) {
+                    break;
+                }
+            }
+            return changed;
+        };
+    }
+
+    /**
+     * @return the length of the tour from the depot back to the depot
+     */
+    static double length(int[] tour, int depot, DistanceMatrix distances) {
+        double length = 0.0;
+        int previous = depot;
+        for (int stop : tour) {
+            length += distances.distance(previous, stop);
+            previous = stop;
+        }
+        return length + distances.distance(previous, depot);
+    }
+}
@@ -0,0 +1,54 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+/**
+ * 2-opt: replaces two edges of the tour with the two that reconnect it the other
+ * way, which reverses the deliveries between them. Takes the first shortening
+ * move found and keeps scanning until a full pass finds none.
+ */
+final class TwoOptImprover implements TourImprover {
+
+    static final TwoOptImprover INSTANCE = new TwoOptImprover();
+
+    private static final double EPSILON = 1e-12;
+
+    private TwoOptImprover() {
+    }
+
+    @Override
+    public boolean improve(int[] tour, int depot, DistanceMatrix distances, long deadline) {
+        int n = tour.length;
+        boolean changed = false;
+        boolean improved = n > 2;
+        while (improved && System.nanoTime() - deadline < 0) {
+            improved = false;
+            // Reversing tour[i..j] swaps the edges a-b and c-e for a-c and b-e
+            for (int i = 0; i < n - 1; i++) {
+                int a = i == 0 ? depot : tour[i - 1];
+                for (int j = i + 1; j < n; j++) {
+                    if (i == 0 && j == n - 1) {
+                        continue;
+                    }
+                    int b = tour[i];
+                    int c = tour[j];
+                    int e = j == n - 1 ? depot : tour[j + 1];
+                    double delta = distances.distance(a, c) + distances.distance(b, e)
+                            - distances.distance(a, b) - distances.distance(c, e);
+                    if (delta < -EPSILON) {
+                        reverse(tour, i, j);
+                        improved = true;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int stop = tour[from];
+            tour[from++] = tour[to];
+            tour[to--] = stop;
+        }
+    }
+}
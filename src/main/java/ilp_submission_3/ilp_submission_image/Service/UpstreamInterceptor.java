@@ -0,0 +1,239 @@
+package ilp_submission_3.ilp_submission_image.Service;
+
+import ilp_submission_3.ilp_submission_image.Configuration.UpstreamProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Guards and measures every call the {@code RestTemplate} makes to the ILP REST
+ * service.
+ *
+ * Each upstream host has its own {@link CircuitBreaker}: while it is open, calls
+ * fail at once with {@link CircuitOpenException} instead of waiting for a timeout,
+ * and the reference data cache keeps serving its stale lists. Requests ask for
+ * gzip and compressed responses are inflated before the message converters see
+ * them. Latency is measured up to the response headers.
+ */
+@Component
+public class UpstreamInterceptor implements ClientHttpRequestInterceptor {
+
+    private final boolean gzip;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final LongSupplier clock;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder gzipResponses = new LongAdder();
+    private final LongAdder connectionCloses = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    @Autowired
+    public UpstreamInterceptor(UpstreamProperties properties) {
+        this(properties.isGzip(), properties.getCircuitBreakerThreshold(),
+                properties.getCircuitBreakerOpenDuration(), System::nanoTime);
+    }
+
+    /**
+     * @param failureThreshold consecutive failures that open a host's circuit; zero disables it
+     * @param clock nanosecond time source for the circuit breakers
+     */
+    public UpstreamInterceptor(boolean gzip, int failureThreshold, Duration openDuration, LongSupplier clock) {
+        this.gzip = gzip;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        CircuitBreaker breaker = breaker(request.getURI());
+        if (breaker != null && !breaker.tryAcquire()) {
+            shortCircuited.increment();
+            throw new CircuitOpenException(request.getURI());
+        }
+        if (gzip) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+
+        requests.increment();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            if (isTimeout(e)) {
+                timeouts.increment();
+            }
+            if (breaker != null) {
+                breaker.onFailure();
+            }
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+            latency.record(System.nanoTime() - start);
+        }
+
+        HttpStatusCode status = response.getStatusCode();
+        if (status.is5xxServerError()) {
+            failures.increment();
+            if (breaker != null) {
+                breaker.onFailure();
+            }
+        } else if (breaker != null) {
+            breaker.onSuccess();
+        }
+        if ("close".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONNECTION))) {
+            connectionCloses.increment();
+        }
+        if (gzip && "gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))
+                && response.getHeaders().getContentLength() != 0) {
+            gzipResponses.increment();
+            return new GzipResponse(response);
+        }
+        return response;
+    }
+
+    /**
+     * Circuit state of every upstream host contacted so far.
+     */
+    public Map<String, CircuitBreaker.State> getCircuitStates() {
+        Map<String, CircuitBreaker.State> states = new LinkedHashMap<>();
+        breakers.forEach((host, breaker) -> states.put(host, breaker.getState()));
+        return states;
+    }
+
+    /**
+     * Get call counters, latency percentiles and circuit states.
+     *
+     * {@code peakInFlight} is the most calls ever waiting on upstream at once; over
+     * HTTP/1.1 the pool never needs more connections than that, so
+     * {@code requests} far above it means connections are being reused.
+     * {@code connectionCloses} counts responses on which the server refused
+     * keep-alive.
+     */
+    public Map<String, Object> getMetrics() {
+        long opens = 0;
+        for (CircuitBreaker breaker : breakers.values()) {
+            opens += breaker.getOpenCount();
+        }
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("requests", requests.sum());
+        metrics.put("failures", failures.sum());
+        metrics.put("timeouts", timeouts.sum());
+        metrics.put("shortCircuited", shortCircuited.sum());
+        metrics.put("gzipResponses", gzipResponses.sum());
+        metrics.put("inFlight", inFlight.get());
+        metrics.put("peakInFlight", peakInFlight.get());
+        metrics.put("connectionCloses", connectionCloses.sum());
+        metrics.put("latencyMeanMillis", latency.getMeanMillis());
+        metrics.put("latencyP50Millis", latency.percentileMillis(0.50));
+        metrics.put("latencyP90Millis", latency.percentileMillis(0.90));
+        metrics.put("latencyP99Millis", latency.percentileMillis(0.99));
+        metrics.put("latencyMaxMillis", latency.getMaxMillis());
+        metrics.put("circuitOpens", opens);
+        metrics.put("circuits", getCircuitStates());
+        return metrics;
+    }
+
+    private CircuitBreaker breaker(URI uri) {
+        if (failureThreshold <= 0) {
+            return null;
+        }
+        return breakers.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(),
+                host -> new CircuitBreaker(failureThreshold, openDuration, clock));
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Thrown instead of calling a host whose circuit is open.
+     */
+    public static class CircuitOpenException extends IOException {
+        public CircuitOpenException(URI uri) {
+            super("Circuit open for " + uri.getScheme() + "://" + uri.getAuthority());
+        }
+    }
+
+    /**
+     * Response whose body is inflated on the fly; the encoding and length headers
+     * are dropped since they describe the compressed bytes.
+     */
+    private static final class GzipResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        GzipResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(delegate.getHeaders());
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new GZIPInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package ilp_submission_3.ilp_submission_image.Stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+import ilp_submission_3.ilp_submission_image.dto.DroneForServicePoint;
+import ilp_submission_3.ilp_submission_image.dto.DroneForServicePoint.DroneAvailability;
+import ilp_submission_3.ilp_submission_image.dto.DroneForServicePoint.DroneAvailability.Availability;
+import ilp_submission_3.ilp_submission_image.dto.DroneServicePoint;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The four ILP reference resources served by {@link StubIlpServer}: the fixture
+ * files as they are, or scaled to a synthetic size.
+ *
+ * Scaling keeps the fixtures and adds to them. Extra drones cycle through the
+ * fixture fleet's capabilities and availability with seeded variation in capacity
+ * and cost; extra service points are scattered around the fixture ones; extra
+ * restricted areas are small blocks placed so that no service point is inside one.
+ * Once the fleet or the service points are scaled, drones are re-assigned round
+ * robin across all service points. A smaller target than the fixture truncates it.
+ * The same seed always produces the same data.
+ */
+public final class StubIlpData {
+
+    /** Side of a generated restricted block, about ten drone moves. */
+    private static final double BLOCK_SIZE = 0.0015;
+    /** How far beyond the fixture service points generated locations may fall. */
+    private static final double MARGIN = 0.01;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<Drone> drones;
+    private final List<DroneForServicePoint> dronesForServicePoints;
+    private final List<DroneServicePoint> servicePoints;
+    private final List<RestrictedArea> restrictedAreas;
+
+    public StubIlpData(List<Drone> drones, List<DroneForServicePoint> dronesForServicePoints,
+                       List<DroneServicePoint> servicePoints, List<RestrictedArea> restrictedAreas) {
+        this.drones = List.copyOf(drones);
+        this.dronesForServicePoints = List.copyOf(dronesForServicePoints);
+        this.servicePoints = List.copyOf(servicePoints);
+        this.restrictedAreas = List.copyOf(restrictedAreas);
+    }
+
+    /**
+     * Reads the fixtures from a directory, e.g. {@code classpath:stub-ilp/} or
+     * {@code file:/data/ilp/}.
+     *
+     * @param restrictedAreasFile the restricted areas fixture in that directory
+     */
+    public static StubIlpData load(String location, String restrictedAreasFile) {
+        String directory = location.endsWith("/") ? location : location + "/";
+        return new StubIlpData(
+                read(directory + "drones.json", Drone[].class),
+                read(directory + "drones-for-service-points.json", DroneForServicePoint[].class),
+                read(directory + "service-points.json", DroneServicePoint[].class),
+                read(directory + restrictedAreasFile, RestrictedArea[].class));
+    }
+
+    /**
+     * Scales the data to the given sizes; zero keeps a resource as loaded.
+     */
+    public StubIlpData scale(int droneCount, int servicePointCount, int restrictedAreaCount, long seed) {
+        Random random = new Random(seed);
+        List<DroneServicePoint> points = servicePointCount > 0
+                ? scaleServicePoints(servicePointCount, random) : servicePoints;
+        List<Drone> fleet = droneCount > 0 ? scaleDrones(droneCount, random) : drones;
+        List<DroneForServicePoint> assignments = droneCount > 0 || servicePointCount > 0
+                ? assign(fleet, points) : dronesForServicePoints;
+        List<RestrictedArea> areas = restrictedAreaCount > 0
+                ? scaleRestrictedAreas(restrictedAreaCount, points, random) : restrictedAreas;
+        return new StubIlpData(fleet, assignments, points, areas);
+    }
+
+    public List<Drone> drones() {
+        return drones;
+    }
+
+    public List<DroneForServicePoint> dronesForServicePoints() {
+        return dronesForServicePoints;
+    }
+
+    public List<DroneServicePoint> servicePoints() {
+        return servicePoints;
+    }
+
+    public List<RestrictedArea> restrictedAreas() {
+        return restrictedAreas;
+    }
+
+    private List<Drone> scaleDrones(int count, Random random) {
+        if (count <= drones.size() || drones.isEmpty()) {
+            return drones.subList(0, Math.min(count, drones.size()));
+        }
+        List<Drone> fleet = new ArrayList<>(drones);
+        for (int i = drones.size(); i < count; i++) {
+            Drone.Capability template = drones.get(i % drones.size()).capability();
+            double factor = 0.75 + 0.5 * random.nextDouble();
+            Drone.Capability capability = template == null ? null : new Drone.Capability(
+                    template.cooling(), template.heating(),
+                    template.capacity() == null ? null : Math.round(template.capacity() * factor * 2) / 2.0,
+                    template.maxMoves(),
+                    template.costPerMove() == null ? null : round(template.costPerMove() * factor, 4),
+                    template.costInitial(), template.costFinal());
+            fleet.add(new Drone("Drone " + (i + 1), Integer.toString(i + 1), capability));
+        }
+        return fleet;
+    }
+
+    private List<DroneServicePoint> scaleServicePoints(int count, Random random) {
+        if (count <= servicePoints.size() || servicePoints.isEmpty()) {
+            return servicePoints.subList(0, Math.min(count, servicePoints.size()));
+        }
+        double[] bounds = bounds(servicePoints);
+        List<DroneServicePoint> points = new ArrayList<>(servicePoints);
+        for (int i = servicePoints.size(); i < count; i++) {
+            double lng = bounds[0] + random.nextDouble() * (bounds[1] - bounds[0]);
+            double lat = bounds[2] + random.nextDouble() * (bounds[3] - bounds[2]);
+            points.add(new DroneServicePoint("Service Point " + (i + 1), i + 1,
+                    new DroneServicePoint.LngLatAlt(round(lng, 6), round(lat, 6), 50.0)));
+        }
+        return points;
+    }
+
+    private List<DroneForServicePoint> assign(List<Drone> fleet, List<DroneServicePoint> points) {
+        Map<String, List<Availability>> availability = new HashMap<>();
+        for (DroneForServicePoint base : dronesForServicePoints) {
+            for (DroneAvailability drone : base.drones()) {
+                availability.putIfAbsent(drone.id(), drone.availability());
+            }
+        }
+        List<List<DroneAvailability>> perPoint = new ArrayList<>();
+        for (int p = 0; p < points.size(); p++) {
+            perPoint.add(new ArrayList<>());
+        }
+        for (int i = 0; i < fleet.size() && !points.isEmpty(); i++) {
+            String templateId = drones.isEmpty() ? null : drones.get(i % drones.size()).id();
+            perPoint.get(i % points.size()).add(new DroneAvailability(fleet.get(i).id(),
+                    availability.getOrDefault(templateId, List.of())));
+        }
+        List<DroneForServicePoint> assignments = new ArrayList<>();
+        for (int p = 0; p < points.size(); p++) {
+            assignments.add(new DroneForServicePoint(points.get(p).id(), perPoint.get(p)));
+        }
+        return assignments;
+    }
+
+    private List<RestrictedArea> scaleRestrictedAreas(int count, List<DroneServicePoint> points, Random random) {
+        if (count <= restrictedAreas.size()) {
+            return restrictedAreas.subList(0, count);
+        }
+        double[] bounds = bounds(points);
+        List<RestrictedArea> areas = new ArrayList<>(restrictedAreas);
+        int attempts = 0;
+        while (areas.size() < count && attempts++ < count * 100) {
+            double lng = bounds[0] + random.nextDouble() * (bounds[1] - bounds[0] - BLOCK_SIZE);
+            double lat = bounds[2] + random.nextDouble() * (bounds[3] - bounds[2] - BLOCK_SIZE);
+            if (containsAny(lng, lat, points)) {
+                continue;
+            }
+            int id = areas.size() + 1;
+            areas.add(new RestrictedArea("Synthetic Block " + id, id, new RestrictedArea.Limits(0.0, -1.0), List.of(
+                    new Position(round(lng, 6), round(lat, 6)),
+                    new Position(round(lng + BLOCK_SIZE, 6), round(lat, 6)),
+                    new Position(round(lng + BLOCK_SIZE, 6), round(lat + BLOCK_SIZE, 6)),
+                    new Position(round(lng, 6), round(lat + BLOCK_SIZE, 6)),
+                    new Position(round(lng, 6), round(lat, 6)))));
+        }
+        return areas;
+    }
+
+    /**
+     * Whether a generated block at this corner would cover a service point, with
+     * one block of clearance so drones can still take off.
+     */
+    private static boolean containsAny(double lng, double lat, List<DroneServicePoint> points) {
+        for (DroneServicePoint point : points) {
+            double pointLng = point.location().lng();
+            double pointLat = point.location().lat();
+            if (pointLng >= lng - BLOCK_SIZE && pointLng <= lng + 2 * BLOCK_SIZE
+                    && pointLat >= lat - BLOCK_SIZE && pointLat <= lat + 2 * BLOCK_SIZE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bounding box {minLng, maxLng, minLat, maxLat} of the points plus the margin.
+     */
+    private static double[] bounds(List<DroneServicePoint> points) {
+        double[] bounds = {Double.MAX_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (DroneServicePoint point : points) {
+            bounds[0] = Math.min(bounds[0], point.location().lng());
+            bounds[1] = Math.max(bounds[1], point.location().lng());
+            bounds[2] = Math.min(bounds[2], point.location().lat());
+            bounds[3] = Math.max(bounds[3], point.location().lat());
+        }
+        if (points.isEmpty()) {
+            // Central Edinburgh, where the ILP data lives
+            return new double[]{-3.20 - MARGIN, -3.18 + MARGIN, 55.94 - MARGIN, 55.95 + MARGIN};
+        }
+        return new double[]{bounds[0] - MARGIN, bounds[1] + MARGIN, bounds[2] - MARGIN, bounds[3] + MARGIN};
+    }
+
+    private static double round(double value, int places) {
+        double scale = Math.pow(10, places);
+        return Math.round(value * scale) / scale;
+    }
+
+    private static <T> List<T> read(String location, Class<T[]> type) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return Arrays.asList(MAPPER.readValue(in, type));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read stub fixture " + location, e);
+        }
+    }
+}
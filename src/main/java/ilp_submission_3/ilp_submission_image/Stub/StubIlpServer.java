@@ -0,0 +1,112 @@
+package ilp_submission_3.ilp_submission_image.Stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local stand-in for the ILP REST service, so the server, its tests and the
+ * load benchmarks can run without the network.
+ *
+ * Serves {@code /drones}, {@code /drones-for-service-points}, {@code /service-points}
+ * and {@code /restricted-areas} from {@link StubIlpData} on the loopback interface.
+ * Bodies are serialised once up front; each response is held back by the fixed
+ * latency plus a uniformly random jitter, to model a remote upstream. Requests are
+ * handled on virtual threads, so injected latency never queues other requests.
+ */
+public final class StubIlpServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final LongAdder requests = new LongAdder();
+
+    private StubIlpServer(StubIlpData data, Duration latency, Duration jitter, int port) throws IOException {
+        this.latencyNanos = nanos(latency);
+        this.jitterNanos = nanos(jitter);
+        Map<String, byte[]> bodies = serialise(data);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        bodies.forEach((path, body) -> server.createContext(path, exchange -> respond(exchange, body)));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Starts a stub serving the data.
+     *
+     * @param latency delay before every response
+     * @param jitter upper bound of an extra random delay per response
+     * @param port loopback port to listen on, or 0 for any free port
+     */
+    public static StubIlpServer start(StubIlpData data, Duration latency, Duration jitter, int port)
+            throws IOException {
+        return new StubIlpServer(data, latency, jitter, port);
+    }
+
+    /**
+     * Base URL to use as the ILP endpoint.
+     */
+    public String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        requests.increment();
+        long delay = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(delay));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, byte[]> serialise(StubIlpData data) {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, byte[]> bodies = new LinkedHashMap<>();
+        try {
+            bodies.put("/drones", mapper.writeValueAsBytes(data.drones()));
+            bodies.put("/drones-for-service-points", mapper.writeValueAsBytes(data.dronesForServicePoints()));
+            bodies.put("/service-points", mapper.writeValueAsBytes(data.servicePoints()));
+            bodies.put("/restricted-areas", mapper.writeValueAsBytes(data.restrictedAreas()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bodies;
+    }
+
+    private static long nanos(Duration duration) {
+        return duration == null || duration.isNegative() ? 0 : duration.toNanos();
+    }
+}
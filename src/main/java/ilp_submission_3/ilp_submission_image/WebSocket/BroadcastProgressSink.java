@@ -0,0 +1,66 @@
+package ilp_submission_3.ilp_submission_image.WebSocket;
+
+import ilp_submission_3.ilp_submission_image.dto.PathfindingProgress;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+
+import java.util.function.Supplier;
+
+/**
+ * Publishes every planner event of one job to the clients subscribed to it.
+ *
+ * Events are handed to the handler unbuilt; the event record and its message
+ * string are created on a sender thread, and never for node_explored events
+ * that a lagging session coalesces away.
+ */
+public class BroadcastProgressSink implements ProgressSink {
+
+    private final PathfindingProgressHandler handler;
+    private final String jobId;
+
+    /**
+     * @param jobId the job events are published to, or null for untagged events
+     */
+    public BroadcastProgressSink(PathfindingProgressHandler handler, String jobId) {
+        this.handler = handler;
+        this.jobId = jobId;
+    }
+
+    @Override
+    public void nodeExplored(double lng, double lat, int nodesExplored) {
+        handler.publishNodeExplored(jobId, lng, lat, nodesExplored);
+    }
+
+    @Override
+    public void pathFound(int nodesExplored, int pathLength) {
+        handler.publish(jobId, "path_found",
+                () -> PathfindingProgress.pathFound(null, nodesExplored, pathLength));
+    }
+
+    @Override
+    public void noPathFound(int nodesExplored) {
+        error(() -> "No path found after exploring " + nodesExplored + " nodes");
+    }
+
+    @Override
+    public void batchStarted(String droneId, int deliveryCount) {
+        handler.publish(jobId, "batch_started",
+                () -> PathfindingProgress.batchStarted(1, droneId, deliveryCount));
+    }
+
+    @Override
+    public void batchCompleted(String droneId, double cost, int moves) {
+        handler.publish(jobId, "batch_completed",
+                () -> PathfindingProgress.batchCompleted(1, droneId, cost, moves));
+    }
+
+    @Override
+    public void deliveryStarted(Integer deliveryId, Position from, Position to) {
+        handler.publish(jobId, "delivery_started",
+                () -> PathfindingProgress.deliveryStarted(deliveryId, from, to));
+    }
+
+    @Override
+    public void error(Supplier<String> message) {
+        handler.publish(jobId, "error", () -> PathfindingProgress.error(message.get()));
+    }
+}
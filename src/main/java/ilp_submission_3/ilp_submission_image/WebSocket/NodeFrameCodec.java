@@ -0,0 +1,111 @@
+package ilp_submission_3.ilp_submission_image.WebSocket;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of node_explored events for clients that negotiate
+ * {@link #SUB_PROTOCOL} on a plain (non-SockJS) WebSocket connection.
+ *
+ * A frame carries a run of consecutive explored nodes:
+ * <pre>
+ *   u8  frame type ({@link #NODE_BATCH})
+ *   u8  version ({@link #VERSION})
+ *   u16 node count, big-endian
+ *   per node: zigzag varints of the change in lng, lat and totalNodes
+ * </pre>
+ * Coordinates are fixed-point at {@link #SCALE} units per degree and each delta is
+ * taken from the previous node's rounded values, starting from zero, so rounding
+ * errors never accumulate. A single compass move is 1500 units, so a typical node
+ * costs five bytes instead of a JSON record of around two hundred.
+ */
+public final class NodeFrameCodec {
+
+    public static final String SUB_PROTOCOL = "ilp-progress.v1+binary";
+
+    public static final byte NODE_BATCH = 1;
+    public static final byte VERSION = 1;
+    public static final double SCALE = 1e7;
+
+    /**
+     * Nodes packed into one frame at most; longer runs are split across frames.
+     */
+    public static final int MAX_NODES_PER_FRAME = 1024;
+
+    private static final int HEADER_BYTES = 4;
+    private static final int MAX_NODE_BYTES = 3 * 10;
+
+    private NodeFrameCodec() {
+    }
+
+    /**
+     * Encodes {@code count} nodes from the given arrays into one frame.
+     */
+    public static ByteBuffer encode(double[] lng, double[] lat, int[] totalNodes, int count) {
+        if (count > MAX_NODES_PER_FRAME) {
+            throw new IllegalArgumentException("At most " + MAX_NODES_PER_FRAME + " nodes per frame");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + count * MAX_NODE_BYTES);
+        buffer.put(NODE_BATCH).put(VERSION).putShort((short) count);
+
+        long prevLng = 0;
+        long prevLat = 0;
+        long prevNodes = 0;
+        for (int i = 0; i < count; i++) {
+            long fixedLng = Math.round(lng[i] * SCALE);
+            long fixedLat = Math.round(lat[i] * SCALE);
+            putZigZag(buffer, fixedLng - prevLng);
+            putZigZag(buffer, fixedLat - prevLat);
+            putZigZag(buffer, totalNodes[i] - prevNodes);
+            prevLng = fixedLng;
+            prevLat = fixedLat;
+            prevNodes = totalNodes[i];
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a frame into one {@code {lng, lat, totalNodes}} row per node.
+     */
+    public static double[][] decode(ByteBuffer frame) {
+        ByteBuffer buffer = frame.duplicate();
+        byte type = buffer.get();
+        byte version = buffer.get();
+        if (type != NODE_BATCH || version != VERSION) {
+            throw new IllegalArgumentException("Unsupported frame type " + type + " version " + version);
+        }
+        int count = Short.toUnsignedInt(buffer.getShort());
+
+        double[][] nodes = new double[count][];
+        long fixedLng = 0;
+        long fixedLat = 0;
+        long totalNodes = 0;
+        for (int i = 0; i < count; i++) {
+            fixedLng += getZigZag(buffer);
+            fixedLat += getZigZag(buffer);
+            totalNodes += getZigZag(buffer);
+            nodes[i] = new double[]{fixedLng / SCALE, fixedLat / SCALE, totalNodes};
+        }
+        return nodes;
+    }
+
+    private static void putZigZag(ByteBuffer buffer, long value) {
+        long bits = (value << 1) ^ (value >> 63);
+        while ((bits & ~0x7FL) != 0) {
+            buffer.put((byte) ((bits & 0x7F) | 0x80));
+            bits >>>= 7;
+        }
+        buffer.put((byte) bits);
+    }
+
+    private static long getZigZag(ByteBuffer buffer) {
+        long bits = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            bits |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+}
@@ -1,28 +1,85 @@
 package ilp_submission_3.ilp_submission_image.WebSocket;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_3.ilp_submission_image.Configuration.ProgressOverflowPolicy;
+import ilp_submission_3.ilp_submission_image.Configuration.ProgressProperties;
 import ilp_submission_3.ilp_submission_image.dto.PathfindingProgress;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+/**
+ * Streams pathfinding progress to connected WebSocket clients.
+ *
+ * Broadcasting never touches a socket: each session has a {@link SessionOutbox}
+ * that a small shared sender pool drains, so the planner thread only pays for an
+ * enqueue and a slow or stalled browser cannot hold up the search or the other
+ * clients. A browser that stops reading altogether is closed once its backlog
+ * passes {@code ilp.progress.max-pending-events}.
+ *
+ * Clients connecting without SockJS may negotiate {@link NodeFrameCodec#SUB_PROTOCOL}
+ * to receive node_explored events as batched binary frames.
+ *
+ * Progress is routed per planning job. A client sends
+ * {@code {"action":"subscribe","jobId":"..."}} (or {@code "unsubscribe"}) to follow
+ * the jobs it started; events of a job reach only that job's subscribers. Events
+ * without a job id go to the sessions that have not subscribed to anything, which
+ * keeps clients unaware of jobs working as before.
+ */
 @Component
-public class PathfindingProgressHandler extends TextWebSocketHandler {
+public class PathfindingProgressHandler extends TextWebSocketHandler implements SubProtocolCapable {
 
-    private  final Set<WebSocketSession> sessions = new CopyOnWriteArraySet<>();
+    private final Map<WebSocketSession, SessionOutbox> outboxes = new ConcurrentHashMap<>();
+    private final Map<String, Set<SessionOutbox>> subscribers = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int queueCapacity;
+    private final int maxPendingEvents;
+    private final ProgressOverflowPolicy overflowPolicy;
+    private final ExecutorService sender;
+
+    public PathfindingProgressHandler() {
+        this(new ProgressProperties());
+    }
+
+    @Autowired
+    public PathfindingProgressHandler(ProgressProperties properties) {
+        this.queueCapacity = properties.getQueueCapacity();
+        this.maxPendingEvents = properties.getMaxPendingEvents();
+        this.overflowPolicy = properties.getOverflowPolicy();
+        AtomicInteger counter = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, properties.getSenderThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "progress-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessions.add(session);
+        boolean binaryNodes = NodeFrameCodec.SUB_PROTOCOL.equals(session.getAcceptedProtocol());
+        SessionOutbox outbox = new SessionOutbox(session, queueCapacity, maxPendingEvents, overflowPolicy,
+                sender, System::nanoTime, this::discard, binaryNodes);
+        outboxes.put(session, outbox);
         System.out.println("✅ New WebSocket connection: " + session.getId());
-        System.out.println("📊 Total active connections: " + sessions.size());
+        System.out.println("📊 Total active connections: " + outboxes.size());
 
         // Send initial connection confirmation
         PathfindingProgress welcomeMsg = new PathfindingProgress(
@@ -34,67 +91,201 @@ public class PathfindingProgressHandler extends TextWebSocketHandler {
                 null,
                 "WebSocket connection established"
         );
-        sendToSession(session, welcomeMsg);
+        outbox.offer(new SessionOutbox.Message(welcomeMsg, objectMapper));
+    }
+
+    /**
+     * Handles subscribe and unsubscribe requests; anything else is logged and ignored.
+     */
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        SessionOutbox outbox = outboxes.get(session);
+        if (outbox == null) {
+            return;
+        }
+
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(message.getPayload());
+        } catch (JsonProcessingException e) {
+            System.err.println("Ignoring malformed message from session " + session.getId());
+            return;
+        }
+        String action = request.path("action").asText();
+        String jobId = request.path("jobId").asText();
+        if (jobId.isEmpty()) {
+            System.err.println("Ignoring " + action + " without jobId from session " + session.getId());
+            return;
+        }
+
+        switch (action) {
+            case "subscribe" -> subscribe(outbox, jobId);
+            case "unsubscribe" -> unsubscribe(outbox, jobId);
+            default -> System.err.println("Ignoring unknown action '" + action + "' from session " + session.getId());
+        }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        sessions.remove(session);
+        removeSession(session);
         System.out.println("❌ WebSocket connection closed: " + session.getId());
-        System.out.println("📊 Total active connections: " + sessions.size());
+        System.out.println("📊 Total active connections: " + outboxes.size());
     }
 
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
         System.err.println("⚠️ WebSocket error for session " + session.getId() + ": " + exception.getMessage());
-        sessions.remove(session);
+        removeSession(session);
     }
 
+    /**
+     * Queues an untagged event for every session without subscriptions. The event
+     * is serialized once, on a sender thread, no matter how many sessions receive it.
+     */
     public void broadcastProgress(PathfindingProgress progress) {
-        if (sessions.isEmpty()) {
+        publish(null, progress.type(), () -> progress);
+    }
+
+    /**
+     * Queues an event of a job that is built on a sender thread, only if some
+     * subscriber still wants it by then.
+     *
+     * @param jobId the job the event belongs to, or null for an untagged event
+     * @param type the type of the event {@code event} builds
+     */
+    public void publish(String jobId, String type, Supplier<PathfindingProgress> event) {
+        Collection<SessionOutbox> targets = targets(jobId);
+        if (targets.isEmpty()) {
             return;
         }
+        offerAll(targets, new SessionOutbox.Message(type, event, objectMapper));
+    }
 
-        try {
-            String json = objectMapper.writeValueAsString(progress);
-            TextMessage message = new TextMessage(json);
-
-            // Send to all active sessions
-            for (WebSocketSession session : sessions) {
-                if (session.isOpen()) {
-                    try {
-                        synchronized (session) {
-                            session.sendMessage(message);
-                        }
-                    } catch (IOException e) {
-                        System.err.println("Failed to send message to session " + session.getId());
-                        sessions.remove(session);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error broadcasting progress: " + e.getMessage());
+    /**
+     * Queues a node_explored event of a job. Binary sessions encode the raw
+     * coordinates; the JSON event is built only if a JSON session still wants it.
+     */
+    public void publishNodeExplored(String jobId, double lng, double lat, int nodesExplored) {
+        Collection<SessionOutbox> targets = targets(jobId);
+        if (targets.isEmpty()) {
+            return;
         }
+        offerAll(targets, SessionOutbox.Message.nodeExplored(lng, lat, nodesExplored, objectMapper));
     }
 
-    private void sendToSession(WebSocketSession session, PathfindingProgress progress) {
-        try {
-            if (session.isOpen()) {
-                String json = objectMapper.writeValueAsString(progress);
-                synchronized (session) {
-                    session.sendMessage(new TextMessage(json));
+    /**
+     * Whether an event of the job would reach any session. Callers check this once
+     * per unit of work and skip building events for jobs nobody is watching.
+     */
+    public boolean hasSubscribers(String jobId) {
+        if (jobId == null) {
+            for (SessionOutbox outbox : outboxes.values()) {
+                if (!outbox.hasSubscriptions()) {
+                    return true;
                 }
             }
-        } catch (IOException e) {
-            System.err.println("Failed to send message to session " + session.getId());
+            return false;
         }
+        Set<SessionOutbox> jobSubscribers = subscribers.get(jobId);
+        return jobSubscribers != null && !jobSubscribers.isEmpty();
+    }
+
+    @Override
+    public List<String> getSubProtocols() {
+        return List.of(NodeFrameCodec.SUB_PROTOCOL);
+    }
+
+    public int getSubscribedJobCount() {
+        return subscribers.size();
     }
 
     public int getActiveConnectionCount() {
-        return sessions.size();
+        return outboxes.size();
     }
 
     public boolean hasActiveConnections() {
-        return !sessions.isEmpty();
+        return !outboxes.isEmpty();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public ProgressOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Per-session queue depth, lag and sent/dropped/failed counters.
+     */
+    public List<Map<String, Object>> getSessionMetrics() {
+        List<Map<String, Object>> metrics = new ArrayList<>();
+        for (SessionOutbox outbox : outboxes.values()) {
+            metrics.add(outbox.getMetrics());
+        }
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void subscribe(SessionOutbox outbox, String jobId) {
+        if (outbox.subscribe(jobId)) {
+            subscribers.computeIfAbsent(jobId, id -> ConcurrentHashMap.newKeySet()).add(outbox);
+        }
+    }
+
+    private void unsubscribe(SessionOutbox outbox, String jobId) {
+        if (outbox.unsubscribe(jobId)) {
+            subscribers.computeIfPresent(jobId, (id, jobSubscribers) -> {
+                jobSubscribers.remove(outbox);
+                return jobSubscribers.isEmpty() ? null : jobSubscribers;
+            });
+        }
+    }
+
+    private Collection<SessionOutbox> targets(String jobId) {
+        if (jobId == null) {
+            List<SessionOutbox> untagged = new ArrayList<>();
+            for (SessionOutbox outbox : outboxes.values()) {
+                if (!outbox.hasSubscriptions()) {
+                    untagged.add(outbox);
+                }
+            }
+            return untagged;
+        }
+        Set<SessionOutbox> jobSubscribers = subscribers.get(jobId);
+        return jobSubscribers == null ? List.of() : jobSubscribers;
+    }
+
+    private static void offerAll(Collection<SessionOutbox> targets, SessionOutbox.Message message) {
+        for (SessionOutbox outbox : targets) {
+            if (outbox.session().isOpen()) {
+                outbox.offer(message);
+            }
+        }
+    }
+
+    private void removeSession(WebSocketSession session) {
+        SessionOutbox outbox = outboxes.remove(session);
+        if (outbox != null) {
+            outbox.close();
+            dropSubscriptions(outbox);
+        }
+    }
+
+    // Called by an outbox that gave up on its session after a failed send or a stall; it has already closed itself
+    private void discard(SessionOutbox failed) {
+        if (outboxes.remove(failed.session(), failed)) {
+            dropSubscriptions(failed);
+        }
+    }
+
+    private void dropSubscriptions(SessionOutbox outbox) {
+        for (String jobId : outbox.jobs()) {
+            unsubscribe(outbox, jobId);
+        }
     }
 }
@@ -0,0 +1,79 @@
+package ilp_submission_3.ilp_submission_image.WebSocket;
+
+import ilp_submission_3.ilp_submission_image.Pathfinding.PathfindingListener;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+
+import java.util.function.Supplier;
+
+/**
+ * Receives progress from the delivery planner.
+ *
+ * Callers pass raw values and implementations build {@code PathfindingProgress}
+ * events only for what they actually publish, so {@link #NONE} costs an empty
+ * call per event. A sink serves one search or delivery batch on one thread and
+ * need not be thread-safe.
+ */
+public interface ProgressSink extends PathfindingListener {
+
+    ProgressSink NONE = new ProgressSink() {};
+
+    /**
+     * A sink that forwards every event to {@code first}, then to {@code second}.
+     */
+    static ProgressSink both(ProgressSink first, ProgressSink second) {
+        return new ProgressSink() {
+            @Override
+            public void nodeExplored(double lng, double lat, int nodesExplored) {
+                first.nodeExplored(lng, lat, nodesExplored);
+                second.nodeExplored(lng, lat, nodesExplored);
+            }
+
+            @Override
+            public void pathFound(int nodesExplored, int pathLength) {
+                first.pathFound(nodesExplored, pathLength);
+                second.pathFound(nodesExplored, pathLength);
+            }
+
+            @Override
+            public void noPathFound(int nodesExplored) {
+                first.noPathFound(nodesExplored);
+                second.noPathFound(nodesExplored);
+            }
+
+            @Override
+            public void batchStarted(String droneId, int deliveryCount) {
+                first.batchStarted(droneId, deliveryCount);
+                second.batchStarted(droneId, deliveryCount);
+            }
+
+            @Override
+            public void batchCompleted(String droneId, double cost, int moves) {
+                first.batchCompleted(droneId, cost, moves);
+                second.batchCompleted(droneId, cost, moves);
+            }
+
+            @Override
+            public void deliveryStarted(Integer deliveryId, Position from, Position to) {
+                first.deliveryStarted(deliveryId, from, to);
+                second.deliveryStarted(deliveryId, from, to);
+            }
+
+            @Override
+            public void error(Supplier<String> message) {
+                first.error(message);
+                second.error(message);
+            }
+        };
+    }
+
+    default void batchStarted(String droneId, int deliveryCount) {}
+
+    default void batchCompleted(String droneId, double cost, int moves) {}
+
+    default void deliveryStarted(Integer deliveryId, Position from, Position to) {}
+
+    /**
+     * @param message built only if the error is published
+     */
+    default void error(Supplier<String> message) {}
+}
@@ -0,0 +1,41 @@
+package ilp_submission_3.ilp_submission_image.WebSocket;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Publishes every planner event except node_explored, which is passed through only
+ * for every {@code sampleEvery}-th node and at most once per {@code minIntervalNanos}.
+ * Together the two bound what one search can publish regardless of how fast it runs.
+ */
+public class SamplingProgressSink extends BroadcastProgressSink {
+
+    private final int sampleEvery;
+    private final long minIntervalNanos;
+    private final LongSupplier clock;
+    private boolean sampled;
+    private long lastSampleNanos;
+
+    public SamplingProgressSink(PathfindingProgressHandler handler, String jobId, int sampleEvery,
+                                long minIntervalNanos, LongSupplier clock) {
+        super(handler, jobId);
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.minIntervalNanos = Math.max(0, minIntervalNanos);
+        this.clock = clock;
+    }
+
+    @Override
+    public void nodeExplored(double lng, double lat, int nodesExplored) {
+        if (nodesExplored % sampleEvery != 0) {
+            return;
+        }
+        if (minIntervalNanos > 0) {
+            long now = clock.getAsLong();
+            if (sampled && now - lastSampleNanos < minIntervalNanos) {
+                return;
+            }
+            sampled = true;
+            lastSampleNanos = now;
+        }
+        super.nodeExplored(lng, lat, nodesExplored);
+    }
+}
@@ -0,0 +1,435 @@
+package ilp_submission_3.ilp_submission_image.WebSocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_3.ilp_submission_image.Configuration.ProgressOverflowPolicy;
+import ilp_submission_3.ilp_submission_image.dto.PathfindingProgress;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Outbound queue for one WebSocket session.
+ *
+ * Publishers only enqueue; a task on the shared sender executor drains the queue,
+ * serializing and sending one event at a time, and at most one such task runs per
+ * session so events arrive in order. After {@link #MAX_SENDS_PER_TURN} frames the
+ * task goes to the back of the executor's queue, so a busy session shares the
+ * senders with the others instead of holding one until its queue is empty.
+ *
+ * node_explored events are bounded by the queue capacity and shed by the overflow
+ * policy. Every other event type is delivered, but a session that lets more of them
+ * pile up than the pending-event limit is treated as stalled: the outbox gives up
+ * on it and closes it, rather than holding an unbounded backlog.
+ *
+ * Sessions that negotiated {@link NodeFrameCodec#SUB_PROTOCOL} receive each run
+ * of consecutive node_explored events as one binary frame; other events stay JSON.
+ *
+ * The outbox also records which planning jobs the session has subscribed to, so the
+ * handler can route each job's events to its own viewers.
+ */
+public final class SessionOutbox {
+
+    /**
+     * Frames one drain task sends before handing its sender thread back.
+     */
+    public static final int MAX_SENDS_PER_TURN = 16;
+
+    /**
+     * Pending-event limit of outboxes created without one.
+     */
+    public static final int DEFAULT_MAX_PENDING_EVENTS = 1024;
+
+    private final WebSocketSession session;
+    private final int capacity;
+    private final int maxPendingEvents;
+    private final ProgressOverflowPolicy policy;
+    private final Executor sender;
+    private final LongSupplier clock;
+    private final Consumer<SessionOutbox> onSendFailure;
+    private final boolean binaryNodes;
+    private final Set<String> jobs = ConcurrentHashMap.newKeySet();
+
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private int queuedNodeEvents;
+    private boolean draining;
+    private boolean closed;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile long maxLagNanos;
+
+    public SessionOutbox(WebSocketSession session, int capacity, ProgressOverflowPolicy policy,
+                         Executor sender, LongSupplier clock, Consumer<SessionOutbox> onSendFailure) {
+        this(session, capacity, DEFAULT_MAX_PENDING_EVENTS, policy, sender, clock, onSendFailure, false);
+    }
+
+    /**
+     * @param maxPendingEvents other events the session may have waiting before it is closed
+     * @param onSendFailure    told once when the outbox gives up on the session
+     * @param binaryNodes      send node_explored events as {@link NodeFrameCodec} frames
+     */
+    public SessionOutbox(WebSocketSession session, int capacity, int maxPendingEvents,
+                         ProgressOverflowPolicy policy, Executor sender, LongSupplier clock,
+                         Consumer<SessionOutbox> onSendFailure, boolean binaryNodes) {
+        this.session = session;
+        this.capacity = Math.max(1, capacity);
+        this.maxPendingEvents = Math.max(1, maxPendingEvents);
+        this.policy = policy;
+        this.sender = sender;
+        this.clock = clock;
+        this.onSendFailure = onSendFailure;
+        this.binaryNodes = binaryNodes;
+    }
+
+    public WebSocketSession session() {
+        return session;
+    }
+
+    /**
+     * @return true if the session was not already subscribed to the job
+     */
+    public boolean subscribe(String jobId) {
+        return jobs.add(jobId);
+    }
+
+    /**
+     * @return true if the session was subscribed to the job
+     */
+    public boolean unsubscribe(String jobId) {
+        return jobs.remove(jobId);
+    }
+
+    /**
+     * The jobs this session follows; empty for sessions that receive untagged events.
+     */
+    public Set<String> jobs() {
+        return Set.copyOf(jobs);
+    }
+
+    public boolean hasSubscriptions() {
+        return !jobs.isEmpty();
+    }
+
+    /**
+     * Queues an event for this session and makes sure a sender is draining the queue.
+     */
+    public void offer(Message message) {
+        boolean stalled;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (message.isNodeExplored() && queuedNodeEvents >= capacity) {
+                makeRoom();
+            }
+            queue.addLast(new Pending(message, clock.getAsLong()));
+            if (message.isNodeExplored()) {
+                queuedNodeEvents++;
+            }
+            stalled = queue.size() - queuedNodeEvents > maxPendingEvents;
+            if (stalled) {
+                dropped.add(queue.size());
+                close();
+            } else if (draining) {
+                return;
+            } else {
+                draining = true;
+            }
+        }
+
+        if (stalled) {
+            abandon();
+        } else {
+            schedule();
+        }
+    }
+
+    /**
+     * Discards everything still queued; later offers are ignored.
+     */
+    public synchronized void close() {
+        closed = true;
+        queue.clear();
+        queuedNodeEvents = 0;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("sessionId", session.getId());
+        metrics.put("encoding", binaryNodes ? "binary" : "json");
+        metrics.put("jobs", jobs.size());
+        synchronized (this) {
+            Pending head = queue.peekFirst();
+            metrics.put("queued", queue.size());
+            metrics.put("lagMillis", head == null ? 0L : toMillis(clock.getAsLong() - head.enqueuedAt));
+        }
+        metrics.put("maxLagMillis", toMillis(maxLagNanos));
+        metrics.put("sent", sent.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("failed", failed.sum());
+        return metrics;
+    }
+
+    // Caller holds the lock and the queue holds at least one node_explored event
+    private void makeRoom() {
+        Iterator<Pending> it = queue.iterator();
+        while (it.hasNext()) {
+            if (it.next().message.isNodeExplored()) {
+                it.remove();
+                queuedNodeEvents--;
+                dropped.increment();
+                if (policy == ProgressOverflowPolicy.DROP_OLDEST) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void schedule() {
+        try {
+            sender.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                draining = false;
+            }
+        }
+    }
+
+    private void drain() {
+        for (int sends = 0; ; sends++) {
+            Pending next;
+            List<Message> nodeRun = null;
+            synchronized (this) {
+                if (queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                if (sends == MAX_SENDS_PER_TURN) {
+                    break;
+                }
+                next = queue.pollFirst();
+                if (next.message.isNodeExplored()) {
+                    queuedNodeEvents--;
+                    if (binaryNodes) {
+                        nodeRun = pollNodeRun(next.message);
+                    }
+                }
+            }
+
+            long lag = clock.getAsLong() - next.enqueuedAt;
+            if (lag > maxLagNanos) {
+                maxLagNanos = lag;
+            }
+
+            try {
+                WebSocketMessage<?> frame = nodeRun != null ? encodeNodes(nodeRun) : next.message.text();
+                if (session.isOpen()) {
+                    synchronized (session) {
+                        session.sendMessage(frame);
+                    }
+                    sent.add(nodeRun != null ? nodeRun.size() : 1);
+                }
+            } catch (IOException e) {
+                failed.increment();
+                System.err.println("Failed to send message to session " + session.getId());
+                close();
+                synchronized (this) {
+                    draining = false;
+                }
+                onSendFailure.accept(this);
+                return;
+            } catch (RuntimeException e) {
+                failed.increment();
+                System.err.println("Error broadcasting progress: " + e.getMessage());
+            }
+        }
+        // Still draining; the rest of the queue waits behind the other sessions' turns
+        schedule();
+    }
+
+    // The client has stopped reading: its backlog is already gone, so forget the session and close it
+    private void abandon() {
+        System.err.println("Closing session " + session.getId() + ": more than " +
+                maxPendingEvents + " events waiting");
+        onSendFailure.accept(this);
+        try {
+            sender.execute(() -> {
+                try {
+                    session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException e) {
+                    System.err.println("Failed to close session " + session.getId());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the container closes the session
+        }
+    }
+
+    // Caller holds the lock; takes the node_explored events queued directly behind first
+    private List<Message> pollNodeRun(Message first) {
+        List<Message> run = new ArrayList<>();
+        run.add(first);
+        while (run.size() < NodeFrameCodec.MAX_NODES_PER_FRAME) {
+            Pending head = queue.peekFirst();
+            if (head == null || !head.message.isNodeExplored()) {
+                break;
+            }
+            queue.pollFirst();
+            queuedNodeEvents--;
+            run.add(head.message);
+        }
+        return run;
+    }
+
+    private static BinaryMessage encodeNodes(List<Message> run) {
+        int count = run.size();
+        double[] lng = new double[count];
+        double[] lat = new double[count];
+        int[] totalNodes = new int[count];
+        for (int i = 0; i < count; i++) {
+            Message node = run.get(i);
+            lng[i] = node.lng();
+            lat[i] = node.lat();
+            totalNodes[i] = node.totalNodes();
+        }
+        return new BinaryMessage(NodeFrameCodec.encode(lng, lat, totalNodes, count));
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private record Pending(Message message, long enqueuedAt) {
+    }
+
+    /**
+     * A progress event shared by every session it is broadcast to. The event is
+     * built and serialized at most once, by whichever sender gets to it first, and
+     * not at all if every session drops it or receives it as a binary node frame.
+     */
+    public static final class Message {
+        private final String type;
+        private final Supplier<PathfindingProgress> event;
+        private final ObjectMapper objectMapper;
+        private final boolean hasCoordinates;
+        private final double lng;
+        private final double lat;
+        private final int totalNodes;
+        private volatile PathfindingProgress built;
+        private volatile TextMessage text;
+
+        public Message(PathfindingProgress progress, ObjectMapper objectMapper) {
+            this(progress.type(), () -> progress, objectMapper);
+        }
+
+        /**
+         * @param type the type of the event {@code event} builds
+         */
+        public Message(String type, Supplier<PathfindingProgress> event, ObjectMapper objectMapper) {
+            this(type, event, objectMapper, false, 0, 0, 0);
+        }
+
+        private Message(String type, Supplier<PathfindingProgress> event, ObjectMapper objectMapper,
+                        boolean hasCoordinates, double lng, double lat, int totalNodes) {
+            this.type = type;
+            this.event = event;
+            this.objectMapper = objectMapper;
+            this.hasCoordinates = hasCoordinates;
+            this.lng = lng;
+            this.lat = lat;
+            this.totalNodes = totalNodes;
+        }
+
+        /**
+         * A node_explored event whose coordinates binary sessions can encode
+         * without building the event.
+         */
+        public static Message nodeExplored(double lng, double lat, int totalNodes, ObjectMapper objectMapper) {
+            return new Message("node_explored",
+                    () -> PathfindingProgress.nodeExplored(new Position(lng, lat), totalNodes),
+                    objectMapper, true, lng, lat, totalNodes);
+        }
+
+        boolean isNodeExplored() {
+            return "node_explored".equals(type);
+        }
+
+        double lng() {
+            if (hasCoordinates) {
+                return lng;
+            }
+            Position position = progress().position();
+            return position == null ? 0 : position.lng();
+        }
+
+        double lat() {
+            if (hasCoordinates) {
+                return lat;
+            }
+            Position position = progress().position();
+            return position == null ? 0 : position.lat();
+        }
+
+        int totalNodes() {
+            if (hasCoordinates) {
+                return totalNodes;
+            }
+            Integer nodes = progress().totalNodes();
+            return nodes == null ? 0 : nodes;
+        }
+
+        TextMessage text() {
+            TextMessage result = text;
+            if (result == null) {
+                synchronized (this) {
+                    result = text;
+                    if (result == null) {
+                        try {
+                            result = new TextMessage(objectMapper.writeValueAsString(progress()));
+                        } catch (JsonProcessingException e) {
+                            throw new IllegalStateException(e.getMessage(), e);
+                        }
+                        text = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private PathfindingProgress progress() {
+            PathfindingProgress result = built;
+            if (result == null) {
+                synchronized (this) {
+                    result = built;
+                    if (result == null) {
+                        result = event.get();
+                        built = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
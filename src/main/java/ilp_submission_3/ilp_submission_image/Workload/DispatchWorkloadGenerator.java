@@ -0,0 +1,270 @@
+package ilp_submission_3.ilp_submission_image.Workload;
+
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+import ilp_submission_3.ilp_submission_image.dto.DroneServicePoint;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Seeded generator of synthetic dispatch streams shaped like production traffic,
+ * for benchmarks and HTTP load tests.
+ *
+ * Orders are spread over consecutive days, weekdays about three times as busy as
+ * weekends, and over the working day with a morning and an afternoon peak in
+ * quarter-hour slots. Delivery locations cluster around a few hospital-like sites
+ * near the service points, with popular sites taking most orders; a configurable
+ * share is placed just outside a restricted area's edge, where the pathfinder
+ * works hardest. Requirements mix small and large payloads, cooling, heating and
+ * optional cost caps, bounded by what the fleet can carry. No location falls
+ * inside a restricted area. The same spec and reference data always produce the
+ * same orders, sorted by date and time with ids from 1.
+ */
+public final class DispatchWorkloadGenerator {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    /** Spread of a cluster's deliveries around its site, roughly 200 m. */
+    private static final double CLUSTER_SPREAD = 0.002;
+    /** Sites lie within this distance of a service point, roughly 3 km. */
+    private static final double SITE_RADIUS = 0.03;
+    /** Distance of edge deliveries from the restricted area edge, in degrees. */
+    private static final double EDGE_OFFSET = 0.0003;
+    private static final int MAX_ATTEMPTS = 50;
+
+    /**
+     * What to generate.
+     *
+     * @param orders dispatches to generate
+     * @param startDate first day of the stream
+     * @param days days the stream spans
+     * @param clusters delivery sites orders cluster around
+     * @param edgeFraction share of orders placed next to a restricted area edge, 0 to 1
+     * @param seed random seed; equal specs generate equal workloads
+     */
+    public record Spec(int orders, LocalDate startDate, int days, int clusters, double edgeFraction, long seed) {
+
+        /**
+         * A working week from Monday 20 January 2025, the week the benchmark fixtures cover.
+         */
+        public static Spec of(int orders, long seed) {
+            return new Spec(orders, LocalDate.of(2025, 1, 20), 5, 6, 0.1, seed);
+        }
+    }
+
+    private final List<DroneServicePoint> servicePoints;
+    private final List<RestrictedArea> restrictedAreas;
+    private final double maxCapacity;
+    private final boolean coolingAvailable;
+    private final boolean heatingAvailable;
+
+    /**
+     * @param fleet drones whose capabilities bound the generated requirements
+     */
+    public DispatchWorkloadGenerator(List<DroneServicePoint> servicePoints, List<RestrictedArea> restrictedAreas,
+                                     List<Drone> fleet) {
+        this.servicePoints = List.copyOf(servicePoints);
+        this.restrictedAreas = List.copyOf(restrictedAreas);
+        double capacity = 0;
+        boolean cooling = false;
+        boolean heating = false;
+        for (Drone drone : fleet) {
+            if (drone.capability() != null) {
+                capacity = Math.max(capacity, drone.capability().capacity() == null ? 0 : drone.capability().capacity());
+                cooling |= Boolean.TRUE.equals(drone.capability().cooling());
+                heating |= Boolean.TRUE.equals(drone.capability().heating());
+            }
+        }
+        this.maxCapacity = capacity > 0 ? capacity : 4.0;
+        this.coolingAvailable = cooling;
+        this.heatingAvailable = heating;
+    }
+
+    public List<MedDispatchRec> generate(Spec spec) {
+        if (spec.orders() < 0 || spec.days() < 1 || spec.clusters() < 1) {
+            throw new IllegalArgumentException("Workload needs orders >= 0, days >= 1 and clusters >= 1");
+        }
+        Random random = new Random(spec.seed());
+        List<Position> sites = sites(spec.clusters(), random);
+        double[] siteWeights = zipfWeights(sites.size());
+        List<LocalDate> dates = new ArrayList<>();
+        for (int d = 0; d < spec.days(); d++) {
+            dates.add(spec.startDate().plusDays(d));
+        }
+        double[] dateWeights = dates.stream()
+                .mapToDouble(date -> date.getDayOfWeek().getValue() >= DayOfWeek.SATURDAY.getValue() ? 1.0 : 3.0)
+                .toArray();
+
+        List<Slot> slots = new ArrayList<>(spec.orders());
+        for (int i = 0; i < spec.orders(); i++) {
+            LocalDate date = dates.get(pick(dateWeights, random));
+            LocalTime time = time(random);
+            Position delivery = random.nextDouble() < spec.edgeFraction() && !restrictedAreas.isEmpty()
+                    ? nearEdge(random)
+                    : nearSite(sites.get(pick(siteWeights, random)), random);
+            slots.add(new Slot(date, time, requirements(random), delivery));
+        }
+        slots.sort(Comparator.comparing(Slot::date).thenComparing(Slot::time));
+
+        List<MedDispatchRec> dispatches = new ArrayList<>(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            dispatches.add(new MedDispatchRec(i + 1, slot.date().toString(), slot.time().format(TIME_FORMAT),
+                    slot.requirements(), slot.delivery()));
+        }
+        return dispatches;
+    }
+
+    private record Slot(LocalDate date, LocalTime time, MedDispatchRec.Requirements requirements, Position delivery) {}
+
+    /**
+     * Delivery sites scattered around the service points, outside restricted areas.
+     */
+    private List<Position> sites(int count, Random random) {
+        List<Position> sites = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Position base = servicePoints.isEmpty()
+                    ? new Position(-3.1869, 55.9445)
+                    : toPosition(servicePoints.get(i % servicePoints.size()));
+            sites.add(outsideRestricted(() -> new Position(
+                    base.lng() + (random.nextDouble() * 2 - 1) * SITE_RADIUS,
+                    base.lat() + (random.nextDouble() * 2 - 1) * SITE_RADIUS / 2), base));
+        }
+        return sites;
+    }
+
+    private Position nearSite(Position site, Random random) {
+        return outsideRestricted(() -> new Position(
+                site.lng() + random.nextGaussian() * CLUSTER_SPREAD,
+                site.lat() + random.nextGaussian() * CLUSTER_SPREAD / 2), site);
+    }
+
+    /**
+     * A point just outside a random edge of a random restricted area.
+     */
+    private Position nearEdge(Random random) {
+        RestrictedArea area = restrictedAreas.get(random.nextInt(restrictedAreas.size()));
+        List<Position> vertices = area.vertices();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && vertices.size() > 1; attempt++) {
+            int edge = random.nextInt(vertices.size() - 1);
+            Position a = vertices.get(edge);
+            Position b = vertices.get(edge + 1);
+            double t = random.nextDouble();
+            double lng = a.lng() + t * (b.lng() - a.lng());
+            double lat = a.lat() + t * (b.lat() - a.lat());
+            double length = Math.hypot(b.lng() - a.lng(), b.lat() - a.lat());
+            if (length == 0) {
+                continue;
+            }
+            double normalLng = -(b.lat() - a.lat()) / length * EDGE_OFFSET;
+            double normalLat = (b.lng() - a.lng()) / length * EDGE_OFFSET;
+            for (int side : new int[]{1, -1}) {
+                Position candidate = round(new Position(lng + side * normalLng, lat + side * normalLat));
+                if (!insideAnyRestricted(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return nearSite(servicePoints.isEmpty() ? vertices.get(0) : toPosition(servicePoints.get(0)), random);
+    }
+
+    private MedDispatchRec.Requirements requirements(Random random) {
+        // Mostly small payloads with a long tail, as with medicine and sample deliveries
+        double capacity = Math.min(maxCapacity, 0.5 + Math.exp(random.nextGaussian() * 0.6) * maxCapacity / 5);
+        double temperature = random.nextDouble();
+        boolean cooling = coolingAvailable && temperature < 0.2;
+        boolean heating = heatingAvailable && !cooling && temperature > 0.85;
+        Double maxCost = random.nextDouble() < 0.3 ? Math.round((12 + random.nextDouble() * 48) * 10) / 10.0 : null;
+        return new MedDispatchRec.Requirements(Math.round(capacity * 10) / 10.0, cooling, heating, maxCost);
+    }
+
+    /**
+     * Morning and afternoon peaks around 10:30 and 14:30, between 08:00 and 18:00,
+     * in quarter-hour slots.
+     */
+    private static LocalTime time(Random random) {
+        double peak = random.nextDouble() < 0.55 ? 10.5 : 14.5;
+        double hours = Math.max(8.0, Math.min(17.75, peak + random.nextGaussian() * 1.5));
+        int quarter = (int) Math.round(hours * 4);
+        return LocalTime.of(quarter / 4, (quarter % 4) * 15);
+    }
+
+    private Position outsideRestricted(Supplier<Position> candidates, Position fallback) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Position candidate = round(candidates.get());
+            if (!insideAnyRestricted(candidate)) {
+                return candidate;
+            }
+        }
+        return round(fallback);
+    }
+
+    private boolean insideAnyRestricted(Position point) {
+        for (RestrictedArea area : restrictedAreas) {
+            if (contains(area.vertices(), point)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ray casting; points on the boundary may fall either way, which only matters
+     * to the edge placement and is avoided by its offset.
+     */
+    private static boolean contains(List<Position> polygon, Position point) {
+        boolean inside = false;
+        for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i++) {
+            Position a = polygon.get(i);
+            Position b = polygon.get(j);
+            if ((a.lat() > point.lat()) != (b.lat() > point.lat())
+                    && point.lng() < (b.lng() - a.lng()) * (point.lat() - a.lat()) / (b.lat() - a.lat()) + a.lng()) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Weights 1, 1/2, 1/3, ... so the first sites are the busiest.
+     */
+    private static double[] zipfWeights(int count) {
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1.0 / (i + 1);
+        }
+        return weights;
+    }
+
+    private static int pick(double[] weights, Random random) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < weights.length; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static Position toPosition(DroneServicePoint point) {
+        return new Position(point.location().lng(), point.location().lat());
+    }
+
+    private static Position round(Position position) {
+        return new Position(Math.round(position.lng() * 1e6) / 1e6, Math.round(position.lat() * 1e6) / 1e6);
+    }
+}
@@ -0,0 +1,65 @@
+package ilp_submission_3.ilp_submission_image.Workload;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads and writes dispatch workloads, either as one JSON array, the body the
+ * planning endpoints take, or as NDJSON with one dispatch per line, which a load
+ * driver can stream and replay order by order.
+ */
+public final class WorkloadWriter {
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(SerializationFeature.INDENT_OUTPUT)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private WorkloadWriter() {
+    }
+
+    public static void writeJson(List<MedDispatchRec> dispatches, OutputStream out) throws IOException {
+        MAPPER.writeValue(out, dispatches);
+        out.flush();
+    }
+
+    public static void writeNdjson(List<MedDispatchRec> dispatches, OutputStream out) throws IOException {
+        for (MedDispatchRec dispatch : dispatches) {
+            out.write(MAPPER.writeValueAsBytes(dispatch));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    public static List<MedDispatchRec> readJson(InputStream in) throws IOException {
+        return new ArrayList<>(Arrays.asList(MAPPER.readValue(in, MedDispatchRec[].class)));
+    }
+
+    /**
+     * Reads NDJSON, skipping blank lines.
+     */
+    public static List<MedDispatchRec> readNdjson(InputStream in) throws IOException {
+        List<MedDispatchRec> dispatches = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                dispatches.add(MAPPER.readValue(line, MedDispatchRec.class));
+            }
+        }
+        return dispatches;
+    }
+}
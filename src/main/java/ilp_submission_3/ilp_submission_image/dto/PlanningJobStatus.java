@@ -0,0 +1,42 @@
+package ilp_submission_3.ilp_submission_image.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of an asynchronous planning job. {@code result} is set once the job
+ * has succeeded and {@code error} once it has failed.
+ */
+public record PlanningJobStatus(
+        @JsonProperty("jobId") String jobId,
+        @JsonProperty("state") State state,
+        @JsonProperty("submittedAt") Instant submittedAt,
+        @JsonProperty("startedAt") Instant startedAt,
+        @JsonProperty("finishedAt") Instant finishedAt,
+        @JsonProperty("progress") Progress progress,
+        @JsonProperty("result") DeliveryPathResponse result,
+        @JsonProperty("error") String error
+) {
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    /**
+     * What the planner has done so far. Batches of every strategy tried are counted,
+     * including those that do not make it into the final result.
+     */
+    public record Progress(
+            @JsonProperty("batchesStarted") int batchesStarted,
+            @JsonProperty("batchesCompleted") int batchesCompleted,
+            @JsonProperty("pathsFound") int pathsFound,
+            @JsonProperty("nodesExplored") long nodesExplored,
+            @JsonProperty("lastCompletedBatch") BatchSummary lastCompletedBatch
+    ) {}
+
+    public record BatchSummary(
+            @JsonProperty("droneId") String droneId,
+            @JsonProperty("cost") double cost,
+            @JsonProperty("moves") int moves
+    ) {}
+}
@@ -0,0 +1,128 @@
+package ilp_submission_3.ilp_submission_image.ControllerTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for JobController REST API endpoints
+ * Validates asynchronous job submission, polling and result retrieval
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class JobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Nested
+    @DisplayName("POST /api/v1/jobs/deliveryPath")
+    class SubmitEndpointTests {
+
+        @Test
+        @DisplayName("Should accept a job and return its id and location")
+        void testSubmitJob() throws Exception {
+            mockMvc.perform(post("/api/v1/jobs/deliveryPath")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().exists("Location"))
+                    .andExpect(jsonPath("$.jobId").isString())
+                    .andExpect(jsonPath("$.state").isString());
+        }
+
+        @Test
+        @DisplayName("Should use the X-Job-Id header and reject a duplicate id")
+        void testSubmitWithJobId() throws Exception {
+            String jobId = UUID.randomUUID().toString();
+
+            mockMvc.perform(post("/api/v1/jobs/deliveryPath")
+                            .header("X-Job-Id", jobId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/api/v1/jobs/" + jobId))
+                    .andExpect(jsonPath("$.jobId").value(jobId));
+
+            mockMvc.perform(post("/api/v1/jobs/deliveryPath")
+                            .header("X-Job-Id", jobId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed X-Job-Id without queueing a job")
+        void testSubmitWithMalformedJobId() throws Exception {
+            for (String jobId : new String[]{"../admin", "job id", "job?x=1", "a".repeat(65)}) {
+                mockMvc.perform(post("/api/v1/jobs/deliveryPath")
+                                .header("X-Job-Id", jobId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(header().doesNotExist("Location"));
+            }
+
+            mockMvc.perform(get("/api/v1/jobs/{jobId}", "job id"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/jobs/{jobId}")
+    class StatusEndpointTests {
+
+        @Test
+        @DisplayName("Should return the final result once the job has finished")
+        void testPollUntilSucceeded() throws Exception {
+            String body = mockMvc.perform(post("/api/v1/jobs/deliveryPath")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isAccepted())
+                    .andReturn().getResponse().getContentAsString();
+            String jobId = objectMapper.readTree(body).get("jobId").asText();
+
+            JsonNode job = null;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (System.nanoTime() < deadline) {
+                String status = mockMvc.perform(get("/api/v1/jobs/" + jobId))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                job = objectMapper.readTree(status);
+                if ("SUCCEEDED".equals(job.get("state").asText())) {
+                    break;
+                }
+                Thread.sleep(20);
+            }
+
+            assertEquals("SUCCEEDED", job.get("state").asText());
+            assertEquals(0, job.get("result").get("totalMoves").asInt());
+            assertTrue(job.get("result").get("dronePaths").isArray());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown job")
+        void testUnknownJob() throws Exception {
+            mockMvc.perform(get("/api/v1/jobs/does-not-exist"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
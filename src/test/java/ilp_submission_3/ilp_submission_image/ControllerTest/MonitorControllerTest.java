@@ -370,4 +370,97 @@ class MonitorControllerTest {
                     .andExpect(jsonPath("$.status").exists());           // For status badge
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("GET /api/v1/monitor/reference-cache")
+    class ReferenceCacheEndpointTests {
+
+        @Test
+        @DisplayName("Should return cache configuration and counters")
+        void testReferenceCacheMetrics() throws Exception {
+            mockMvc.perform(get("/api/v1/monitor/reference-cache"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/json"))
+                    .andExpect(jsonPath("$.enabled").isBoolean())
+                    .andExpect(jsonPath("$.ttlSeconds").isNumber())
+                    .andExpect(jsonPath("$.hits").isNumber())
+                    .andExpect(jsonPath("$.staleHits").isNumber())
+                    .andExpect(jsonPath("$.misses").isNumber())
+                    .andExpect(jsonPath("$.hitRate").isNumber())
+                    .andExpect(jsonPath("$.refreshFailures").isNumber());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/monitor/path-cache")
+    class PathCacheEndpointTests {
+
+        @Test
+        @DisplayName("Should return cache size, footprint and counters")
+        void testPathCacheMetrics() throws Exception {
+            mockMvc.perform(get("/api/v1/monitor/path-cache"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/json"))
+                    .andExpect(jsonPath("$.enabled").isBoolean())
+                    .andExpect(jsonPath("$.maxEntries").isNumber())
+                    .andExpect(jsonPath("$.entries").isNumber())
+                    .andExpect(jsonPath("$.estimatedBytes").isNumber())
+                    .andExpect(jsonPath("$.hitRate").isNumber())
+                    .andExpect(jsonPath("$.evictions").isNumber())
+                    .andExpect(jsonPath("$.invalidations").isNumber());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/monitor/websocket-sessions")
+    class WebSocketSessionsEndpointTests {
+
+        @Test
+        @DisplayName("Should return queue settings and a session list")
+        void testWebSocketSessionMetrics() throws Exception {
+            mockMvc.perform(get("/api/v1/monitor/websocket-sessions"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/json"))
+                    .andExpect(jsonPath("$.queueCapacity").isNumber())
+                    .andExpect(jsonPath("$.overflowPolicy").value("COALESCE"))
+                    .andExpect(jsonPath("$.subscribedJobs").isNumber())
+                    .andExpect(jsonPath("$.sessions").isArray());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/monitor/jobs")
+    class JobsEndpointTests {
+
+        @Test
+        @DisplayName("Should return job pool settings and counters")
+        void testJobMetrics() throws Exception {
+            mockMvc.perform(get("/api/v1/monitor/jobs"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/json"))
+                    .andExpect(jsonPath("$.workers").isNumber())
+                    .andExpect(jsonPath("$.queueCapacity").isNumber())
+                    .andExpect(jsonPath("$.storedJobs").isNumber())
+                    .andExpect(jsonPath("$.rejected").isNumber());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/monitor/upstream")
+    class UpstreamEndpointTests {
+
+        @Test
+        @DisplayName("Should return upstream call counters, latency percentiles and circuits")
+        void testUpstreamMetrics() throws Exception {
+            mockMvc.perform(get("/api/v1/monitor/upstream"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/json"))
+                    .andExpect(jsonPath("$.requests").isNumber())
+                    .andExpect(jsonPath("$.failures").isNumber())
+                    .andExpect(jsonPath("$.shortCircuited").isNumber())
+                    .andExpect(jsonPath("$.peakInFlight").isNumber())
+                    .andExpect(jsonPath("$.latencyP99Millis").isNumber())
+                    .andExpect(jsonPath("$.circuits").isMap());
+        }
+    }
+}
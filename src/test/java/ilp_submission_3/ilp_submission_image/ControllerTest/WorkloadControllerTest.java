@@ -0,0 +1,84 @@
+package ilp_submission_3.ilp_submission_image.ControllerTest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for WorkloadController REST API endpoints
+ * Validates generated workloads in both formats against the embedded stub's data
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("stub-ilp")
+class WorkloadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Nested
+    @DisplayName("GET /api/v1/workload")
+    class WorkloadEndpointTests {
+
+        @Test
+        @DisplayName("Should return a JSON array of the requested orders")
+        void testJsonWorkload() throws Exception {
+            mockMvc.perform(asyncDispatch(start("/api/v1/workload?orders=50&seed=3")))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/json"))
+                    .andExpect(jsonPath("$.length()").value(50))
+                    .andExpect(jsonPath("$[0].id").value(1))
+                    .andExpect(jsonPath("$[0].delivery.lng").isNumber());
+        }
+
+        @Test
+        @DisplayName("Should return one dispatch per line as NDJSON")
+        void testNdjsonWorkload() throws Exception {
+            String body = mockMvc.perform(asyncDispatch(start("/api/v1/workload?orders=30&format=ndjson")))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andReturn().getResponse().getContentAsString();
+
+            assertEquals(30, body.lines().count());
+        }
+
+        @Test
+        @DisplayName("Should return the same workload for the same seed")
+        void testReproducible() throws Exception {
+            String first = mockMvc.perform(asyncDispatch(start("/api/v1/workload?orders=20&seed=8")))
+                    .andReturn().getResponse().getContentAsString();
+            String second = mockMvc.perform(asyncDispatch(start("/api/v1/workload?orders=20&seed=8")))
+                    .andReturn().getResponse().getContentAsString();
+
+            assertEquals(first, second);
+        }
+
+        @Test
+        @DisplayName("Should return 400 for out of range parameters")
+        void testBadParameters() throws Exception {
+            mockMvc.perform(get("/api/v1/workload?orders=-1")).andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/v1/workload?edgeFraction=2")).andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/v1/workload?format=xml")).andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/v1/workload?startDate=tomorrow")).andExpect(status().isBadRequest());
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private MvcResult start(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,258 @@
+package ilp_submission_3.ilp_submission_image.PathfindingTest;
+
+import ilp_submission_3.ilp_submission_image.Configuration.ILPEndpointProvider;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerExecutors;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerProperties;
+import ilp_submission_3.ilp_submission_image.Pathfinding.CompassStepTable;
+import ilp_submission_3.ilp_submission_image.Pathfinding.LatticeAStarPathfinder;
+import ilp_submission_3.ilp_submission_image.Pathfinding.LongIntHashMap;
+import ilp_submission_3.ilp_submission_image.Pathfinding.MoveValidator;
+import ilp_submission_3.ilp_submission_image.Pathfinding.NodeHeap;
+import ilp_submission_3.ilp_submission_image.Pathfinding.PathfindingEngine;
+import ilp_submission_3.ilp_submission_image.Pathfinding.PathfindingListener;
+import ilp_submission_3.ilp_submission_image.Service.DroneService;
+import ilp_submission_3.ilp_submission_image.Service.FlightPathCache;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.PathPlanningServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ReferenceDataCache;
+import ilp_submission_3.ilp_submission_image.WebSocket.PathfindingProgressHandler;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the lattice A* engine and its primitive collections
+ * Coverage areas:
+ * - Path shape and move length
+ * - Restricted area avoidance through MoveValidator
+ * - Listener callbacks
+ * - Parity with the legacy string-keyed engine
+ * - LongIntHashMap and NodeHeap behaviour
+ * - CompassStepTable lookups
+ */
+class LatticeAStarPathfinderTest {
+
+    private static final double MOVE_DISTANCE = 0.00015;
+
+    private final LatticeAStarPathfinder pathfinder = new LatticeAStarPathfinder();
+
+    private final List<Position> buildingVertices = Arrays.asList(
+            new Position(-3.1880, 55.9440),
+            new Position(-3.1860, 55.9440),
+            new Position(-3.1860, 55.9460),
+            new Position(-3.1880, 55.9460),
+            new Position(-3.1880, 55.9440)
+    );
+
+    // ==================== Engine Tests ====================
+
+    @Test
+    @DisplayName("Should return start and goal when already close")
+    void testFindPath_AlreadyClose() {
+        Position from = new Position(-3.1869, 55.9445);
+        Position to = new Position(-3.18695, 55.94455);
+
+        List<Position> path = pathfinder.findPath(from, to, MoveValidator.NONE, PathfindingListener.NONE);
+
+        assertEquals(Arrays.asList(from, to), path);
+    }
+
+    @Test
+    @DisplayName("Every step of an open-sky path should be exactly one move long")
+    void testFindPath_StepsAreSingleMoves() {
+        Position from = new Position(-3.1900, 55.9440);
+        Position to = new Position(-3.1850, 55.9460);
+
+        List<Position> path = pathfinder.findPath(from, to, MoveValidator.NONE, PathfindingListener.NONE);
+
+        assertFalse(path.isEmpty());
+        assertEquals(from, path.get(0));
+        for (int i = 1; i < path.size(); i++) {
+            assertEquals(MOVE_DISTANCE, distance(path.get(i - 1), path.get(i)), 1e-12);
+        }
+        assertTrue(distance(path.get(path.size() - 1), to) < MOVE_DISTANCE);
+    }
+
+    @Test
+    @DisplayName("Should route around a blocked rectangle")
+    void testFindPath_AvoidsBlockedArea() {
+        Position from = new Position(-3.1900, 55.9450);
+        Position to = new Position(-3.1840, 55.9450);
+        MoveValidator validator = (fromLng, fromLat, toLng, toLat) ->
+                toLng >= -3.1880 && toLng <= -3.1860 && toLat >= 55.9440 && toLat <= 55.9460;
+
+        List<Position> path = pathfinder.findPath(from, to, validator, PathfindingListener.NONE);
+
+        assertFalse(path.isEmpty());
+        for (Position p : path) {
+            boolean inside = p.lng() >= -3.1880 && p.lng() <= -3.1860 &&
+                    p.lat() >= 55.9440 && p.lat() <= 55.9460;
+            assertFalse(inside, "Path entered blocked area at " + p);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return empty path and report failure when every move is blocked")
+    void testFindPath_Unreachable() {
+        Position from = new Position(-3.1870, 55.9450);
+        Position to = new Position(-3.1800, 55.9450);
+        MoveValidator validator = (fromLng, fromLat, toLng, toLat) -> true;
+        List<Integer> failures = new ArrayList<>();
+
+        List<Position> path = pathfinder.findPath(from, to, validator, new PathfindingListener() {
+            @Override
+            public void noPathFound(int nodesExplored) {
+                failures.add(nodesExplored);
+            }
+        });
+
+        assertTrue(path.isEmpty());
+        assertEquals(List.of(1), failures);
+    }
+
+    @Test
+    @DisplayName("Listener should see every explored node and the found path")
+    void testFindPath_ListenerCallbacks() {
+        Position from = new Position(-3.1900, 55.9440);
+        Position to = new Position(-3.1890, 55.9440);
+        int[] explored = {0};
+        int[] foundLength = {-1};
+
+        List<Position> path = pathfinder.findPath(from, to, MoveValidator.NONE, new PathfindingListener() {
+            @Override
+            public void nodeExplored(double lng, double lat, int nodesExplored) {
+                explored[0] = nodesExplored;
+            }
+
+            @Override
+            public void pathFound(int nodesExplored, int pathLength) {
+                foundLength[0] = pathLength;
+            }
+        });
+
+        assertTrue(explored[0] >= path.size() - 1);
+        assertEquals(path.size(), foundLength[0]);
+    }
+
+    @Test
+    @DisplayName("Lattice engine should match legacy engine path length with real geometry")
+    void testEngineParity() {
+        RestrictedArea building = new RestrictedArea("Building", 1,
+                new RestrictedArea.Limits(0.0, 0.0), buildingVertices);
+        List<RestrictedArea> areas = List.of(building);
+        Position from = new Position(-3.1900, 55.9450);
+        Position to = new Position(-3.1840, 55.9452);
+
+        PathPlanningServiceImpl legacy = planner(PathfindingEngine.LEGACY);
+        PathPlanningServiceImpl lattice = planner(PathfindingEngine.LATTICE);
+
+        List<Position> legacyPath = legacy.calculateFlightPath(from, to, areas);
+        List<Position> latticePath = lattice.calculateFlightPath(from, to, areas);
+
+        assertFalse(legacyPath.isEmpty());
+        assertEquals(legacyPath.size(), latticePath.size());
+        assertEquals(from, latticePath.get(0));
+    }
+
+    // ==================== Primitive Collection Tests ====================
+
+    @Test
+    @DisplayName("LongIntHashMap should store, overwrite and grow")
+    void testLongIntHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (int i = 0; i < 1000; i++) {
+            map.put(((long) i << 32) | (i * 7L & 0xFFFFFFFFL), i);
+        }
+        map.put(0L, 42);
+
+        assertEquals(1000, map.size());
+        assertEquals(42, map.get(0L));
+        assertEquals(999, map.get((999L << 32) | 6993L));
+        assertEquals(-1, map.get(-5L));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, -1));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(0L));
+    }
+
+    @Test
+    @DisplayName("NodeHeap should poll by f, then g, then insertion order")
+    void testNodeHeapOrdering() {
+        NodeHeap heap = new NodeHeap(2);
+        heap.push(1, 5.0, 10.0);
+        heap.push(2, 3.0, 10.0);
+        heap.push(3, 0.0, 2.0);
+        heap.push(4, 3.0, 10.0);
+        for (int i = 100; i < 140; i++) {
+            heap.push(i, 0.0, 50.0 + i);
+        }
+
+        assertEquals(3, heap.poll());
+        assertEquals(2, heap.poll());
+        assertEquals(4, heap.poll());
+        assertEquals(1, heap.poll());
+        for (int i = 100; i < 140; i++) {
+            assertEquals(i, heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    // ==================== Step Table Tests ====================
+
+    @Test
+    @DisplayName("CompassStepTable should index only the 16 compass angles")
+    void testCompassStepTableIndexOf() {
+        for (int k = 0; k < CompassStepTable.DIRECTIONS; k++) {
+            assertEquals(k, CompassStepTable.indexOf(k * 22.5));
+        }
+        assertEquals(-1, CompassStepTable.indexOf(10.0));
+        assertEquals(-1, CompassStepTable.indexOf(360.0));
+        assertEquals(-1, CompassStepTable.indexOf(-22.5));
+        assertEquals(-1, CompassStepTable.indexOf(Double.NaN));
+    }
+
+    @Test
+    @DisplayName("CompassStepTable neighbours should each be one move away")
+    void testCompassStepTableNeighbours() {
+        double[] lng = new double[CompassStepTable.DIRECTIONS];
+        double[] lat = new double[CompassStepTable.DIRECTIONS];
+
+        CompassStepTable.neighbours(-3.1869, 55.9445, lng, lat);
+
+        for (int k = 0; k < CompassStepTable.DIRECTIONS; k++) {
+            assertEquals(MOVE_DISTANCE, Math.hypot(lng[k] + 3.1869, lat[k] - 55.9445), 1e-12);
+        }
+        assertEquals(-3.1869 + MOVE_DISTANCE, lng[0], 1e-15);
+        assertEquals(55.9445 + MOVE_DISTANCE, lat[4], 1e-15);
+    }
+
+    private PathPlanningServiceImpl planner(PathfindingEngine engine) {
+        PlannerProperties properties = new PlannerProperties();
+        properties.setEngine(engine);
+        return new PathPlanningServiceImpl(
+                mock(RestTemplate.class),
+                mock(ILPEndpointProvider.class),
+                new ILPServiceImpl(),
+                mock(DroneService.class),
+                mock(PathfindingProgressHandler.class),
+                properties,
+                ReferenceDataCache.passThrough(),
+                PlannerExecutors.sequential(),
+                FlightPathCache.disabled()
+        );
+    }
+
+    private static double distance(Position a, Position b) {
+        return Math.hypot(a.lng() - b.lng(), a.lat() - b.lat());
+    }
+}
@@ -0,0 +1,230 @@
+package ilp_submission_3.ilp_submission_image.PathfindingTest;
+
+import ilp_submission_3.ilp_submission_image.Pathfinding.CompassStepTable;
+import ilp_submission_3.ilp_submission_image.Pathfinding.RestrictedAreaIndex;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceInterface;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RestrictedAreaIndex
+ * Coverage areas:
+ * - Containment parity with ILPServiceImpl.isInRegion
+ * - Move blocking parity with the linear edge scan
+ * - Border, vertex and collinear edge handling
+ * - Null, empty and out-of-grid inputs
+ */
+class RestrictedAreaIndexTest {
+
+    private final ILPServiceInterface ilpService = new ILPServiceImpl();
+    private final Random random = new Random(20251017L);
+
+    private final List<Position> georgeSquare = Arrays.asList(
+            new Position(-3.192473, 55.946233),
+            new Position(-3.192473, 55.942617),
+            new Position(-3.184319, 55.942617),
+            new Position(-3.184319, 55.946233),
+            new Position(-3.192473, 55.946233)
+    );
+
+    private final List<Position> concaveArea = Arrays.asList(
+            new Position(-3.190, 55.940),
+            new Position(-3.180, 55.940),
+            new Position(-3.180, 55.950),
+            new Position(-3.185, 55.945),
+            new Position(-3.190, 55.950),
+            new Position(-3.190, 55.940)
+    );
+
+    private final List<Position> openTriangle = Arrays.asList(
+            new Position(-3.1780, 55.9380),
+            new Position(-3.1740, 55.9380),
+            new Position(-3.1760, 55.9410)
+    );
+
+    private final List<RestrictedArea> areas = List.of(
+            area("George Square", georgeSquare),
+            area("Concave", concaveArea),
+            area("Open Triangle", openTriangle)
+    );
+
+    // ==================== Containment Tests ====================
+
+    @Test
+    @DisplayName("Containment should match isInRegion for random points")
+    void testContainsParity() {
+        RestrictedAreaIndex index = RestrictedAreaIndex.build(areas);
+
+        for (int i = 0; i < 20_000; i++) {
+            Position point = randomPosition();
+            assertEquals(linearContains(point), index.contains(point), "Containment mismatch for " + point);
+        }
+    }
+
+    @Test
+    @DisplayName("Vertices and edges should count as inside")
+    void testContainsBorder() {
+        RestrictedAreaIndex index = RestrictedAreaIndex.build(areas);
+
+        for (Position vertex : georgeSquare) {
+            assertTrue(index.contains(vertex));
+        }
+        assertTrue(index.contains(new Position(-3.191, 55.946233)));
+        assertFalse(index.contains(new Position(-3.191, 55.946300)));
+    }
+
+    @Test
+    @DisplayName("Small cells should not change containment answers")
+    void testContainsParityAcrossCellSizes() {
+        RestrictedAreaIndex fine = RestrictedAreaIndex.build(areas, 0.00005);
+        RestrictedAreaIndex coarse = RestrictedAreaIndex.build(areas, 1.0);
+
+        for (int i = 0; i < 5_000; i++) {
+            Position point = randomPosition();
+            boolean expected = linearContains(point);
+            assertEquals(expected, fine.contains(point));
+            assertEquals(expected, coarse.contains(point));
+        }
+    }
+
+    // ==================== Move Blocking Tests ====================
+
+    @Test
+    @DisplayName("Blocked moves should match the linear edge scan")
+    void testIsBlockedParity() {
+        RestrictedAreaIndex index = RestrictedAreaIndex.build(areas);
+
+        for (int i = 0; i < 20_000; i++) {
+            Position from = randomPosition();
+            Position to = ilpService.nextPosition(from, CompassStepTable.angle(random.nextInt(16)));
+
+            assertEquals(linearBlocked(from, to),
+                    index.isBlocked(from.lng(), from.lat(), to.lng(), to.lat()),
+                    "Blocking mismatch for " + from + " -> " + to);
+        }
+    }
+
+    @Test
+    @DisplayName("A move crossing a thin corner should be blocked even with both ends outside")
+    void testIsBlockedCrossingCorner() {
+        RestrictedAreaIndex index = RestrictedAreaIndex.build(areas);
+        Position from = new Position(-3.17608, 55.94098);
+        Position to = new Position(-3.17593, 55.94098);
+
+        assertFalse(index.contains(from));
+        assertFalse(index.contains(to));
+        assertTrue(index.crossesEdge(from.lng(), from.lat(), to.lng(), to.lat()));
+        assertTrue(index.isBlocked(from.lng(), from.lat(), to.lng(), to.lat()));
+    }
+
+    @Test
+    @DisplayName("A move sliding along an edge should be blocked")
+    void testIsBlockedCollinear() {
+        RestrictedAreaIndex index = RestrictedAreaIndex.build(areas);
+
+        assertTrue(index.isBlocked(-3.1880, 55.942617, -3.18785, 55.942617));
+    }
+
+    // ==================== Edge Case Tests ====================
+
+    @Test
+    @DisplayName("Null and empty vertex lists should be ignored")
+    void testIgnoresAreasWithoutVertices() {
+        List<RestrictedArea> mixed = new ArrayList<>(areas);
+        mixed.add(area("Null", null));
+        mixed.add(area("Empty", List.of()));
+
+        RestrictedAreaIndex index = RestrictedAreaIndex.build(mixed);
+
+        assertEquals(3, index.polygonCount());
+        assertSame(mixed, index.source());
+    }
+
+    @Test
+    @DisplayName("Empty snapshots and far-away queries should never block")
+    void testEmptyAndOutOfGrid() {
+        RestrictedAreaIndex empty = RestrictedAreaIndex.build(List.of());
+        RestrictedAreaIndex index = RestrictedAreaIndex.build(areas);
+
+        assertFalse(empty.contains(new Position(-3.186, 55.944)));
+        assertFalse(empty.isBlocked(-3.186, 55.944, -3.18585, 55.944));
+        assertFalse(index.contains(new Position(10.0, 10.0)));
+        assertFalse(index.isBlocked(10.0, 10.0, 10.00015, 10.0));
+        assertThrows(IllegalArgumentException.class, () -> RestrictedAreaIndex.build(areas, 0.0));
+    }
+
+    private boolean linearContains(Position point) {
+        for (RestrictedArea area : areas) {
+            if (ilpService.isInRegion(point, area.vertices())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reference implementation: the per-area scan the planner used before the index.
+     */
+    private boolean linearBlocked(Position from, Position to) {
+        if (linearContains(to)) {
+            return true;
+        }
+        for (RestrictedArea area : areas) {
+            List<Position> vertices = area.vertices();
+            for (int i = 0; i < vertices.size(); i++) {
+                if (segmentsIntersect(from, to, vertices.get(i), vertices.get((i + 1) % vertices.size()))) {
+                    return true;
+                }
+            }
+            Position midPoint = new Position((from.lng() + to.lng()) / 2.0, (from.lat() + to.lat()) / 2.0);
+            if (ilpService.isInRegion(midPoint, vertices)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean segmentsIntersect(Position p1, Position p2, Position p3, Position p4) {
+        double d1 = direction(p3, p4, p1);
+        double d2 = direction(p3, p4, p2);
+        double d3 = direction(p1, p2, p3);
+        double d4 = direction(p1, p2, p4);
+
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) &&
+                ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+        return (Math.abs(d1) < 1e-10 && onSegment(p3, p1, p4)) ||
+                (Math.abs(d2) < 1e-10 && onSegment(p3, p2, p4)) ||
+                (Math.abs(d3) < 1e-10 && onSegment(p1, p3, p2)) ||
+                (Math.abs(d4) < 1e-10 && onSegment(p1, p4, p2));
+    }
+
+    private static double direction(Position p1, Position p2, Position p3) {
+        return (p3.lng() - p1.lng()) * (p2.lat() - p1.lat()) -
+                (p2.lng() - p1.lng()) * (p3.lat() - p1.lat());
+    }
+
+    private static boolean onSegment(Position p, Position q, Position r) {
+        return q.lng() <= Math.max(p.lng(), r.lng()) && q.lng() >= Math.min(p.lng(), r.lng()) &&
+                q.lat() <= Math.max(p.lat(), r.lat()) && q.lat() >= Math.min(p.lat(), r.lat());
+    }
+
+    private static RestrictedArea area(String name, List<Position> vertices) {
+        return new RestrictedArea(name, 1, new RestrictedArea.Limits(0.0, 0.0), vertices);
+    }
+
+    private Position randomPosition() {
+        return new Position(-3.196 + random.nextDouble() * 0.024, 55.936 + random.nextDouble() * 0.016);
+    }
+}
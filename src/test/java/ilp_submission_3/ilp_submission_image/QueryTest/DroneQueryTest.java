@@ -0,0 +1,288 @@
+package ilp_submission_3.ilp_submission_image.QueryTest;
+
+import ilp_submission_3.ilp_submission_image.Query.DroneAttribute;
+import ilp_submission_3.ilp_submission_image.Query.DroneQuery;
+import ilp_submission_3.ilp_submission_image.Query.FleetColumns;
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+import ilp_submission_3.ilp_submission_image.dto.QueryAttribute;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DroneQuery and FleetColumns
+ * Coverage areas:
+ * - Numeric, text and flag conditions
+ * - Missing capabilities and values
+ * - Invalid attributes, operators and values
+ * - Sorted index plans: tolerance, NaN and multi-range queries
+ * - Parity of indexed and scanned evaluation with per-drone attribute matching
+ */
+class DroneQueryTest {
+
+    private final List<Drone> fleet = List.of(
+            drone("1", "Alpha", capability(true, false, 4.0, 2000, 0.01, 4.3, 6.5)),
+            drone("2", "Bravo", capability(false, true, 8.0, 1000, 0.03, 2.6, 5.4)),
+            drone("X3", "Charlie", capability(false, false, 12.0, 1500, 0.05, 9.5, 11.5)),
+            drone("4", "Delta", null),
+            drone("5", null, capability(null, true, null, null, 0.02, null, 1.0))
+    );
+
+    private final FleetColumns columns = FleetColumns.build(fleet);
+
+    // ==================== Condition Tests ====================
+
+    @Test
+    @DisplayName("Numeric conditions should support every operator with a tolerance on equality")
+    void testNumericOperators() {
+        assertEquals(List.of("2", "X3"), query("capacity", ">", "4"));
+        assertEquals(List.of("1", "2"), query("capacity", "<=", "8.00005"));
+        assertEquals(List.of("2"), query("capacity", "=", "8.00005"));
+        assertEquals(List.of("1", "X3"), query("capacity", "!=", "8"));
+        assertEquals(List.of("2", "5"), query("costFinal", "<", "6"));
+        assertEquals(List.of("1", "X3"), query("maxMoves", ">=", "1500"));
+    }
+
+    @Test
+    @DisplayName("Ids should compare numerically and skip drones whose id is not a number")
+    void testNumericIds() {
+        assertEquals(List.of("2", "4", "5"), query("id", ">", "1"));
+        assertEquals(List.of("1"), query("id", "=", "1.0"));
+    }
+
+    @Test
+    @DisplayName("Text and flag conditions should ignore case and only support equality")
+    void testTextAndFlags() {
+        assertEquals(List.of("2"), query("name", "=", "BRAVO"));
+        assertEquals(List.of("1", "X3", "4"), query("name", "!=", "bravo"));
+        assertEquals(List.of("1"), query("cooling", "=", "TRUE"));
+        assertEquals(List.of("2", "X3"), query("cooling", "!=", "true"));
+        assertEquals(List.of("2", "5"), query("heating", "=", "true"));
+        assertEquals(List.of(), query("cooling", "=", "yes"));
+        assertEquals(List.of("1", "2", "X3"), query("cooling", "!=", "yes"));
+        assertEquals(List.of(), query("name", ">", "a"));
+    }
+
+    @Test
+    @DisplayName("All conditions of a query should hold, and no conditions should match every drone")
+    void testConjunction() {
+        List<QueryAttribute> attributes = List.of(
+                new QueryAttribute("heating", "=", "true"),
+                new QueryAttribute("costPerMove", "<", "0.04"));
+
+        assertEquals(List.of("2", "5"), columns.ids(DroneQuery.compile(attributes).evaluate(columns)));
+        assertEquals(5, DroneQuery.compile(List.of()).evaluate(columns).cardinality());
+        assertEquals(5, DroneQuery.compile(null).evaluate(columns).cardinality());
+    }
+
+    // ==================== Invalid Query Tests ====================
+
+    @Test
+    @DisplayName("Unknown attributes, operators and unparsable or missing values should match nothing")
+    void testInvalidConditions() {
+        assertEquals(List.of(), query("colour", "=", "red"));
+        assertEquals(List.of(), query("capacity", "~", "4"));
+        assertEquals(List.of(), query("capacity", ">", "four"));
+        assertEquals(List.of(), query("capacity", ">", null));
+        assertEquals(List.of(), query(null, "=", "4"));
+        assertEquals(List.of(), query("capacity", null, "4"));
+        assertEquals(0, DroneQuery.compile(Arrays.asList((QueryAttribute) null)).evaluate(columns).cardinality());
+    }
+
+    @Test
+    @DisplayName("Columns should record which drones have each attribute")
+    void testColumns() {
+        assertEquals(5, columns.size());
+        assertSame(fleet, columns.source());
+        assertEquals(bits(0, 1, 2), columns.present(DroneAttribute.CAPACITY));
+        assertEquals(bits(0, 1, 2, 4), columns.present(DroneAttribute.COST_PER_MOVE));
+        assertEquals(bits(0, 1, 3, 4), columns.present(DroneAttribute.ID));
+        assertEquals(bits(1, 4), columns.flags(DroneAttribute.HEATING));
+        assertEquals(0.03, columns.numbers(DroneAttribute.COST_PER_MOVE)[1]);
+        assertEquals("charlie", columns.texts(DroneAttribute.NAME)[2]);
+        assertEquals(0, FleetColumns.build(null).size());
+    }
+
+    // ==================== Index Plan Tests ====================
+
+    @Test
+    @DisplayName("Indexed equality should keep the tolerance at both ends of the run")
+    void testIndexedEqualityTolerance() {
+        List<Drone> drones = new ArrayList<>();
+        double[] capacities = {7.9998, 7.99991, 8.0, 8.00009, 8.0002, 8.0};
+        for (int i = 0; i < capacities.length; i++) {
+            drones.add(drone(String.valueOf(i), "Drone " + i,
+                    capability(false, false, capacities[i], 1000, 0.01, 1.0, 1.0)));
+        }
+        FleetColumns indexed = FleetColumns.build(drones);
+
+        BitSet matches = DroneQuery.compile("capacity", "=", "8").evaluate(indexed);
+
+        assertEquals(bits(1, 2, 3, 5), matches);
+        assertEquals(DroneQuery.compile("capacity", "=", "8").scan(indexed), matches);
+    }
+
+    @Test
+    @DisplayName("NaN values and queries should never match through an index")
+    void testIndexedNaN() {
+        List<Drone> drones = List.of(
+                drone("NaN", "A", null), drone("1", "B", null), drone("2", "C", null));
+        FleetColumns indexed = FleetColumns.build(drones);
+
+        assertEquals(List.of("2"), indexed.ids(DroneQuery.compile("id", ">", "1").evaluate(indexed)));
+        assertEquals(List.of("1", "2"), indexed.ids(DroneQuery.compile("id", "<=", "Infinity").evaluate(indexed)));
+        assertEquals(List.of(), indexed.ids(DroneQuery.compile("id", "<", "NaN").evaluate(indexed)));
+    }
+
+    @Test
+    @DisplayName("Several range conditions with text and flags should combine like a scan")
+    void testMultiRangePlan() {
+        List<QueryAttribute> attributes = List.of(
+                new QueryAttribute("capacity", ">=", "4"),
+                new QueryAttribute("costPerMove", "<", "0.05"),
+                new QueryAttribute("maxMoves", "<=", "2000"),
+                new QueryAttribute("name", "!=", "alpha"));
+
+        DroneQuery query = DroneQuery.compile(attributes);
+
+        assertEquals(List.of("2"), columns.ids(query.evaluate(columns)));
+        assertEquals(query.scan(columns), query.evaluate(columns));
+    }
+
+    // ==================== Parity Tests ====================
+
+    @Test
+    @DisplayName("Should agree with per-drone attribute matching over random fleets and queries")
+    void testParityWithPerDroneMatching() {
+        Random random = new Random(20251016L);
+        String[] names = {"id", "name", "capacity", "cooling", "heating", "maxMoves",
+                "costPerMove", "costInitial", "costFinal", "colour"};
+        String[] operators = {"=", "!=", "<", ">", "<=", ">=", "~"};
+        String[] values = {"0", "1", "2.5", "4", "8.0", "4.00005", "1000", "0.02", "true", "FALSE",
+                "Drone 3", "x", "NaN", "-Infinity"};
+
+        for (int round = 0; round < 20; round++) {
+            List<Drone> drones = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                drones.add(randomDrone(i, random));
+            }
+            FleetColumns randomColumns = FleetColumns.build(drones);
+
+            for (int q = 0; q < 50; q++) {
+                List<QueryAttribute> attributes = new ArrayList<>();
+                for (int a = random.nextInt(3); a >= 0; a--) {
+                    attributes.add(new QueryAttribute(names[random.nextInt(names.length)],
+                            operators[random.nextInt(operators.length)], values[random.nextInt(values.length)]));
+                }
+
+                List<String> expected = new ArrayList<>();
+                for (Drone drone : drones) {
+                    if (attributes.stream().allMatch(attribute -> matches(drone, attribute))) {
+                        expected.add(drone.id());
+                    }
+                }
+                DroneQuery query = DroneQuery.compile(attributes);
+                assertEquals(expected, randomColumns.ids(query.evaluate(randomColumns)), attributes.toString());
+                assertEquals(expected, randomColumns.ids(query.scan(randomColumns)), attributes.toString());
+            }
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private List<String> query(String attribute, String operator, String value) {
+        return columns.ids(DroneQuery.compile(attribute, operator, value).evaluate(columns));
+    }
+
+    /**
+     * The per-drone matching DroneQuery replaces.
+     */
+    private static boolean matches(Drone drone, QueryAttribute query) {
+        Object value;
+        boolean numeric;
+        switch (query.attribute()) {
+            case "id" -> { value = drone.id(); numeric = true; }
+            case "name" -> { value = drone.name(); numeric = false; }
+            default -> {
+                Drone.Capability c = drone.capability();
+                if (c == null) return false;
+                switch (query.attribute()) {
+                    case "capacity" -> { value = c.capacity(); numeric = true; }
+                    case "cooling" -> { value = c.cooling(); numeric = false; }
+                    case "heating" -> { value = c.heating(); numeric = false; }
+                    case "maxMoves" -> { value = c.maxMoves(); numeric = true; }
+                    case "costPerMove" -> { value = c.costPerMove(); numeric = true; }
+                    case "costInitial" -> { value = c.costInitial(); numeric = true; }
+                    case "costFinal" -> { value = c.costFinal(); numeric = true; }
+                    default -> { return false; }
+                }
+            }
+        }
+        if (value == null) return false;
+
+        if (!numeric) {
+            boolean equal = value.toString().toLowerCase().equals(query.value().toLowerCase());
+            return switch (query.operator()) {
+                case "=" -> equal;
+                case "!=" -> !equal;
+                default -> false;
+            };
+        }
+        double droneValue;
+        double queryValue;
+        try {
+            droneValue = Double.parseDouble(value.toString());
+            queryValue = Double.parseDouble(query.value());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return switch (query.operator()) {
+            case "=" -> Math.abs(droneValue - queryValue) < 0.0001;
+            case "!=" -> Math.abs(droneValue - queryValue) >= 0.0001;
+            case "<" -> droneValue < queryValue;
+            case ">" -> droneValue > queryValue;
+            case "<=" -> droneValue <= queryValue;
+            case ">=" -> droneValue >= queryValue;
+            default -> false;
+        };
+    }
+
+    private static Drone randomDrone(int i, Random random) {
+        String id = random.nextInt(10) == 0 ? "D" + i : String.valueOf(i);
+        if (random.nextInt(10) == 0) {
+            return drone(id, "Drone " + i, null);
+        }
+        return drone(id, random.nextInt(10) == 0 ? null : "Drone " + i, capability(
+                random.nextInt(8) == 0 ? null : random.nextBoolean(),
+                random.nextInt(8) == 0 ? null : random.nextBoolean(),
+                random.nextInt(8) == 0 ? null : (double) (1 + random.nextInt(16)) / 2,
+                random.nextInt(8) == 0 ? null : 500 * (1 + random.nextInt(4)),
+                random.nextInt(8) == 0 ? null : (1 + random.nextInt(5)) / 100.0,
+                random.nextInt(8) == 0 ? null : (double) random.nextInt(10),
+                random.nextInt(8) == 0 ? null : (double) random.nextInt(10)));
+    }
+
+    private static BitSet bits(int... rows) {
+        BitSet bits = new BitSet();
+        for (int row : rows) {
+            bits.set(row);
+        }
+        return bits;
+    }
+
+    private static Drone drone(String id, String name, Drone.Capability capability) {
+        return new Drone(name, id, capability);
+    }
+
+    private static Drone.Capability capability(Boolean cooling, Boolean heating, Double capacity, Integer maxMoves,
+                                               Double costPerMove, Double costInitial, Double costFinal) {
+        return new Drone.Capability(cooling, heating, capacity, maxMoves, costPerMove, costInitial, costFinal);
+    }
+}
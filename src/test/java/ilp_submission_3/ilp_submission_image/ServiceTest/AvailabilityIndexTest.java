@@ -0,0 +1,228 @@
+package ilp_submission_3.ilp_submission_image.ServiceTest;
+
+import ilp_submission_3.ilp_submission_image.Service.AvailabilityIndex;
+import ilp_submission_3.ilp_submission_image.dto.DroneForServicePoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AvailabilityIndex
+ * Coverage areas:
+ * - Inclusive slot boundaries and day matching
+ * - Precedence between overlapping listings
+ * - Drones available at an instant, with their service points
+ * - Malformed slots and unparsable order times
+ * - Parity with a linear scan over random snapshots
+ */
+class AvailabilityIndexTest {
+
+    // 2025-01-20 is a Monday
+    private static final String MONDAY = "2025-01-20";
+    private static final String TUESDAY = "2025-01-21";
+
+    // ==================== Lookup Tests ====================
+
+    @Test
+    @DisplayName("Slots should include both ends and only match their own day")
+    void testInclusiveBoundaries() {
+        AvailabilityIndex index = AvailabilityIndex.build(List.of(
+                servicePoint(1, listing("D1", slot("MONDAY", "09:00", "12:00")))
+        ));
+
+        assertNotNull(index.find("D1", MONDAY, "09:00"));
+        assertNotNull(index.find("D1", MONDAY, "12:00"));
+        assertNull(index.find("D1", MONDAY, "08:59"));
+        assertNull(index.find("D1", MONDAY, "12:00:01"));
+        assertNull(index.find("D1", TUESDAY, "10:00"));
+        assertNull(index.find("D2", MONDAY, "10:00"));
+    }
+
+    @Test
+    @DisplayName("Should report the service point whose slot covers the instant")
+    void testServicePointPerInstant() {
+        AvailabilityIndex index = AvailabilityIndex.build(List.of(
+                servicePoint(1, listing("D1", slot("MONDAY", "08:00", "12:00"))),
+                servicePoint(2, listing("D1", slot("MONDAY", "13:00", "17:00")))
+        ));
+
+        AvailabilityIndex.Slot morning = index.find("D1", MONDAY, "10:00");
+        AvailabilityIndex.Slot afternoon = index.find("D1", MONDAY, "14:00");
+
+        assertEquals(1, morning.servicePointId());
+        assertTrue(morning.home());
+        assertEquals(2, afternoon.servicePointId());
+        assertFalse(afternoon.home());
+        assertNull(index.find("D1", MONDAY, "12:30"));
+    }
+
+    @Test
+    @DisplayName("Where listings overlap the first one in the snapshot should win")
+    void testOverlapPrecedence() {
+        DroneForServicePoint.DroneAvailability first = listing("D1", slot("MONDAY", "10:00", "14:00"));
+        DroneForServicePoint.DroneAvailability second = listing("D1", slot("MONDAY", "08:00", "16:00"));
+        AvailabilityIndex index = AvailabilityIndex.build(List.of(servicePoint(1, first), servicePoint(2, second)));
+
+        assertSame(second, index.find("D1", MONDAY, "09:00").availability());
+        assertSame(first, index.find("D1", MONDAY, "10:00").availability());
+        assertSame(first, index.find("D1", MONDAY, "14:00").availability());
+        assertSame(second, index.find("D1", MONDAY, "14:01").availability());
+    }
+
+    @Test
+    @DisplayName("Should list every drone available at an instant with its service point")
+    void testAvailableAt() {
+        AvailabilityIndex index = AvailabilityIndex.build(List.of(
+                servicePoint(1,
+                        listing("D1", slot("MONDAY", "08:00", "12:00")),
+                        listing("D2", slot("MONDAY", "13:00", "17:00"))),
+                servicePoint(2, listing("D3", slot("MONDAY", "00:00", "23:59")))
+        ));
+
+        List<AvailabilityIndex.Slot> morning = index.availableAt(AvailabilityIndex.TimeOfWeek.parse(MONDAY, "09:30"));
+        assertEquals(List.of("D1", "D3"), morning.stream().map(AvailabilityIndex.Slot::droneId).toList());
+        assertEquals(List.of(1, 2), morning.stream().map(AvailabilityIndex.Slot::servicePointId).toList());
+
+        assertEquals(List.of("D1", "D3"), droneIds(index, MONDAY, "12:00"));
+        assertEquals(List.of("D3"), droneIds(index, MONDAY, "12:30"));
+        assertEquals(List.of("D2", "D3"), droneIds(index, MONDAY, "13:00"));
+        assertEquals(List.of("D3"), droneIds(index, MONDAY, "23:59"));
+        assertTrue(droneIds(index, TUESDAY, "09:30").isEmpty());
+        assertTrue(index.availableAt(null).isEmpty());
+    }
+
+    // ==================== Malformed Input Tests ====================
+
+    @Test
+    @DisplayName("Malformed slots should be skipped and unparsable orders never match")
+    void testMalformedInput() {
+        AvailabilityIndex index = AvailabilityIndex.build(List.of(
+                servicePoint(1, listing("D1",
+                        slot("FUNDAY", "08:00", "12:00"),
+                        slot("MONDAY", "noon", "13:00"),
+                        slot("MONDAY", null, "13:00"),
+                        slot("MONDAY", "15:00", "14:00"),
+                        slot("monday", "16:00", "18:00")),
+                        new DroneForServicePoint.DroneAvailability("D2", null),
+                        new DroneForServicePoint.DroneAvailability(null, List.of(slot("MONDAY", "00:00", "23:59"))))
+        ));
+
+        assertNull(index.find("D1", MONDAY, "10:00"));
+        assertNull(index.find("D1", MONDAY, "14:30"));
+        assertNotNull(index.find("D1", MONDAY, "17:00"));
+        assertNull(index.find("D1", MONDAY, "5pm"));
+        assertNull(index.find("D1", "20/01/2025", "17:00"));
+        assertNull(index.find("D1", null, "17:00"));
+        assertNull(index.find("D2", MONDAY, "17:00"));
+        assertNull(AvailabilityIndex.build(null).find("D1", MONDAY, "17:00"));
+    }
+
+    // ==================== Parity Tests ====================
+
+    @Test
+    @DisplayName("Should agree with a linear scan over random snapshots")
+    void testParityWithLinearScan() {
+        Random random = new Random(20250120L);
+        String[] days = {"MONDAY", "TUESDAY", "WEDNESDAY"};
+
+        for (int round = 0; round < 20; round++) {
+            List<DroneForServicePoint> snapshot = new ArrayList<>();
+            for (int sp = 1; sp <= 3; sp++) {
+                List<DroneForServicePoint.DroneAvailability> drones = new ArrayList<>();
+                for (int d = 1; d <= 6; d++) {
+                    if (random.nextInt(3) == 0) continue;
+                    List<DroneForServicePoint.DroneAvailability.Availability> slots = new ArrayList<>();
+                    for (int s = random.nextInt(4); s > 0; s--) {
+                        int from = random.nextInt(48) * 30;
+                        int until = Math.min(1439, from + random.nextInt(8) * 30);
+                        slots.add(slot(days[random.nextInt(days.length)], time(from), time(until)));
+                    }
+                    drones.add(new DroneForServicePoint.DroneAvailability("D" + d, slots));
+                }
+                snapshot.add(new DroneForServicePoint(sp, drones));
+            }
+            AvailabilityIndex index = AvailabilityIndex.build(snapshot);
+
+            for (int query = 0; query < 200; query++) {
+                String droneId = "D" + (1 + random.nextInt(6));
+                String date = LocalDate.parse(MONDAY).plusDays(random.nextInt(3)).toString();
+                String time = time(random.nextInt(1440));
+
+                AvailabilityIndex.Slot slot = index.find(droneId, date, time);
+                DroneForServicePoint.DroneAvailability expected = linearScan(droneId, date, time, snapshot);
+                assertSame(expected, slot == null ? null : slot.availability(),
+                        droneId + " at " + date + " " + time);
+
+                List<AvailabilityIndex.Slot> available = new ArrayList<>();
+                for (int d = 1; d <= 6; d++) {
+                    AvailabilityIndex.Slot found = index.find("D" + d, date, time);
+                    if (found != null) {
+                        available.add(found);
+                    }
+                }
+                available.sort(Comparator.comparing(AvailabilityIndex.Slot::droneId));
+                List<AvailabilityIndex.Slot> indexed = new ArrayList<>(
+                        index.availableAt(AvailabilityIndex.TimeOfWeek.parse(date, time)));
+                indexed.sort(Comparator.comparing(AvailabilityIndex.Slot::droneId));
+                assertEquals(available, indexed, "available at " + date + " " + time);
+            }
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private static List<String> droneIds(AvailabilityIndex index, String date, String time) {
+        return index.availableAt(AvailabilityIndex.TimeOfWeek.parse(date, time)).stream()
+                .map(AvailabilityIndex.Slot::droneId)
+                .toList();
+    }
+
+    /**
+     * The lookup the index replaces: first listing, in snapshot order, with a slot covering the instant.
+     */
+    private static DroneForServicePoint.DroneAvailability linearScan(String droneId, String date, String time,
+                                                                     List<DroneForServicePoint> snapshot) {
+        DayOfWeek day = LocalDate.parse(date).getDayOfWeek();
+        LocalTime at = LocalTime.parse(time);
+        for (DroneForServicePoint sp : snapshot) {
+            for (DroneForServicePoint.DroneAvailability da : sp.drones()) {
+                if (!da.id().equals(droneId)) continue;
+                for (DroneForServicePoint.DroneAvailability.Availability slot : da.availability()) {
+                    if (DayOfWeek.valueOf(slot.dayOfWeek()) == day
+                            && !at.isBefore(LocalTime.parse(slot.from()))
+                            && !at.isAfter(LocalTime.parse(slot.until()))) {
+                        return da;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String time(int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60).toString();
+    }
+
+    private static DroneForServicePoint servicePoint(int id, DroneForServicePoint.DroneAvailability... drones) {
+        return new DroneForServicePoint(id, Arrays.asList(drones));
+    }
+
+    private static DroneForServicePoint.DroneAvailability listing(
+            String id, DroneForServicePoint.DroneAvailability.Availability... slots) {
+        return new DroneForServicePoint.DroneAvailability(id, Arrays.asList(slots));
+    }
+
+    private static DroneForServicePoint.DroneAvailability.Availability slot(String day, String from, String until) {
+        return new DroneForServicePoint.DroneAvailability.Availability(day, from, until);
+    }
+}
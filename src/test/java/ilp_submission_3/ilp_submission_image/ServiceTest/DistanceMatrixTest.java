@@ -0,0 +1,151 @@
+package ilp_submission_3.ilp_submission_image.ServiceTest;
+
+import ilp_submission_3.ilp_submission_image.Service.DistanceMatrix;
+import ilp_submission_3.ilp_submission_image.Service.FastILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceInterface;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DistanceMatrix
+ * Coverage areas:
+ * - Agreement with the geometry service for every pair
+ * - Numbering of duplicate, missing and unknown positions
+ * - Parallel and untabulated builds
+ */
+class DistanceMatrixTest {
+
+    private final ILPServiceInterface geometry = new ILPServiceImpl();
+
+    // ==================== Table Tests ====================
+
+    @Test
+    @DisplayName("Every pair should match the geometry service exactly")
+    void testMatchesGeometry() {
+        List<Position> positions = randomPositions(40, 1L);
+        DistanceMatrix matrix = DistanceMatrix.build(positions, geometry, null);
+
+        assertEquals(40, matrix.size());
+        for (Position from : positions) {
+            for (Position to : positions) {
+                assertEquals(geometry.distance(from, to),
+                        matrix.distance(matrix.indexOf(from), matrix.indexOf(to)));
+                assertEquals(geometry.distance(from, to), matrix.distance(from, to));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute each pair once when building and none when looking up")
+    void testComputesEachPairOnce() {
+        CountingGeometry counting = new CountingGeometry();
+        List<Position> positions = randomPositions(30, 2L);
+        DistanceMatrix matrix = DistanceMatrix.build(positions, counting, null);
+
+        assertEquals(30 * 29 / 2, counting.calls.get());
+        for (int i = 0; i < matrix.size(); i++) {
+            assertEquals(0.0, matrix.distance(i, i));
+            for (int j = 0; j < matrix.size(); j++) {
+                assertEquals(matrix.distance(i, j), matrix.distance(j, i));
+            }
+        }
+        assertEquals(30 * 29 / 2, counting.calls.get());
+    }
+
+    // ==================== Numbering Tests ====================
+
+    @Test
+    @DisplayName("Should number equal positions once and skip incomplete ones")
+    void testDuplicatesAndMissingCoordinates() {
+        Position a = new Position(-3.186874, 55.944494);
+        Position b = new Position(-3.192473, 55.946233);
+        DistanceMatrix matrix = DistanceMatrix.build(Arrays.asList(
+                a, null, new Position(null, 55.9), b, new Position(-3.186874, 55.944494)
+        ), geometry, null);
+
+        assertEquals(2, matrix.size());
+        assertEquals(0, matrix.indexOf(a));
+        assertEquals(1, matrix.indexOf(b));
+        assertEquals(a, matrix.position(0));
+        assertEquals(-1, matrix.indexOf(null));
+    }
+
+    @Test
+    @DisplayName("Should compute distances to positions outside the table on demand")
+    void testUnknownPositions() {
+        Position a = new Position(-3.186874, 55.944494);
+        Position outside = new Position(-3.17, 55.95);
+        DistanceMatrix matrix = DistanceMatrix.build(List.of(a), geometry, null);
+
+        assertEquals(-1, matrix.indexOf(outside));
+        assertEquals(geometry.distance(a, outside), matrix.distance(a, outside));
+    }
+
+    // ==================== Build Mode Tests ====================
+
+    @Test
+    @DisplayName("A parallel build should equal a sequential one")
+    void testParallelBuild() {
+        ILPServiceInterface fast = new FastILPServiceImpl();
+        List<Position> positions = randomPositions(600, 3L);
+        DistanceMatrix sequential = DistanceMatrix.build(positions, fast, null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            DistanceMatrix parallel = DistanceMatrix.build(positions, fast, pool);
+            for (int i = 0; i < positions.size(); i++) {
+                for (int j = 0; j < positions.size(); j++) {
+                    assertEquals(sequential.distance(i, j), parallel.distance(i, j));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Requests too large to tabulate should compute distances when asked")
+    void testUntabulatedBuild() {
+        CountingGeometry counting = new CountingGeometry();
+        List<Position> positions = randomPositions(2100, 4L);
+        DistanceMatrix matrix = DistanceMatrix.build(positions, counting, null);
+
+        assertEquals(2100, matrix.size());
+        assertEquals(0, counting.calls.get());
+        assertEquals(new FastILPServiceImpl().distance(positions.get(5), positions.get(2000)),
+                matrix.distance(5, 2000));
+        assertEquals(0.0, matrix.distance(7, 7));
+        assertEquals(1, counting.calls.get());
+    }
+
+    // ==================== Helper Methods ====================
+
+    private static List<Position> randomPositions(int count, long seed) {
+        Random random = new Random(seed);
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            positions.add(new Position(-3.20 + random.nextDouble() * 0.04, 55.94 + random.nextDouble() * 0.02));
+        }
+        return positions;
+    }
+
+    private static final class CountingGeometry extends FastILPServiceImpl {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public double distance(Position p1, Position p2) {
+            calls.incrementAndGet();
+            return super.distance(p1, p2);
+        }
+    }
+}
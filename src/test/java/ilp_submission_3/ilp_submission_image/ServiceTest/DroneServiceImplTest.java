@@ -29,6 +29,7 @@ import static org.mockito.Mockito.*;
  * - Availability checks (date/time/day of week)
  * - Capacity and capability matching
  * - Service point operations
+ * - Remote call counts for availability queries
  * - Edge cases and boundary conditions
  */
 class DroneServiceImplTest {
@@ -579,6 +580,61 @@ class DroneServiceImplTest {
         );
     }
 
+    // ==================== Remote Call Count Tests ====================
+
+    @ParameterizedTest
+    @CsvSource({"1, 1", "10, 5", "50, 20", "200, 60"})
+    @DisplayName("Availability query with maxCost should make a constant number of remote calls")
+    void testQueryAvailableDrones_RemoteCallsIndependentOfSize(int fleetSize, int dispatchCount) {
+        Drone[] drones = new Drone[fleetSize];
+        List<DroneForServicePoint.DroneAvailability> availabilities = new ArrayList<>();
+        for (int i = 0; i < fleetSize; i++) {
+            drones[i] = new Drone("Drone" + i, "drone" + i,
+                    new Drone.Capability(true, false, 10.0, 1000, 0.01, 1.0, 1.0));
+            availabilities.add(new DroneForServicePoint.DroneAvailability("drone" + i, Arrays.asList(
+                    new DroneForServicePoint.DroneAvailability.Availability("MONDAY", "00:00", "23:59"))));
+        }
+        when(restTemplate.getForObject(BASE_URL + "/drones", Drone[].class)).thenReturn(drones);
+        when(restTemplate.getForObject(BASE_URL + "/drones-for-service-points", DroneForServicePoint[].class))
+                .thenReturn(new DroneForServicePoint[]{new DroneForServicePoint(1, availabilities)});
+        when(restTemplate.getForObject(BASE_URL + "/service-points", DroneServicePoint[].class))
+                .thenReturn(createSampleLocationArray());
+        when(ilpService.distance(any(), any())).thenReturn(0.001);
+
+        List<MedDispatchRec> dispatches = new ArrayList<>();
+        for (int i = 0; i < dispatchCount; i++) {
+            dispatches.add(new MedDispatchRec(i, "2025-01-20", "10:00",
+                    new MedDispatchRec.Requirements(1.0, false, false, 100.0),
+                    new Position(-3.186, 55.944)));
+        }
+
+        List<String> result = droneService.queryAvailableDrones(dispatches);
+
+        assertEquals(fleetSize, result.size());
+        verify(ilpService, times(fleetSize * dispatchCount)).distance(any(), any());
+        verify(restTemplate, times(1)).getForObject(BASE_URL + "/drones", Drone[].class);
+        verify(restTemplate, times(1)).getForObject(BASE_URL + "/drones-for-service-points", DroneForServicePoint[].class);
+        verify(restTemplate, times(1)).getForObject(BASE_URL + "/service-points", DroneServicePoint[].class);
+        assertEquals(3, mockingDetails(restTemplate).getInvocations().size());
+    }
+
+    @Test
+    @DisplayName("Availability query without maxCost should not fetch service point locations")
+    void testQueryAvailableDrones_NoMaxCostSkipsLocations() {
+        setupMocksForAvailabilityTests();
+
+        List<MedDispatchRec> dispatches = Arrays.asList(
+                new MedDispatchRec(1, "2025-01-20", "10:00",
+                        new MedDispatchRec.Requirements(2.0, true, false, null),
+                        new Position(-3.186, 55.944))
+        );
+
+        List<String> result = droneService.queryAvailableDrones(dispatches);
+
+        assertEquals(Arrays.asList("drone1"), result);
+        verify(restTemplate, never()).getForObject(BASE_URL + "/service-points", DroneServicePoint[].class);
+    }
+
     // ==================== Helper Methods ====================
 
     private Drone[] createSampleDroneArray() {
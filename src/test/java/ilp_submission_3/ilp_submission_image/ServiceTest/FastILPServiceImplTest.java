@@ -0,0 +1,207 @@
+package ilp_submission_3.ilp_submission_image.ServiceTest;
+
+import ilp_submission_3.ilp_submission_image.Service.FastILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceInterface;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parity tests between FastILPServiceImpl (double) and ILPServiceImpl (BigDecimal)
+ * Coverage areas:
+ * - Distance within the documented error bound
+ * - nextPosition within two ulps per coordinate
+ * - nextPositions consistent with nextPosition
+ * - isClose and isInRegion agreement away from the boundary band
+ * - Border and vertex handling in isInRegion
+ * - Bean selection through ilp.geometry.mode
+ */
+class FastILPServiceImplTest {
+
+    private static final double MOVE_STEP = 0.00015;
+    private static final double[] ANGLES = {
+            0.0, 22.5, 45.0, 67.5, 90.0, 112.5, 135.0, 157.5,
+            180.0, 202.5, 225.0, 247.5, 270.0, 292.5, 315.0, 337.5
+    };
+
+    private final ILPServiceInterface exact = new ILPServiceImpl();
+    private final ILPServiceInterface fast = new FastILPServiceImpl();
+    private final Random random = new Random(20251016L);
+
+    private final List<Position> georgeSquare = Arrays.asList(
+            new Position(-3.192473, 55.946233),
+            new Position(-3.192473, 55.942617),
+            new Position(-3.184319, 55.942617),
+            new Position(-3.184319, 55.946233),
+            new Position(-3.192473, 55.946233)
+    );
+
+    private final List<Position> concaveArea = Arrays.asList(
+            new Position(-3.190, 55.940),
+            new Position(-3.180, 55.940),
+            new Position(-3.180, 55.950),
+            new Position(-3.185, 55.945),
+            new Position(-3.190, 55.950),
+            new Position(-3.190, 55.940)
+    );
+
+    @Test
+    @DisplayName("Distance should agree within the documented error bound")
+    void testDistanceParity() {
+        for (int i = 0; i < 10_000; i++) {
+            Position p1 = randomEdinburghPosition();
+            Position p2 = randomEdinburghPosition();
+
+            double expected = exact.distance(p1, p2);
+            double actual = fast.distance(p1, p2);
+
+            assertEquals(expected, actual, distanceBound(expected, p1, p2),
+                    "Distance mismatch for " + p1 + " and " + p2);
+        }
+    }
+
+    @Test
+    @DisplayName("Distance should agree across the whole coordinate range")
+    void testDistanceParityWorldwide() {
+        for (int i = 0; i < 10_000; i++) {
+            Position p1 = new Position(random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90);
+            Position p2 = new Position(random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90);
+
+            double expected = exact.distance(p1, p2);
+            assertEquals(expected, fast.distance(p1, p2), distanceBound(expected, p1, p2));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.0, 22.5, 45.0, 67.5, 90.0, 112.5, 135.0, 157.5,
+            180.0, 202.5, 225.0, 247.5, 270.0, 292.5, 315.0, 337.5})
+    @DisplayName("nextPosition should agree within two ulps for every compass direction")
+    void testNextPositionParity(double angle) {
+        for (int i = 0; i < 1_000; i++) {
+            Position start = randomEdinburghPosition();
+
+            Position expected = exact.nextPosition(start, angle);
+            Position actual = fast.nextPosition(start, angle);
+
+            assertEquals(expected.lng(), actual.lng(), 2 * Math.ulp(expected.lng()));
+            assertEquals(expected.lat(), actual.lat(), 2 * Math.ulp(expected.lat()));
+        }
+    }
+
+    @Test
+    @DisplayName("nextPositions should agree with nextPosition in both implementations")
+    void testNextPositionsParity() {
+        for (int i = 0; i < 1_000; i++) {
+            Position start = randomEdinburghPosition();
+
+            List<Position> exactNeighbours = exact.nextPositions(start);
+            List<Position> fastNeighbours = fast.nextPositions(start);
+
+            for (int k = 0; k < ANGLES.length; k++) {
+                assertEquals(exact.nextPosition(start, ANGLES[k]), exactNeighbours.get(k));
+                assertEquals(fast.nextPosition(start, ANGLES[k]), fastNeighbours.get(k));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("isClose should agree outside the rounding band around the threshold")
+    void testIsCloseParity() {
+        for (int i = 0; i < 10_000; i++) {
+            Position p1 = randomEdinburghPosition();
+            double angle = ANGLES[random.nextInt(ANGLES.length)];
+            double radius = MOVE_STEP * (0.5 + random.nextDouble());
+            double rad = Math.toRadians(angle);
+            Position p2 = new Position(p1.lng() + radius * Math.cos(rad), p1.lat() + radius * Math.sin(rad));
+
+            double d = exact.distance(p1, p2);
+            if (Math.abs(d - MOVE_STEP) < MOVE_STEP * 1e-12) {
+                continue;
+            }
+            assertEquals(exact.isClose(p1, p2), fast.isClose(p1, p2));
+        }
+    }
+
+    @Test
+    @DisplayName("isInRegion should agree for random points around convex and concave polygons")
+    void testIsInRegionParity() {
+        for (List<Position> polygon : List.of(georgeSquare, concaveArea)) {
+            for (int i = 0; i < 5_000; i++) {
+                Position point = new Position(
+                        -3.195 + random.nextDouble() * 0.016,
+                        55.938 + random.nextDouble() * 0.014
+                );
+                assertEquals(exact.isInRegion(point, polygon), fast.isInRegion(point, polygon),
+                        "Containment mismatch for " + point);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("isInRegion should treat vertices and edges as inside")
+    void testIsInRegionBorder() {
+        for (Position vertex : georgeSquare) {
+            assertTrue(fast.isInRegion(vertex, georgeSquare));
+        }
+        Position onEdge = new Position(-3.188, 55.946233);
+        Position justOutside = new Position(-3.188, 55.946300);
+
+        assertEquals(exact.isInRegion(onEdge, georgeSquare), fast.isInRegion(onEdge, georgeSquare));
+        assertTrue(fast.isInRegion(onEdge, georgeSquare));
+        assertFalse(fast.isInRegion(justOutside, georgeSquare));
+    }
+
+    @Test
+    @DisplayName("Chained moves should not drift apart over a long flight")
+    void testNextPositionChainParity() {
+        Position exactPos = new Position(-3.186874, 55.944494);
+        Position fastPos = exactPos;
+        for (int i = 0; i < 2_000; i++) {
+            double angle = ANGLES[random.nextInt(ANGLES.length)];
+            exactPos = exact.nextPosition(exactPos, angle);
+            fastPos = fast.nextPosition(fastPos, angle);
+        }
+
+        assertEquals(exactPos.lng(), fastPos.lng(), 1e-11);
+        assertEquals(exactPos.lat(), fastPos.lat(), 1e-11);
+    }
+
+    @Test
+    @DisplayName("ilp.geometry.mode should select exactly one implementation")
+    void testGeometryModeSelection() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withUserConfiguration(ILPServiceImpl.class, FastILPServiceImpl.class);
+
+        runner.run(context -> assertInstanceOf(ILPServiceImpl.class,
+                context.getBean(ILPServiceInterface.class)));
+        runner.withPropertyValues("ilp.geometry.mode=double").run(context -> assertInstanceOf(
+                FastILPServiceImpl.class, context.getBean(ILPServiceInterface.class)));
+        runner.withPropertyValues("ilp.geometry.mode=bigdecimal").run(context -> assertInstanceOf(
+                ILPServiceImpl.class, context.getBean(ILPServiceInterface.class)));
+    }
+
+    /**
+     * Documented bound: relative 1e-15 plus two ulps of the largest coordinate.
+     */
+    private static double distanceBound(double distance, Position p1, Position p2) {
+        double magnitude = Math.max(
+                Math.max(Math.abs(p1.lng()), Math.abs(p2.lng())),
+                Math.max(Math.abs(p1.lat()), Math.abs(p2.lat()))
+        );
+        return distance * 1e-15 + 2 * Math.ulp(magnitude);
+    }
+
+    private Position randomEdinburghPosition() {
+        return new Position(-3.20 + random.nextDouble() * 0.03, 55.93 + random.nextDouble() * 0.02);
+    }
+}
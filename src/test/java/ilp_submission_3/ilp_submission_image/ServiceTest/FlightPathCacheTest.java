@@ -0,0 +1,221 @@
+package ilp_submission_3.ilp_submission_image.ServiceTest;
+
+import ilp_submission_3.ilp_submission_image.Configuration.ILPEndpointProvider;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerExecutors;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerProperties;
+import ilp_submission_3.ilp_submission_image.Pathfinding.PathfindingEngine;
+import ilp_submission_3.ilp_submission_image.Pathfinding.RestrictedAreaIndex;
+import ilp_submission_3.ilp_submission_image.Service.DroneService;
+import ilp_submission_3.ilp_submission_image.Service.FlightPathCache;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.PathPlanningServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ReferenceDataCache;
+import ilp_submission_3.ilp_submission_image.WebSocket.PathfindingProgressHandler;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for FlightPathCache
+ * Coverage areas:
+ * - Hits on snapped endpoints and misses across engines
+ * - LRU eviction and memory estimate
+ * - Invalidation when the restricted areas change
+ * - Restricted area fingerprints
+ * - PathPlanningServiceImpl integration
+ */
+class FlightPathCacheTest {
+
+    private static final Position FROM = new Position(-3.1869, 55.9445);
+    private static final Position TO = new Position(-3.1860, 55.9450);
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    private final List<Position> buildingVertices = Arrays.asList(
+            new Position(-3.1880, 55.9440),
+            new Position(-3.1860, 55.9440),
+            new Position(-3.1860, 55.9460),
+            new Position(-3.1880, 55.9460),
+            new Position(-3.1880, 55.9440)
+    );
+
+    // ==================== Lookup Tests ====================
+
+    @Test
+    @DisplayName("Should search once and return equal fresh copies afterwards")
+    void testHitReturnsCopy() {
+        FlightPathCache cache = new FlightPathCache(16);
+
+        List<Position> first = cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+        List<Position> second = cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+        second.add(TO);
+        List<Position> third = cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+
+        assertEquals(1, searches.get());
+        assertEquals(first, third);
+        assertNotSame(first, third);
+    }
+
+    @Test
+    @DisplayName("Endpoints within the snap resolution should share an entry starting at the requested position")
+    void testSnappedEndpoints() {
+        FlightPathCache cache = new FlightPathCache(16);
+        Position nearlyFrom = new Position(FROM.lng() + 2e-10, FROM.lat());
+
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+        List<Position> path = cache.get(PathfindingEngine.LATTICE, 1L, nearlyFrom, TO, this::search);
+
+        assertEquals(1, searches.get());
+        assertEquals(nearlyFrom, path.get(0));
+    }
+
+    @Test
+    @DisplayName("Different engines and endpoints should not share entries")
+    void testDistinctKeys() {
+        FlightPathCache cache = new FlightPathCache(16);
+
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+        cache.get(PathfindingEngine.LEGACY, 1L, FROM, TO, this::search);
+        cache.get(PathfindingEngine.LATTICE, 1L, TO, FROM, this::search);
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    @DisplayName("Failed searches should be cached as empty paths")
+    void testEmptyPathCached() {
+        FlightPathCache cache = new FlightPathCache(16);
+
+        List<Position> first = cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::failedSearch);
+        List<Position> second = cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::failedSearch);
+
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        assertEquals(1, searches.get());
+    }
+
+    @Test
+    @DisplayName("Disabled cache should run every search")
+    void testDisabled() {
+        FlightPathCache cache = FlightPathCache.disabled();
+
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+
+        assertEquals(2, searches.get());
+        assertEquals(false, cache.getMetrics().get("enabled"));
+    }
+
+    // ==================== Eviction and Invalidation Tests ====================
+
+    @Test
+    @DisplayName("Should evict the least recently used entry and track its footprint")
+    void testLruEviction() {
+        FlightPathCache cache = new FlightPathCache(2);
+        Position other = new Position(-3.1800, 55.9400);
+        Position third = new Position(-3.1700, 55.9300);
+
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, other, this::search);
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, third, this::search);
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, other, this::search);
+
+        Map<String, Object> metrics = cache.getMetrics();
+        assertEquals(4, searches.get());
+        assertEquals(2, metrics.get("entries"));
+        assertEquals(2L, metrics.get("evictions"));
+        assertEquals(2L, metrics.get("hits"));
+        assertTrue((Long) metrics.get("estimatedBytes") > 0);
+
+        cache.invalidateAll();
+        assertEquals(0L, cache.getMetrics().get("estimatedBytes"));
+    }
+
+    @Test
+    @DisplayName("A new restricted area fingerprint should drop all cached paths")
+    void testFingerprintChangeInvalidates() {
+        FlightPathCache cache = new FlightPathCache(16);
+
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+        cache.get(PathfindingEngine.LATTICE, 2L, FROM, TO, this::search);
+        cache.get(PathfindingEngine.LATTICE, 1L, FROM, TO, this::search);
+
+        assertEquals(3, searches.get());
+        assertEquals(2L, cache.getMetrics().get("invalidations"));
+        assertEquals(1, cache.getMetrics().get("entries"));
+    }
+
+    @Test
+    @DisplayName("Fingerprints should depend on geometry, not on list identity")
+    void testRestrictedAreaFingerprint() {
+        RestrictedArea building = new RestrictedArea("Building", 1,
+                new RestrictedArea.Limits(0.0, 0.0), buildingVertices);
+        List<Position> moved = new ArrayList<>(buildingVertices);
+        moved.set(2, new Position(-3.1859, 55.9460));
+        RestrictedArea movedBuilding = new RestrictedArea("Building", 1,
+                new RestrictedArea.Limits(0.0, 0.0), moved);
+
+        long original = RestrictedAreaIndex.build(List.of(building)).fingerprint();
+
+        assertEquals(original, RestrictedAreaIndex.build(new ArrayList<>(List.of(building))).fingerprint());
+        assertNotEquals(original, RestrictedAreaIndex.build(List.of(movedBuilding)).fingerprint());
+        assertNotEquals(original, RestrictedAreaIndex.build(List.of()).fingerprint());
+    }
+
+    // ==================== Planner Integration Tests ====================
+
+    @Test
+    @DisplayName("Planner should reuse cached segments and re-plan when the no-fly zones change")
+    void testPlannerIntegration() {
+        FlightPathCache cache = new FlightPathCache(16);
+        PathPlanningServiceImpl planner = new PathPlanningServiceImpl(
+                mock(RestTemplate.class),
+                mock(ILPEndpointProvider.class),
+                new ILPServiceImpl(),
+                mock(DroneService.class),
+                mock(PathfindingProgressHandler.class),
+                new PlannerProperties(),
+                ReferenceDataCache.passThrough(),
+                PlannerExecutors.sequential(),
+                cache
+        );
+        Position from = new Position(-3.1900, 55.9450);
+        Position to = new Position(-3.1840, 55.9452);
+        RestrictedArea building = new RestrictedArea("Building", 1,
+                new RestrictedArea.Limits(0.0, 0.0), buildingVertices);
+
+        List<Position> open = planner.calculateFlightPath(from, to, new ArrayList<>());
+        List<Position> openAgain = planner.calculateFlightPath(from, to, new ArrayList<>());
+        List<Position> blocked = planner.calculateFlightPath(from, to, List.of(building));
+        List<Position> blockedAgain = planner.calculateFlightPath(from, to, new ArrayList<>(List.of(building)));
+
+        assertEquals(open, openAgain);
+        assertEquals(blocked, blockedAgain);
+        assertTrue(blocked.size() > open.size());
+        assertEquals(2L, cache.getMetrics().get("hits"));
+        assertEquals(2L, cache.getMetrics().get("misses"));
+    }
+
+    private List<Position> search() {
+        searches.incrementAndGet();
+        return new ArrayList<>(List.of(FROM, new Position(-3.18675, 55.9445), TO));
+    }
+
+    private List<Position> failedSearch() {
+        searches.incrementAndGet();
+        return new ArrayList<>();
+    }
+}
@@ -18,7 +18,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * - Distance calculations
  * - Proximity checks (isClose)
  * - Region containment checks (isInRegion)
- * - Position calculations (nextPosition)
+ * - Position calculations (nextPosition, nextPositions)
  * - Edge cases and boundary conditions
  */
 class ILPServiceImplTest {
@@ -448,4 +448,31 @@ class ILPServiceImplTest {
                     "Move at angle " + angle + " should be exactly 0.00015 degrees");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("NextPosition off the compass grid should still move 0.00015")
+    void testNextPositionNonCompassAngle() {
+        Position start = new Position(-3.192473, 55.946233);
+        Position next = ilpService.nextPosition(start, 10.0);
+
+        double rad = Math.toRadians(10.0);
+        assertEquals(-3.192473 + 0.00015 * Math.cos(rad), next.lng(), 1e-12);
+        assertEquals(55.946233 + 0.00015 * Math.sin(rad), next.lat(), 1e-12);
+    }
+
+    // ==================== NextPositions Tests ====================
+
+    @Test
+    @DisplayName("NextPositions should match nextPosition for every compass direction")
+    void testNextPositionsMatchesNextPosition() {
+        Position start = new Position(-3.186874, 55.944494);
+
+        List<Position> neighbours = ilpService.nextPositions(start);
+
+        assertEquals(16, neighbours.size());
+        for (int k = 0; k < 16; k++) {
+            assertEquals(ilpService.nextPosition(start, k * 22.5), neighbours.get(k),
+                    "Neighbour " + k + " should be the move at " + (k * 22.5) + " degrees");
+        }
+    }
+}
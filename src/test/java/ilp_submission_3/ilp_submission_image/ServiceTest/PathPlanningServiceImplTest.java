@@ -2,24 +2,42 @@ package ilp_submission_3.ilp_submission_image.ServiceTest;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_3.ilp_submission_image.Configuration.CandidateSelection;
 import ilp_submission_3.ilp_submission_image.Configuration.ILPEndpointProvider;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerExecutors;
+import ilp_submission_3.ilp_submission_image.Configuration.PlannerProperties;
+import ilp_submission_3.ilp_submission_image.Configuration.ProgressMode;
+import ilp_submission_3.ilp_submission_image.Pathfinding.PathfindingEngine;
 import ilp_submission_3.ilp_submission_image.Service.DroneService;
+import ilp_submission_3.ilp_submission_image.Service.FastILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.FlightPathCache;
 import ilp_submission_3.ilp_submission_image.Service.ILPServiceInterface;
 import ilp_submission_3.ilp_submission_image.Service.PathPlanningServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ReferenceDataCache;
 import ilp_submission_3.ilp_submission_image.WebSocket.PathfindingProgressHandler;
+import ilp_submission_3.ilp_submission_image.WebSocket.ProgressSink;
 import ilp_submission_3.ilp_submission_image.dto.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.web.client.RestTemplate;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +52,9 @@ import static org.mockito.Mockito.*;
  * - Single vs multi-drone solutions
  * - Edge cases and boundary conditions
  * - GeoJSON generation
+ * - Concurrent strategy evaluation
+ * - Concurrent single-drone candidate evaluation
+ * - Progress sink modes and flight path cache hits
  */
 class PathPlanningServiceImplTest {
 
@@ -60,15 +81,9 @@ class PathPlanningServiceImplTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         when(endpointProvider.getEndpoint()).thenReturn(BASE_URL);
-        when(progressHandler.hasActiveConnections()).thenReturn(false);
+        when(progressHandler.hasSubscribers(any())).thenReturn(false);
 
-        pathPlanningService = new PathPlanningServiceImpl(
-                restTemplate,
-                endpointProvider,
-                ilpService,
-                droneService,
-                progressHandler
-        );
+        pathPlanningService = planner(ilpService, new PlannerProperties(), PlannerExecutors.sequential());
     }
 
     // ==================== Restricted Areas Tests ====================
@@ -169,69 +184,30 @@ class PathPlanningServiceImplTest {
         Position from = new Position(-3.190, 55.944);
         Position to = new Position(-3.180, 55.946);
 
-        List<Position> restrictedVertices = Arrays.asList(
-                new Position(-3.186, 55.944),
-                new Position(-3.184, 55.944),
-                new Position(-3.184, 55.946),
-                new Position(-3.186, 55.946),
-                new Position(-3.186, 55.944)
-        );
+        // The straight line from start to goal runs through the middle of this area
         RestrictedArea restricted = new RestrictedArea(
                 "Test Area",
                 1,
                 new RestrictedArea.Limits(0.0, 100.0),
-                restrictedVertices
+                Arrays.asList(
+                        new Position(-3.186, 55.944),
+                        new Position(-3.184, 55.944),
+                        new Position(-3.184, 55.946),
+                        new Position(-3.186, 55.946),
+                        new Position(-3.186, 55.944)
+                )
         );
+        ILPServiceInterface geometry = new FastILPServiceImpl();
+        PathPlanningServiceImpl service = planner(geometry, new PlannerProperties(), PlannerExecutors.sequential());
 
-        // Mock isClose: only return true when positions are actually very close
-        when(ilpService.isClose(any(), any())).thenAnswer(invocation -> {
-            Position p1 = invocation.getArgument(0);
-            Position p2 = invocation.getArgument(1);
-            double distance = Math.sqrt(
-                    Math.pow(p1.lng() - p2.lng(), 2) + Math.pow(p1.lat() - p2.lat(), 2)
-            );
-            return distance < 0.00015;
-        });
-
-        // Mock distance: calculate actual Euclidean distance
-        when(ilpService.distance(any(), any())).thenAnswer(invocation -> {
-            Position p1 = invocation.getArgument(0);
-            Position p2 = invocation.getArgument(1);
-            return Math.sqrt(
-                    Math.pow(p1.lng() - p2.lng(), 2) + Math.pow(p1.lat() - p2.lat(), 2)
-            );
-        });
-
-        // Mock isInRegion: simple point-in-rectangle check for the restricted area
-        when(ilpService.isInRegion(any(), eq(restrictedVertices))).thenAnswer(invocation -> {
-            Position point = invocation.getArgument(0);
-            // Check if point is inside the rectangle [-3.186, -3.184] x [55.944, 55.946]
-            return point.lng() >= -3.186 && point.lng() <= -3.184 &&
-                    point.lat() >= 55.944 && point.lat() <= 55.946;
-        });
+        List<Position> path = service.calculateFlightPath(from, to, Arrays.asList(restricted));
 
-        // Mock nextPosition: calculate next position based on angle
-        when(ilpService.nextPosition(any(), anyDouble())).thenAnswer(invocation -> {
-            Position start = invocation.getArgument(0);
-            Double angle = invocation.getArgument(1);
-            double rad = Math.toRadians(angle);
-            return new Position(
-                    start.lng() + 0.00015 * Math.cos(rad),
-                    start.lat() + 0.00015 * Math.sin(rad)
-            );
-        });
-
-        List<Position> path = pathPlanningService.calculateFlightPath(
-                from, to, Arrays.asList(restricted)
-        );
-
-        // Should find a path (even if it needs to go around the restricted area)
-        assertNotNull(path);
-        // If path is empty, it means no path was found (which is also a valid result to test)
-        // If path is not empty, verify it doesn't go through restricted area
-        if (!path.isEmpty()) {
-            assertTrue(path.size() >= 2);
-        }
+        assertFalse(path.isEmpty());
+        assertEquals(from, path.get(0));
+        assertTrue(geometry.isClose(path.get(path.size() - 1), to));
+        assertAvoids(geometry, path, restricted);
+        assertTrue(path.size() - 1 > Math.ceil(geometry.distance(from, to) / 0.00015),
+                "Path should detour around the area");
     }
 
     @Test
@@ -240,67 +216,20 @@ class PathPlanningServiceImplTest {
         Position from = new Position(-3.190, 55.944);
         Position to = new Position(-3.180, 55.946);
 
-        // Create a completely blocked scenario: all positions are in restricted area
-        List<Position> blockingVertices = Arrays.asList(
-                new Position(-3.200, 55.940),
-                new Position(-3.170, 55.940),
-                new Position(-3.170, 55.950),
-                new Position(-3.200, 55.950),
-                new Position(-3.200, 55.940)
-        );
-        RestrictedArea blockingArea = new RestrictedArea(
-                "Blocking Area",
-                1,
-                new RestrictedArea.Limits(0.0, 100.0),
-                blockingVertices
+        // Four bars closing a box around the start too small to make a single move in
+        List<RestrictedArea> walls = Arrays.asList(
+                box("North", 1, -3.1902, 55.9441, -3.1898, 55.9442),
+                box("South", 2, -3.1902, 55.9438, -3.1898, 55.9439),
+                box("East", 3, -3.1899, 55.9438, -3.1898, 55.9442),
+                box("West", 4, -3.1902, 55.9438, -3.1901, 55.9442)
         );
+        ILPServiceInterface geometry = new FastILPServiceImpl();
+        PathPlanningServiceImpl service = planner(geometry, new PlannerProperties(), PlannerExecutors.sequential());
 
-        // Mock isClose: only true when very close
-        when(ilpService.isClose(any(), any())).thenAnswer(invocation -> {
-            Position p1 = invocation.getArgument(0);
-            Position p2 = invocation.getArgument(1);
-            double distance = Math.sqrt(
-                    Math.pow(p1.lng() - p2.lng(), 2) + Math.pow(p1.lat() - p2.lat(), 2)
-            );
-            return distance < 0.00015;
-        });
-
-        // Mock distance: calculate actual distance
-        when(ilpService.distance(any(), any())).thenAnswer(invocation -> {
-            Position p1 = invocation.getArgument(0);
-            Position p2 = invocation.getArgument(1);
-            return Math.sqrt(
-                    Math.pow(p1.lng() - p2.lng(), 2) + Math.pow(p1.lat() - p2.lat(), 2)
-            );
-        });
-
-        // Mock isInRegion: all positions except start are blocked
-        when(ilpService.isInRegion(any(), eq(blockingVertices))).thenAnswer(invocation -> {
-            Position point = invocation.getArgument(0);
-            // Block everything except the exact starting position
-            return !point.equals(from);
-        });
-
-        // Mock nextPosition
-        when(ilpService.nextPosition(any(), anyDouble())).thenAnswer(invocation -> {
-            Position start = invocation.getArgument(0);
-            Double angle = invocation.getArgument(1);
-            double rad = Math.toRadians(angle);
-            return new Position(
-                    start.lng() + 0.00015 * Math.cos(rad),
-                    start.lat() + 0.00015 * Math.sin(rad)
-            );
-        });
-
-        List<Position> path = pathPlanningService.calculateFlightPath(
-                from, to, Arrays.asList(blockingArea)
-        );
+        List<Position> path = service.calculateFlightPath(from, to, walls);
 
-        // Should return empty path when unreachable
         assertNotNull(path);
-        // The path should be empty because destination is unreachable
-        assertTrue(path.isEmpty() || path.size() < 3,
-                "Path should be empty or very short when destination is unreachable");
+        assertTrue(path.isEmpty(), "No path should leave the walled-in start");
     }
 
     // ==================== Delivery Path Calculation Tests ====================
@@ -533,7 +462,7 @@ class PathPlanningServiceImplTest {
     @Test
     @DisplayName("Should handle WebSocket progress broadcasting when active")
     void testCalculateFlightPath_WithActiveWebSocket() {
-        when(progressHandler.hasActiveConnections()).thenReturn(true);
+        when(progressHandler.hasSubscribers(any())).thenReturn(true);
 
         Position from = new Position(-3.186874, 55.944494);
         Position to = new Position(-3.186000, 55.945000);
@@ -712,39 +641,20 @@ class PathPlanningServiceImplTest {
                         new MedDispatchRec.Requirements(1.0, false, false, 100.0),
                         new Position(-3.185, 55.945)) // Inside restricted area
         );
+        RestrictedArea restricted = box("Test Area", 1, -3.186, 55.944, -3.184, 55.946);
+        stubStrategyScenario(dispatches, 0.01, 0.01);
+        when(progressHandler.hasSubscribers(any())).thenReturn(true);
 
-        List<Position> restrictedVertices = Arrays.asList(
-                new Position(-3.186, 55.944),
-                new Position(-3.184, 55.944),
-                new Position(-3.184, 55.946),
-                new Position(-3.186, 55.946),
-                new Position(-3.186, 55.944)
-        );
-
-        RestrictedArea restricted = new RestrictedArea(
-                "Test Area", 1, new RestrictedArea.Limits(0.0, 100.0), restrictedVertices
-        );
+        DeliveryPathResponse open = strategyPlanner(false).calculateDeliveryPath(dispatches);
+        assertFalse(open.dronePaths().isEmpty(), "The delivery should be feasible without the area");
 
-        when(droneService.queryAvailableDrones(any())).thenReturn(new ArrayList<>());
-        when(droneService.queryAvailableDronesWithOr(any())).thenReturn(Arrays.asList("drone1"));
-        when(droneService.getAllDrones()).thenReturn(createSampleDrones());
-        when(droneService.getAllServicePoints()).thenReturn(createSampleDroneServicePoints());
-        when(droneService.getServicePointLocations()).thenReturn(createSampleServicePoints());
         when(restTemplate.getForObject(anyString(), eq(RestrictedArea[].class)))
                 .thenReturn(new RestrictedArea[]{restricted});
-
-        setupRealisticMocks();
-
-        // Mock isInRegion to return true for delivery position
-        when(ilpService.isInRegion(eq(new Position(-3.185, 55.945)), any()))
-                .thenReturn(true);
-
-        when(progressHandler.hasActiveConnections()).thenReturn(true);
-
-        DeliveryPathResponse response = pathPlanningService.calculateDeliveryPath(dispatches);
+        DeliveryPathResponse response = strategyPlanner(false).calculateDeliveryPath(dispatches);
 
         assertNotNull(response);
-        // Should fail or return empty due to delivery in restricted area
+        assertTrue(response.dronePaths().isEmpty());
+        assertEquals(0, response.totalMoves());
     }
 
     @Test
@@ -913,45 +823,33 @@ class PathPlanningServiceImplTest {
                         ))
         );
 
-        setupRealisticMocks();
+        ILPServiceInterface geometry = new FastILPServiceImpl();
+        PathPlanningServiceImpl service = planner(geometry, new PlannerProperties(), PlannerExecutors.sequential());
 
-        List<Position> path = pathPlanningService.calculateFlightPath(from, to, multipleAreas);
+        List<Position> path = service.calculateFlightPath(from, to, multipleAreas);
 
-        assertNotNull(path);
+        assertFalse(path.isEmpty());
+        assertTrue(geometry.isClose(path.get(path.size() - 1), to));
+        for (RestrictedArea area : multipleAreas) {
+            assertAvoids(geometry, path, area);
+        }
     }
 
     @Test
     @DisplayName("Should handle path through restricted area boundary")
     void testCalculateFlightPath_PathThroughBoundary() {
-        Position from = new Position(-3.190, 55.944);
+        // The straight line from start to goal runs along the area's northern edge
+        Position from = new Position(-3.190, 55.946);
         Position to = new Position(-3.180, 55.946);
+        RestrictedArea restricted = box("Test Area", 1, -3.186, 55.944, -3.184, 55.946);
+        ILPServiceInterface geometry = new FastILPServiceImpl();
+        PathPlanningServiceImpl service = planner(geometry, new PlannerProperties(), PlannerExecutors.sequential());
 
-        List<Position> restrictedVertices = Arrays.asList(
-                new Position(-3.186, 55.944),
-                new Position(-3.184, 55.944),
-                new Position(-3.184, 55.946),
-                new Position(-3.186, 55.946),
-                new Position(-3.186, 55.944)
-        );
-
-        RestrictedArea restricted = new RestrictedArea(
-                "Test Area", 1, new RestrictedArea.Limits(0.0, 100.0), restrictedVertices
-        );
-
-        setupRealisticMocks();
+        List<Position> path = service.calculateFlightPath(from, to, Arrays.asList(restricted));
 
-        // Mock line segment intersection to test path through boundary
-        when(ilpService.isInRegion(any(), eq(restrictedVertices))).thenAnswer(invocation -> {
-            Position point = invocation.getArgument(0);
-            return point.lng() >= -3.186 && point.lng() <= -3.184 &&
-                    point.lat() >= 55.944 && point.lat() <= 55.946;
-        });
-
-        List<Position> path = pathPlanningService.calculateFlightPath(
-                from, to, Arrays.asList(restricted)
-        );
-
-        assertNotNull(path);
+        assertFalse(path.isEmpty());
+        assertTrue(geometry.isClose(path.get(path.size() - 1), to));
+        assertAvoids(geometry, path, restricted);
     }
 
     @Test
@@ -1369,6 +1267,524 @@ class PathPlanningServiceImplTest {
         assertNotNull(response);
     }
 
+    // ==================== Parallel Strategy Tests ====================
+
+    @ParameterizedTest
+    @CsvSource({
+            "0.01, 0.05, 3",
+            "0.05, 0.01, 3",
+            "0.02, 0.02, 6",
+            "0.10, 0.01, 8"
+    })
+    @DisplayName("Parallel strategies should choose the same solution as a sequential run")
+    void testCalculateDeliveryPath_ParallelMatchesSequential(double costPerMove1, double costPerMove2,
+                                                             int dispatchCount) {
+        List<MedDispatchRec> dispatches = createSampleDispatches(dispatchCount);
+        stubStrategyScenario(dispatches, costPerMove1, costPerMove2);
+
+        PathPlanningServiceImpl sequential = strategyPlanner(false);
+        PlannerExecutors executors = new PlannerExecutors(new PlannerProperties());
+        try {
+            PathPlanningServiceImpl parallel = strategyPlanner(true, executors);
+            DeliveryPathResponse expected = sequential.calculateDeliveryPath(dispatches);
+
+            assertNotNull(expected);
+            for (int i = 0; i < 20; i++) {
+                assertEquals(expected, parallel.calculateDeliveryPath(dispatches), "Run " + i);
+            }
+        } finally {
+            executors.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A multi-drone cost just under the straight-line bound should not cut the single-drone search short")
+    void testCalculateDeliveryPath_ParallelMatchesSequentialNearBound() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(1);
+        Position delivery = dispatches.get(0).delivery();
+        double nearest = Double.POSITIVE_INFINITY;
+        for (DroneServicePoint sp : createSampleServicePoints()) {
+            nearest = Math.min(nearest, Math.hypot(sp.location().lng() - delivery.lng(),
+                    sp.location().lat() - delivery.lat()));
+        }
+        // One cost unit per move for the single drone; a flat fee for the multi drone that
+        // lies between the straight-line round trip and that trip less three moves
+        double straightLineMoves = 2.0 * nearest / 0.00015;
+        double flatFee = straightLineMoves - 1.5;
+
+        when(droneService.queryAvailableDrones(dispatches)).thenReturn(Arrays.asList("drone1"));
+        when(droneService.queryAvailableDronesWithOr(dispatches)).thenReturn(Arrays.asList("drone2"));
+        when(droneService.getAllDrones()).thenReturn(Arrays.asList(
+                new Drone("Drone 1", "drone1", new Drone.Capability(false, false, 3.0, 2000, 1.0, 0.0, 0.0)),
+                new Drone("Drone 2", "drone2", new Drone.Capability(false, false, 3.0, 2000, 0.0, flatFee, 0.0))
+        ));
+        when(droneService.getAllServicePoints()).thenReturn(createSampleDroneServicePoints());
+        when(droneService.getServicePointLocations()).thenReturn(createSampleServicePoints());
+        when(restTemplate.getForObject(anyString(), eq(RestrictedArea[].class)))
+                .thenReturn(new RestrictedArea[0]);
+
+        PlannerExecutors executors = new PlannerExecutors(new PlannerProperties());
+        try {
+            DeliveryPathResponse expected = strategyPlanner(false).calculateDeliveryPath(dispatches);
+            PathPlanningServiceImpl parallel = strategyPlanner(true, executors);
+
+            assertEquals(flatFee, expected.totalCost(), 1e-9);
+            for (int i = 0; i < 20; i++) {
+                assertEquals(expected, parallel.calculateDeliveryPath(dispatches), "Run " + i);
+            }
+        } finally {
+            executors.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent requests on a saturated pool should all get the sequential result")
+    void testCalculateDeliveryPath_ParallelUnderContention() throws Exception {
+        List<MedDispatchRec> dispatches = createSampleDispatches(4);
+        stubStrategyScenario(dispatches, 0.03, 0.02);
+
+        PlannerProperties properties = new PlannerProperties();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        PlannerExecutors executors = new PlannerExecutors(properties);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            DeliveryPathResponse expected = strategyPlanner(false).calculateDeliveryPath(dispatches);
+            PathPlanningServiceImpl parallel = strategyPlanner(true, executors);
+
+            List<Future<DeliveryPathResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(clients.submit(() -> parallel.calculateDeliveryPath(dispatches)));
+            }
+            for (Future<DeliveryPathResponse> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            clients.shutdownNow();
+            executors.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Failures in the background strategy should reach the caller")
+    void testCalculateDeliveryPath_ParallelPropagatesFailure() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(2);
+        stubStrategyScenario(dispatches, 0.01, 0.01);
+        ILPServiceInterface geometry = spy(new FastILPServiceImpl());
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("planner-strategy-")) {
+                throw new IllegalStateException("Geometry failure");
+            }
+            return invocation.callRealMethod();
+        }).when(geometry).distance(any(), any());
+
+        PlannerExecutors executors = new PlannerExecutors(new PlannerProperties());
+        try {
+            // Ordering distances come from the request's matrix; the legacy A* still asks the geometry
+            PathPlanningServiceImpl parallel = strategyPlanner(true, executors, geometry, PathfindingEngine.LEGACY);
+
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> parallel.calculateDeliveryPath(dispatches));
+            assertEquals("Geometry failure", e.getMessage());
+        } finally {
+            executors.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A failed single-drone strategy should stop the background multi-drone search")
+    void testCalculateDeliveryPath_SingleFailureStopsMultiDrone() throws Exception {
+        List<MedDispatchRec> dispatches = createSampleDispatches(2);
+        stubStrategyScenario(dispatches, 0.01, 0.01);
+        // Every location of the request is tabulated up front; the single-drone strategy
+        // then asks for the distance from the dispatch centroid, which is not
+        Set<Position> tabulated = new HashSet<>();
+        dispatches.forEach(dispatch -> tabulated.add(dispatch.delivery()));
+        createSampleServicePoints().forEach(sp -> tabulated.add(new Position(sp.location().lng(), sp.location().lat())));
+        CountDownLatch multiRunning = new CountDownLatch(1);
+        CountDownLatch multiStopped = new CountDownLatch(1);
+        ILPServiceInterface geometry = spy(new FastILPServiceImpl());
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("planner-strategy-")) {
+                multiRunning.countDown();
+                try {
+                    new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    multiStopped.countDown();
+                    throw new IllegalStateException("Multi-drone search interrupted");
+                }
+            } else if (!tabulated.contains(invocation.<Position>getArgument(0))) {
+                multiRunning.await(5, TimeUnit.SECONDS);
+                throw new IllegalStateException("Single-drone failure");
+            }
+            return invocation.callRealMethod();
+        }).when(geometry).distance(any(), any());
+
+        PlannerExecutors executors = new PlannerExecutors(new PlannerProperties());
+        try {
+            PathPlanningServiceImpl parallel = strategyPlanner(true, executors, geometry, PathfindingEngine.LEGACY);
+
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> parallel.calculateDeliveryPath(dispatches));
+            assertEquals("Single-drone failure", e.getMessage());
+            assertTrue(multiStopped.await(5, TimeUnit.SECONDS), "Multi-drone search should be cancelled");
+        } finally {
+            executors.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(CandidateSelection.class)
+    @DisplayName("Parallel candidate evaluation should select the same drone as a sequential run")
+    void testCalculateDeliveryPath_ParallelCandidatesMatchSequential(CandidateSelection selection) {
+        List<MedDispatchRec> dispatches = createSampleDispatches(5);
+        stubCandidateScenario(dispatches);
+
+        PlannerExecutors executors = new PlannerExecutors(new PlannerProperties());
+        try {
+            DeliveryPathResponse expected =
+                    candidatePlanner(false, selection, PlannerExecutors.sequential()).calculateDeliveryPath(dispatches);
+            PathPlanningServiceImpl parallel = candidatePlanner(true, selection, executors);
+
+            assertNotNull(expected);
+            for (int i = 0; i < 20; i++) {
+                assertEquals(expected, parallel.calculateDeliveryPath(dispatches), "Run " + i);
+            }
+        } finally {
+            executors.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("First feasible should keep priority order while cheapest feasible minimises cost")
+    void testCalculateDeliveryPath_CandidateSelectionModes() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(5);
+        stubCandidateScenario(dispatches);
+
+        DeliveryPathResponse first = candidatePlanner(false, CandidateSelection.FIRST_FEASIBLE,
+                PlannerExecutors.sequential()).calculateDeliveryPath(dispatches);
+        DeliveryPathResponse cheapest = candidatePlanner(false, CandidateSelection.CHEAPEST_FEASIBLE,
+                PlannerExecutors.sequential()).calculateDeliveryPath(dispatches);
+
+        assertEquals("drone1", first.dronePaths().get(0).droneId());
+        assertEquals("drone3", cheapest.dronePaths().get(0).droneId());
+        assertTrue(cheapest.totalCost() < first.totalCost());
+    }
+
+    private void stubCandidateScenario(List<MedDispatchRec> dispatches) {
+        List<DroneForServicePoint.DroneAvailability.Availability> weekdays = Arrays.asList(
+                new DroneForServicePoint.DroneAvailability.Availability("MONDAY", "09:00", "17:00"),
+                new DroneForServicePoint.DroneAvailability.Availability("TUESDAY", "09:00", "17:00")
+        );
+        List<String> droneIds = Arrays.asList("drone1", "drone2", "drone3");
+
+        when(droneService.queryAvailableDrones(dispatches)).thenReturn(droneIds);
+        when(droneService.queryAvailableDronesWithOr(dispatches)).thenReturn(new ArrayList<>());
+        when(droneService.getAllDrones()).thenReturn(Arrays.asList(
+                new Drone("Drone 1", "drone1", new Drone.Capability(false, false, 10.0, 4000, 0.05, 2.0, 2.0)),
+                new Drone("Drone 2", "drone2", new Drone.Capability(false, false, 10.0, 4000, 0.04, 2.0, 2.0)),
+                new Drone("Drone 3", "drone3", new Drone.Capability(false, false, 10.0, 4000, 0.01, 1.0, 1.0))
+        ));
+        when(droneService.getAllServicePoints()).thenReturn(Arrays.asList(
+                new DroneForServicePoint(1, Arrays.asList(
+                        new DroneForServicePoint.DroneAvailability("drone1", weekdays),
+                        new DroneForServicePoint.DroneAvailability("drone2", weekdays))),
+                new DroneForServicePoint(2, Arrays.asList(
+                        new DroneForServicePoint.DroneAvailability("drone3", weekdays)))
+        ));
+        when(droneService.getServicePointLocations()).thenReturn(createSampleServicePoints());
+        when(restTemplate.getForObject(anyString(), eq(RestrictedArea[].class)))
+                .thenReturn(new RestrictedArea[0]);
+    }
+
+    private PathPlanningServiceImpl candidatePlanner(boolean parallel, CandidateSelection selection,
+                                                     PlannerExecutors executors) {
+        PlannerProperties properties = new PlannerProperties();
+        properties.setParallelCandidates(parallel);
+        properties.setCandidateSelection(selection);
+        return planner(new FastILPServiceImpl(), properties, executors);
+    }
+
+    private void stubStrategyScenario(List<MedDispatchRec> dispatches, double costPerMove1, double costPerMove2) {
+        when(droneService.queryAvailableDrones(dispatches)).thenReturn(Arrays.asList("drone1", "drone2"));
+        when(droneService.queryAvailableDronesWithOr(dispatches)).thenReturn(Arrays.asList("drone1", "drone2"));
+        when(droneService.getAllDrones()).thenReturn(Arrays.asList(
+                new Drone("Drone 1", "drone1", new Drone.Capability(false, false, 3.0, 2000, costPerMove1, 1.0, 1.0)),
+                new Drone("Drone 2", "drone2", new Drone.Capability(false, false, 2.0, 2000, costPerMove2, 0.5, 0.5))
+        ));
+        when(droneService.getAllServicePoints()).thenReturn(createSampleDroneServicePoints());
+        when(droneService.getServicePointLocations()).thenReturn(createSampleServicePoints());
+        when(restTemplate.getForObject(anyString(), eq(RestrictedArea[].class)))
+                .thenReturn(new RestrictedArea[0]);
+    }
+
+    private PathPlanningServiceImpl strategyPlanner(boolean parallel) {
+        return strategyPlanner(parallel, PlannerExecutors.sequential());
+    }
+
+    private PathPlanningServiceImpl strategyPlanner(boolean parallel, PlannerExecutors executors) {
+        return strategyPlanner(parallel, executors, new FastILPServiceImpl());
+    }
+
+    private PathPlanningServiceImpl strategyPlanner(boolean parallel, PlannerExecutors executors,
+                                                    ILPServiceInterface geometry) {
+        return strategyPlanner(parallel, executors, geometry, PathfindingEngine.LATTICE);
+    }
+
+    private PathPlanningServiceImpl strategyPlanner(boolean parallel, PlannerExecutors executors,
+                                                    ILPServiceInterface geometry, PathfindingEngine engine) {
+        PlannerProperties properties = new PlannerProperties();
+        properties.setParallelStrategies(parallel);
+        properties.setEngine(engine);
+        return planner(geometry, properties, executors);
+    }
+
+    /**
+     * A planner over the mocked collaborators, without reference data caching.
+     */
+    private PathPlanningServiceImpl planner(ILPServiceInterface geometry, PlannerProperties properties,
+                                            PlannerExecutors executors) {
+        return planner(geometry, properties, executors, FlightPathCache.disabled());
+    }
+
+    private PathPlanningServiceImpl planner(ILPServiceInterface geometry, PlannerProperties properties,
+                                            PlannerExecutors executors, FlightPathCache cache) {
+        return new PathPlanningServiceImpl(
+                restTemplate,
+                endpointProvider,
+                geometry,
+                droneService,
+                progressHandler,
+                properties,
+                ReferenceDataCache.passThrough(),
+                executors,
+                cache
+        );
+    }
+
+    // ==================== Reference Fetch Tests ====================
+
+    @Test
+    @DisplayName("The four reference lists should be fetched concurrently")
+    void testReferenceDataFetchedConcurrently() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(2);
+        stubStrategyScenario(dispatches, 0.03, 0.02);
+        CountDownLatch allFetching = new CountDownLatch(4);
+        List<Drone> drones = droneService.getAllDrones();
+        List<DroneForServicePoint> availability = droneService.getAllServicePoints();
+        List<DroneServicePoint> servicePoints = droneService.getServicePointLocations();
+        when(droneService.getAllDrones()).thenAnswer(invocation -> awaitFetches(allFetching, drones));
+        when(droneService.getAllServicePoints()).thenAnswer(invocation -> awaitFetches(allFetching, availability));
+        when(droneService.getServicePointLocations()).thenAnswer(invocation -> awaitFetches(allFetching, servicePoints));
+        when(restTemplate.getForObject(anyString(), eq(RestrictedArea[].class)))
+                .thenAnswer(invocation -> awaitFetches(allFetching, new RestrictedArea[0]));
+
+        PlannerProperties properties = new PlannerProperties();
+        properties.setThreads(4);
+        PlannerExecutors executors = new PlannerExecutors(properties);
+        try {
+            DeliveryPathResponse response = strategyPlanner(false, executors).calculateDeliveryPath(dispatches);
+
+            assertNotNull(response);
+            assertEquals(0, allFetching.getCount());
+        } finally {
+            executors.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Virtual-thread mode should run upstream fetches on virtual threads")
+    void testVirtualThreadFetchExecutor() throws Exception {
+        PlannerExecutors platform = new PlannerExecutors(new PlannerProperties(), false);
+        PlannerExecutors virtual = new PlannerExecutors(new PlannerProperties(), true);
+        try {
+            assertFalse(platform.fetchExecutor().submit(() -> Thread.currentThread().isVirtual()).get());
+            assertTrue(virtual.fetchExecutor().submit(() -> Thread.currentThread().isVirtual()).get());
+            assertFalse(virtual.strategyExecutor().submit(() -> Thread.currentThread().isVirtual()).get());
+        } finally {
+            platform.shutdown();
+            virtual.shutdown();
+        }
+    }
+
+    private static <T> T awaitFetches(CountDownLatch allFetching, T value) throws InterruptedException {
+        allFetching.countDown();
+        if (!allFetching.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Reference data was fetched one list at a time");
+        }
+        return value;
+    }
+
+    // ==================== Progress Sink Tests ====================
+
+    @Test
+    @DisplayName("Progress mode NONE should publish nothing even with clients subscribed")
+    void testProgressModeNone() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(3);
+        stubStrategyScenario(dispatches, 0.03, 0.02);
+        when(progressHandler.hasSubscribers(any())).thenReturn(true);
+
+        DeliveryPathResponse response = progressPlanner(ProgressMode.NONE).calculateDeliveryPath(dispatches, "job-1");
+
+        assertNotNull(response);
+        verifyNothingPublished();
+    }
+
+    @Test
+    @DisplayName("A job nobody subscribed to should publish nothing while other jobs have viewers")
+    void testUnsubscribedJobPublishesNothing() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(3);
+        stubStrategyScenario(dispatches, 0.03, 0.02);
+        when(progressHandler.hasSubscribers("job-1")).thenReturn(true);
+
+        DeliveryPathResponse response = progressPlanner(ProgressMode.FULL).calculateDeliveryPath(dispatches, "job-2");
+
+        assertNotNull(response);
+        verify(progressHandler, atLeastOnce()).hasSubscribers("job-2");
+        verifyNothingPublished();
+    }
+
+    @Test
+    @DisplayName("Progress should be published to the job the request belongs to")
+    void testProgressTaggedWithJob() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(3);
+        stubStrategyScenario(dispatches, 0.03, 0.02);
+        when(progressHandler.hasSubscribers("job-1")).thenReturn(true);
+
+        progressPlanner(ProgressMode.FULL).calculateDeliveryPath(dispatches, "job-1");
+
+        verify(progressHandler, atLeastOnce()).publish(eq("job-1"), eq("batch_started"), any());
+        verify(progressHandler, never()).publish(argThat(jobId -> !"job-1".equals(jobId)), anyString(), any());
+        verify(progressHandler, never()).publishNodeExplored(
+                argThat(jobId -> !"job-1".equals(jobId)), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Sampled progress should publish every batch event and every 10th explored node")
+    void testProgressModeSampled() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(3);
+        stubStrategyScenario(dispatches, 0.03, 0.02);
+        when(progressHandler.hasSubscribers(any())).thenReturn(true);
+
+        progressPlanner(ProgressMode.SAMPLED).calculateDeliveryPath(dispatches, "job-1");
+        Map<String, List<PathfindingProgress>> sampled = publishedEvents();
+        clearInvocations(progressHandler);
+        progressPlanner(ProgressMode.FULL).calculateDeliveryPath(dispatches, "job-1");
+        Map<String, List<PathfindingProgress>> full = publishedEvents();
+
+        assertFalse(sampled.get("batch_started").isEmpty());
+        assertFalse(sampled.get("batch_completed").isEmpty());
+        assertEquals(full.get("path_found").size(), sampled.get("path_found").size());
+        assertFalse(sampled.get("node_explored").isEmpty());
+        for (PathfindingProgress node : sampled.get("node_explored")) {
+            assertEquals(0, node.totalNodes() % 10);
+        }
+        assertTrue(full.get("node_explored").size() > sampled.get("node_explored").size());
+    }
+
+    @Test
+    @DisplayName("Cached segments should still be reported to the job observer, without explored nodes")
+    void testPathCacheHitsReported() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(3);
+        stubStrategyScenario(dispatches, 0.03, 0.02);
+        FlightPathCache cache = new FlightPathCache(4096);
+        PathPlanningServiceImpl planner = progressPlanner(ProgressMode.FULL, cache);
+
+        CountingSink first = new CountingSink();
+        planner.calculateDeliveryPath(dispatches, "job-1", first);
+        Object missesAfterFirst = cache.getMetrics().get("misses");
+        CountingSink second = new CountingSink();
+        planner.calculateDeliveryPath(dispatches, "job-1", second);
+
+        assertTrue(first.pathsFound > 0);
+        assertTrue(first.nodesExplored > 0);
+        assertEquals(missesAfterFirst, cache.getMetrics().get("misses"));
+        assertEquals(first.pathsFound, second.pathsFound);
+        assertEquals(0, second.nodesExplored);
+    }
+
+    @Test
+    @DisplayName("Jobs with WebSocket subscribers should search every segment instead of using the path cache")
+    void testSubscribedJobBypassesPathCache() {
+        List<MedDispatchRec> dispatches = createSampleDispatches(3);
+        stubStrategyScenario(dispatches, 0.03, 0.02);
+        when(progressHandler.hasSubscribers("job-1")).thenReturn(true);
+        FlightPathCache cache = new FlightPathCache(4096);
+        PathPlanningServiceImpl planner = progressPlanner(ProgressMode.FULL, cache);
+
+        // The unwatched run fills the cache; its two strategies may already hit each other's entries
+        planner.calculateDeliveryPath(dispatches, "job-2");
+        Object warmHits = cache.getMetrics().get("hits");
+        planner.calculateDeliveryPath(dispatches, "job-1");
+        Map<String, List<PathfindingProgress>> events = publishedEvents();
+
+        assertFalse(events.get("path_found").isEmpty());
+        for (PathfindingProgress found : events.get("path_found")) {
+            assertTrue(found.totalNodes() > 0);
+        }
+        assertEquals(warmHits, cache.getMetrics().get("hits"), "The watched run should not hit the cache");
+    }
+
+    private PathPlanningServiceImpl progressPlanner(ProgressMode mode) {
+        return progressPlanner(mode, FlightPathCache.disabled());
+    }
+
+    private PathPlanningServiceImpl progressPlanner(ProgressMode mode, FlightPathCache cache) {
+        PlannerProperties properties = new PlannerProperties();
+        properties.setProgress(mode);
+        properties.setParallelStrategies(false);
+        return planner(new FastILPServiceImpl(), properties, PlannerExecutors.sequential(), cache);
+    }
+
+    private static final class CountingSink implements ProgressSink {
+        int pathsFound;
+        int nodesExplored;
+
+        @Override
+        public void nodeExplored(double lng, double lat, int nodesExplored) {
+            this.nodesExplored++;
+        }
+
+        @Override
+        public void pathFound(int nodesExplored, int pathLength) {
+            pathsFound++;
+        }
+    }
+
+    private void verifyNothingPublished() {
+        verify(progressHandler, never()).publish(any(), anyString(), any());
+        verify(progressHandler, never()).broadcastProgress(any(PathfindingProgress.class));
+        verify(progressHandler, never()).publishNodeExplored(any(), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, List<PathfindingProgress>> publishedEvents() {
+        ArgumentCaptor<String> types = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Supplier<PathfindingProgress>> events = ArgumentCaptor.forClass(Supplier.class);
+        verify(progressHandler, atLeast(0)).publish(eq("job-1"), types.capture(), events.capture());
+
+        Map<String, List<PathfindingProgress>> byType = new HashMap<>();
+        for (String type : List.of("batch_started", "batch_completed", "path_found", "node_explored")) {
+            byType.put(type, new ArrayList<>());
+        }
+        for (int i = 0; i < types.getAllValues().size(); i++) {
+            PathfindingProgress event = events.getAllValues().get(i).get();
+            assertEquals(types.getAllValues().get(i), event.type());
+            byType.computeIfAbsent(event.type(), k -> new ArrayList<>()).add(event);
+        }
+
+        ArgumentCaptor<Double> lng = ArgumentCaptor.forClass(Double.class);
+        ArgumentCaptor<Double> lat = ArgumentCaptor.forClass(Double.class);
+        ArgumentCaptor<Integer> nodes = ArgumentCaptor.forClass(Integer.class);
+        verify(progressHandler, atLeast(0)).publishNodeExplored(
+                eq("job-1"), lng.capture(), lat.capture(), nodes.capture());
+        for (int i = 0; i < nodes.getAllValues().size(); i++) {
+            byType.get("node_explored").add(PathfindingProgress.nodeExplored(
+                    new Position(lng.getAllValues().get(i), lat.getAllValues().get(i)), nodes.getAllValues().get(i)));
+        }
+        return byType;
+    }
+
     // ==================== Helper Methods for Additional Tests ====================
 
     private List<DroneForServicePoint> createSampleDroneServicePoints() {
@@ -1415,15 +1831,45 @@ class PathPlanningServiceImplTest {
                     start.lat() + 0.00015 * Math.sin(rad)
             );
         });
+    }
 
-        when(ilpService.isInRegion(any(), anyList())).thenReturn(false);
+    /**
+     * An axis-aligned rectangular restricted area.
+     */
+    private static RestrictedArea box(String name, int id, double minLng, double minLat,
+                                      double maxLng, double maxLat) {
+        return new RestrictedArea(name, id, new RestrictedArea.Limits(0.0, 100.0), Arrays.asList(
+                new Position(minLng, minLat),
+                new Position(maxLng, minLat),
+                new Position(maxLng, maxLat),
+                new Position(minLng, maxLat),
+                new Position(minLng, minLat)
+        ));
+    }
+
+    /**
+     * Fails if any position of the path, or the midpoint of any move, is inside the area.
+     */
+    private static void assertAvoids(ILPServiceInterface geometry, List<Position> path, RestrictedArea area) {
+        for (int i = 0; i < path.size(); i++) {
+            Position position = path.get(i);
+            assertFalse(geometry.isInRegion(position, area.vertices()),
+                    "Position " + i + " is inside " + area.name());
+            if (i > 0) {
+                Position previous = path.get(i - 1);
+                Position midpoint = new Position((previous.lng() + position.lng()) / 2,
+                        (previous.lat() + position.lat()) / 2);
+                assertFalse(geometry.isInRegion(midpoint, area.vertices()),
+                        "Move " + i + " crosses " + area.name());
+            }
+        }
     }
 
     @Test
     @DisplayName("Should return correct color for drone index with modulo wrapping")
     void testGetColorForDrone() throws Exception {
         PathPlanningServiceImpl service = new PathPlanningServiceImpl(
-                null, null, null, null, null
+                null, null, null, null, null, new PlannerProperties(), null, null, null
         );
 
         // Use reflection to access private method
@@ -1467,14 +1913,16 @@ class PathPlanningServiceImplTest {
                 "Endpoint Area", 1, new RestrictedArea.Limits(0.0, 100.0), restrictedVertices
         );
 
-        setupRealisticMocks();
-        when(ilpService.isInRegion(any(), eq(restrictedVertices))).thenReturn(false);
+        ILPServiceInterface geometry = new FastILPServiceImpl();
+        PathPlanningServiceImpl service = planner(geometry, new PlannerProperties(), PlannerExecutors.sequential());
 
-        List<Position> path = pathPlanningService.calculateFlightPath(
+        List<Position> path = service.calculateFlightPath(
                 from, to, Arrays.asList(restricted)
         );
 
-        assertNotNull(path);
+        assertFalse(path.isEmpty());
+        assertTrue(geometry.isClose(path.get(path.size() - 1), to));
+        assertAvoids(geometry, path, restricted);
     }
 
     @Test
@@ -1522,19 +1970,16 @@ class PathPlanningServiceImplTest {
                 "Midpoint Area", 1, new RestrictedArea.Limits(0.0, 100.0), restrictedVertices
         );
 
-        setupRealisticMocks();
+        ILPServiceInterface geometry = new FastILPServiceImpl();
+        PathPlanningServiceImpl service = planner(geometry, new PlannerProperties(), PlannerExecutors.sequential());
 
-        // Midpoint should be inside restricted area
-        when(ilpService.isInRegion(argThat(pos ->
-                pos.lng() > -3.186 && pos.lng() < -3.184 &&
-                        pos.lat() > 55.944 && pos.lat() < 55.946
-        ), eq(restrictedVertices))).thenReturn(true);
-
-        List<Position> path = pathPlanningService.calculateFlightPath(
+        List<Position> path = service.calculateFlightPath(
                 from, to, Arrays.asList(restricted)
         );
 
-        assertNotNull(path);
+        assertFalse(path.isEmpty());
+        assertTrue(geometry.isClose(path.get(path.size() - 1), to));
+        assertAvoids(geometry, path, restricted);
     }
 
     @Test
@@ -1906,13 +2351,8 @@ class PathPlanningServiceImplTest {
         ObjectMapper mockMapper = mock(ObjectMapper.class);
         when(mockMapper.writeValueAsString(any())).thenThrow(new JsonProcessingException("Test error") {});
 
-        PathPlanningServiceImpl serviceWithMockMapper = new PathPlanningServiceImpl(
-                restTemplate,
-                endpointProvider,
-                ilpService,
-                droneService,
-                progressHandler
-        );
+        PathPlanningServiceImpl serviceWithMockMapper =
+                planner(ilpService, new PlannerProperties(), PlannerExecutors.sequential());
 
         // Use reflection to replace the objectMapper
         java.lang.reflect.Field field = PathPlanningServiceImpl.class.getDeclaredField("objectMapper");
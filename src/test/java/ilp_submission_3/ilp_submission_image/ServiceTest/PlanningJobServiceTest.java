@@ -0,0 +1,264 @@
+package ilp_submission_3.ilp_submission_image.ServiceTest;
+
+import ilp_submission_3.ilp_submission_image.Configuration.JobProperties;
+import ilp_submission_3.ilp_submission_image.Service.PathPlanningService;
+import ilp_submission_3.ilp_submission_image.Service.PlanningJobService;
+import ilp_submission_3.ilp_submission_image.WebSocket.ProgressSink;
+import ilp_submission_3.ilp_submission_image.dto.DeliveryPathResponse;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+import ilp_submission_3.ilp_submission_image.dto.PlanningJobStatus;
+import ilp_submission_3.ilp_submission_image.dto.PlanningJobStatus.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PlanningJobService
+ * Coverage areas:
+ * - Job lifecycle from queued to succeeded or failed
+ * - Partial progress while a job runs
+ * - Caller-supplied and duplicate job ids
+ * - Queue and store limits
+ * - Result expiry
+ */
+class PlanningJobServiceTest {
+
+    private static final DeliveryPathResponse RESULT = new DeliveryPathResponse(12.5, 80, List.of());
+
+    @Mock
+    private PathPlanningService pathPlanningService;
+
+    private final MutableClock clock = new MutableClock();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PlanningJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+    }
+
+    // ==================== Lifecycle Tests ====================
+
+    @Test
+    @DisplayName("Submitted job should return at once and later hold the planner's result")
+    void testJobSucceeds() throws Exception {
+        blockPlanner();
+        jobService = jobService(1, 4, 16);
+
+        PlanningJobStatus submitted = jobService.submit(List.of(), null);
+
+        assertNotNull(submitted.jobId());
+        assertNull(submitted.result());
+        release.countDown();
+        PlanningJobStatus finished = awaitFinished(submitted.jobId());
+        assertEquals(State.SUCCEEDED, finished.state());
+        assertEquals(RESULT, finished.result());
+        assertNotNull(finished.startedAt());
+        assertNotNull(finished.finishedAt());
+    }
+
+    @Test
+    @DisplayName("A planner exception should fail the job with its message")
+    void testJobFails() throws Exception {
+        when(pathPlanningService.calculateDeliveryPath(anyList(), anyString(), any()))
+                .thenThrow(new IllegalArgumentException("no drones available"));
+        jobService = jobService(1, 4, 16);
+
+        PlanningJobStatus finished = awaitFinished(jobService.submit(List.of(), null).jobId());
+
+        assertEquals(State.FAILED, finished.state());
+        assertEquals("no drones available", finished.error());
+        assertNull(finished.result());
+    }
+
+    @Test
+    @DisplayName("Running job should expose the progress reported so far")
+    void testPartialProgress() throws Exception {
+        CountDownLatch reported = new CountDownLatch(1);
+        when(pathPlanningService.calculateDeliveryPath(anyList(), eq("job-1"), any())).thenAnswer(invocation -> {
+            ProgressSink observer = invocation.getArgument(2);
+            observer.batchStarted("drone-1", 2);
+            for (int n = 1; n <= 25; n++) {
+                observer.nodeExplored(-3.19, 55.94, n);
+            }
+            observer.pathFound(25, 12);
+            observer.batchCompleted("drone-1", 7.5, 40);
+            reported.countDown();
+            release.await();
+            return RESULT;
+        });
+        jobService = jobService(1, 4, 16);
+
+        jobService.submit(List.of(), "job-1");
+        assertTrue(reported.await(5, TimeUnit.SECONDS));
+        PlanningJobStatus running = jobService.getStatus("job-1");
+
+        assertEquals(State.RUNNING, running.state());
+        assertNull(running.result());
+        assertEquals(1, running.progress().batchesStarted());
+        assertEquals(1, running.progress().batchesCompleted());
+        assertEquals(1, running.progress().pathsFound());
+        assertEquals(25, running.progress().nodesExplored());
+        assertEquals("drone-1", running.progress().lastCompletedBatch().droneId());
+
+        release.countDown();
+        assertEquals(State.SUCCEEDED, awaitFinished("job-1").state());
+    }
+
+    // ==================== Job Id Tests ====================
+
+    @Test
+    @DisplayName("Caller-supplied id should be used and may not be reused while stored")
+    void testDuplicateJobId() throws Exception {
+        when(pathPlanningService.calculateDeliveryPath(anyList(), anyString(), any())).thenReturn(RESULT);
+        jobService = jobService(1, 4, 16);
+
+        assertEquals("job-1", jobService.submit(List.of(), "job-1").jobId());
+        awaitFinished("job-1");
+
+        assertThrows(IllegalStateException.class, () -> jobService.submit(List.of(), "job-1"));
+    }
+
+    @Test
+    @DisplayName("Unknown job should have no status")
+    void testUnknownJob() {
+        jobService = jobService(1, 4, 16);
+
+        assertNull(jobService.getStatus("missing"));
+    }
+
+    // ==================== Limit Tests ====================
+
+    @Test
+    @DisplayName("Submissions beyond the workers and queue should be rejected")
+    void testQueueLimit() {
+        blockPlanner();
+        jobService = jobService(1, 1, 16);
+
+        jobService.submit(List.of(), "running");
+        jobService.submit(List.of(), "queued");
+
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit(List.of(), "rejected"));
+        assertNull(jobService.getStatus("rejected"));
+        assertEquals(1L, jobService.getMetrics().get("rejected"));
+    }
+
+    @Test
+    @DisplayName("Full store should evict the oldest finished job but never a pending one")
+    void testStoreLimit() throws Exception {
+        when(pathPlanningService.calculateDeliveryPath(anyList(), anyString(), any())).thenReturn(RESULT);
+        jobService = jobService(1, 4, 2);
+
+        jobService.submit(List.of(), "first");
+        awaitFinished("first");
+        jobService.submit(List.of(), "second");
+        awaitFinished("second");
+        jobService.submit(List.of(), "third");
+        awaitFinished("third");
+
+        assertNull(jobService.getStatus("first"));
+        assertNotNull(jobService.getStatus("second"));
+
+        blockPlanner();
+        jobService.submit(List.of(), "fourth");
+        jobService.submit(List.of(), "fifth");
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit(List.of(), "sixth"));
+    }
+
+    @Test
+    @DisplayName("Finished results should expire after the TTL")
+    void testResultExpiry() throws Exception {
+        when(pathPlanningService.calculateDeliveryPath(anyList(), anyString(), any())).thenReturn(RESULT);
+        jobService = jobService(1, 4, 16);
+
+        jobService.submit(List.of(), "job-1");
+        awaitFinished("job-1");
+        clock.advance(Duration.ofMinutes(9));
+        assertNotNull(jobService.getStatus("job-1"));
+
+        clock.advance(Duration.ofMinutes(2));
+        assertNull(jobService.getStatus("job-1"));
+        assertEquals(1L, jobService.getMetrics().get("expired"));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private PlanningJobService jobService(int workers, int queueCapacity, int maxStoredJobs) {
+        JobProperties properties = new JobProperties();
+        properties.setWorkers(workers);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setMaxStoredJobs(maxStoredJobs);
+        properties.setResultTtl(Duration.ofMinutes(10));
+        return new PlanningJobService(pathPlanningService, properties, clock);
+    }
+
+    private void blockPlanner() {
+        when(pathPlanningService.calculateDeliveryPath(anyList(), anyString(), any())).thenAnswer(invocation -> {
+            release.await();
+            return RESULT;
+        });
+    }
+
+    private PlanningJobStatus awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            PlanningJobStatus status = jobService.getStatus(jobId);
+            if (status != null && (status.state() == State.SUCCEEDED || status.state() == State.FAILED)) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Job " + jobId + " did not finish");
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2025-01-06T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
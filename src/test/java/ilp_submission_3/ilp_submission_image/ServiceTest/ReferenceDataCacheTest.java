@@ -0,0 +1,473 @@
+package ilp_submission_3.ilp_submission_image.ServiceTest;
+
+import ilp_submission_3.ilp_submission_image.Configuration.ILPEndpointProvider;
+import ilp_submission_3.ilp_submission_image.Configuration.ReferenceDataProperties;
+import ilp_submission_3.ilp_submission_image.Service.DroneServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.ILPServiceInterface;
+import ilp_submission_3.ilp_submission_image.Service.ReferenceDataCache;
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReferenceDataCache
+ * Coverage areas:
+ * - Hits within the TTL and keying by endpoint and path
+ * - Stale serving with a single background refresh
+ * - Single upstream load for concurrent first requests
+ * - Stale serving and retry backoff when the upstream refresh fails
+ * - Pass-through mode and metrics
+ * - Snapshot persistence, warm restart and background reconciliation
+ * - Snapshot maximum ages, temporary files and the final write at shutdown
+ * - DroneServiceImpl integration
+ */
+class ReferenceDataCacheTest {
+
+    private static final String ENDPOINT = "https://test.example.com";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ReferenceDataCache cache = new ReferenceDataCache(Duration.ofSeconds(60), 1, clock::get);
+    private final List<ReferenceDataCache> restarted = new ArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+        restarted.forEach(ReferenceDataCache::shutdown);
+    }
+
+    // ==================== TTL Tests ====================
+
+    @Test
+    @DisplayName("Should load once and serve the same list within the TTL")
+    void testHitWithinTtl() {
+        AtomicInteger loads = new AtomicInteger();
+
+        List<String> first = cache.get(ENDPOINT, "/drones", () -> List.of("v" + loads.incrementAndGet()));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        List<String> second = cache.get(ENDPOINT, "/drones", () -> List.of("v" + loads.incrementAndGet()));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getMetrics().get("hits"));
+        assertEquals(1L, cache.getMetrics().get("misses"));
+    }
+
+    @Test
+    @DisplayName("Should key entries by endpoint and path")
+    void testKeyedByEndpointAndPath() {
+        List<String> drones = cache.get(ENDPOINT, "/drones", () -> List.of("a"));
+        List<String> areas = cache.get(ENDPOINT, "/restricted-areas", () -> List.of("b"));
+        List<String> otherEndpoint = cache.get("https://other.example.com", "/drones", () -> List.of("c"));
+
+        assertEquals(List.of("a"), drones);
+        assertEquals(List.of("b"), areas);
+        assertEquals(List.of("c"), otherEndpoint);
+        assertEquals(3, cache.getMetrics().get("entries"));
+    }
+
+    @Test
+    @DisplayName("Cached lists should be unmodifiable")
+    void testCachedListUnmodifiable() {
+        List<String> cached = cache.get(ENDPOINT, "/drones", () -> new ArrayList<>(List.of("a")));
+
+        assertThrows(UnsupportedOperationException.class, () -> cached.add("b"));
+    }
+
+    // ==================== Refresh Tests ====================
+
+    @Test
+    @DisplayName("Should serve stale data while refreshing in the background")
+    void testStaleWhileRefreshing() throws Exception {
+        List<String> original = cache.get(ENDPOINT, "/drones", () -> List.of("old"));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch refreshed = new CountDownLatch(1);
+        AtomicInteger refreshLoads = new AtomicInteger();
+
+        List<String> stale = cache.get(ENDPOINT, "/drones", () -> {
+            refreshLoads.incrementAndGet();
+            await(release);
+            refreshed.countDown();
+            return List.of("new");
+        });
+        List<String> staleAgain = cache.get(ENDPOINT, "/drones", () -> {
+            refreshLoads.incrementAndGet();
+            return List.of("duplicate");
+        });
+
+        assertSame(original, stale);
+        assertSame(original, staleAgain);
+
+        release.countDown();
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        waitForMetric("refreshes", 1L);
+
+        assertEquals(List.of("new"), cache.get(ENDPOINT, "/drones", () -> List.of("unused")));
+        assertEquals(1, refreshLoads.get());
+        assertEquals(2L, cache.getMetrics().get("staleHits"));
+    }
+
+    @Test
+    @DisplayName("Should keep serving stale data when the refresh fails")
+    void testStaleOnUpstreamFailure() throws Exception {
+        List<String> original = cache.get(ENDPOINT, "/drones", () -> List.of("old"));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+        List<String> stale = cache.get(ENDPOINT, "/drones", () -> {
+            throw new ResourceAccessException("upstream down");
+        });
+        waitForMetric("refreshFailures", 1L);
+
+        assertSame(original, stale);
+        assertSame(original, cache.get(ENDPOINT, "/drones", () -> {
+            throw new ResourceAccessException("still down");
+        }));
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially before retrying a failed refresh")
+    void testFailedRefreshBacksOff() throws Exception {
+        cache.get(ENDPOINT, "/drones", () -> List.of("old"));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<List<String>> down = () -> {
+            attempts.incrementAndGet();
+            throw new ResourceAccessException("upstream down");
+        };
+
+        cache.get(ENDPOINT, "/drones", down);
+        waitForMetric("refreshFailures", 1L);
+        cache.get(ENDPOINT, "/drones", down);
+        assertEquals(1, attempts.get());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.get(ENDPOINT, "/drones", down);
+        waitForMetric("refreshFailures", 2L);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.get(ENDPOINT, "/drones", down);
+        assertEquals(2, attempts.get());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.get(ENDPOINT, "/drones", () -> List.of("new"));
+        waitForMetric("refreshes", 1L);
+        assertEquals(List.of("new"), cache.get(ENDPOINT, "/drones", down));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Concurrent first requests should share one upstream load")
+    void testConcurrentMissesLoadOnce() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<List<String>> results = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < callers; i++) {
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                results.add(cache.get(ENDPOINT, "/drones", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return List.of("a");
+                }));
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(callers, results.size());
+        results.forEach(result -> assertSame(results.get(0), result));
+    }
+
+    @Test
+    @DisplayName("Should propagate upstream failure when nothing is cached")
+    void testMissFailurePropagates() {
+        assertThrows(ResourceAccessException.class, () -> cache.get(ENDPOINT, "/drones", () -> {
+            throw new ResourceAccessException("upstream down");
+        }));
+        assertEquals(0, cache.getMetrics().get("entries"));
+    }
+
+    // ==================== Pass-through and Integration Tests ====================
+
+    @Test
+    @DisplayName("Pass-through cache should call the loader every time")
+    void testPassThrough() {
+        ReferenceDataCache passThrough = ReferenceDataCache.passThrough();
+        AtomicInteger loads = new AtomicInteger();
+
+        passThrough.get(ENDPOINT, "/drones", () -> List.of(loads.incrementAndGet()));
+        passThrough.get(ENDPOINT, "/drones", () -> List.of(loads.incrementAndGet()));
+
+        Map<String, Object> metrics = passThrough.getMetrics();
+        assertEquals(2, loads.get());
+        assertEquals(false, metrics.get("enabled"));
+        assertEquals(2L, metrics.get("misses"));
+    }
+
+    @Test
+    @DisplayName("DroneServiceImpl should hit the upstream once per TTL window")
+    void testDroneServiceUsesCache() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        ILPEndpointProvider endpointProvider = mock(ILPEndpointProvider.class);
+        when(endpointProvider.getEndpoint()).thenReturn(ENDPOINT);
+        when(restTemplate.getForObject(eq(ENDPOINT + "/drones"), eq(Drone[].class))).thenReturn(new Drone[]{
+                new Drone("Drone 1", "1", new Drone.Capability(true, true, 4.0, 2000, 0.01, 4.3, 6.5))
+        });
+        DroneServiceImpl droneService = new DroneServiceImpl(
+                restTemplate, mock(ILPServiceInterface.class), endpointProvider, cache);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, droneService.getAllDrones().size());
+        }
+        assertEquals(1, droneService.getDronesWithCooling(true).size());
+
+        verify(restTemplate, times(1)).getForObject(ENDPOINT + "/drones", Drone[].class);
+    }
+
+    // ==================== Snapshot Tests ====================
+
+    @Test
+    @DisplayName("Restarted cache should serve the persisted list without waiting for upstream")
+    void testWarmRestart() throws Exception {
+        Path file = tempDir.resolve("snapshot.json");
+        ReferenceDataCache first = startCache(file);
+        first.get(ENDPOINT, "/drones", String.class, () -> List.of("a", "b"));
+        waitForMetric(first, "snapshotWrites", 1L);
+
+        ReferenceDataCache second = startCache(file);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> restored = second.get(ENDPOINT, "/drones", String.class, () -> {
+            await(release);
+            return List.of("c");
+        });
+
+        assertEquals(List.of("a", "b"), restored);
+        assertEquals(1L, second.getMetrics().get("snapshotRestores"));
+        assertEquals(0L, second.getMetrics().get("misses"));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Restored list should be replaced by the background reconciliation")
+    void testRestoredListReconciled() throws Exception {
+        Path file = tempDir.resolve("snapshot.json");
+        ReferenceDataCache first = startCache(file);
+        first.get(ENDPOINT, "/drones", String.class, () -> List.of("old"));
+        waitForMetric(first, "snapshotWrites", 1L);
+
+        ReferenceDataCache second = startCache(file);
+        assertEquals(List.of("old"), second.get(ENDPOINT, "/drones", String.class, () -> List.of("new")));
+        waitForMetric(second, "refreshes", 1L);
+
+        assertEquals(List.of("new"), second.get(ENDPOINT, "/drones", String.class, () -> List.of("unused")));
+        waitForMetric(second, "snapshotWrites", 1L);
+        assertTrue(Files.readString(file).contains("new"));
+    }
+
+    @Test
+    @DisplayName("DroneServiceImpl should keep answering from the snapshot through an upstream outage")
+    void testSnapshotDuringOutage() throws Exception {
+        Path file = tempDir.resolve("snapshot.json");
+        ILPEndpointProvider endpointProvider = mock(ILPEndpointProvider.class);
+        when(endpointProvider.getEndpoint()).thenReturn(ENDPOINT);
+        RestTemplate upstream = mock(RestTemplate.class);
+        when(upstream.getForObject(eq(ENDPOINT + "/drones"), eq(Drone[].class))).thenReturn(new Drone[]{
+                new Drone("Drone 1", "1", new Drone.Capability(true, false, 4.0, 2000, 0.01, 4.3, 6.5))
+        });
+        ReferenceDataCache first = startCache(file);
+        new DroneServiceImpl(upstream, mock(ILPServiceInterface.class), endpointProvider, first).getAllDrones();
+        waitForMetric(first, "snapshotWrites", 1L);
+
+        RestTemplate down = mock(RestTemplate.class);
+        when(down.getForObject(eq(ENDPOINT + "/drones"), eq(Drone[].class)))
+                .thenThrow(new ResourceAccessException("upstream down"));
+        ReferenceDataCache second = startCache(file);
+        DroneServiceImpl droneService = new DroneServiceImpl(down, mock(ILPServiceInterface.class), endpointProvider, second);
+
+        List<Drone> drones = droneService.getAllDrones();
+        waitForMetric(second, "refreshFailures", 1L);
+
+        assertEquals(1, drones.size());
+        assertEquals(4.0, drones.get(0).capability().capacity());
+        assertEquals(List.of("1"), droneService.getDronesWithCooling(true));
+    }
+
+    @Test
+    @DisplayName("Unreadable snapshot or untyped lookup should fall back to a normal load")
+    void testSnapshotIgnored() throws Exception {
+        Path file = tempDir.resolve("snapshot.json");
+        Files.writeString(file, "{not json");
+        ReferenceDataCache corrupt = startCache(file);
+        assertEquals(List.of("fresh"), corrupt.get(ENDPOINT, "/drones", String.class, () -> List.of("fresh")));
+        assertEquals(1L, corrupt.getMetrics().get("misses"));
+        waitForMetric(corrupt, "snapshotWrites", 1L);
+
+        ReferenceDataCache untyped = startCache(file);
+        assertEquals(List.of("loaded"), untyped.get(ENDPOINT, "/drones", () -> List.of("loaded")));
+        assertEquals(0L, untyped.getMetrics().get("snapshotRestores"));
+    }
+
+    @Test
+    @DisplayName("Snapshot should keep unrequested lists of the current endpoint only")
+    void testSnapshotDropsOtherEndpoints() throws Exception {
+        Path file = tempDir.resolve("snapshot.json");
+        ReferenceDataCache first = startCache(file);
+        first.get(ENDPOINT, "/drones", String.class, () -> List.of("a"));
+        waitForMetric(first, "snapshotWrites", 1L);
+        first.get(ENDPOINT, "/service-points", String.class, () -> List.of("b"));
+        waitForMetric(first, "snapshotWrites", 2L);
+
+        ReferenceDataCache second = startCache(file);
+        second.get("https://moved.example.com", "/drones", String.class, () -> List.of("c"));
+        second.get(ENDPOINT, "/drones", String.class, () -> List.of("a"));
+        waitForMetric(second, "refreshes", 1L);
+        waitForMetric(second, "snapshotWrites", 2L);
+
+        String saved = Files.readString(file);
+        assertTrue(saved.contains("/service-points"));
+        assertTrue(saved.contains("moved.example.com"));
+
+        ReferenceDataCache third = startCache(file);
+        third.get("https://moved.example.com", "/drones", String.class, () -> List.of("c"));
+        waitForMetric(third, "refreshes", 1L);
+        waitForMetric(third, "snapshotWrites", 1L);
+
+        assertFalse(Files.readString(file).contains("/service-points"));
+    }
+
+    @Test
+    @DisplayName("Restored lists past their maximum age should be loaded from upstream instead")
+    void testExpiredSnapshotNotServed() throws Exception {
+        Path file = tempDir.resolve("snapshot.json");
+        long twoHoursAgo = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2);
+        Files.writeString(file, "{\"version\":1,\"entries\":["
+                + "{\"endpoint\":\"" + ENDPOINT + "\",\"path\":\"/drones\",\"fetchedAt\":" + twoHoursAgo + ",\"data\":[\"old\"]},"
+                + "{\"endpoint\":\"" + ENDPOINT + "\",\"path\":\"/restricted-areas\",\"fetchedAt\":" + twoHoursAgo + ",\"data\":[\"old\"]}]}");
+
+        ReferenceDataCache started = startCache(file);
+
+        assertEquals(List.of("old"), started.get(ENDPOINT, "/drones", String.class, () -> List.of("new")));
+        assertEquals(List.of("new"), started.get(ENDPOINT, "/restricted-areas", String.class, () -> List.of("new")));
+        assertEquals(1L, started.getMetrics().get("snapshotRestores"));
+        assertEquals(1L, started.getMetrics().get("misses"));
+    }
+
+    @Test
+    @DisplayName("Snapshot writes should not follow a file planted at a predictable temporary path")
+    void testSnapshotWriteIgnoresPlantedTempFile() throws Exception {
+        Path file = tempDir.resolve("snapshot.json");
+        Path victim = tempDir.resolve("victim.txt");
+        Files.writeString(victim, "untouched");
+        Files.createSymbolicLink(tempDir.resolve("snapshot.json.tmp"), victim);
+
+        ReferenceDataCache started = startCache(file);
+        started.get(ENDPOINT, "/drones", String.class, () -> List.of("a"));
+        waitForMetric(started, "snapshotWrites", 1L);
+
+        assertEquals("untouched", Files.readString(victim));
+        assertTrue(Files.readString(file).contains("/drones"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(3L, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Shutdown should write a snapshot save still queued behind a refresh")
+    void testShutdownWritesQueuedSave() throws Exception {
+        Path file = tempDir.resolve("snapshot.json");
+        ReferenceDataCache started = startCache(file);
+        started.get(ENDPOINT, "/drones", String.class, () -> List.of("a"));
+        waitForMetric(started, "snapshotWrites", 1L);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        CountDownLatch release = new CountDownLatch(1);
+        started.get(ENDPOINT, "/drones", String.class, () -> {
+            await(release);
+            return List.of("b");
+        });
+        started.get(ENDPOINT, "/service-points", String.class, () -> List.of("c"));
+        Thread releaser = new Thread(() -> {
+            sleep(100);
+            release.countDown();
+        });
+        releaser.start();
+        started.shutdown();
+        releaser.join();
+
+        String saved = Files.readString(file);
+        assertTrue(saved.contains("/service-points"));
+        assertTrue(saved.contains("\"b\""));
+    }
+
+    private ReferenceDataCache startCache(Path file) {
+        ReferenceDataProperties properties = new ReferenceDataProperties();
+        properties.setRefreshThreads(1);
+        properties.setSnapshotFile(file.toString());
+        ReferenceDataCache started = new ReferenceDataCache(properties, clock::get);
+        restarted.add(started);
+        return started;
+    }
+
+    private void waitForMetric(String name, long expected) throws InterruptedException {
+        waitForMetric(cache, name, expected);
+    }
+
+    private static void waitForMetric(ReferenceDataCache cache, String name, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Long.valueOf(expected).equals(cache.getMetrics().get(name)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, cache.getMetrics().get(name));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package ilp_submission_3.ilp_submission_image.ServiceTest;
+
+import ilp_submission_3.ilp_submission_image.Configuration.TourImprovement;
+import ilp_submission_3.ilp_submission_image.Service.DistanceMatrix;
+import ilp_submission_3.ilp_submission_image.Service.FastILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Service.TourImprover;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TourImprover
+ * Coverage areas:
+ * - 2-opt removing crossings and Or-opt moving misplaced runs
+ * - Tours that cannot be improved, tiny tours and expired deadlines
+ * - Random tours: permutations kept, never lengthened, 2-opt local optimum reached
+ */
+class TourImproverTest {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE / 2;
+
+    // ==================== Move Tests ====================
+
+    @Test
+    @DisplayName("2-opt should remove a crossing")
+    void testTwoOptRemovesCrossing() {
+        // Depot at the origin, stops at the other corners of a unit square, visited crosswise
+        DistanceMatrix matrix = matrix(0, 0, 1, 0, 1, 1, 0, 1);
+        int[] tour = {1, 3, 2};
+        double before = TourImprover.length(tour, 0, matrix);
+
+        assertTrue(TourImprover.of(TourImprovement.TWO_OPT).improve(tour, 0, matrix, deadline()));
+
+        assertEquals(4.0, TourImprover.length(tour, 0, matrix), 1e-12);
+        assertTrue(TourImprover.length(tour, 0, matrix) < before);
+    }
+
+    @Test
+    @DisplayName("Or-opt should move a misplaced stop back into place")
+    void testOrOptMovesStop() {
+        // Out along y = 0 and back along y = 1, with (2, 0) left until last
+        DistanceMatrix matrix = matrix(0, 0, 1, 0, 2, 0, 3, 0, 3, 1, 2, 1, 1, 1);
+        int[] tour = {1, 3, 4, 5, 6, 2};
+
+        assertTrue(TourImprover.of(TourImprovement.OR_OPT).improve(tour, 0, matrix, deadline()));
+
+        // The optimal loop, in either direction
+        assertEquals(6.0 + Math.sqrt(2.0), TourImprover.length(tour, 0, matrix), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Or-opt should move a run the other way round when that is shorter")
+    void testOrOptReversesRun() {
+        DistanceMatrix matrix = matrix(0, 0, 1, 0, 2, 0, 3, 0, 3, 1, 2, 1, 1, 1);
+        int[] tour = {1, 4, 5, 6, 3, 2};
+
+        assertTrue(TourImprover.of(TourImprovement.OR_OPT).improve(tour, 0, matrix, deadline()));
+
+        assertEquals(6.0 + Math.sqrt(2.0), TourImprover.length(tour, 0, matrix), 1e-12);
+    }
+
+    // ==================== Unchanged Tour Tests ====================
+
+    @Test
+    @DisplayName("A tour no move can shorten should come back unchanged")
+    void testOptimalTourUnchanged() {
+        DistanceMatrix matrix = matrix(0, 0, 1, 0, 2, 0, 3, 0, 3, 1, 2, 1, 1, 1);
+        for (TourImprovement improvement : TourImprovement.values()) {
+            int[] tour = {1, 2, 3, 4, 5, 6};
+            assertFalse(TourImprover.of(improvement).improve(tour, 0, matrix, deadline()), improvement.name());
+            assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6}, tour, improvement.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Tours of up to two stops cannot be improved")
+    void testTinyTours() {
+        DistanceMatrix matrix = matrix(0, 0, 1, 0, 0, 1);
+        for (TourImprovement improvement : TourImprovement.values()) {
+            TourImprover improver = TourImprover.of(improvement);
+            assertFalse(improver.improve(new int[0], 0, matrix, deadline()));
+            assertFalse(improver.improve(new int[]{1}, 0, matrix, deadline()));
+            assertFalse(improver.improve(new int[]{2, 1}, 0, matrix, deadline()));
+        }
+    }
+
+    @Test
+    @DisplayName("An expired deadline should leave the tour as it is")
+    void testExpiredDeadline() {
+        DistanceMatrix matrix = matrix(0, 0, 1, 0, 1, 1, 0, 1);
+        for (TourImprovement improvement : TourImprovement.values()) {
+            int[] tour = {1, 3, 2};
+            assertFalse(TourImprover.of(improvement).improve(tour, 0, matrix, System.nanoTime() - 1));
+            assertArrayEquals(new int[]{1, 3, 2}, tour);
+        }
+    }
+
+    // ==================== Random Tour Tests ====================
+
+    @Test
+    @DisplayName("Random tours should stay permutations and never get longer")
+    void testRandomToursNeverLonger() {
+        Random random = new Random(20250120L);
+        double totalBefore = 0.0;
+        double totalAfter = 0.0;
+        for (int trial = 0; trial < 200; trial++) {
+            int stops = 3 + random.nextInt(13);
+            DistanceMatrix matrix = randomMatrix(random, stops + 1);
+            int[] original = shuffledStops(random, stops);
+            for (TourImprovement improvement : TourImprovement.values()) {
+                int[] tour = original.clone();
+                TourImprover.of(improvement).improve(tour, 0, matrix, deadline());
+
+                int[] sorted = tour.clone();
+                Arrays.sort(sorted);
+                int[] expected = original.clone();
+                Arrays.sort(expected);
+                assertArrayEquals(expected, sorted, "Trial " + trial + " " + improvement);
+                assertTrue(TourImprover.length(tour, 0, matrix) <= TourImprover.length(original, 0, matrix) + 1e-12,
+                        "Trial " + trial + " " + improvement);
+                if (improvement == TourImprovement.TWO_OPT_AND_OR_OPT) {
+                    totalBefore += TourImprover.length(original, 0, matrix);
+                    totalAfter += TourImprover.length(tour, 0, matrix);
+                }
+            }
+        }
+        assertTrue(totalAfter < 0.8 * totalBefore, "Random tours should get much shorter");
+    }
+
+    @Test
+    @DisplayName("2-opt should stop only where no reversal shortens the tour")
+    void testTwoOptReachesLocalOptimum() {
+        Random random = new Random(7L);
+        for (int trial = 0; trial < 100; trial++) {
+            int stops = 3 + random.nextInt(13);
+            DistanceMatrix matrix = randomMatrix(random, stops + 1);
+            int[] tour = shuffledStops(random, stops);
+            TourImprover.of(TourImprovement.TWO_OPT).improve(tour, 0, matrix, deadline());
+
+            double length = TourImprover.length(tour, 0, matrix);
+            for (int i = 0; i < stops; i++) {
+                for (int j = i + 1; j < stops; j++) {
+                    int[] reversed = tour.clone();
+                    for (int a = i, b = j; a < b; a++, b--) {
+                        int stop = reversed[a];
+                        reversed[a] = reversed[b];
+                        reversed[b] = stop;
+                    }
+                    assertTrue(TourImprover.length(reversed, 0, matrix) >= length - 1e-9,
+                            "Trial " + trial + " reversal " + i + ".." + j);
+                }
+            }
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private static long deadline() {
+        return System.nanoTime() + NO_DEADLINE;
+    }
+
+    /**
+     * @param coordinates x, y pairs; the first point is the depot
+     */
+    private static DistanceMatrix matrix(double... coordinates) {
+        List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            positions.add(new Position(coordinates[i], coordinates[i + 1]));
+        }
+        return DistanceMatrix.build(positions, new FastILPServiceImpl(), null);
+    }
+
+    private static DistanceMatrix randomMatrix(Random random, int points) {
+        List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < points; i++) {
+            positions.add(new Position(-3.20 + random.nextDouble() * 0.04, 55.94 + random.nextDouble() * 0.02));
+        }
+        return DistanceMatrix.build(positions, new FastILPServiceImpl(), null);
+    }
+
+    private static int[] shuffledStops(Random random, int stops) {
+        int[] tour = new int[stops];
+        for (int i = 0; i < stops; i++) {
+            tour[i] = i + 1;
+        }
+        for (int i = stops - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int stop = tour[i];
+            tour[i] = tour[j];
+            tour[j] = stop;
+        }
+        return tour;
+    }
+}
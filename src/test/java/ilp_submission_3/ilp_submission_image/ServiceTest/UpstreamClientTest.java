@@ -0,0 +1,337 @@
+package ilp_submission_3.ilp_submission_image.ServiceTest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ilp_submission_3.ilp_submission_image.Configuration.AddConfig;
+import ilp_submission_3.ilp_submission_image.Configuration.UpstreamProperties;
+import ilp_submission_3.ilp_submission_image.Service.CircuitBreaker;
+import ilp_submission_3.ilp_submission_image.Service.LatencyHistogram;
+import ilp_submission_3.ilp_submission_image.Service.UpstreamInterceptor;
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ILP REST client against a local stub server
+ * Coverage areas:
+ * - Keep-alive connection reuse
+ * - Gzip negotiation and decompression
+ * - Per-endpoint read timeouts
+ * - Circuit breaker opening, short-circuiting and recovery
+ * - Latency percentiles and metrics
+ */
+class UpstreamClientTest {
+
+    private static final String DRONES = "[{\"name\":\"Drone 1\",\"id\":\"1\"},{\"name\":\"Drone 2\",\"id\":\"2\"}]";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<String> acceptEncoding = new AtomicReference<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final AtomicInteger failingHits = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 64);
+        server.createContext("/drones", exchange -> {
+            acceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            respond(exchange, 200, DRONES);
+        });
+        server.createContext("/service-points", exchange -> {
+            sleep(300);
+            respond(exchange, 200, "[]");
+        });
+        server.createContext("/restricted-areas", exchange -> {
+            sleep(300);
+            respond(exchange, 200, "[]");
+        });
+        server.createContext("/slow", exchange -> {
+            sleep(20);
+            respond(exchange, 200, "[]");
+        });
+        server.createContext("/flaky", exchange -> {
+            failingHits.incrementAndGet();
+            respond(exchange, failing.get() ? 503 : 200, "[]");
+        });
+        server.setExecutor(executor);
+        server.start();
+        baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ==================== Connection Reuse Tests ====================
+
+    @Test
+    @DisplayName("Sequential calls should share one keep-alive connection")
+    void testKeepAliveReuse() {
+        UpstreamInterceptor interceptor = interceptor(true, 5);
+        RestTemplate restTemplate = restTemplate(properties(), interceptor);
+
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(restTemplate.getForObject(baseUrl + "/drones", Drone[].class));
+        }
+
+        assertEquals(1, clientPorts.size());
+        Map<String, Object> metrics = interceptor.getMetrics();
+        assertEquals(20L, metrics.get("requests"));
+        assertEquals(1, metrics.get("peakInFlight"));
+        assertEquals(0L, metrics.get("connectionCloses"));
+    }
+
+    // ==================== Gzip Tests ====================
+
+    @Test
+    @DisplayName("Gzip responses should be requested and decompressed transparently")
+    void testGzipDecompression() {
+        UpstreamInterceptor interceptor = interceptor(true, 5);
+
+        Drone[] drones = restTemplate(properties(), interceptor).getForObject(baseUrl + "/drones", Drone[].class);
+
+        assertEquals("gzip", acceptEncoding.get());
+        assertNotNull(drones);
+        assertEquals(2, drones.length);
+        assertEquals("Drone 2", drones[1].name());
+        assertEquals(1L, interceptor.getMetrics().get("gzipResponses"));
+    }
+
+    @Test
+    @DisplayName("Disabled gzip should neither request nor count compressed responses")
+    void testGzipDisabled() {
+        UpstreamInterceptor interceptor = interceptor(false, 5);
+
+        String body = restTemplate(properties(), interceptor).getForObject(baseUrl + "/drones", String.class);
+
+        assertNull(acceptEncoding.get());
+        assertEquals(DRONES, body);
+        assertEquals(0L, interceptor.getMetrics().get("gzipResponses"));
+    }
+
+    // ==================== Timeout Tests ====================
+
+    @Test
+    @DisplayName("Endpoint-specific read timeout should apply only to that endpoint")
+    void testPerEndpointReadTimeout() {
+        UpstreamProperties properties = properties();
+        properties.getReadTimeouts().put("restricted-areas", Duration.ofMillis(100));
+        UpstreamInterceptor interceptor = interceptor(true, 5);
+        RestTemplate restTemplate = restTemplate(properties, interceptor);
+
+        assertEquals("[]", restTemplate.getForObject(baseUrl + "/service-points", String.class));
+        assertThrows(ResourceAccessException.class,
+                () -> restTemplate.getForObject(baseUrl + "/restricted-areas", String.class));
+
+        assertEquals(1L, interceptor.getMetrics().get("timeouts"));
+        assertEquals(1L, interceptor.getMetrics().get("failures"));
+    }
+
+    @Test
+    @DisplayName("Read timeout should be resolved from the last path segment")
+    void testReadTimeoutLookup() {
+        UpstreamProperties properties = properties();
+        properties.getReadTimeouts().put("restricted-areas", Duration.ofSeconds(3));
+
+        assertEquals(Duration.ofSeconds(3), properties.readTimeoutFor("/ilp/restricted-areas"));
+        assertEquals(Duration.ofSeconds(3), properties.readTimeoutFor("/restricted-areas/"));
+        assertEquals(Duration.ofSeconds(5), properties.readTimeoutFor("/drones"));
+    }
+
+    // ==================== Circuit Breaker Tests ====================
+
+    @Test
+    @DisplayName("Consecutive 5xx responses should open the circuit and stop calling upstream")
+    void testCircuitOpens() {
+        failing.set(true);
+        UpstreamInterceptor interceptor = interceptor(true, 3);
+        RestTemplate restTemplate = restTemplate(properties(), interceptor);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpServerErrorException.class,
+                    () -> restTemplate.getForObject(baseUrl + "/flaky", String.class));
+        }
+        ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                () -> restTemplate.getForObject(baseUrl + "/flaky", String.class));
+
+        assertInstanceOf(UpstreamInterceptor.CircuitOpenException.class, rejected.getCause());
+        assertEquals(3, failingHits.get());
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.getCircuitStates().get(baseUrl));
+        assertEquals(1L, interceptor.getMetrics().get("shortCircuited"));
+        assertEquals(1L, interceptor.getMetrics().get("circuitOpens"));
+    }
+
+    @Test
+    @DisplayName("Open circuit should let one trial through after the open duration and close on success")
+    void testCircuitRecovers() {
+        failing.set(true);
+        UpstreamInterceptor interceptor = interceptor(true, 1);
+        RestTemplate restTemplate = restTemplate(properties(), interceptor);
+        assertThrows(HttpServerErrorException.class,
+                () -> restTemplate.getForObject(baseUrl + "/flaky", String.class));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        assertThrows(ResourceAccessException.class,
+                () -> restTemplate.getForObject(baseUrl + "/flaky", String.class));
+
+        failing.set(false);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals("[]", restTemplate.getForObject(baseUrl + "/flaky", String.class));
+
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.getCircuitStates().get(baseUrl));
+        assertEquals(2, failingHits.get());
+    }
+
+    @Test
+    @DisplayName("Half-open circuit should admit a single trial and reopen when it fails")
+    void testHalfOpenSingleTrial() {
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofSeconds(10), clock::get);
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2, breaker.getOpenCount());
+    }
+
+    @Test
+    @DisplayName("Disabled circuit breaker should keep calling a failing upstream")
+    void testCircuitBreakerDisabled() {
+        failing.set(true);
+        UpstreamInterceptor interceptor = interceptor(true, 0);
+        RestTemplate restTemplate = restTemplate(properties(), interceptor);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(HttpServerErrorException.class,
+                    () -> restTemplate.getForObject(baseUrl + "/flaky", String.class));
+        }
+
+        assertEquals(10, failingHits.get());
+        assertTrue(interceptor.getCircuitStates().isEmpty());
+    }
+
+    // ==================== Latency Tests ====================
+
+    @Test
+    @DisplayName("Latency percentiles should reflect the upstream delay")
+    void testLatencyPercentiles() {
+        UpstreamInterceptor interceptor = interceptor(true, 5);
+        RestTemplate restTemplate = restTemplate(properties(), interceptor);
+
+        for (int i = 0; i < 10; i++) {
+            restTemplate.getForObject(baseUrl + "/slow", String.class);
+        }
+
+        Map<String, Object> metrics = interceptor.getMetrics();
+        double p50 = (double) metrics.get("latencyP50Millis");
+        double p99 = (double) metrics.get("latencyP99Millis");
+        assertTrue(p50 >= 20.0, "p50 was " + p50);
+        assertTrue(p99 >= p50);
+        assertTrue(p99 <= (double) metrics.get("latencyMaxMillis"));
+    }
+
+    @Test
+    @DisplayName("Histogram percentiles should be within one bucket of the exact value")
+    void testHistogramAccuracy() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMeanMillis(), 1e-9);
+        assertEquals(100.0, histogram.getMaxMillis(), 1e-9);
+        assertBetween(50.0, 50.0 * 1.25, histogram.percentileMillis(0.50));
+        assertBetween(90.0, 90.0 * 1.25, histogram.percentileMillis(0.90));
+        assertBetween(99.0, 100.0, histogram.percentileMillis(0.99));
+        assertEquals(0.0, new LatencyHistogram().percentileMillis(0.99));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private UpstreamProperties properties() {
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.setReadTimeout(Duration.ofSeconds(5));
+        return properties;
+    }
+
+    private UpstreamInterceptor interceptor(boolean gzip, int failureThreshold) {
+        return new UpstreamInterceptor(gzip, failureThreshold, Duration.ofSeconds(30), clock::get);
+    }
+
+    private RestTemplate restTemplate(UpstreamProperties properties, UpstreamInterceptor interceptor) {
+        return new AddConfig().restTemplate(properties, interceptor);
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (encoding != null && encoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertBetween(double low, double high, double actual) {
+        assertTrue(actual >= low && actual <= high, actual + " not in [" + low + ", " + high + "]");
+    }
+}
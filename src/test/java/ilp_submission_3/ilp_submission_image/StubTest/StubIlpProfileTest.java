@@ -0,0 +1,52 @@
+package ilp_submission_3.ilp_submission_image.StubTest;
+
+import ilp_submission_3.ilp_submission_image.Configuration.ILPEndpointProvider;
+import ilp_submission_3.ilp_submission_image.Stub.StubIlpServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the stub-ilp profile
+ * Validates that the server fetches its reference data from the embedded stub
+ */
+@SpringBootTest(properties = {"ilp.stub.drones=25", "ilp.stub.restricted-areas=8"})
+@AutoConfigureMockMvc
+@ActiveProfiles("stub-ilp")
+class StubIlpProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ILPEndpointProvider endpointProvider;
+
+    @Autowired
+    private StubIlpServer stubIlpServer;
+
+    @Test
+    @DisplayName("ILP endpoint should point at the embedded stub")
+    void testEndpointIsStub() {
+        assertEquals(stubIlpServer.url(), endpointProvider.getEndpoint());
+    }
+
+    @Test
+    @DisplayName("Data endpoints should serve the scaled stub data")
+    void testScaledDataServed() throws Exception {
+        mockMvc.perform(get("/api/v1/drones"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(25));
+        mockMvc.perform(get("/api/v1/restricted-areas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(8));
+        assertTrue(stubIlpServer.getRequestCount() >= 2);
+    }
+}
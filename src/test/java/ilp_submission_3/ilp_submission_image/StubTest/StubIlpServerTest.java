@@ -0,0 +1,154 @@
+package ilp_submission_3.ilp_submission_image.StubTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_3.ilp_submission_image.Stub.StubIlpData;
+import ilp_submission_3.ilp_submission_image.Stub.StubIlpServer;
+import ilp_submission_3.ilp_submission_image.dto.Drone;
+import ilp_submission_3.ilp_submission_image.dto.DroneForServicePoint;
+import ilp_submission_3.ilp_submission_image.dto.DroneServicePoint;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StubIlpServer and StubIlpData
+ * Coverage areas:
+ * - Serving the fixture resources
+ * - Synthetic scaling of drones, service points and restricted areas
+ * - Seeded reproducibility
+ * - Latency injection
+ */
+class StubIlpServerTest {
+
+    private static final String FIXTURES = "classpath:stub-ilp/";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubIlpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    // ==================== Fixture Tests ====================
+
+    @Test
+    @DisplayName("Should serve the four ILP resources from the fixtures")
+    void testServesFixtures() throws Exception {
+        server = StubIlpServer.start(fixtures(), Duration.ZERO, Duration.ZERO, 0);
+
+        assertEquals(10, get("/drones", Drone[].class).length);
+        assertEquals(2, get("/service-points", DroneServicePoint[].class).length);
+        assertEquals(4, get("/restricted-areas", RestrictedArea[].class).length);
+        DroneForServicePoint[] assignments = get("/drones-for-service-points", DroneForServicePoint[].class);
+        assertEquals(2, assignments.length);
+        assertEquals(4, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should load the dense restricted areas variant")
+    void testDenseFixture() {
+        StubIlpData data = StubIlpData.load(FIXTURES, "restricted-areas-dense.json");
+
+        assertTrue(data.restrictedAreas().size() > fixtures().restrictedAreas().size());
+    }
+
+    // ==================== Scaling Tests ====================
+
+    @Test
+    @DisplayName("Scaled data should have the requested sizes and assign every drone once")
+    void testSyntheticScaling() {
+        StubIlpData data = fixtures().scale(250, 12, 60, 7);
+
+        assertEquals(250, data.drones().size());
+        assertEquals(12, data.servicePoints().size());
+        assertEquals(60, data.restrictedAreas().size());
+        assertEquals(250, data.drones().stream().map(Drone::id).distinct().count());
+
+        Set<String> assigned = new HashSet<>();
+        for (DroneForServicePoint base : data.dronesForServicePoints()) {
+            for (DroneForServicePoint.DroneAvailability drone : base.drones()) {
+                assertTrue(assigned.add(drone.id()), "Drone " + drone.id() + " assigned twice");
+                assertFalse(drone.availability().isEmpty());
+            }
+        }
+        assertEquals(250, assigned.size());
+        assertEquals(12, data.dronesForServicePoints().size());
+    }
+
+    @Test
+    @DisplayName("Generated restricted areas should leave every service point outside")
+    void testServicePointsOutsideGeneratedAreas() {
+        StubIlpData data = fixtures().scale(0, 20, 300, 3);
+
+        for (RestrictedArea area : data.restrictedAreas().subList(4, data.restrictedAreas().size())) {
+            List<Position> vertices = area.vertices();
+            assertEquals(vertices.get(0), vertices.get(vertices.size() - 1));
+            for (DroneServicePoint point : data.servicePoints()) {
+                boolean inside = point.location().lng() >= vertices.get(0).lng()
+                        && point.location().lng() <= vertices.get(2).lng()
+                        && point.location().lat() >= vertices.get(0).lat()
+                        && point.location().lat() <= vertices.get(2).lat();
+                assertFalse(inside, point.name() + " inside " + area.name());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Same seed should produce the same data and smaller sizes should truncate")
+    void testSeededAndTruncated() {
+        StubIlpData first = fixtures().scale(100, 5, 30, 11);
+        StubIlpData second = fixtures().scale(100, 5, 30, 11);
+        StubIlpData truncated = fixtures().scale(3, 0, 0, 11);
+
+        assertEquals(first.drones(), second.drones());
+        assertEquals(first.servicePoints(), second.servicePoints());
+        assertEquals(first.restrictedAreas(), second.restrictedAreas());
+        assertEquals(3, truncated.drones().size());
+        assertEquals(2, truncated.servicePoints().size());
+    }
+
+    // ==================== Latency Tests ====================
+
+    @Test
+    @DisplayName("Should hold every response back by the injected latency")
+    void testInjectedLatency() throws Exception {
+        server = StubIlpServer.start(fixtures(), Duration.ofMillis(100), Duration.ofMillis(20), 0);
+
+        long start = System.nanoTime();
+        get("/service-points", DroneServicePoint[].class);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis >= 100, "Response after " + elapsedMillis + "ms");
+    }
+
+    // ==================== Helper Methods ====================
+
+    private static StubIlpData fixtures() {
+        return StubIlpData.load(FIXTURES, "restricted-areas.json");
+    }
+
+    private <T> T get(String path, Class<T> type) throws Exception {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(server.url() + path)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        return objectMapper.readValue(response.body(), type);
+    }
+}
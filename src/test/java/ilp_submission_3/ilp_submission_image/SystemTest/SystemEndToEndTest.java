@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.http.*;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
@@ -27,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * - Endpoint: /ws/pathfinding-progress (with SockJS fallback)
  * - Protocol: Native WebSocket (TextWebSocketHandler)
  * - Message Format: JSON-serialized PathfindingProgress objects
+ * - ILP data: embedded stub service (stub-ilp profile), no network needed
  *
  * Critical scenarios:
  * 1. Normal order → Path calculation + Real-time progress updates
@@ -41,6 +43,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * - Error handling behavior
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("stub-ilp")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class SystemEndToEndTest {
 
@@ -2,6 +2,7 @@ package ilp_submission_3.ilp_submission_image.WebSocketTest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ilp_submission_3.ilp_submission_image.Configuration.WebSocketConfig;
+import ilp_submission_3.ilp_submission_image.WebSocket.NodeFrameCodec;
 import ilp_submission_3.ilp_submission_image.WebSocket.PathfindingProgressHandler;
 import ilp_submission_3.ilp_submission_image.dto.PathfindingProgress;
 import ilp_submission_3.ilp_submission_image.dto.Position;
@@ -15,14 +16,18 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 import org.springframework.web.socket.sockjs.client.SockJsClient;
 import org.springframework.web.socket.sockjs.client.Transport;
 import org.springframework.web.socket.sockjs.client.WebSocketTransport;
 
+import java.net.URI;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.Stream;
@@ -38,6 +43,8 @@ import static org.junit.jupiter.api.Assertions.*;
  * - Actual message broadcasting between server and clients
  * - Multi-client scenarios with real connections
  * - End-to-end event sequence validation
+ * - Binary node frames over the plain WebSocket endpoint
+ * - Per-job subscriptions and routing
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class PathfindingProgressHandlerTest {
@@ -509,6 +516,115 @@ class PathfindingProgressHandlerTest {
         Thread.sleep(200);
     }
 
+    // ==================== Binary Sub-Protocol Tests ====================
+
+    @Test
+    @DisplayName("Plain WebSocket clients negotiating the binary sub-protocol should get node frames")
+    void testBinaryNodeFrames() throws Exception {
+        CountDownLatch welcomeLatch = new CountDownLatch(1);
+        CountDownLatch messageLatch = new CountDownLatch(2); // welcome + path_found
+        List<double[]> nodes = new CopyOnWriteArrayList<>();
+        List<String> texts = new CopyOnWriteArrayList<>();
+
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setSecWebSocketProtocol(NodeFrameCodec.SUB_PROTOCOL);
+        WebSocketSession session = new StandardWebSocketClient().execute(new AbstractWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                texts.add(message.getPayload());
+                welcomeLatch.countDown();
+                messageLatch.countDown();
+            }
+
+            @Override
+            protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+                nodes.addAll(Arrays.asList(NodeFrameCodec.decode(message.getPayload())));
+            }
+        }, headers, URI.create(wsUrl)).get(5, TimeUnit.SECONDS);
+
+        // Unlike SockJS, a plain client may see the handshake complete before the server registers the session
+        assertTrue(welcomeLatch.await(3, TimeUnit.SECONDS));
+        assertEquals(NodeFrameCodec.SUB_PROTOCOL, session.getAcceptedProtocol());
+
+        for (int i = 1; i <= 50; i++) {
+            handler.publishNodeExplored(null, -3.186 + i * 0.00015, 55.944, i * 10);
+        }
+        handler.broadcastProgress(PathfindingProgress.pathFound(1, 500, 50));
+
+        assertTrue(messageLatch.await(3, TimeUnit.SECONDS));
+        assertEquals(50, nodes.size());
+        assertEquals(-3.186 + 50 * 0.00015, nodes.get(49)[0], 1e-7);
+        assertEquals(500, (int) nodes.get(49)[2]);
+        assertTrue(texts.get(texts.size() - 1).contains("path_found"));
+
+        session.close();
+        Thread.sleep(200);
+    }
+
+    // ==================== Job Subscription Tests ====================
+
+    @Test
+    @DisplayName("Sessions should only receive events of the jobs they subscribed to")
+    void testJobSubscriptions() throws Exception {
+        CountDownLatch connectLatch = new CountDownLatch(3);
+        CountDownLatch latchA = new CountDownLatch(2); // welcome + job-a event
+        CountDownLatch latchB = new CountDownLatch(2); // welcome + job-b event
+        CountDownLatch latchUntagged = new CountDownLatch(2); // welcome + untagged event
+        MessageCapturingHandler clientA = new MessageCapturingHandler(connectLatch, latchA);
+        MessageCapturingHandler clientB = new MessageCapturingHandler(connectLatch, latchB);
+        MessageCapturingHandler clientUntagged = new MessageCapturingHandler(connectLatch, latchUntagged);
+
+        WebSocketSession sessionA = sockJsClient.execute(clientA, wsUrl).get(5, TimeUnit.SECONDS);
+        WebSocketSession sessionB = sockJsClient.execute(clientB, wsUrl).get(5, TimeUnit.SECONDS);
+        WebSocketSession sessionUntagged = sockJsClient.execute(clientUntagged, wsUrl).get(5, TimeUnit.SECONDS);
+        assertTrue(connectLatch.await(3, TimeUnit.SECONDS));
+
+        sessionA.sendMessage(new TextMessage("{\"action\":\"subscribe\",\"jobId\":\"job-a\"}"));
+        sessionB.sendMessage(new TextMessage("{\"action\":\"subscribe\",\"jobId\":\"job-b\"}"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!(handler.hasSubscribers("job-a") && handler.hasSubscribers("job-b"))
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(handler.hasSubscribers("job-a"));
+        assertFalse(handler.hasSubscribers("job-c"));
+
+        List<String> built = new CopyOnWriteArrayList<>();
+        handler.publish("job-a", "batch_started", () -> {
+            built.add("job-a");
+            return PathfindingProgress.batchStarted(1, "drone-a", 1);
+        });
+        handler.publish("job-b", "batch_started", () -> PathfindingProgress.batchStarted(1, "drone-b", 1));
+        handler.publish("job-c", "batch_started", () -> {
+            built.add("job-c");
+            return PathfindingProgress.batchStarted(1, "drone-c", 1);
+        });
+        handler.broadcastProgress(PathfindingProgress.pathFound(1, 10, 5));
+
+        assertTrue(latchA.await(3, TimeUnit.SECONDS));
+        assertTrue(latchB.await(3, TimeUnit.SECONDS));
+        assertTrue(latchUntagged.await(3, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        String receivedA = String.join("\n", clientA.getReceivedMessages());
+        String receivedB = String.join("\n", clientB.getReceivedMessages());
+        String receivedUntagged = String.join("\n", clientUntagged.getReceivedMessages());
+        assertTrue(receivedA.contains("drone-a"));
+        assertFalse(receivedA.contains("drone-b") || receivedA.contains("path_found"));
+        assertTrue(receivedB.contains("drone-b"));
+        assertFalse(receivedB.contains("drone-a") || receivedB.contains("path_found"));
+        assertTrue(receivedUntagged.contains("path_found"));
+        assertFalse(receivedUntagged.contains("batch_started"));
+        assertEquals(List.of("job-a"), built);
+
+        sessionA.close();
+        sessionB.close();
+        sessionUntagged.close();
+        Thread.sleep(200);
+        assertFalse(handler.hasSubscribers("job-a"));
+        assertFalse(handler.hasSubscribers("job-b"));
+    }
+
     // ==================== Parameterized Event Tests ====================
 
     @ParameterizedTest
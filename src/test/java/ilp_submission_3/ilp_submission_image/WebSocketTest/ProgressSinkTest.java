@@ -0,0 +1,121 @@
+package ilp_submission_3.ilp_submission_image.WebSocketTest;
+
+import ilp_submission_3.ilp_submission_image.WebSocket.BroadcastProgressSink;
+import ilp_submission_3.ilp_submission_image.WebSocket.PathfindingProgressHandler;
+import ilp_submission_3.ilp_submission_image.WebSocket.ProgressSink;
+import ilp_submission_3.ilp_submission_image.WebSocket.SamplingProgressSink;
+import ilp_submission_3.ilp_submission_image.dto.PathfindingProgress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the planner progress sinks
+ * Coverage areas:
+ * - Lazy event construction
+ * - Node sampling by count and by time
+ * - Non-node events bypass sampling
+ */
+class ProgressSinkTest {
+
+    @Mock
+    private PathfindingProgressHandler handler;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    // ==================== Broadcast Sink Tests ====================
+
+    @Test
+    @DisplayName("Broadcast sink should hand over events without building them")
+    void testEventsBuiltLazily() {
+        AtomicInteger built = new AtomicInteger();
+        ProgressSink sink = new BroadcastProgressSink(handler, "job-1");
+
+        sink.error(() -> "failed after " + built.incrementAndGet() + " attempts");
+
+        ArgumentCaptor<Supplier<PathfindingProgress>> event = eventCaptor();
+        verify(handler).publish(eq("job-1"), eq("error"), event.capture());
+        assertEquals(0, built.get());
+        assertEquals("Error: failed after 1 attempts", event.getValue().get().message());
+    }
+
+    @Test
+    @DisplayName("No-op sink should never touch the handler")
+    void testNoneSink() {
+        ProgressSink.NONE.nodeExplored(-3.19, 55.94, 10);
+        ProgressSink.NONE.batchStarted("1", 2);
+        ProgressSink.NONE.error(() -> fail("Message should not be built"));
+
+        verifyNoInteractions(handler);
+    }
+
+    // ==================== Sampling Sink Tests ====================
+
+    @Test
+    @DisplayName("Sampling sink should publish every Nth explored node")
+    void testSampleByCount() {
+        ProgressSink sink = new SamplingProgressSink(handler, "job-1", 10, 0, clock::get);
+
+        for (int n = 1; n <= 95; n++) {
+            sink.nodeExplored(-3.19, 55.94, n);
+        }
+
+        ArgumentCaptor<Integer> nodes = ArgumentCaptor.forClass(Integer.class);
+        verify(handler, times(9)).publishNodeExplored(eq("job-1"), anyDouble(), anyDouble(), nodes.capture());
+        assertEquals(List.of(10, 20, 30, 40, 50, 60, 70, 80, 90), nodes.getAllValues());
+    }
+
+    @Test
+    @DisplayName("Sampling sink should publish at most one node per interval")
+    void testSampleByTime() {
+        ProgressSink sink = new SamplingProgressSink(handler, "job-1", 1, TimeUnit.MILLISECONDS.toNanos(50), clock::get);
+
+        for (int n = 1; n <= 100; n++) {
+            sink.nodeExplored(-3.19, 55.94, n);
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        verify(handler, times(20)).publishNodeExplored(eq("job-1"), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Sampling sink should pass every non-node event through")
+    void testNonNodeEventsNotSampled() {
+        ProgressSink sink = new SamplingProgressSink(handler, "job-1", 1000, TimeUnit.SECONDS.toNanos(1), clock::get);
+
+        sink.batchStarted("1", 2);
+        sink.pathFound(3, 40);
+        sink.noPathFound(7);
+        sink.batchCompleted("1", 12.5, 80);
+
+        verify(handler, times(4)).publish(eq("job-1"), anyString(), any());
+        verify(handler, never()).publishNodeExplored(any(), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Supplier<PathfindingProgress>> eventCaptor() {
+        return ArgumentCaptor.forClass(Supplier.class);
+    }
+}
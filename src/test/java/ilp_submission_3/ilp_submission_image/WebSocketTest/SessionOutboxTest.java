@@ -0,0 +1,387 @@
+package ilp_submission_3.ilp_submission_image.WebSocketTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_3.ilp_submission_image.Configuration.ProgressOverflowPolicy;
+import ilp_submission_3.ilp_submission_image.WebSocket.NodeFrameCodec;
+import ilp_submission_3.ilp_submission_image.WebSocket.SessionOutbox;
+import ilp_submission_3.ilp_submission_image.dto.PathfindingProgress;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SessionOutbox
+ * Uses a manual sender executor so a stalled client can be simulated deterministically
+ *
+ * Coverage areas:
+ * - Ordered delivery through the sender
+ * - Sender turns and stalled sessions
+ * - COALESCE and DROP_OLDEST overflow policies
+ * - Non-node events are never dropped
+ * - Send failure handling
+ * - Lag and counter metrics
+ * - Shared serialization across sessions
+ * - Binary node frame encoding and batching
+ */
+class SessionOutboxTest {
+
+    @Mock
+    private WebSocketSession session;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Runnable> senderTasks = new ArrayList<>();
+    private final Executor manualSender = senderTasks::add;
+    private final AtomicLong clock = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getId()).thenReturn("s1");
+    }
+
+    // ==================== Delivery Tests ====================
+
+    @Test
+    @DisplayName("Offers should not send until the sender runs, then send in order")
+    void testDeliveryIsAsynchronousAndOrdered() throws Exception {
+        SessionOutbox outbox = outbox(session, 8, ProgressOverflowPolicy.COALESCE);
+
+        outbox.offer(message(PathfindingProgress.batchStarted(1, "1", 2)));
+        outbox.offer(message(node(1)));
+        outbox.offer(message(PathfindingProgress.pathFound(1, 1, 5)));
+
+        verify(session, never()).sendMessage(any());
+        assertEquals(1, senderTasks.size(), "Only one drain task should be scheduled per session");
+
+        runSender();
+
+        assertEquals(List.of("batch_started", "node_explored", "path_found"), sentTypes(session));
+        assertEquals(3L, outbox.getMetrics().get("sent"));
+    }
+
+    @Test
+    @DisplayName("A drain should hand its sender back after a turn and resume behind other sessions")
+    void testDrainYieldsSender() throws Exception {
+        WebSocketSession other = mock(WebSocketSession.class);
+        when(other.isOpen()).thenReturn(true);
+        SessionOutbox busy = outbox(session, 64, ProgressOverflowPolicy.COALESCE);
+        SessionOutbox quiet = outbox(other, 64, ProgressOverflowPolicy.COALESCE);
+
+        int events = SessionOutbox.MAX_SENDS_PER_TURN * 2 + 1;
+        for (int i = 1; i <= events; i++) {
+            busy.offer(message(node(i)));
+        }
+        quiet.offer(message(PathfindingProgress.pathFound(1, 1, 5)));
+
+        senderTasks.remove(0).run();
+
+        verify(session, times(SessionOutbox.MAX_SENDS_PER_TURN)).sendMessage(any());
+        assertEquals(2, senderTasks.size(), "The busy session should queue behind the other one");
+
+        senderTasks.remove(0).run();
+        verify(other, times(1)).sendMessage(any());
+
+        runSender();
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 1; i <= events; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, sentNodeCounts(session));
+    }
+
+    @Test
+    @DisplayName("A session whose non-node backlog passes the limit should be dropped and closed")
+    void testStalledSessionClosed() throws Exception {
+        List<SessionOutbox> failures = new ArrayList<>();
+        SessionOutbox outbox = new SessionOutbox(session, 8, 3, ProgressOverflowPolicy.COALESCE,
+                manualSender, clock::get, failures::add, false);
+
+        for (int i = 0; i < 3; i++) {
+            outbox.offer(message(PathfindingProgress.pathFound(1, 1, 5)));
+        }
+        outbox.offer(message(node(1)));
+        assertTrue(failures.isEmpty(), "Node events should not count toward the limit");
+
+        outbox.offer(message(PathfindingProgress.error("failed")));
+
+        assertEquals(List.of(outbox), failures);
+        assertEquals(0, outbox.getMetrics().get("queued"));
+        assertEquals(5L, outbox.getMetrics().get("dropped"));
+
+        runSender();
+        outbox.offer(message(PathfindingProgress.pathFound(1, 1, 5)));
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(session, never()).sendMessage(any());
+        assertEquals(List.of(outbox), failures);
+    }
+
+    // ==================== Overflow Policy Tests ====================
+
+    @Test
+    @DisplayName("COALESCE should keep only the newest node_explored of a full queue")
+    void testCoalescePolicy() throws Exception {
+        SessionOutbox outbox = outbox(session, 3, ProgressOverflowPolicy.COALESCE);
+
+        for (int i = 1; i <= 4; i++) {
+            outbox.offer(message(node(i)));
+        }
+
+        assertEquals(1, outbox.getMetrics().get("queued"));
+        assertEquals(3L, outbox.getMetrics().get("dropped"));
+
+        runSender();
+
+        assertEquals(List.of(4), sentNodeCounts(session));
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST should discard one node_explored per overflowing offer")
+    void testDropOldestPolicy() throws Exception {
+        SessionOutbox outbox = outbox(session, 3, ProgressOverflowPolicy.DROP_OLDEST);
+
+        for (int i = 1; i <= 5; i++) {
+            outbox.offer(message(node(i)));
+        }
+
+        assertEquals(2L, outbox.getMetrics().get("dropped"));
+
+        runSender();
+
+        assertEquals(List.of(3, 4, 5), sentNodeCounts(session));
+    }
+
+    @Test
+    @DisplayName("Non-node events should always be delivered, even when the queue overflows")
+    void testTerminalEventsNeverDropped() throws Exception {
+        SessionOutbox outbox = outbox(session, 1, ProgressOverflowPolicy.DROP_OLDEST);
+
+        outbox.offer(message(node(1)));
+        outbox.offer(message(PathfindingProgress.pathFound(1, 1, 5)));
+        outbox.offer(message(node(2)));
+        outbox.offer(message(PathfindingProgress.error("failed")));
+        outbox.offer(message(node(3)));
+        outbox.offer(message(PathfindingProgress.batchCompleted(1, "1", 10.0, 5)));
+
+        runSender();
+
+        assertEquals(List.of("path_found", "error", "node_explored", "batch_completed"), sentTypes(session));
+        assertEquals(2L, outbox.getMetrics().get("dropped"));
+    }
+
+    // ==================== Failure Tests ====================
+
+    @Test
+    @DisplayName("A send failure should count, notify the owner and close the outbox")
+    void testSendFailure() throws Exception {
+        doThrow(new IOException("broken pipe")).when(session).sendMessage(any());
+        List<SessionOutbox> failures = new ArrayList<>();
+        SessionOutbox outbox = new SessionOutbox(session, 8, ProgressOverflowPolicy.COALESCE,
+                manualSender, clock::get, failures::add);
+
+        outbox.offer(message(node(1)));
+        outbox.offer(message(node(2)));
+        runSender();
+        outbox.offer(message(node(3)));
+
+        assertEquals(List.of(outbox), failures);
+        assertEquals(1L, outbox.getMetrics().get("failed"));
+        assertEquals(0, outbox.getMetrics().get("queued"));
+        assertTrue(senderTasks.isEmpty(), "Closed outbox should not schedule more sends");
+        verify(session, times(1)).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("Closed sessions should be skipped without counting a send")
+    void testClosedSessionSkipped() throws Exception {
+        when(session.isOpen()).thenReturn(false);
+        SessionOutbox outbox = outbox(session, 8, ProgressOverflowPolicy.COALESCE);
+
+        outbox.offer(message(node(1)));
+        runSender();
+
+        verify(session, never()).sendMessage(any());
+        assertEquals(0L, outbox.getMetrics().get("sent"));
+    }
+
+    // ==================== Metrics Tests ====================
+
+    @Test
+    @DisplayName("Lag should track the age of the oldest queued event")
+    void testLagMetrics() {
+        SessionOutbox outbox = outbox(session, 8, ProgressOverflowPolicy.COALESCE);
+
+        outbox.offer(message(node(1)));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(7));
+
+        Map<String, Object> metrics = outbox.getMetrics();
+        assertEquals("s1", metrics.get("sessionId"));
+        assertEquals(7L, metrics.get("lagMillis"));
+        assertEquals(0L, metrics.get("maxLagMillis"));
+
+        runSender();
+
+        metrics = outbox.getMetrics();
+        assertEquals(0L, metrics.get("lagMillis"));
+        assertEquals(7L, metrics.get("maxLagMillis"));
+    }
+
+    @Test
+    @DisplayName("One broadcast message should be serialized once for all sessions")
+    void testSharedSerialization() throws Exception {
+        WebSocketSession other = mock(WebSocketSession.class);
+        when(other.isOpen()).thenReturn(true);
+        SessionOutbox first = outbox(session, 8, ProgressOverflowPolicy.COALESCE);
+        SessionOutbox second = outbox(other, 8, ProgressOverflowPolicy.COALESCE);
+
+        SessionOutbox.Message shared = message(node(1));
+        first.offer(shared);
+        second.offer(shared);
+        runSender();
+
+        ArgumentCaptor<TextMessage> firstSent = ArgumentCaptor.forClass(TextMessage.class);
+        ArgumentCaptor<TextMessage> secondSent = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session).sendMessage(firstSent.capture());
+        verify(other).sendMessage(secondSent.capture());
+        assertSame(firstSent.getValue(), secondSent.getValue());
+    }
+
+    // ==================== Binary Frame Tests ====================
+
+    @Test
+    @DisplayName("Node frames should round-trip within fixed-point precision")
+    void testNodeFrameRoundTrip() {
+        int count = 200;
+        double[] lng = new double[count];
+        double[] lat = new double[count];
+        int[] nodes = new int[count];
+        for (int i = 0; i < count; i++) {
+            double angle = Math.toRadians(22.5 * (i % 16));
+            lng[i] = -3.1869 + 0.00015 * i * Math.cos(angle);
+            lat[i] = 55.9445 + 0.00015 * i * Math.sin(angle);
+            nodes[i] = 10 * (i + 1);
+        }
+
+        ByteBuffer frame = NodeFrameCodec.encode(lng, lat, nodes, count);
+        double[][] decoded = NodeFrameCodec.decode(frame);
+
+        assertEquals(count, decoded.length);
+        for (int i = 0; i < count; i++) {
+            assertEquals(lng[i], decoded[i][0], 0.5 / NodeFrameCodec.SCALE);
+            assertEquals(lat[i], decoded[i][1], 0.5 / NodeFrameCodec.SCALE);
+            assertEquals(nodes[i], (int) decoded[i][2]);
+        }
+    }
+
+    @Test
+    @DisplayName("A node one move from the previous one should cost at most six bytes")
+    void testNodeFrameCompactness() {
+        int count = 100;
+        double[] lng = new double[count];
+        double[] lat = new double[count];
+        int[] nodes = new int[count];
+        for (int i = 0; i < count; i++) {
+            lng[i] = -3.1869 + 0.00015 * i;
+            lat[i] = 55.9445;
+            nodes[i] = i + 1;
+        }
+
+        ByteBuffer frame = NodeFrameCodec.encode(lng, lat, nodes, count);
+
+        assertTrue(frame.remaining() <= 4 + 16 + 6 * (count - 1), "Frame was " + frame.remaining() + " bytes");
+    }
+
+    @Test
+    @DisplayName("Binary sessions should batch consecutive nodes and keep other events as JSON in order")
+    void testBinaryOutboxBatchesNodeRuns() throws Exception {
+        SessionOutbox outbox = new SessionOutbox(session, 8, SessionOutbox.DEFAULT_MAX_PENDING_EVENTS,
+                ProgressOverflowPolicy.COALESCE, manualSender, clock::get, failed -> { }, true);
+
+        outbox.offer(SessionOutbox.Message.nodeExplored(-3.1869, 55.9445, 10, objectMapper));
+        outbox.offer(SessionOutbox.Message.nodeExplored(-3.18675, 55.9445, 20, objectMapper));
+        outbox.offer(message(PathfindingProgress.pathFound(1, 20, 5)));
+        outbox.offer(message(node(30)));
+        runSender();
+
+        ArgumentCaptor<WebSocketMessage<?>> frames = ArgumentCaptor.captor();
+        verify(session, times(3)).sendMessage(frames.capture());
+        List<WebSocketMessage<?>> sent = frames.getAllValues();
+
+        double[][] firstRun = NodeFrameCodec.decode(((BinaryMessage) sent.get(0)).getPayload());
+        assertEquals(2, firstRun.length);
+        assertEquals(-3.18675, firstRun[1][0], 1e-7);
+        assertEquals(20, (int) firstRun[1][2]);
+        assertEquals("path_found",
+                objectMapper.readTree(((TextMessage) sent.get(1)).getPayload()).get("type").asText());
+        double[][] secondRun = NodeFrameCodec.decode(((BinaryMessage) sent.get(2)).getPayload());
+        assertEquals(30, (int) secondRun[0][2]);
+        assertEquals(4L, outbox.getMetrics().get("sent"));
+        assertEquals("binary", outbox.getMetrics().get("encoding"));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private SessionOutbox outbox(WebSocketSession target, int capacity, ProgressOverflowPolicy policy) {
+        return new SessionOutbox(target, capacity, policy, manualSender, clock::get, failed -> { });
+    }
+
+    private SessionOutbox.Message message(PathfindingProgress progress) {
+        return new SessionOutbox.Message(progress, objectMapper);
+    }
+
+    private static PathfindingProgress node(int totalNodes) {
+        return PathfindingProgress.nodeExplored(new Position(-3.1869, 55.9445), totalNodes);
+    }
+
+    private void runSender() {
+        while (!senderTasks.isEmpty()) {
+            senderTasks.remove(0).run();
+        }
+    }
+
+    private List<String> sentTypes(WebSocketSession target) throws Exception {
+        List<String> types = new ArrayList<>();
+        for (TextMessage sent : captureSent(target)) {
+            types.add(objectMapper.readTree(sent.getPayload()).get("type").asText());
+        }
+        return types;
+    }
+
+    private List<Integer> sentNodeCounts(WebSocketSession target) throws Exception {
+        List<Integer> counts = new ArrayList<>();
+        for (TextMessage sent : captureSent(target)) {
+            counts.add(objectMapper.readTree(sent.getPayload()).get("totalNodes").asInt());
+        }
+        return counts;
+    }
+
+    private List<TextMessage> captureSent(WebSocketSession target) throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(target, atLeast(0)).sendMessage(captor.capture());
+        return captor.getAllValues();
+    }
+}
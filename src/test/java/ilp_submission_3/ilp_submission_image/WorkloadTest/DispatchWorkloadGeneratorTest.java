@@ -0,0 +1,213 @@
+package ilp_submission_3.ilp_submission_image.WorkloadTest;
+
+import ilp_submission_3.ilp_submission_image.Service.FastILPServiceImpl;
+import ilp_submission_3.ilp_submission_image.Stub.StubIlpData;
+import ilp_submission_3.ilp_submission_image.Workload.DispatchWorkloadGenerator;
+import ilp_submission_3.ilp_submission_image.Workload.WorkloadWriter;
+import ilp_submission_3.ilp_submission_image.dto.MedDispatchRec;
+import ilp_submission_3.ilp_submission_image.dto.Position;
+import ilp_submission_3.ilp_submission_image.dto.RestrictedArea;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DispatchWorkloadGenerator and WorkloadWriter
+ * Coverage areas:
+ * - Seeded reproducibility
+ * - Dates, time windows and ordering
+ * - Delivery locations and restricted areas
+ * - Requirement mix
+ * - JSON and NDJSON round trips
+ */
+class DispatchWorkloadGeneratorTest {
+
+    private StubIlpData data;
+    private DispatchWorkloadGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        data = StubIlpData.load("classpath:stub-ilp/", "restricted-areas.json");
+        generator = new DispatchWorkloadGenerator(data.servicePoints(), data.restrictedAreas(), data.drones());
+    }
+
+    // ==================== Reproducibility Tests ====================
+
+    @Test
+    @DisplayName("The same spec should generate the same workload")
+    void testSameSeedSameWorkload() {
+        assertEquals(generator.generate(DispatchWorkloadGenerator.Spec.of(500, 7)),
+                generator.generate(DispatchWorkloadGenerator.Spec.of(500, 7)));
+    }
+
+    @Test
+    @DisplayName("Different seeds should generate different workloads")
+    void testDifferentSeeds() {
+        assertNotEquals(generator.generate(DispatchWorkloadGenerator.Spec.of(100, 1)),
+                generator.generate(DispatchWorkloadGenerator.Spec.of(100, 2)));
+    }
+
+    @Test
+    @DisplayName("Invalid specs should be rejected")
+    void testInvalidSpec() {
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(
+                new DispatchWorkloadGenerator.Spec(10, LocalDate.of(2025, 1, 20), 0, 3, 0.1, 1)));
+    }
+
+    // ==================== Schedule Tests ====================
+
+    @Test
+    @DisplayName("Should generate the requested orders with sequential ids, sorted by date and time")
+    void testCountsAndOrdering() {
+        List<MedDispatchRec> dispatches = generator.generate(DispatchWorkloadGenerator.Spec.of(3000, 42));
+
+        assertEquals(3000, dispatches.size());
+        for (int i = 0; i < dispatches.size(); i++) {
+            assertEquals(i + 1, dispatches.get(i).id());
+            if (i > 0) {
+                String previous = dispatches.get(i - 1).date() + dispatches.get(i - 1).time();
+                assertTrue(previous.compareTo(dispatches.get(i).date() + dispatches.get(i).time()) <= 0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Orders should fall in quarter-hour slots of the working day, busier on weekdays")
+    void testDatesAndTimeWindows() {
+        LocalDate start = LocalDate.of(2025, 1, 20);
+        List<MedDispatchRec> dispatches = generator.generate(
+                new DispatchWorkloadGenerator.Spec(2000, start, 7, 6, 0.1, 3));
+
+        int weekend = 0;
+        Set<LocalDate> dates = new HashSet<>();
+        for (MedDispatchRec dispatch : dispatches) {
+            LocalDate date = LocalDate.parse(dispatch.date());
+            LocalTime time = LocalTime.parse(dispatch.time());
+            assertFalse(date.isBefore(start) || date.isAfter(start.plusDays(6)));
+            assertFalse(time.isBefore(LocalTime.of(8, 0)) || time.isAfter(LocalTime.of(17, 45)));
+            assertEquals(0, time.getMinute() % 15);
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                weekend++;
+            }
+            dates.add(date);
+        }
+        assertEquals(7, dates.size());
+        // Two weekend days at weight 1 against five weekdays at weight 3: about 12%
+        assertTrue(weekend > 100 && weekend < 400, "weekend orders: " + weekend);
+    }
+
+    // ==================== Location Tests ====================
+
+    @Test
+    @DisplayName("No delivery should fall inside a restricted area")
+    void testNoDeliveryInRestrictedArea() {
+        FastILPServiceImpl geometry = new FastILPServiceImpl();
+        List<MedDispatchRec> dispatches = generator.generate(
+                new DispatchWorkloadGenerator.Spec(2000, LocalDate.of(2025, 1, 20), 5, 8, 0.5, 11));
+
+        for (MedDispatchRec dispatch : dispatches) {
+            for (RestrictedArea area : data.restrictedAreas()) {
+                assertFalse(geometry.isInRegion(dispatch.delivery(), area.vertices()),
+                        "dispatch " + dispatch.id() + " is inside " + area.name());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("About the edge fraction of deliveries should lie next to a restricted area")
+    void testEdgeFraction() {
+        List<MedDispatchRec> dispatches = generator.generate(
+                new DispatchWorkloadGenerator.Spec(2000, LocalDate.of(2025, 1, 20), 5, 6, 0.25, 5));
+
+        long nearEdge = dispatches.stream().filter(d -> nearRestrictedEdge(d.delivery(), 0.0004)).count();
+
+        // Cluster deliveries may also land near an edge, so only a lower bound is exact
+        assertTrue(nearEdge >= 400, "deliveries near an edge: " + nearEdge);
+        assertTrue(nearEdge < 1000, "deliveries near an edge: " + nearEdge);
+    }
+
+    // ==================== Requirement Tests ====================
+
+    @Test
+    @DisplayName("Requirements should mix cooling, heating and cost caps within the fleet's capacity")
+    void testRequirementMix() {
+        double maxCapacity = data.drones().stream().mapToDouble(d -> d.capability().capacity()).max().orElseThrow();
+        List<MedDispatchRec> dispatches = generator.generate(DispatchWorkloadGenerator.Spec.of(3000, 9));
+
+        int cooling = 0;
+        int heating = 0;
+        int capped = 0;
+        for (MedDispatchRec dispatch : dispatches) {
+            MedDispatchRec.Requirements requirements = dispatch.requirements();
+            assertTrue(requirements.capacity() > 0 && requirements.capacity() <= maxCapacity);
+            assertFalse(requirements.cooling() && requirements.heating());
+            cooling += requirements.cooling() ? 1 : 0;
+            heating += requirements.heating() ? 1 : 0;
+            capped += requirements.maxCost() != null ? 1 : 0;
+        }
+        assertTrue(cooling > 450 && cooling < 750, "cooling: " + cooling);
+        assertTrue(heating > 300 && heating < 600, "heating: " + heating);
+        assertTrue(capped > 750 && capped < 1050, "capped: " + capped);
+    }
+
+    // ==================== Export Tests ====================
+
+    @Test
+    @DisplayName("JSON export should read back unchanged")
+    void testJsonRoundTrip() throws Exception {
+        List<MedDispatchRec> dispatches = generator.generate(DispatchWorkloadGenerator.Spec.of(200, 4));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        WorkloadWriter.writeJson(dispatches, out);
+
+        assertEquals('[', out.toString(StandardCharsets.UTF_8).charAt(0));
+        assertEquals(dispatches, WorkloadWriter.readJson(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    @DisplayName("NDJSON export should write one dispatch per line and read back unchanged")
+    void testNdjsonRoundTrip() throws Exception {
+        List<MedDispatchRec> dispatches = generator.generate(DispatchWorkloadGenerator.Spec.of(200, 4));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        WorkloadWriter.writeNdjson(dispatches, out);
+
+        assertEquals(200, out.toString(StandardCharsets.UTF_8).lines().count());
+        assertEquals(dispatches, WorkloadWriter.readNdjson(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private boolean nearRestrictedEdge(Position point, double tolerance) {
+        for (RestrictedArea area : data.restrictedAreas()) {
+            List<Position> vertices = area.vertices();
+            for (int i = 0; i + 1 < vertices.size(); i++) {
+                if (segmentDistance(point, vertices.get(i), vertices.get(i + 1)) <= tolerance) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static double segmentDistance(Position p, Position a, Position b) {
+        double dx = b.lng() - a.lng();
+        double dy = b.lat() - a.lat();
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0
+                : Math.max(0, Math.min(1, ((p.lng() - a.lng()) * dx + (p.lat() - a.lat()) * dy) / lengthSquared));
+        return Math.hypot(p.lng() - (a.lng() + t * dx), p.lat() - (a.lat() + t * dy));
+    }
+}